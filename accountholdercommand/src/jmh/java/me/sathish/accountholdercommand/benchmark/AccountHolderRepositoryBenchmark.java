@@ -0,0 +1,123 @@
+package me.sathish.accountholdercommand.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import me.sathish.accountholdercommand.AccountHolderCommandApplication;
+import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.query.AccountHolderView;
+import me.sathish.accountholdercommand.repositories.AccountHolderRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Repository reads against the embedded H2 database the application falls back to without a
+ * datasource url. {@code findById} is served by the second-level cache after the first load.
+ *
+ * <p>The {@code list*} pair compares what a list request allocates as managed entities in a
+ * read-write transaction, where Hibernate keeps a snapshot of every row for dirty checking, with
+ * {@link AccountHolderView} records selected in a read-only one; see {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountHolderRepositoryBenchmark {
+
+    private static final int ROWS = 1_000;
+    private static final int PAGE_SIZE = 20;
+    private static final LocalDate FIRST_DOB = LocalDate.of(1950, 1, 1);
+
+    private ConfigurableApplicationContext context;
+    private AccountHolderRepository accountHolderRepository;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+    private long[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context =
+                new SpringApplicationBuilder(AccountHolderCommandApplication.class)
+                        .web(WebApplicationType.NONE)
+                        .properties(
+                                "spring.jpa.show-sql=false",
+                                "application.outbox.relay-enabled=false",
+                                "application.ssn.hash-key=benchmark-ssn-hash-key",
+                                "logging.level.root=WARN")
+                        .run();
+        accountHolderRepository = context.getBean(AccountHolderRepository.class);
+        PlatformTransactionManager transactionManager =
+                context.getBean(PlatformTransactionManager.class);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        List<AccountHolder> saved =
+                accountHolderRepository.saveAll(
+                        IntStream.range(0, ROWS)
+                                .mapToObj(
+                                        i ->
+                                                new AccountHolder(
+                                                        null,
+                                                        "First " + i,
+                                                        "Last " + i,
+                                                        "INDIVIDUAL",
+                                                        String.format("%09d", i),
+                                                        // dob carries a unique constraint
+                                                        FIRST_DOB.plusDays(i).toString()))
+                                .toList());
+        ids = saved.stream().mapToLong(AccountHolder::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<AccountHolder> findById() {
+        return accountHolderRepository.findById(ids[next++ % ids.length]);
+    }
+
+    @Benchmark
+    public Page<AccountHolder> findAllPageable() {
+        int pageNo = next++ % (ROWS / PAGE_SIZE);
+        return accountHolderRepository.findAll(PageRequest.of(pageNo, PAGE_SIZE, Sort.by("id")));
+    }
+
+    @Benchmark
+    public Page<AccountHolder> listEntitiesReadWrite() {
+        PageRequest pageRequest = PageRequest.of(next++ % (ROWS / PAGE_SIZE), PAGE_SIZE);
+        return readWriteTransaction.execute(
+                status -> accountHolderRepository.findAll(pageRequest.withSort(Sort.by("id"))));
+    }
+
+    @Benchmark
+    public Page<AccountHolderView> listViewsReadOnly() {
+        PageRequest pageRequest = PageRequest.of(next++ % (ROWS / PAGE_SIZE), PAGE_SIZE);
+        return readOnlyTransaction.execute(
+                status -> accountHolderRepository.findViewPage(pageRequest.withSort(Sort.by("id"))));
+    }
+}
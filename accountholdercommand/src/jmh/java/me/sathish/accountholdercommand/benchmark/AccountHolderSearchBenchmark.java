@@ -0,0 +1,192 @@
+package me.sathish.accountholdercommand.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import me.sathish.accountholdercommand.AccountHolderCommandApplication;
+import me.sathish.accountholdercommand.model.request.AccountHolderSearch;
+import me.sathish.accountholdercommand.query.AccountHolderView;
+import me.sathish.accountholdercommand.repositories.AccountHolderRepository;
+import me.sathish.accountholdercommand.ssn.SsnHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Latency of {@link AccountHolderRepository#search} pages over a table of {@code rows} account
+ * holders; read the p0.95 column. The table is loaded with plain JDBC batches, so besides the
+ * embedded H2 database it can be pointed at PostgreSQL with {@code -jvmArgsAppend
+ * -Dspring.datasource.url=...}. Each search reads the first page of its matches.
+ *
+ * <p>There are fewer distinct ISO dates than rows, so the unique constraint the entity puts on dob
+ * is dropped before loading and the dobs cycle through {@value #DOB_DAYS} days from 1900 on.
+ *
+ * <p>Loading the default 5M rows into H2 needs the larger heap below; {@code -p rows=200000} gives
+ * a quick run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class AccountHolderSearchBenchmark {
+
+    private static final String[] TYPES = {"INDIVIDUAL", "JOINT", "CORPORATE", "TRUST"};
+    private static final int LAST_NAMES = 100_000;
+    private static final int BATCH_SIZE = 10_000;
+    private static final LocalDate FIRST_DOB = LocalDate.of(1900, 1, 1);
+    /** About a century; odd, so every type shares every dob. */
+    private static final int DOB_DAYS = 36_525;
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 20, Sort.by("id"));
+
+    @Param("5000000")
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private AccountHolderRepository accountHolderRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context =
+                new SpringApplicationBuilder(AccountHolderCommandApplication.class)
+                        .web(WebApplicationType.NONE)
+                        .properties(
+                                "spring.jpa.show-sql=false",
+                                "application.outbox.relay-enabled=false",
+                                "application.ssn.hash-key=benchmark-ssn-hash-key",
+                                "logging.level.root=WARN")
+                        .run();
+        accountHolderRepository = context.getBean(AccountHolderRepository.class);
+        readOnlyTransaction =
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        TransactionTemplate readWriteTransaction =
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        // plain JDBC skips the entity listener that fills ssn_hash
+        SsnHasher ssnHasher = context.getBean(SsnHasher.class);
+        dropUniqueDobConstraint(jdbcTemplate);
+        for (int from = 0; from < rows; from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < Math.min(from + BATCH_SIZE, rows); i++) {
+                String ssn = String.format("%09d", i);
+                batch.add(
+                        new Object[] {
+                            i + 1L,
+                            "First " + i,
+                            lastName(i),
+                            TYPES[i % TYPES.length],
+                            ssn,
+                            ssnHasher.hash(ssn),
+                            dob(i)
+                        });
+            }
+            readWriteTransaction.executeWithoutResult(
+                    status ->
+                            jdbcTemplate.batchUpdate(
+                                    "insert into account_holders"
+                                            + " (id, first_name, last_name, type, ssn, ssn_hash,"
+                                            + " dob)"
+                                            + " values (?, ?, ?, ?, ?, ?, ?)",
+                                    batch));
+        }
+        jdbcTemplate.execute("analyze");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    private static void dropUniqueDobConstraint(JdbcTemplate jdbcTemplate) {
+        List<String> constraints =
+                jdbcTemplate.queryForList(
+                        "select tc.constraint_name from information_schema.table_constraints tc"
+                                + " join information_schema.key_column_usage kcu"
+                                + " on kcu.constraint_name = tc.constraint_name"
+                                + " where lower(tc.table_name) = 'account_holders'"
+                                + " and tc.constraint_type = 'UNIQUE'"
+                                + " and lower(kcu.column_name) = 'dob'",
+                        String.class);
+        for (String constraint : constraints) {
+            jdbcTemplate.execute(
+                    "alter table account_holders drop constraint \"" + constraint + "\"");
+        }
+    }
+
+    private static String dob(long i) {
+        return FIRST_DOB.plusDays(i % DOB_DAYS).toString();
+    }
+
+    /** Names repeat every {@value #LAST_NAMES} rows, so a four digit prefix matches ten names. */
+    private static String lastName(int i) {
+        return String.format("L%05d", (int) ((i * 7919L) % LAST_NAMES));
+    }
+
+    private String lastNamePrefix() {
+        return String.format("L%04d", next++ % (LAST_NAMES / 10));
+    }
+
+    private String dobFrom() {
+        return dob(next++);
+    }
+
+    private Slice<AccountHolderView> search(AccountHolderSearch search) {
+        return readOnlyTransaction.execute(
+                status -> accountHolderRepository.search(search, FIRST_PAGE));
+    }
+
+    @Benchmark
+    public Slice<AccountHolderView> byLastNamePrefix() {
+        return search(new AccountHolderSearch(lastNamePrefix(), null, null, null));
+    }
+
+    @Benchmark
+    public Slice<AccountHolderView> byTypeAndLastNamePrefix() {
+        return search(
+                new AccountHolderSearch(lastNamePrefix(), TYPES[next % TYPES.length], null, null));
+    }
+
+    @Benchmark
+    public Slice<AccountHolderView> byTypeAndDobRange() {
+        String dobFrom = dobFrom();
+        String dobTo = LocalDate.parse(dobFrom).plusDays(90).toString();
+        return search(
+                new AccountHolderSearch(null, TYPES[next % TYPES.length], dobFrom, dobTo));
+    }
+
+    @Benchmark
+    public Slice<AccountHolderView> byAllCriteria() {
+        String dobFrom = dobFrom();
+        return search(
+                new AccountHolderSearch(
+                        lastNamePrefix().substring(0, 3),
+                        TYPES[next % TYPES.length],
+                        dobFrom,
+                        LocalDate.parse(dobFrom).plusYears(5).toString()));
+    }
+}
@@ -0,0 +1,69 @@
+package me.sathish.accountholdercommand.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import me.sathish.accountholdercommand.model.response.PagedResult;
+import me.sathish.accountholdercommand.query.AccountHolderView;
+import me.sathish.accountholdercommand.repositories.AccountHolderRepository;
+import me.sathish.accountholdercommand.services.AccountHolderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * {@code findAllAccountHolders} with the repository stubbed out, which leaves the sort
+ * direction parsing, {@code Sort}/{@code PageRequest} construction and result mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindAllBenchmark {
+
+    @Param({"asc", "desc"})
+    private String sortDir;
+
+    @Param({"id", "lastName"})
+    private String sortBy;
+
+    private AccountHolderService accountHolderService;
+
+    @Setup
+    public void setUp() {
+        AccountHolderRepository repository =
+                (AccountHolderRepository)
+                        Proxy.newProxyInstance(
+                                AccountHolderRepository.class.getClassLoader(),
+                                new Class<?>[] {AccountHolderRepository.class},
+                                (proxy, method, args) -> {
+                                    if (method.getName().equals("findViewPage")
+                                            && args != null
+                                            && args.length == 1
+                                            && args[0] instanceof Pageable pageable) {
+                                        return new PageImpl<AccountHolderView>(
+                                                List.of(), pageable, 0);
+                                    }
+                                    throw new UnsupportedOperationException(method.getName());
+                                });
+        // the estimator, outbox and ssn filter are only used by counts and writes
+        accountHolderService = new AccountHolderService(repository, null, null, null);
+    }
+
+    @Benchmark
+    public PagedResult<AccountHolderView> findAllAccountHolders() {
+        return accountHolderService.findAllAccountHolders(0, 10, sortBy, sortDir);
+    }
+}
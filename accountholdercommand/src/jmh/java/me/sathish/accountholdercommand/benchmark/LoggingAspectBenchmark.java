@@ -0,0 +1,63 @@
+package me.sathish.accountholdercommand.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import me.sathish.accountholdercommand.config.logging.Loggable;
+import me.sathish.accountholdercommand.config.logging.LoggingAspect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.core.env.StandardEnvironment;
+
+/** Overhead the {@link LoggingAspect} proxy adds to a trivial {@link Loggable} method. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingAspectBenchmark {
+
+    private Target direct;
+    private Target proxied;
+    private int value;
+
+    @Setup
+    public void setUp() {
+        direct = new Target();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new Target());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(
+                new LoggingAspect(
+                        new StandardEnvironment(),
+                        new SimpleMeterRegistry(),
+                        new StaticApplicationContext()));
+        proxied = proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public int direct() {
+        return direct.work(value++);
+    }
+
+    @Benchmark
+    public int proxied() {
+        return proxied.work(value++);
+    }
+
+    @Loggable
+    public static class Target {
+        public int work(int input) {
+            return input * 31;
+        }
+    }
+}
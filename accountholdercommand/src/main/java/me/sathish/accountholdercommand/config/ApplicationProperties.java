@@ -1,5 +1,6 @@
 package me.sathish.accountholdercommand.config;
 
+import java.time.Duration;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
@@ -10,6 +11,22 @@ public class ApplicationProperties {
 
     @NestedConfigurationProperty private Cors cors = new Cors();
 
+    @NestedConfigurationProperty private Pagination pagination = new Pagination();
+
+    @NestedConfigurationProperty private Cache cache = new Cache();
+
+    @NestedConfigurationProperty private Execution execution = new Execution();
+
+    @NestedConfigurationProperty private Bulk bulk = new Bulk();
+
+    @NestedConfigurationProperty private Outbox outbox = new Outbox();
+
+    @NestedConfigurationProperty private ReadModel readModel = new ReadModel();
+
+    @NestedConfigurationProperty private Replica replica = new Replica();
+
+    @NestedConfigurationProperty private Ssn ssn = new Ssn();
+
     @Data
     public static class Cors {
         private String pathPattern = "/api/**";
@@ -18,4 +35,110 @@ public class ApplicationProperties {
         private String allowedOriginPatterns = "*";
         private boolean allowCredentials = true;
     }
+
+    @Data
+    public static class Pagination {
+        /** How long an approximate row count is reused before it is read again. */
+        private Duration approximateCountTtl = Duration.ofMinutes(1);
+
+        /** Estimates below this are replaced by an exact count, which is cheap at that size. */
+        private long exactCountThreshold = 10_000;
+    }
+
+    @Data
+    public static class Bulk {
+        /** Rows written per transaction; keep it a multiple of hibernate.jdbc.batch_size. */
+        private int chunkSize = 500;
+    }
+
+    @Data
+    public static class Outbox {
+        /** Turn off to leave events in the outbox, e.g. when another instance relays them. */
+        private boolean relayEnabled = true;
+
+        private Duration pollInterval = Duration.ofSeconds(1);
+        private int batchSize = 100;
+
+        /**
+         * How long published events stay in the outbox. An instance whose read model falls
+         * further behind than this rebuilds it instead of catching up.
+         */
+        private Duration retention = Duration.ofDays(1);
+
+        private Duration pruneInterval = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class ReadModel {
+        /**
+         * How often the read model reads the events other instances' relays published; the
+         * in-process sink only carries what this instance relayed.
+         */
+        private Duration catchUpInterval = Duration.ofSeconds(1);
+
+        private int catchUpBatchSize = 500;
+
+        /** Versions of deleted holders, kept so a late event cannot bring them back. */
+        private long maxTombstones = 100_000;
+
+        private Duration tombstoneTtl = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Replica {
+        /** JDBC url of a read replica; without it every query goes to spring.datasource. */
+        private String url;
+
+        /** Default to spring.datasource.username and password. */
+        private String username;
+
+        private String password;
+        private int maximumPoolSize = 10;
+
+        /** How long a client's reads stay on the primary after it wrote; cover the replica lag. */
+        private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+        /** Signs the read-your-writes tokens; the same on every instance. Required with a url. */
+        private String readYourWritesKey;
+
+        /** Request header naming the client; falls back to X-Forwarded-For, then the peer. */
+        private String clientHeader = "X-Client-Id";
+
+        private long maxTrackedClients = 100_000;
+    }
+
+    @Data
+    public static class Ssn {
+        /** HMAC key of account_holders.ssn_hash; changing it orphans every stored hash. */
+        private String hashKey;
+
+        /** Holders the duplicate filter is sized for; beyond it false positives climb. */
+        private long expectedHolders = 1_000_000;
+
+        private double falsePositiveRate = 0.01;
+    }
+
+    @Data
+    public static class Cache {
+        /**
+         * Caffeine spec for the by-id lookup caches; statistics are always recorded. Entries are
+         * per instance and only this instance's writes evict them, so the expiry bounds how stale
+         * another instance's answer can be.
+         */
+        private String spec = "maximumSize=10000,expireAfterWrite=5s";
+    }
+
+    @Data
+    public static class Execution {
+        /**
+         * Threads that run requests and {@code @Async} work. VIRTUAL needs a Java 21 runtime and
+         * falls back to PLATFORM on older JVMs.
+         */
+        private Mode mode = Mode.PLATFORM;
+
+        public enum Mode {
+            PLATFORM,
+            VIRTUAL
+        }
+    }
 }
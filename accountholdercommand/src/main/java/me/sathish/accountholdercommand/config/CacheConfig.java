@@ -0,0 +1,31 @@
+package me.sathish.accountholdercommand.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.List;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ACCOUNT_HOLDERS_CACHE = "accountHolders";
+
+    /**
+     * Puts and evictions made inside a transaction reach the cache only after it commits, so a
+     * rolled back write never leaves a stale entry behind.
+     */
+    @Bean
+    CacheManager cacheManager(ApplicationProperties properties) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCaffeine(
+                Caffeine.from(properties.getCache().getSpec()).recordStats());
+        caffeineCacheManager.setAllowNullValues(false);
+        caffeineCacheManager.setCacheNames(List.of(ACCOUNT_HOLDERS_CACHE));
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -0,0 +1,50 @@
+package me.sathish.accountholdercommand.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.sathish.accountholdercommand.events.AccountHolderEventSink;
+import me.sathish.accountholdercommand.events.AccountHolderOutboxRelay;
+import me.sathish.accountholdercommand.events.InMemoryAccountHolderEventSink;
+import me.sathish.accountholdercommand.query.AccountHolderReadModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@Configuration
+@EnableScheduling
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxConfig implements SchedulingConfigurer {
+
+    private final ApplicationProperties properties;
+    private final ObjectProvider<AccountHolderOutboxRelay> outboxRelay;
+    private final ObjectProvider<AccountHolderReadModel> readModel;
+
+    @Bean
+    @ConditionalOnMissingBean(AccountHolderEventSink.class)
+    InMemoryAccountHolderEventSink inMemoryAccountHolderEventSink() {
+        return new InMemoryAccountHolderEventSink();
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        // runs with the relay off too: that is when every event comes from another instance
+        taskRegistrar.addFixedDelayTask(
+                () -> readModel.getObject().catchUp(),
+                properties.getReadModel().getCatchUpInterval().toMillis());
+        ApplicationProperties.Outbox outbox = properties.getOutbox();
+        if (!outbox.isRelayEnabled()) {
+            log.info("Account holder outbox relay is disabled");
+            return;
+        }
+        taskRegistrar.addFixedDelayTask(
+                () -> outboxRelay.getObject().relayPending(), outbox.getPollInterval().toMillis());
+        taskRegistrar.addFixedDelayTask(
+                () -> outboxRelay.getObject().prunePublished(),
+                outbox.getPruneInterval().toMillis());
+    }
+}
@@ -0,0 +1,140 @@
+package me.sathish.accountholdercommand.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Set;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import me.sathish.accountholdercommand.config.ApplicationProperties;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Pins a client's requests to the primary for {@code application.replica.read-your-writes-window}
+ * after it wrote, so it never reads a replica that has not caught up with its own change yet.
+ *
+ * <p>Every write is answered with a {@value #TOKEN_HEADER} header: the end of the window, signed
+ * with {@code application.replica.read-your-writes-key}. A client that sends it back on its reads
+ * is pinned by whichever instance serves them, as all instances share the key. The gateway does not
+ * answer such reads from its response cache either.
+ *
+ * <p>Clients that do not send the token back are still pinned by the instance that took their
+ * write, which remembers them by {@code application.replica.client-header}, else by the first
+ * {@code X-Forwarded-For} address the gateway adds, else by the remote address.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String TOKEN_HEADER = "Read-Your-Writes";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final String clientHeader;
+    private final long windowMillis;
+    private final SecretKeySpec tokenKey;
+    private final Clock clock;
+    private final Cache<String, Boolean> recentWriters;
+    private final ThreadLocal<Boolean> pinnedToPrimary = new ThreadLocal<>();
+
+    public ReadYourWritesFilter(ApplicationProperties.Replica replica) {
+        this(replica, Clock.systemUTC());
+    }
+
+    ReadYourWritesFilter(ApplicationProperties.Replica replica, Clock clock) {
+        String readYourWritesKey = replica.getReadYourWritesKey();
+        if (StringUtils.isBlank(readYourWritesKey)) {
+            throw new IllegalStateException(
+                    "application.replica.read-your-writes-key must be set with a replica url,"
+                            + " e.g. through READ_YOUR_WRITES_KEY");
+        }
+        this.clientHeader = replica.getClientHeader();
+        this.windowMillis = replica.getReadYourWritesWindow().toMillis();
+        this.tokenKey =
+                new SecretKeySpec(readYourWritesKey.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.clock = clock;
+        this.recentWriters =
+                Caffeine.newBuilder()
+                        .expireAfterWrite(replica.getReadYourWritesWindow())
+                        .maximumSize(replica.getMaxTrackedClients())
+                        .build();
+    }
+
+    public boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(pinnedToPrimary.get());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = clientOf(request);
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            // set before the body commits the response; a failed write only pins a while longer
+            response.setHeader(TOKEN_HEADER, issueToken());
+        }
+        pinnedToPrimary.set(
+                recentWriters.getIfPresent(client) != null
+                        || hasUnexpiredToken(request.getHeader(TOKEN_HEADER)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            pinnedToPrimary.remove();
+            if (write && response.getStatus() < 400) {
+                recentWriters.put(client, Boolean.TRUE);
+            }
+        }
+    }
+
+    private String issueToken() {
+        String expiresAt = Long.toString(clock.millis() + windowMillis);
+        return expiresAt + "." + sign(expiresAt);
+    }
+
+    private boolean hasUnexpiredToken(String token) {
+        if (token == null) {
+            return false;
+        }
+        String expiresAt = StringUtils.substringBefore(token, ".");
+        String signature = StringUtils.substringAfter(token, ".");
+        if (!MessageDigest.isEqual(
+                sign(expiresAt).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII))) {
+            return false;
+        }
+        try {
+            return Long.parseLong(expiresAt) > clock.millis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private String sign(String expiresAt) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(tokenKey);
+            byte[] signature = mac.doFinal(expiresAt.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String client = request.getHeader(clientHeader);
+        if (StringUtils.isBlank(client)) {
+            client = StringUtils.substringBefore(request.getHeader("X-Forwarded-For"), ",");
+        }
+        return StringUtils.isBlank(client) ? request.getRemoteAddr() : client.trim();
+    }
+}
@@ -1,5 +1,14 @@
 package me.sathish.accountholdercommand.config.logging;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import me.sathish.accountholdercommand.utils.AppConstants;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -7,11 +16,15 @@ import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 import org.springframework.stereotype.Component;
+import org.springframework.web.method.ControllerAdviceBean;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
 
 @Aspect
 @Component
@@ -19,10 +32,20 @@ public class LoggingAspect {
 
     private final Logger log = LoggerFactory.getLogger(this.getClass());
 
+    static final String METHOD_TIMER = "method.execution";
+
     private final Environment env;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationContext applicationContext;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+    // looked up on the first exception, once every advice bean is defined
+    private volatile List<ExceptionHandlerMethodResolver> exceptionHandlers;
 
-    public LoggingAspect(Environment env) {
+    public LoggingAspect(
+            Environment env, MeterRegistry meterRegistry, ApplicationContext applicationContext) {
         this.env = env;
+        this.meterRegistry = meterRegistry;
+        this.applicationContext = applicationContext;
     }
 
     @Pointcut(
@@ -40,8 +63,15 @@ public class LoggingAspect {
         // pointcut definition
     }
 
+    /**
+     * Logs unexpected exceptions. Those a {@code @ControllerAdvice} turns into a response, such as
+     * a 400 or 409 problem, are expected outcomes and only show up in the error timer.
+     */
     @AfterThrowing(pointcut = "applicationPackagePointcut()", throwing = "e")
     public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
+        if (isHandledByControllerAdvice(e)) {
+            return;
+        }
         if (env.acceptsProfiles(Profiles.of(AppConstants.PROFILE_NOT_PROD))) {
             log.error(
                     "Exception in {}.{}() with cause = '{}' and exception = '{}'",
@@ -60,24 +90,53 @@ public class LoggingAspect {
         }
     }
 
+    private boolean isHandledByControllerAdvice(Throwable e) {
+        List<ExceptionHandlerMethodResolver> resolvers = exceptionHandlers;
+        if (resolvers == null) {
+            resolvers =
+                    ControllerAdviceBean.findAnnotatedBeans(applicationContext).stream()
+                            .map(ControllerAdviceBean::getBeanType)
+                            .filter(Objects::nonNull)
+                            .map(ExceptionHandlerMethodResolver::new)
+                            .toList();
+            exceptionHandlers = resolvers;
+        }
+        return resolvers.stream()
+                .anyMatch(resolver -> resolver.resolveMethodByThrowable(e) != null);
+    }
+
+    /**
+     * Records the call in a per-method {@link Timer}. The success timer is resolved once per method
+     * and reused, so a call costs two {@code nanoTime()} reads and a map lookup; the error timer is
+     * only looked up when the method throws.
+     */
     @Around("applicationPackagePointcut()")
-    public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        if (log.isTraceEnabled()) {
-            log.trace(
-                    "Enter: {}.{}()",
-                    joinPoint.getSignature().getDeclaringTypeName(),
-                    joinPoint.getSignature().getName());
+    public Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timer timer = timers.get(method);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(method, key -> timer(key, "success"));
         }
-        long start = System.currentTimeMillis();
-        Object result = joinPoint.proceed();
-        long end = System.currentTimeMillis();
-        if (log.isTraceEnabled()) {
-            log.trace(
-                    "Exit: {}.{}(). Time taken: {} millis",
-                    joinPoint.getSignature().getDeclaringTypeName(),
-                    joinPoint.getSignature().getName(),
-                    end - start);
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            timer(method, "error").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
         }
-        return result;
+    }
+
+    private Timer timer(Method method, String outcome) {
+        return Timer.builder(METHOD_TIMER)
+                .description("Execution time of @Loggable methods")
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
     }
 }
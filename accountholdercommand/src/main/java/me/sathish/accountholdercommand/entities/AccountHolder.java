@@ -1,32 +1,57 @@
 package me.sathish.accountholdercommand.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
-import lombok.AllArgsConstructor;
+import jakarta.validation.constraints.Pattern;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import me.sathish.accountholdercommand.ssn.SsnHashListener;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects;
 
 @Entity
-@Table(name = "account_holders")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(SsnHashListener.class)
+@Table(
+        name = "account_holders",
+        indexes = {
+            @Index(name = "idx_account_holders_first_name_id", columnList = "firstName, id"),
+            @Index(name = "idx_account_holders_last_name_id", columnList = "lastName, id"),
+            @Index(name = "idx_account_holders_type_id", columnList = "type, id"),
+            @Index(
+                    name = "idx_account_holders_type_last_name_id",
+                    columnList = "type, lastName, id"),
+            @Index(name = "idx_account_holders_type_dob", columnList = "type, dob")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class AccountHolder {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @SequenceGenerator(
+            name = "account_holders_id_gen",
+            sequenceName = "account_holders_seq",
+            allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_holders_id_gen")
     private Long id;
 
     @Column(nullable = false)
@@ -44,7 +69,33 @@ public class AccountHolder {
     @Column(nullable = false, unique=true)
     @Temporal(TemporalType.TIMESTAMP)
     @NotEmpty(message = "Account Holder Date of Birth cannot be empty")
+    // an ISO date sorts as text in date order, which the dob range search relies on
+    @Pattern(
+            regexp = "\\d{4}-(0[1-9]|1[0-2])-(0[1-9]|[12]\\d|3[01])",
+            message = "Account Holder Date of Birth must be an ISO date like 1990-01-31")
     private String dob;
+    /** Keyed hash of ssn set by {@link SsnHashListener}, so lookups never compare plaintext. */
+    @JsonIgnore
+    @Column(nullable = false, unique = true, length = 43)
+    private String ssnHash;
+    /**
+     * Bumped by every write; orders the aggregate's outbox events, which commit in this order
+     * because each write waits for the row the previous one locked.
+     */
+    @JsonIgnore
+    @Version
+    private Long version;
+
+    public AccountHolder(
+            Long id, String firstName, String lastName, String type, String ssn, String dob) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.type = type;
+        this.ssn = ssn;
+        this.dob = dob;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,100 @@
+package me.sathish.accountholdercommand.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.Objects;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.Hibernate;
+
+/**
+ * Outbox row describing one change to an account holder. Rows are appended in the same transaction
+ * as the change and stay in the table as the aggregate's event log once published, until they are
+ * older than {@code application.outbox.retention}.
+ *
+ * <p>{@code aggregateVersion} is the account holder's version after the change, one per change. The
+ * pooled {@code id} is not in commit order, not even per aggregate, so consumers order and
+ * de-duplicate on the version. {@code publishSequence} is assigned on publish, gap-free and in
+ * commit order (see {@link AccountHolderEventSequence}), so it is the position consumers resume
+ * from.
+ */
+@Entity
+@Table(
+        name = "account_holder_events",
+        indexes = {
+            @Index(
+                    name = "idx_account_holder_events_unpublished",
+                    columnList = "publishedAt, aggregateId, aggregateVersion"),
+            @Index(
+                    name = "uk_account_holder_events_aggregate_version",
+                    columnList = "aggregateId, aggregateVersion",
+                    unique = true),
+            @Index(
+                    name = "uk_account_holder_events_publish_sequence",
+                    columnList = "publishSequence",
+                    unique = true)
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountHolderEvent {
+
+    @Id
+    @SequenceGenerator(
+            name = "account_holder_events_id_gen",
+            sequenceName = "account_holder_events_seq",
+            allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_holder_events_id_gen")
+    private Long id;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false)
+    private Long aggregateVersion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    private Instant publishedAt;
+
+    private Long publishSequence;
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        AccountHolderEvent accountHolderEvent = (AccountHolderEvent) o;
+        return id != null && Objects.equals(id, accountHolderEvent.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
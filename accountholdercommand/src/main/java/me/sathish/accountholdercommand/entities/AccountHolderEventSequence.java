@@ -0,0 +1,45 @@
+package me.sathish.accountholdercommand.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.util.Objects;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.Hibernate;
+
+/**
+ * The last publish sequence handed to an account holder event. Every relay batch locks this one row
+ * before it publishes, so sequences are assigned, and committed, in publish order and without gaps.
+ */
+@Entity
+@Table(name = "account_holder_event_sequence")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountHolderEventSequence {
+
+    public static final Long ID = 1L;
+
+    @Id private Long id;
+
+    @Column(nullable = false)
+    private Long lastPublished;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        AccountHolderEventSequence accountHolderEventSequence = (AccountHolderEventSequence) o;
+        return id != null && Objects.equals(id, accountHolderEventSequence.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
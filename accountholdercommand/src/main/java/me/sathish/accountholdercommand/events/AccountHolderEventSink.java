@@ -0,0 +1,14 @@
+package me.sathish.accountholdercommand.events;
+
+import java.util.List;
+import me.sathish.accountholdercommand.entities.AccountHolderEvent;
+
+/**
+ * Destination of relayed outbox events. Events arrive in version order per aggregate; a batch that
+ * throws is retried on the next relay run, so implementations must tolerate redelivery and can
+ * recognise it by an {@code aggregateVersion} they have seen.
+ */
+public interface AccountHolderEventSink {
+
+    void publish(List<AccountHolderEvent> events);
+}
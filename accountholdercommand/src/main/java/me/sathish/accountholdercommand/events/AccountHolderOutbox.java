@@ -0,0 +1,73 @@
+package me.sathish.accountholdercommand.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.Map;
+import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.entities.AccountHolderEvent;
+import me.sathish.accountholdercommand.repositories.AccountHolderEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Appends change events to the outbox table inside the caller's write transaction. */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class AccountHolderOutbox {
+
+    private final AccountHolderEventRepository accountHolderEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public AccountHolderOutbox(
+            AccountHolderEventRepository accountHolderEventRepository, ObjectMapper objectMapper) {
+        this.accountHolderEventRepository = accountHolderEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void created(AccountHolder accountHolder) {
+        append(
+                AccountHolderEvent.Type.CREATED,
+                accountHolder.getId(),
+                accountHolder.getVersion(),
+                accountHolder);
+    }
+
+    /** Call once the update was flushed, so the event carries the version it wrote. */
+    public void updated(AccountHolder accountHolder) {
+        append(
+                AccountHolderEvent.Type.UPDATED,
+                accountHolder.getId(),
+                accountHolder.getVersion(),
+                accountHolder);
+    }
+
+    /** Deleting removes the row, so the event takes the version a further write would have had. */
+    public void deleted(AccountHolder accountHolder) {
+        append(
+                AccountHolderEvent.Type.DELETED,
+                accountHolder.getId(),
+                accountHolder.getVersion() + 1,
+                Map.of("id", accountHolder.getId()));
+    }
+
+    private void append(
+            AccountHolderEvent.Type type, Long aggregateId, Long aggregateVersion, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize " + type + " event", e);
+        }
+        accountHolderEventRepository.save(
+                new AccountHolderEvent(
+                        null,
+                        aggregateId,
+                        aggregateVersion,
+                        type,
+                        json,
+                        Instant.now(),
+                        null,
+                        null));
+    }
+}
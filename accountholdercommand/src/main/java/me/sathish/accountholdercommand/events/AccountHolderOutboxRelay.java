@@ -0,0 +1,104 @@
+package me.sathish.accountholdercommand.events;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import me.sathish.accountholdercommand.config.ApplicationProperties;
+import me.sathish.accountholdercommand.entities.AccountHolderEvent;
+import me.sathish.accountholdercommand.entities.AccountHolderEventSequence;
+import me.sathish.accountholdercommand.repositories.AccountHolderEventRepository;
+import me.sathish.accountholdercommand.repositories.AccountHolderEventSequenceRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves unpublished outbox rows to the {@link AccountHolderEventSink} in batches. Each batch is
+ * published and marked in one transaction, so a failed publish leaves the rows for the next run. An
+ * aggregate's events go out in version order: a version is only committed after the one before it,
+ * so it is either published already or sorts ahead of it.
+ *
+ * <p>A batch first locks the {@link AccountHolderEventSequence} row and numbers its events from it,
+ * so batches commit one after the other and consumers can resume from the last number they read.
+ * Published rows older than the retention are pruned separately.
+ */
+@Component
+@Slf4j
+public class AccountHolderOutboxRelay {
+
+    private final AccountHolderEventRepository accountHolderEventRepository;
+    private final AccountHolderEventSequenceRepository accountHolderEventSequenceRepository;
+    private final AccountHolderEventSink accountHolderEventSink;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationProperties properties;
+
+    public AccountHolderOutboxRelay(
+            AccountHolderEventRepository accountHolderEventRepository,
+            AccountHolderEventSequenceRepository accountHolderEventSequenceRepository,
+            AccountHolderEventSink accountHolderEventSink,
+            TransactionTemplate transactionTemplate,
+            ApplicationProperties properties) {
+        this.accountHolderEventRepository = accountHolderEventRepository;
+        this.accountHolderEventSequenceRepository = accountHolderEventSequenceRepository;
+        this.accountHolderEventSink = accountHolderEventSink;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    /** Publishes batches until the outbox is drained and returns the number of events sent. */
+    public int relayPending() {
+        int batchSize = properties.getOutbox().getBatchSize();
+        int relayed = 0;
+        int batch;
+        do {
+            Integer published = transactionTemplate.execute(status -> relayBatch(batchSize));
+            batch = published == null ? 0 : published;
+            relayed += batch;
+        } while (batch == batchSize);
+        if (relayed > 0) {
+            log.debug("Relayed {} account holder events", relayed);
+        }
+        return relayed;
+    }
+
+    /** Deletes published events older than the retention and returns how many went. */
+    public int prunePublished() {
+        Instant publishedBefore = Instant.now().minus(properties.getOutbox().getRetention());
+        Integer pruned =
+                transactionTemplate.execute(
+                        status ->
+                                accountHolderEventRepository.deletePublishedBefore(
+                                        publishedBefore));
+        if (pruned != null && pruned > 0) {
+            log.debug("Pruned {} published account holder events", pruned);
+        }
+        return pruned == null ? 0 : pruned;
+    }
+
+    private int relayBatch(int batchSize) {
+        AccountHolderEventSequence sequence =
+                accountHolderEventSequenceRepository
+                        .findByIdForUpdate(AccountHolderEventSequence.ID)
+                        // the first relay creates it; a concurrent first insert fails this batch,
+                        // and the next poll finds the row
+                        .orElseGet(
+                                () ->
+                                        accountHolderEventSequenceRepository.saveAndFlush(
+                                                new AccountHolderEventSequence(
+                                                        AccountHolderEventSequence.ID, 0L)));
+        List<AccountHolderEvent> events =
+                accountHolderEventRepository.findUnpublished(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        accountHolderEventSink.publish(events);
+        Instant publishedAt = Instant.now();
+        long publishSequence = sequence.getLastPublished();
+        for (AccountHolderEvent event : events) {
+            event.setPublishedAt(publishedAt);
+            event.setPublishSequence(++publishSequence);
+        }
+        sequence.setLastPublished(publishSequence);
+        return events.size();
+    }
+}
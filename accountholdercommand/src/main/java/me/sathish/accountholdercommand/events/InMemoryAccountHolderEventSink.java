@@ -0,0 +1,23 @@
+package me.sathish.accountholdercommand.events;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import me.sathish.accountholdercommand.entities.AccountHolderEvent;
+
+/** Embedded sink that hands events to in-process subscribers, used when no broker is wired. */
+public class InMemoryAccountHolderEventSink implements AccountHolderEventSink {
+
+    private final List<Consumer<AccountHolderEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+    public void subscribe(Consumer<AccountHolderEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public void publish(List<AccountHolderEvent> events) {
+        for (AccountHolderEvent event : events) {
+            subscribers.forEach(subscriber -> subscriber.accept(event));
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package me.sathish.accountholdercommand.exception;
+
+public class DuplicateAccountHolderException extends RuntimeException {
+
+    public DuplicateAccountHolderException(String message) {
+        super(message);
+    }
+}
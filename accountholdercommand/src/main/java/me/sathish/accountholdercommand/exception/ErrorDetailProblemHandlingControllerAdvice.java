@@ -6,6 +6,7 @@ import java.util.Objects;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ProblemDetail;
+import org.springframework.orm.ObjectRetrievalFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -40,5 +41,56 @@ public class ErrorDetailProblemHandlingControllerAdvice {
         return problemDetail;
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    ProblemDetail onException(InvalidCursorException invalidCursorException) {
+        ProblemDetail problemDetail =
+                ProblemDetail.forStatusAndDetail(
+                        HttpStatusCode.valueOf(400), invalidCursorException.getMessage());
+        problemDetail.setTitle("Invalid Cursor");
+        return problemDetail;
+    }
+
+    @ExceptionHandler(InvalidFieldSelectionException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    ProblemDetail onException(InvalidFieldSelectionException invalidFieldSelectionException) {
+        ProblemDetail problemDetail =
+                ProblemDetail.forStatusAndDetail(
+                        HttpStatusCode.valueOf(400), invalidFieldSelectionException.getMessage());
+        problemDetail.setTitle("Invalid Field Selection");
+        return problemDetail;
+    }
+
+    @ExceptionHandler(InvalidSearchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    ProblemDetail onException(InvalidSearchException invalidSearchException) {
+        ProblemDetail problemDetail =
+                ProblemDetail.forStatusAndDetail(
+                        HttpStatusCode.valueOf(400), invalidSearchException.getMessage());
+        problemDetail.setTitle("Invalid Search");
+        return problemDetail;
+    }
+
+    @ExceptionHandler(DuplicateAccountHolderException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    ProblemDetail onException(DuplicateAccountHolderException duplicateAccountHolderException) {
+        ProblemDetail problemDetail =
+                ProblemDetail.forStatusAndDetail(
+                        HttpStatus.CONFLICT, duplicateAccountHolderException.getMessage());
+        problemDetail.setTitle("Duplicate Account Holder");
+        return problemDetail;
+    }
+
+    /** The account holder was deleted between the controller finding it and the update. */
+    @ExceptionHandler(ObjectRetrievalFailureException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    ProblemDetail onException(ObjectRetrievalFailureException objectRetrievalFailureException) {
+        ProblemDetail problemDetail =
+                ProblemDetail.forStatusAndDetail(
+                        HttpStatus.NOT_FOUND, "The account holder no longer exists");
+        problemDetail.setTitle("Account Holder Not Found");
+        return problemDetail;
+    }
+
     record ApiValidationError(String object, String field, Object rejectedValue, String message) {}
 }
@@ -0,0 +1,8 @@
+package me.sathish.accountholdercommand.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package me.sathish.accountholdercommand.exception;
+
+public class InvalidFieldSelectionException extends RuntimeException {
+
+    public InvalidFieldSelectionException(String message) {
+        super(message);
+    }
+}
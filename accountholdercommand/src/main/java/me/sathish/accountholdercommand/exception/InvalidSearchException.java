@@ -0,0 +1,8 @@
+package me.sathish.accountholdercommand.exception;
+
+public class InvalidSearchException extends RuntimeException {
+
+    public InvalidSearchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package me.sathish.accountholdercommand.model.request;
+
+/**
+ * Filters of an account holder search; {@code null} criteria are not applied. {@code lastName} is a
+ * case sensitive prefix and {@code dobFrom}/{@code dobTo} bound the ISO date of birth inclusively.
+ */
+public record AccountHolderSearch(String lastName, String type, String dobFrom, String dobTo) {
+
+    public boolean isEmpty() {
+        return lastName == null && type == null && dobFrom == null && dobTo == null;
+    }
+}
@@ -0,0 +1,44 @@
+package me.sathish.accountholdercommand.model.request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import me.sathish.accountholdercommand.exception.InvalidCursorException;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Opaque position of the last row returned by a keyset (seek) page. It carries the sort column, the
+ * direction, the value of the sort column and the id used as tie breaker so the next page can be
+ * located with an index seek instead of an offset scan.
+ */
+public record KeysetCursor(String sortBy, Sort.Direction direction, String key, Long id) {
+
+    private static final String SEPARATOR = "\n";
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortBy, direction.name(), String.valueOf(id), key);
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new InvalidCursorException("Malformed cursor '" + token + "'");
+            }
+            return new KeysetCursor(
+                    parts[0],
+                    Sort.Direction.fromString(parts[1]),
+                    parts[3],
+                    Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor '" + token + "'");
+        }
+    }
+
+    public boolean matches(String sortBy, Sort.Direction direction) {
+        return this.sortBy.equals(sortBy) && this.direction == direction;
+    }
+}
@@ -0,0 +1,4 @@
+package me.sathish.accountholdercommand.model.request;
+
+/** Body of an ssn lookup, so the ssn stays out of URLs and the access logs that record them. */
+public record SsnLookup(String ssn) {}
@@ -0,0 +1,22 @@
+package me.sathish.accountholdercommand.model.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record BulkItemResult(int index, Long id, String ssn, Status status, List<String> errors) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DUPLICATE,
+        INVALID,
+        FAILED
+    }
+
+    @JsonIgnore
+    public boolean isRejected() {
+        return status != Status.CREATED && status != Status.UPDATED;
+    }
+}
@@ -0,0 +1,18 @@
+package me.sathish.accountholdercommand.model.response;
+
+import java.util.List;
+
+public record BulkResult(int created, int updated, int rejected, List<BulkItemResult> items) {
+
+    public BulkResult(List<BulkItemResult> items) {
+        this(
+                count(items, BulkItemResult.Status.CREATED),
+                count(items, BulkItemResult.Status.UPDATED),
+                (int) items.stream().filter(BulkItemResult::isRejected).count(),
+                items);
+    }
+
+    private static int count(List<BulkItemResult> items, BulkItemResult.Status status) {
+        return (int) items.stream().filter(item -> item.status() == status).count();
+    }
+}
@@ -0,0 +1,7 @@
+package me.sathish.accountholdercommand.model.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+public record CursorPagedResult<T>(
+        List<T> data, int pageSize, @JsonProperty("hasNext") boolean hasNext, String next) {}
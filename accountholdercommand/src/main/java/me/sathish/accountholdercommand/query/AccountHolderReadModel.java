@@ -0,0 +1,343 @@
+package me.sathish.accountholdercommand.query;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import me.sathish.accountholdercommand.config.ApplicationProperties;
+import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.entities.AccountHolderEvent;
+import me.sathish.accountholdercommand.entities.AccountHolderEventSequence;
+import me.sathish.accountholdercommand.events.InMemoryAccountHolderEventSink;
+import me.sathish.accountholdercommand.repositories.AccountHolderEventRepository;
+import me.sathish.accountholdercommand.repositories.AccountHolderEventSequenceRepository;
+import me.sathish.accountholdercommand.repositories.AccountHolderRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Query-side projection of account holders kept in memory and indexed by id, ssn, last name prefix
+ * and type. It is loaded from a database snapshot on startup and then kept current from the outbox
+ * events, so reads never touch the database that takes the writes.
+ *
+ * <p>Events come from this instance's relay through the in-process sink and, for the ones other
+ * instances relayed, from a periodic {@link #catchUp()} over the published outbox rows, resuming
+ * after the last publish sequence it read. Each holder remembers the version it is at, so an event
+ * is applied once and never over a newer one whichever way it arrives; deleted holders keep their
+ * version for a while as a bounded tombstone. Snapshots and catch-ups read the primary: a replica
+ * that lags could hide events the position has already moved past.
+ *
+ * <p>Reads are lock-free against concurrent maps. Event application is serialized; a rebuild reads
+ * its snapshot without holding that lock, so the relay is not held up, and only takes it to swap
+ * the snapshot in together with the events applied meanwhile.
+ */
+@Component
+@Slf4j
+public class AccountHolderReadModel {
+
+    private final AccountHolderRepository accountHolderRepository;
+    private final AccountHolderEventRepository accountHolderEventRepository;
+    private final AccountHolderEventSequenceRepository accountHolderEventSequenceRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate primaryTransactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationProperties.ReadModel settings;
+    private final Cache<Long, Long> tombstones;
+
+    /** Held by rebuilds and catch-ups, which both move the catch-up position. */
+    private final Object positionLock = new Object();
+
+    private volatile Indexes indexes = new Indexes();
+    private volatile boolean loaded;
+    private long catchUpAfter;
+    private Map<Long, Long> versions = new HashMap<>();
+    private List<AccountHolderEvent> appliedWhileRebuilding;
+
+    public AccountHolderReadModel(
+            AccountHolderRepository accountHolderRepository,
+            AccountHolderEventRepository accountHolderEventRepository,
+            AccountHolderEventSequenceRepository accountHolderEventSequenceRepository,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            ApplicationProperties properties,
+            ObjectProvider<InMemoryAccountHolderEventSink> eventSink) {
+        this.accountHolderRepository = accountHolderRepository;
+        this.accountHolderEventRepository = accountHolderEventRepository;
+        this.accountHolderEventSequenceRepository = accountHolderEventSequenceRepository;
+        this.entityManager = entityManager;
+        // not readOnly: those transactions are routed to the replica
+        this.primaryTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.settings = properties.getReadModel();
+        this.tombstones =
+                Caffeine.newBuilder()
+                        .expireAfterWrite(settings.getTombstoneTtl())
+                        .maximumSize(settings.getMaxTombstones())
+                        .build();
+        eventSink.ifAvailable(sink -> sink.subscribe(this::apply));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the projection with a fresh snapshot of the table. The publish sequence is read
+     * before the rows, so events up to it are part of the snapshot and later ones are picked up by
+     * the next catch-up; events applied while the rows were read are applied again to the snapshot.
+     */
+    public int rebuild() {
+        synchronized (positionLock) {
+            long startedAt = System.nanoTime();
+            synchronized (this) {
+                appliedWhileRebuilding = new ArrayList<>();
+            }
+            Indexes fresh = new Indexes();
+            Map<Long, Long> freshVersions = new HashMap<>();
+            Long snapshotAfter =
+                    primaryTransactionTemplate.execute(
+                            status -> {
+                                long lastPublished =
+                                        accountHolderEventSequenceRepository
+                                                .findById(AccountHolderEventSequence.ID)
+                                                .map(AccountHolderEventSequence::getLastPublished)
+                                                .orElse(0L);
+                                try (Stream<AccountHolder> accountHolders =
+                                        accountHolderRepository.streamAllBy()) {
+                                    accountHolders.forEach(
+                                            accountHolder -> {
+                                                fresh.put(toView(accountHolder));
+                                                freshVersions.put(
+                                                        accountHolder.getId(),
+                                                        accountHolder.getVersion());
+                                                entityManager.detach(accountHolder);
+                                            });
+                                }
+                                return lastPublished;
+                            });
+            synchronized (this) {
+                tombstones.invalidateAll();
+                appliedWhileRebuilding.forEach(event -> applyTo(fresh, freshVersions, event));
+                appliedWhileRebuilding = null;
+                this.versions = freshVersions;
+                this.indexes = fresh;
+            }
+            this.catchUpAfter = snapshotAfter == null ? 0L : snapshotAfter;
+            this.loaded = true;
+            log.info(
+                    "Loaded {} account holders into the read model in {} ms",
+                    fresh.byId.size(),
+                    (System.nanoTime() - startedAt) / 1_000_000);
+            return fresh.byId.size();
+        }
+    }
+
+    /**
+     * Reads the events published since the previous catch-up or rebuild and applies the ones not
+     * seen yet, and returns how many were read. Rebuilds instead when the next events were already
+     * pruned from the outbox. Scheduled by {@code OutboxConfig}; does nothing until the first
+     * rebuild.
+     */
+    public int catchUp() {
+        if (!loaded) {
+            return 0;
+        }
+        synchronized (positionLock) {
+            int batchSize = settings.getCatchUpBatchSize();
+            int read = 0;
+            List<AccountHolderEvent> events;
+            do {
+                long after = catchUpAfter;
+                events =
+                        primaryTransactionTemplate.execute(
+                                status ->
+                                        accountHolderEventRepository.findPublishedAfter(
+                                                after, PageRequest.of(0, batchSize)));
+                if (events == null || events.isEmpty()) {
+                    break;
+                }
+                // publish sequences have no gaps, so a missing one was pruned before it was read
+                if (events.get(0).getPublishSequence() != after + 1) {
+                    log.warn(
+                            "Account holder events after {} were pruned before they were read,"
+                                    + " rebuilding the read model",
+                            after);
+                    rebuild();
+                    return read;
+                }
+                events.forEach(this::apply);
+                catchUpAfter = events.get(events.size() - 1).getPublishSequence();
+                read += events.size();
+            } while (events.size() == batchSize);
+            return read;
+        }
+    }
+
+    /** Applies one change event; events at or below the holder's known version are skipped. */
+    public synchronized void apply(AccountHolderEvent event) {
+        if (appliedWhileRebuilding != null) {
+            appliedWhileRebuilding.add(event);
+        }
+        applyTo(indexes, versions, event);
+    }
+
+    private void applyTo(Indexes target, Map<Long, Long> targetVersions, AccountHolderEvent event) {
+        Long aggregateId = event.getAggregateId();
+        Long knownVersion = targetVersions.get(aggregateId);
+        if (knownVersion == null) {
+            knownVersion = tombstones.getIfPresent(aggregateId);
+        }
+        if (knownVersion != null && event.getAggregateVersion() <= knownVersion) {
+            return;
+        }
+        if (event.getType() == AccountHolderEvent.Type.DELETED) {
+            target.remove(aggregateId);
+            targetVersions.remove(aggregateId);
+            tombstones.put(aggregateId, event.getAggregateVersion());
+            return;
+        }
+        try {
+            target.put(objectMapper.readValue(event.getPayload(), AccountHolderView.class));
+        } catch (JsonProcessingException e) {
+            log.error("Skipping unreadable account holder event {}", event.getId(), e);
+            return;
+        }
+        targetVersions.put(aggregateId, event.getAggregateVersion());
+        tombstones.invalidate(aggregateId);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return indexes.byId.size();
+    }
+
+    public Optional<AccountHolderView> findById(Long id) {
+        return Optional.ofNullable(indexes.byId.get(id));
+    }
+
+    public Optional<AccountHolderView> findBySsn(String ssn) {
+        return Optional.ofNullable(indexes.bySsn.get(ssn));
+    }
+
+    /**
+     * Account holders ordered by last name then id when a prefix is given, otherwise by id. Blank
+     * filters are ignored; the last name prefix is matched case-insensitively.
+     */
+    public List<AccountHolderView> search(String lastNamePrefix, String type, int limit) {
+        Indexes current = indexes;
+        Stream<AccountHolderView> candidates;
+        if (lastNamePrefix != null && !lastNamePrefix.isBlank()) {
+            String prefix = lastNamePrefix.toLowerCase(Locale.ROOT);
+            candidates =
+                    current
+                            .byLastName
+                            .subMap(prefix, true, prefix + Character.MAX_VALUE, true)
+                            .values()
+                            .stream()
+                            .map(Map::values)
+                            .flatMap(Collection::stream);
+            if (type != null && !type.isBlank()) {
+                candidates = candidates.filter(view -> type.equals(view.type()));
+            }
+        } else if (type != null && !type.isBlank()) {
+            candidates =
+                    current
+                            .byType
+                            .getOrDefault(type, new ConcurrentSkipListMap<>())
+                            .values()
+                            .stream();
+        } else {
+            candidates = current.byId.values().stream();
+        }
+        return candidates.limit(limit).toList();
+    }
+
+    private static AccountHolderView toView(AccountHolder accountHolder) {
+        return new AccountHolderView(
+                accountHolder.getId(),
+                accountHolder.getFirstName(),
+                accountHolder.getLastName(),
+                accountHolder.getType(),
+                accountHolder.getSsn(),
+                accountHolder.getDob());
+    }
+
+    private static final class Indexes {
+        private final NavigableMap<Long, AccountHolderView> byId = new ConcurrentSkipListMap<>();
+        private final Map<String, AccountHolderView> bySsn = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<String, NavigableMap<Long, AccountHolderView>>
+                byLastName = new ConcurrentSkipListMap<>();
+        private final Map<String, NavigableMap<Long, AccountHolderView>> byType =
+                new ConcurrentHashMap<>();
+
+        void put(AccountHolderView view) {
+            remove(view.id());
+            byId.put(view.id(), view);
+            if (view.ssn() != null) {
+                bySsn.put(view.ssn(), view);
+            }
+            if (view.lastName() != null) {
+                byLastName
+                        .computeIfAbsent(lastNameKey(view), key -> new ConcurrentSkipListMap<>())
+                        .put(view.id(), view);
+            }
+            if (view.type() != null) {
+                byType.computeIfAbsent(view.type(), key -> new ConcurrentSkipListMap<>())
+                        .put(view.id(), view);
+            }
+        }
+
+        void remove(Long id) {
+            AccountHolderView previous = byId.remove(id);
+            if (previous == null) {
+                return;
+            }
+            if (previous.ssn() != null) {
+                bySsn.remove(previous.ssn(), previous);
+            }
+            if (previous.lastName() != null) {
+                removeFrom(byLastName, lastNameKey(previous), id);
+            }
+            if (previous.type() != null) {
+                removeFrom(byType, previous.type(), id);
+            }
+        }
+
+        private static void removeFrom(
+                Map<String, NavigableMap<Long, AccountHolderView>> index, String key, Long id) {
+            index.computeIfPresent(
+                    key,
+                    (k, views) -> {
+                        views.remove(id);
+                        return views.isEmpty() ? null : views;
+                    });
+        }
+
+        private static String lastNameKey(AccountHolderView view) {
+            return view.lastName().toLowerCase(Locale.ROOT);
+        }
+    }
+}
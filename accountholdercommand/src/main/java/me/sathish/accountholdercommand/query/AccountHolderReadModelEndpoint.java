@@ -0,0 +1,36 @@
+package me.sathish.accountholdercommand.query;
+
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/readmodel}: the state of the {@link AccountHolderReadModel}, and a POST that
+ * reloads it from the table. A reload reads every row, so it sits with the other operational
+ * endpoints rather than under {@code /api}, which the gateway routes to.
+ */
+@Component
+@Endpoint(id = "readmodel")
+public class AccountHolderReadModelEndpoint {
+
+    private final AccountHolderReadModel accountHolderReadModel;
+
+    public AccountHolderReadModelEndpoint(AccountHolderReadModel accountHolderReadModel) {
+        this.accountHolderReadModel = accountHolderReadModel;
+    }
+
+    @ReadOperation
+    public Map<String, Object> readModel() {
+        return Map.of(
+                "loaded", accountHolderReadModel.isLoaded(),
+                "size", accountHolderReadModel.size());
+    }
+
+    /** The number of account holders loaded. */
+    @WriteOperation
+    public int rebuild() {
+        return accountHolderReadModel.rebuild();
+    }
+}
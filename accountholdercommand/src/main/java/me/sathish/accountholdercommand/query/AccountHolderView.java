@@ -0,0 +1,8 @@
+package me.sathish.accountholdercommand.query;
+
+/**
+ * Immutable copy of an account holder as held by the in-memory read model and as selected by the
+ * list queries, which build it straight from JPQL without loading a managed entity.
+ */
+public record AccountHolderView(
+        Long id, String firstName, String lastName, String type, String ssn, String dob) {}
@@ -0,0 +1,36 @@
+package me.sathish.accountholdercommand.repositories;
+
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.List;
+import me.sathish.accountholdercommand.entities.AccountHolderEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AccountHolderEventRepository extends JpaRepository<AccountHolderEvent, Long> {
+
+    /**
+     * Unpublished events in version order per aggregate. The rows are locked so concurrent relays
+     * queue up behind each other instead of publishing the same events out of order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(
+            "select e from AccountHolderEvent e where e.publishedAt is null"
+                    + " order by e.aggregateId, e.aggregateVersion")
+    List<AccountHolderEvent> findUnpublished(Pageable pageable);
+
+    /** Events published after the given publish sequence, in publish order. */
+    @Query(
+            "select e from AccountHolderEvent e where e.publishSequence > :publishSequence"
+                    + " order by e.publishSequence")
+    List<AccountHolderEvent> findPublishedAfter(
+            @Param("publishSequence") long publishSequence, Pageable pageable);
+
+    @Modifying
+    @Query("delete from AccountHolderEvent e where e.publishedAt < :publishedAt")
+    int deletePublishedBefore(@Param("publishedAt") Instant publishedAt);
+}
@@ -0,0 +1,18 @@
+package me.sathish.accountholdercommand.repositories;
+
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import me.sathish.accountholdercommand.entities.AccountHolderEventSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AccountHolderEventSequenceRepository
+        extends JpaRepository<AccountHolderEventSequence, Long> {
+
+    /** The row locked until the transaction ends; relays queue up behind each other on it. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountHolderEventSequence s where s.id = :id")
+    Optional<AccountHolderEventSequence> findByIdForUpdate(@Param("id") Long id);
+}
@@ -1,6 +1,70 @@
 package me.sathish.accountholdercommand.repositories;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.query.AccountHolderView;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface AccountHolderRepository extends JpaRepository<AccountHolder, Long> {}
+public interface AccountHolderRepository
+        extends JpaRepository<AccountHolder, Long>, AccountHolderRepositoryCustom {
+
+    String VIEW_QUERY =
+            "select new me.sathish.accountholdercommand.query.AccountHolderView("
+                    + "a.id, a.firstName, a.lastName, a.type, a.ssn, a.dob) from AccountHolder a";
+
+    @Query(value = VIEW_QUERY, countQuery = "select count(a) from AccountHolder a")
+    Page<AccountHolderView> findViewPage(Pageable pageable);
+
+    /** Reads one row more than the page size instead of counting. */
+    @Query(VIEW_QUERY)
+    Slice<AccountHolderView> findViewSlice(Pageable pageable);
+
+    /**
+     * The row as it is now, locked until the transaction ends, so concurrent updates of the same
+     * account holder queue up behind each other instead of failing on its version. It never reads
+     * the second-level cache, which may hold an older version written by another instance, and
+     * refreshes the cached entry with what it read.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
+    @Query("select a from AccountHolder a where a.id = :id")
+    Optional<AccountHolder> findByIdForUpdate(@Param("id") Long id);
+
+    boolean existsBySsnHash(String ssnHash);
+
+    /**
+     * The rows with these ssn hashes, locked like {@link #findByIdForUpdate} so a bulk update does
+     * not fail on a concurrent update's version. Locked in id order, so two batches sharing rows
+     * queue up instead of deadlocking.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
+    @Query("select a from AccountHolder a where a.ssnHash in :ssnHashes order by a.id")
+    List<AccountHolder> findAllBySsnHashInForUpdate(
+            @Param("ssnHashes") Collection<String> ssnHashes);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("select a.ssnHash from AccountHolder a")
+    Stream<String> streamAllSsnHashes();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<AccountHolder> streamAllBy();
+}
@@ -0,0 +1,35 @@
+package me.sathish.accountholdercommand.repositories;
+
+import java.util.List;
+import java.util.Map;
+import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.model.request.AccountHolderSearch;
+import me.sathish.accountholdercommand.model.request.KeysetCursor;
+import me.sathish.accountholdercommand.query.AccountHolderView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+public interface AccountHolderRepositoryCustom {
+
+    /**
+     * Returns at most {@code limit} rows ordered by {@code sortBy} and id that come strictly after
+     * the given cursor, or the first rows when the cursor is {@code null}. No count query is run.
+     */
+    List<AccountHolder> findAllAfter(
+            KeysetCursor after, String sortBy, Sort.Direction direction, int limit);
+
+    /**
+     * Selects only the named attributes of one page, one map per row keyed by attribute in the
+     * given order, so unused columns are neither read nor serialized. Like {@code findViewSlice}
+     * the page is read with a limit+1 query and no count query is run.
+     */
+    Slice<Map<String, Object>> findAllProjected(List<String> fields, Pageable pageable);
+
+    /**
+     * Returns one page of the account holders matching every given criterion, ordered by the
+     * pageable's sort and then id. Each criterion is a range on an indexed column, so a search is
+     * an index range scan; like {@code findViewSlice} no count query is run.
+     */
+    Slice<AccountHolderView> search(AccountHolderSearch search, Pageable pageable);
+}
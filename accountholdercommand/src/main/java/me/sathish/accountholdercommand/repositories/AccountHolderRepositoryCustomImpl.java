@@ -0,0 +1,181 @@
+package me.sathish.accountholdercommand.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.model.request.AccountHolderSearch;
+import me.sathish.accountholdercommand.model.request.KeysetCursor;
+import me.sathish.accountholdercommand.query.AccountHolderView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+class AccountHolderRepositoryCustomImpl implements AccountHolderRepositoryCustom {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Override
+    public List<AccountHolder> findAllAfter(
+            KeysetCursor after, String sortBy, Sort.Direction direction, int limit) {
+        String order = direction.isAscending() ? "asc" : "desc";
+        String comparison = direction.isAscending() ? ">" : "<";
+        boolean byId = "id".equals(sortBy);
+
+        StringBuilder jpql = new StringBuilder("select a from AccountHolder a");
+        if (after != null) {
+            // row value comparison keeps the predicate sargable on the (sortBy, id) index
+            jpql.append(
+                    byId
+                            ? " where a.id " + comparison + " :id"
+                            : " where (a." + sortBy + ", a.id) " + comparison + " (:key, :id)");
+        }
+        jpql.append(" order by ");
+        if (!byId) {
+            jpql.append("a.").append(sortBy).append(' ').append(order).append(", ");
+        }
+        jpql.append("a.id ").append(order);
+
+        TypedQuery<AccountHolder> query =
+                entityManager.createQuery(jpql.toString(), AccountHolder.class);
+        if (after != null) {
+            query.setParameter("id", after.id());
+            if (!byId) {
+                query.setParameter("key", after.key());
+            }
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Slice<Map<String, Object>> findAllProjected(List<String> fields, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<AccountHolder> root = criteriaQuery.from(AccountHolder.class);
+        List<Selection<?>> selections =
+                fields.stream().<Selection<?>>map(field -> root.get(field).alias(field)).toList();
+        criteriaQuery
+                .multiselect(selections)
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        List<Tuple> tuples =
+                entityManager
+                        .createQuery(criteriaQuery)
+                        .setFirstResult((int) pageable.getOffset())
+                        .setMaxResults(pageable.getPageSize() + 1)
+                        .getResultList();
+        boolean hasNext = tuples.size() > pageable.getPageSize();
+        List<Map<String, Object>> rows =
+                tuples.stream()
+                        .limit(pageable.getPageSize())
+                        .map(tuple -> toRow(tuple, fields))
+                        .toList();
+        return new SliceImpl<>(rows, pageable, hasNext);
+    }
+
+    @Override
+    public Slice<AccountHolderView> search(AccountHolderSearch search, Pageable pageable) {
+        // a JPQL string, unlike a criteria query, is translated once and then served from
+        // Hibernate's query plan cache; criteria and sort only pick among fixed fragments
+        StringJoiner where = new StringJoiner(" and ", " where ", "").setEmptyValue("");
+        String upperBound = null;
+        if (search.lastName() != null) {
+            // the range lets the (lastName, id) index seek under any collation, where LIKE only
+            // can with the C collation; the LIKE keeps the exact prefix semantics
+            where.add("a.lastName >= :lastName");
+            upperBound = prefixUpperBound(search.lastName());
+            if (upperBound != null) {
+                where.add("a.lastName < :lastNameUpperBound");
+            }
+            where.add("a.lastName like :lastNamePattern escape '" + LIKE_ESCAPE + "'");
+        }
+        if (search.type() != null) {
+            where.add("a.type = :type");
+        }
+        if (search.dobFrom() != null) {
+            where.add("a.dob >= :dobFrom");
+        }
+        if (search.dobTo() != null) {
+            where.add("a.dob <= :dobTo");
+        }
+
+        StringJoiner orderBy = new StringJoiner(", ", " order by ", "");
+        pageable.getSort()
+                .forEach(
+                        order ->
+                                orderBy.add(
+                                        "a."
+                                                + order.getProperty()
+                                                + (order.isAscending() ? " asc" : " desc")));
+        if (pageable.getSort().getOrderFor("id") == null) {
+            orderBy.add("a.id asc");
+        }
+
+        TypedQuery<AccountHolderView> query =
+                entityManager.createQuery(
+                        AccountHolderRepository.VIEW_QUERY + where + orderBy,
+                        AccountHolderView.class);
+        if (search.lastName() != null) {
+            query.setParameter("lastName", search.lastName());
+            if (upperBound != null) {
+                query.setParameter("lastNameUpperBound", upperBound);
+            }
+            query.setParameter("lastNamePattern", escapeLike(search.lastName()) + '%');
+        }
+        if (search.type() != null) {
+            query.setParameter("type", search.type());
+        }
+        if (search.dobFrom() != null) {
+            query.setParameter("dobFrom", search.dobFrom());
+        }
+        if (search.dobTo() != null) {
+            query.setParameter("dobTo", search.dobTo());
+        }
+
+        List<AccountHolderView> views =
+                query.setFirstResult((int) pageable.getOffset())
+                        .setMaxResults(pageable.getPageSize() + 1)
+                        .getResultList();
+        boolean hasNext = views.size() > pageable.getPageSize();
+        if (hasNext) {
+            views = views.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(views, pageable, hasNext);
+    }
+
+    /** Smallest string greater than every string starting with the prefix, if there is one. */
+    private static String prefixUpperBound(String prefix) {
+        for (int i = prefix.length() - 1; i >= 0; i--) {
+            char last = prefix.charAt(i);
+            if (last != Character.MAX_VALUE) {
+                return prefix.substring(0, i) + (char) (last + 1);
+            }
+        }
+        return null;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static Map<String, Object> toRow(Tuple tuple, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String field : fields) {
+            row.put(field, tuple.get(field));
+        }
+        return row;
+    }
+}
@@ -0,0 +1,241 @@
+package me.sathish.accountholdercommand.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import me.sathish.accountholdercommand.config.ApplicationProperties;
+import me.sathish.accountholdercommand.config.CacheConfig;
+import me.sathish.accountholdercommand.config.logging.Loggable;
+import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.events.AccountHolderOutbox;
+import me.sathish.accountholdercommand.model.response.BulkItemResult;
+import me.sathish.accountholdercommand.model.response.BulkResult;
+import me.sathish.accountholdercommand.ssn.KnownSsns;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports large batches of account holders. Rows are validated and de-duplicated on ssn, then
+ * written in chunks where each chunk runs in its own transaction, so Hibernate can send JDBC
+ * batches and the persistence context is cleared between chunks.
+ */
+@Service
+@Loggable
+@Slf4j
+public class AccountHolderBulkService {
+
+    private final KnownSsns knownSsns;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final AccountHolderOutbox accountHolderOutbox;
+    private final CacheManager cacheManager;
+    private final ApplicationProperties properties;
+
+    public AccountHolderBulkService(
+            KnownSsns knownSsns,
+            EntityManager entityManager,
+            TransactionTemplate transactionTemplate,
+            Validator validator,
+            ObjectMapper objectMapper,
+            AccountHolderOutbox accountHolderOutbox,
+            CacheManager cacheManager,
+            ApplicationProperties properties) {
+        this.knownSsns = knownSsns;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.accountHolderOutbox = accountHolderOutbox;
+        this.cacheManager = cacheManager;
+        this.properties = properties;
+    }
+
+    public BulkResult importAccountHolders(List<AccountHolder> accountHolders) {
+        return importRows(
+                accountHolders.stream().map(accountHolder -> new Row(accountHolder, null)));
+    }
+
+    /** Reads one JSON document per line; malformed lines are reported and skipped. */
+    public BulkResult importNdjson(BufferedReader reader) {
+        return importRows(reader.lines().filter(StringUtils::isNotBlank).map(this::parseLine));
+    }
+
+    private Row parseLine(String line) {
+        try {
+            return new Row(objectMapper.readValue(line, AccountHolder.class), null);
+        } catch (JsonProcessingException e) {
+            return new Row(null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private BulkResult importRows(Stream<Row> rows) {
+        int chunkSize = properties.getBulk().getChunkSize();
+        List<BulkItemResult> results = new ArrayList<>();
+        Set<String> seenSsns = new HashSet<>();
+        List<IndexedAccountHolder> chunk = new ArrayList<>(chunkSize);
+
+        int index = 0;
+        for (Iterator<Row> iterator = rows.iterator(); iterator.hasNext(); index++) {
+            Row row = iterator.next();
+            if (row.parseError() != null) {
+                results.add(rejected(index, null, BulkItemResult.Status.INVALID, row.parseError()));
+                continue;
+            }
+            AccountHolder accountHolder = row.accountHolder();
+            List<String> violations = validate(accountHolder);
+            if (!violations.isEmpty()) {
+                results.add(
+                        new BulkItemResult(
+                                index,
+                                null,
+                                accountHolder.getSsn(),
+                                BulkItemResult.Status.INVALID,
+                                violations));
+            } else if (!seenSsns.add(accountHolder.getSsn())) {
+                results.add(
+                        rejected(
+                                index,
+                                accountHolder.getSsn(),
+                                BulkItemResult.Status.DUPLICATE,
+                                "ssn already present earlier in this request"));
+            } else {
+                chunk.add(new IndexedAccountHolder(index, accountHolder));
+                if (chunk.size() == chunkSize) {
+                    results.addAll(writeChunk(chunk));
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(writeChunk(chunk));
+        }
+        results.sort(Comparator.comparingInt(BulkItemResult::index));
+        return new BulkResult(results);
+    }
+
+    private List<String> validate(AccountHolder accountHolder) {
+        Set<ConstraintViolation<AccountHolder>> violations = validator.validate(accountHolder);
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    private List<BulkItemResult> writeChunk(List<IndexedAccountHolder> chunk) {
+        try {
+            List<BulkItemResult> written = transactionTemplate.execute(status -> upsert(chunk));
+            return written == null ? List.of() : written;
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            // the raw EntityManager flush is not translated, so a constraint violation arrives
+            // as a PersistenceException; either way the chunk was rolled back as a whole
+            log.warn("Bulk chunk of {} account holders failed", chunk.size(), e);
+            String error = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            return chunk.stream()
+                    .map(
+                            row ->
+                                    rejected(
+                                            row.index(),
+                                            row.accountHolder().getSsn(),
+                                            BulkItemResult.Status.FAILED,
+                                            error))
+                    .toList();
+        }
+    }
+
+    private List<BulkItemResult> upsert(List<IndexedAccountHolder> chunk) {
+        List<String> ssns = chunk.stream().map(row -> row.accountHolder().getSsn()).toList();
+        // a chunk of new holders is told apart by the ssn filter without a query; the rows it
+        // does find are locked, so a concurrent single update waits instead of failing the chunk
+        Map<String, AccountHolder> existing =
+                knownSsns.findExisting(ssns).stream()
+                        .collect(Collectors.toMap(AccountHolder::getSsn, Function.identity()));
+
+        // transaction-aware cache: evictions are applied once the chunk commits
+        Cache accountHolderCache = cacheManager.getCache(CacheConfig.ACCOUNT_HOLDERS_CACHE);
+        List<AccountHolder> managed = new ArrayList<>(chunk.size());
+        Map<Long, Long> previousVersions = new HashMap<>();
+        for (IndexedAccountHolder row : chunk) {
+            AccountHolder incoming = row.accountHolder();
+            AccountHolder current = existing.get(incoming.getSsn());
+            if (current == null) {
+                incoming.setId(null);
+                incoming.setVersion(null);
+                entityManager.persist(incoming);
+                managed.add(incoming);
+            } else {
+                current.setFirstName(incoming.getFirstName());
+                current.setLastName(incoming.getLastName());
+                current.setType(incoming.getType());
+                current.setDob(incoming.getDob());
+                previousVersions.put(current.getId(), current.getVersion());
+                if (accountHolderCache != null) {
+                    accountHolderCache.evict(current.getId());
+                }
+                managed.add(current);
+            }
+        }
+        // send the whole chunk as JDBC batches; the flush also sets the updated rows' versions
+        entityManager.flush();
+        for (AccountHolder accountHolder : managed) {
+            if (!existing.containsKey(accountHolder.getSsn())) {
+                accountHolderOutbox.created(accountHolder);
+            } else if (!Objects.equals(
+                    accountHolder.getVersion(), previousVersions.get(accountHolder.getId()))) {
+                // rows the chunk left as they were wrote no version and have no event
+                accountHolderOutbox.updated(accountHolder);
+            }
+        }
+        // then the events, and drop the chunk from the persistence context
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BulkItemResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            AccountHolder accountHolder = managed.get(i);
+            results.add(
+                    new BulkItemResult(
+                            chunk.get(i).index(),
+                            accountHolder.getId(),
+                            accountHolder.getSsn(),
+                            existing.containsKey(accountHolder.getSsn())
+                                    ? BulkItemResult.Status.UPDATED
+                                    : BulkItemResult.Status.CREATED,
+                            List.of()));
+        }
+        return results;
+    }
+
+    private static BulkItemResult rejected(
+            int index, String ssn, BulkItemResult.Status status, String error) {
+        return new BulkItemResult(index, null, ssn, status, List.of(error));
+    }
+
+    private record Row(AccountHolder accountHolder, String parseError) {}
+
+    private record IndexedAccountHolder(int index, AccountHolder accountHolder) {}
+}
@@ -0,0 +1,118 @@
+package me.sathish.accountholdercommand.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import me.sathish.accountholdercommand.config.logging.Loggable;
+import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.repositories.AccountHolderRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes every account holder to an output stream while reading them through a server side cursor.
+ * Each row is detached once written, so heap usage does not grow with the table size. Rows are
+ * buffered and only reach the stream as the buffer fills, never flushed one by one, so the response
+ * goes out in full chunks and compresses as one stream.
+ */
+@Service
+@Loggable
+public class AccountHolderExportService {
+
+    private static final String CSV_HEADER = "id,firstName,lastName,type,ssn,dob";
+
+    private final AccountHolderRepository accountHolderRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public AccountHolderExportService(
+            AccountHolderRepository accountHolderRepository,
+            EntityManager entityManager,
+            ObjectMapper objectMapper) {
+        this.accountHolderRepository = accountHolderRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    @Transactional(readOnly = true)
+    public long export(Format format, OutputStream outputStream) throws IOException {
+        Writer writer =
+                new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        ObjectWriter rowWriter =
+                objectMapper
+                        .writerFor(AccountHolder.class)
+                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // lines are separated explicitly, not by Jackson's default root value separator
+        generator.setRootValueSeparator(null);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long rows = 0;
+        try (Stream<AccountHolder> accountHolders = accountHolderRepository.streamAllBy()) {
+            for (AccountHolder accountHolder : (Iterable<AccountHolder>) accountHolders::iterator) {
+                if (format == Format.CSV) {
+                    writeCsv(writer, accountHolder);
+                } else {
+                    rowWriter.writeValue(generator, accountHolder);
+                    generator.writeRaw('\n');
+                }
+                entityManager.detach(accountHolder);
+                rows++;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.close();
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsv(Writer writer, AccountHolder accountHolder) throws IOException {
+        writer.write(String.valueOf(accountHolder.getId()));
+        for (String value :
+                new String[] {
+                    accountHolder.getFirstName(),
+                    accountHolder.getLastName(),
+                    accountHolder.getType(),
+                    accountHolder.getSsn(),
+                    accountHolder.getDob()
+                }) {
+            writer.write(',');
+            writer.write(csvEscape(value));
+        }
+        writer.write('\n');
+    }
+
+    private static String csvEscape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0
+                && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
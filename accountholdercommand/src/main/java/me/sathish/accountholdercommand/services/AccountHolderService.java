@@ -1,30 +1,92 @@
 package me.sathish.accountholdercommand.services;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import me.sathish.accountholdercommand.config.CacheConfig;
+import me.sathish.accountholdercommand.config.logging.Loggable;
 import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.events.AccountHolderOutbox;
+import me.sathish.accountholdercommand.exception.DuplicateAccountHolderException;
+import me.sathish.accountholdercommand.exception.InvalidCursorException;
+import me.sathish.accountholdercommand.exception.InvalidFieldSelectionException;
+import me.sathish.accountholdercommand.exception.InvalidSearchException;
+import me.sathish.accountholdercommand.model.request.AccountHolderSearch;
+import me.sathish.accountholdercommand.model.request.KeysetCursor;
+import me.sathish.accountholdercommand.model.response.CursorPagedResult;
 import me.sathish.accountholdercommand.model.response.PagedResult;
+import me.sathish.accountholdercommand.query.AccountHolderView;
 import me.sathish.accountholdercommand.repositories.AccountHolderRepository;
+import me.sathish.accountholdercommand.repositories.RowCountEstimator;
+import me.sathish.accountholdercommand.ssn.KnownSsns;
+import me.sathish.accountholdercommand.utils.AppConstants;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.orm.ObjectRetrievalFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Loggable
 @Transactional
 public class AccountHolderService {
 
+    private static final Set<String> KEYSET_SORT_COLUMNS =
+            Set.of("id", "firstName", "lastName", "type", "dob");
+
+    private static final Set<String> SELECTABLE_FIELDS =
+            Set.of("id", "firstName", "lastName", "type", "ssn", "dob");
+
+    /** Search results are only sorted by columns that lead or follow the search indexes. */
+    private static final Set<String> SEARCH_SORT_COLUMNS = Set.of("id", "lastName", "dob");
+
+    private static final String TABLE_NAME = "account_holders";
+
     private final AccountHolderRepository accountHolderRepository;
+    private final RowCountEstimator rowCountEstimator;
+    private final AccountHolderOutbox accountHolderOutbox;
+    private final KnownSsns knownSsns;
 
     @Autowired
-    public AccountHolderService(AccountHolderRepository accountHolderRepository) {
+    public AccountHolderService(
+            AccountHolderRepository accountHolderRepository,
+            RowCountEstimator rowCountEstimator,
+            AccountHolderOutbox accountHolderOutbox,
+            KnownSsns knownSsns) {
         this.accountHolderRepository = accountHolderRepository;
+        this.rowCountEstimator = rowCountEstimator;
+        this.accountHolderOutbox = accountHolderOutbox;
+        this.knownSsns = knownSsns;
     }
 
-    public PagedResult<AccountHolder> findAllAccountHolders(
+    @Transactional(readOnly = true)
+    public PagedResult<AccountHolderView> findAllAccountHolders(
             int pageNo, int pageSize, String sortBy, String sortDir) {
+        return findAllAccountHolders(pageNo, pageSize, sortBy, sortDir, true, true);
+    }
+
+    @Transactional(readOnly = true)
+    public PagedResult<AccountHolderView> findAllAccountHolders(
+            int pageNo,
+            int pageSize,
+            String sortBy,
+            String sortDir,
+            boolean withTotal,
+            boolean exactTotal) {
         Sort sort =
                 sortDir.equalsIgnoreCase(Sort.Direction.ASC.name())
                         ? Sort.by(sortBy).ascending()
@@ -32,20 +94,242 @@ public class AccountHolderService {
 
         // create Pageable instance
         Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
-        Page<AccountHolder> accountHoldersPage = accountHolderRepository.findAll(pageable);
+        if (withTotal && exactTotal) {
+            Page<AccountHolderView> accountHoldersPage =
+                    accountHolderRepository.findViewPage(pageable);
+            return new PagedResult<>(accountHoldersPage);
+        }
+
+        // a Slice is read with a limit+1 query and never issues select count(*)
+        Slice<AccountHolderView> accountHoldersSlice =
+                accountHolderRepository.findViewSlice(pageable);
+        if (!withTotal) {
+            return new PagedResult<>(accountHoldersSlice);
+        }
+        return new PagedResult<>(
+                accountHoldersSlice,
+                rowCountEstimator.estimate(TABLE_NAME, accountHolderRepository::count));
+    }
+
+    /**
+     * Same page as {@link #findAllAccountHolders(int, int, String, String, boolean, boolean)} but
+     * with only the comma separated {@code fields} selected from the table.
+     */
+    @Transactional(readOnly = true)
+    public PagedResult<Map<String, Object>> findAllAccountHolderFields(
+            String fields,
+            int pageNo,
+            int pageSize,
+            String sortBy,
+            String sortDir,
+            boolean withTotal,
+            boolean exactTotal) {
+        List<String> selectedFields = selectedFields(fields);
+        Sort sort =
+                sortDir.equalsIgnoreCase(Sort.Direction.ASC.name())
+                        ? Sort.by(sortBy).ascending()
+                        : Sort.by(sortBy).descending();
+        Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
+        Slice<Map<String, Object>> accountHoldersSlice =
+                accountHolderRepository.findAllProjected(selectedFields, pageable);
+        if (!withTotal) {
+            return new PagedResult<>(accountHoldersSlice);
+        }
+        if (exactTotal) {
+            // the count is skipped when the page itself shows where the table ends
+            return new PagedResult<>(
+                    PageableExecutionUtils.getPage(
+                            accountHoldersSlice.getContent(),
+                            pageable,
+                            accountHolderRepository::count));
+        }
+        return new PagedResult<>(
+                accountHoldersSlice,
+                rowCountEstimator.estimate(TABLE_NAME, accountHolderRepository::count));
+    }
+
+    /**
+     * One page of the account holders matching every given criterion of {@code search}. At least
+     * one criterion is required, so a search never degrades into a scan of the whole table, and no
+     * total is counted.
+     */
+    @Transactional(readOnly = true)
+    public PagedResult<AccountHolderView> searchAccountHolders(
+            AccountHolderSearch search, int pageNo, int pageSize, String sortBy, String sortDir) {
+        validate(search);
+        if (!SEARCH_SORT_COLUMNS.contains(sortBy)) {
+            throw new InvalidSearchException(
+                    "Search cannot be sorted by '"
+                            + sortBy
+                            + "', expected any of "
+                            + SEARCH_SORT_COLUMNS.stream().sorted().toList());
+        }
+        Sort sort =
+                sortDir.equalsIgnoreCase(Sort.Direction.ASC.name())
+                        ? Sort.by(sortBy).ascending()
+                        : Sort.by(sortBy).descending();
+        Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
+        return new PagedResult<>(accountHolderRepository.search(search, pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPagedResult<AccountHolder> findAccountHoldersAfter(
+            String after, int pageSize, String sortBy, String sortDir) {
+        if (!KEYSET_SORT_COLUMNS.contains(sortBy)) {
+            throw new InvalidCursorException(
+                    "Keyset pagination is not supported for sortBy '" + sortBy + "'");
+        }
+        // each page is read with one row more than asked for
+        if (pageSize < 1 || pageSize > AppConstants.MAX_KEYSET_PAGE_SIZE) {
+            throw new InvalidCursorException(
+                    "pageSize must be between 1 and "
+                            + AppConstants.MAX_KEYSET_PAGE_SIZE
+                            + ", got "
+                            + pageSize);
+        }
+        Sort.Direction direction =
+                sortDir.equalsIgnoreCase(Sort.Direction.ASC.name())
+                        ? Sort.Direction.ASC
+                        : Sort.Direction.DESC;
+        KeysetCursor cursor = null;
+        if (StringUtils.isNotBlank(after)) {
+            cursor = KeysetCursor.decode(after);
+            if (!cursor.matches(sortBy, direction)) {
+                throw new InvalidCursorException(
+                        "Cursor was issued for a different sortBy/sortDir combination");
+            }
+        }
 
-        return new PagedResult<>(accountHoldersPage);
+        // fetch one extra row to learn whether another page exists without a count query
+        List<AccountHolder> accountHolders =
+                accountHolderRepository.findAllAfter(cursor, sortBy, direction, pageSize + 1);
+        boolean hasNext = accountHolders.size() > pageSize;
+        if (hasNext) {
+            accountHolders = accountHolders.subList(0, pageSize);
+        }
+        String next = null;
+        if (hasNext) {
+            AccountHolder last = accountHolders.get(accountHolders.size() - 1);
+            next =
+                    new KeysetCursor(sortBy, direction, sortKeyOf(last, sortBy), last.getId())
+                            .encode();
+        }
+        return new CursorPagedResult<>(accountHolders, pageSize, hasNext, next);
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(
+            cacheNames = CacheConfig.ACCOUNT_HOLDERS_CACHE,
+            key = "#id",
+            unless = "#result == null")
     public Optional<AccountHolder> findAccountHolderById(Long id) {
         return accountHolderRepository.findById(id);
     }
 
+    @CachePut(cacheNames = CacheConfig.ACCOUNT_HOLDERS_CACHE, key = "#result.id")
     public AccountHolder saveAccountHolder(AccountHolder accountHolder) {
-        return accountHolderRepository.save(accountHolder);
+        boolean isNew = accountHolder.getId() == null;
+        // rejected up front instead of by the unique constraint, which would fail the flush
+        if (isNew && knownSsns.exists(accountHolder.getSsn())) {
+            throw new DuplicateAccountHolderException(
+                    "An account holder with this ssn already exists");
+        }
+        if (isNew) {
+            AccountHolder savedAccountHolder = accountHolderRepository.save(accountHolder);
+            accountHolderOutbox.created(savedAccountHolder);
+            return savedAccountHolder;
+        }
+        // the update replaces the row as it is now; the client never sees the version
+        AccountHolder current =
+                accountHolderRepository
+                        .findByIdForUpdate(accountHolder.getId())
+                        .orElseThrow(
+                                () ->
+                                        new ObjectRetrievalFailureException(
+                                                AccountHolder.class, accountHolder.getId()));
+        Long previousVersion = current.getVersion();
+        current.setFirstName(accountHolder.getFirstName());
+        current.setLastName(accountHolder.getLastName());
+        current.setType(accountHolder.getType());
+        current.setSsn(accountHolder.getSsn());
+        current.setDob(accountHolder.getDob());
+        // flushed so the event carries the version this update wrote
+        AccountHolder savedAccountHolder = accountHolderRepository.saveAndFlush(current);
+        // an update that changed nothing wrote no version and has no event
+        if (!Objects.equals(savedAccountHolder.getVersion(), previousVersion)) {
+            accountHolderOutbox.updated(savedAccountHolder);
+        }
+        return savedAccountHolder;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNT_HOLDERS_CACHE, key = "#id")
     public void deleteAccountHolderById(Long id) {
-        accountHolderRepository.deleteById(id);
+        // read past the second-level cache, whose copy may carry a version another instance
+        // has since moved on from, and the delete would then fail on it
+        accountHolderRepository
+                .findByIdForUpdate(id)
+                .ifPresent(
+                        accountHolder -> {
+                            accountHolderRepository.delete(accountHolder);
+                            accountHolderOutbox.deleted(accountHolder);
+                        });
+    }
+
+    private static List<String> selectedFields(String fields) {
+        List<String> selectedFields =
+                Arrays.stream(StringUtils.split(fields, ','))
+                        .map(String::trim)
+                        .filter(StringUtils::isNotEmpty)
+                        .distinct()
+                        .toList();
+        String expected = ", expected any of " + SELECTABLE_FIELDS.stream().sorted().toList();
+        if (selectedFields.isEmpty()) {
+            throw new InvalidFieldSelectionException("No fields selected" + expected);
+        }
+        for (String field : selectedFields) {
+            if (!SELECTABLE_FIELDS.contains(field)) {
+                throw new InvalidFieldSelectionException(
+                        "Unknown field '" + field + "'" + expected);
+            }
+        }
+        return selectedFields;
+    }
+
+    private static void validate(AccountHolderSearch search) {
+        if (search.isEmpty()) {
+            throw new InvalidSearchException(
+                    "Search needs at least one of lastName, type, dobFrom or dobTo");
+        }
+        if (search.lastName() != null && search.lastName().isBlank()) {
+            throw new InvalidSearchException("lastName prefix cannot be blank");
+        }
+        // dob is validated as an ISO date on every write, so its text order is its date order
+        LocalDate dobFrom = parseDob("dobFrom", search.dobFrom());
+        LocalDate dobTo = parseDob("dobTo", search.dobTo());
+        if (dobFrom != null && dobTo != null && dobFrom.isAfter(dobTo)) {
+            throw new InvalidSearchException("dobFrom must not be after dobTo");
+        }
+    }
+
+    private static LocalDate parseDob(String name, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidSearchException(
+                    name + " must be an ISO date like 1990-01-31, got '" + value + "'");
+        }
+    }
+
+    private static String sortKeyOf(AccountHolder accountHolder, String sortBy) {
+        return switch (sortBy) {
+            case "firstName" -> accountHolder.getFirstName();
+            case "lastName" -> accountHolder.getLastName();
+            case "type" -> accountHolder.getType();
+            case "dob" -> accountHolder.getDob();
+            default -> String.valueOf(accountHolder.getId());
+        };
     }
 }
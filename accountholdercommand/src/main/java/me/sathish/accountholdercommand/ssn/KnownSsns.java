@@ -0,0 +1,177 @@
+package me.sathish.accountholdercommand.ssn;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import me.sathish.accountholdercommand.config.ApplicationProperties;
+import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.entities.AccountHolderEvent;
+import me.sathish.accountholdercommand.events.InMemoryAccountHolderEventSink;
+import me.sathish.accountholdercommand.repositories.AccountHolderRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Answers "does an account holder with this ssn exist" with a Bloom filter of the stored ssn hashes
+ * in front of the {@code ssn_hash} index, so the common case of a new holder needs no database
+ * round trip. The filter is loaded from the table once the application is ready and learns every
+ * ssn this instance writes as well as those in the outbox events it relays; until it is loaded
+ * every lookup goes to the database.
+ *
+ * <p>A write by another instance that has not reached this one yet is missed by the filter; the
+ * unique constraint on {@code ssn_hash} still rejects such a duplicate on insert.
+ *
+ * <p>{@code account_holders.ssn_filter.checks} counts lookups by {@code result}: absent (answered
+ * by the filter), present, or false_positive (the filter sent it to the database for nothing).
+ */
+@Component
+@Slf4j
+public class KnownSsns {
+
+    static final String CHECKS_METER = "account_holders.ssn_filter.checks";
+
+    private final SsnHasher ssnHasher;
+    private final AccountHolderRepository accountHolderRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final SsnBloomFilter bloomFilter;
+    private final Counter absent;
+    private final Counter present;
+    private final Counter falsePositive;
+
+    private volatile boolean loaded;
+
+    public KnownSsns(
+            SsnHasher ssnHasher,
+            AccountHolderRepository accountHolderRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            ApplicationProperties properties,
+            MeterRegistry meterRegistry,
+            ObjectProvider<InMemoryAccountHolderEventSink> eventSink) {
+        this.ssnHasher = ssnHasher;
+        this.accountHolderRepository = accountHolderRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        ApplicationProperties.Ssn ssn = properties.getSsn();
+        this.bloomFilter = new SsnBloomFilter(ssn.getExpectedHolders(), ssn.getFalsePositiveRate());
+        this.absent = checks(meterRegistry, "absent");
+        this.present = checks(meterRegistry, "present");
+        this.falsePositive = checks(meterRegistry, "false_positive");
+        Gauge.builder(
+                        "account_holders.ssn_filter.expected_fpp",
+                        bloomFilter,
+                        SsnBloomFilter::expectedFalsePositiveRate)
+                .description("False positive rate of the ssn Bloom filter at its current fill")
+                .register(meterRegistry);
+        eventSink.ifAvailable(sink -> sink.subscribe(this::apply));
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(CHECKS_METER)
+                .description("Account holder ssn lookups by how they were answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        load();
+    }
+
+    /** Adds every stored ssn hash to the filter; writes meanwhile are added as they happen. */
+    public void load() {
+        long startedAt = System.nanoTime();
+        Long count =
+                readOnlyTransactionTemplate.execute(
+                        status -> {
+                            try (Stream<String> ssnHashes =
+                                    accountHolderRepository.streamAllSsnHashes()) {
+                                long loadedHashes = 0;
+                                for (String ssnHash : (Iterable<String>) ssnHashes::iterator) {
+                                    bloomFilter.put(ssnHash);
+                                    loadedHashes++;
+                                }
+                                return loadedHashes;
+                            }
+                        });
+        this.loaded = true;
+        log.info(
+                "Loaded {} ssn hashes into the duplicate filter in {} ms",
+                count,
+                (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /** Records an ssn being written, before its transaction commits. */
+    public void add(String ssnHash) {
+        bloomFilter.put(ssnHash);
+    }
+
+    public boolean exists(String ssn) {
+        String ssnHash = ssnHasher.hash(ssn);
+        if (loaded && !bloomFilter.mightContain(ssnHash)) {
+            absent.increment();
+            return false;
+        }
+        boolean exists = accountHolderRepository.existsBySsnHash(ssnHash);
+        countFromDatabase(1, exists ? 1 : 0);
+        return exists;
+    }
+
+    /**
+     * The stored account holders among the given ssns, reading only those the filter may know. The
+     * rows are locked until the caller's transaction ends.
+     */
+    public List<AccountHolder> findExisting(Collection<String> ssns) {
+        List<String> candidates = ssns.stream().map(ssnHasher::hash).toList();
+        if (loaded) {
+            List<String> known = candidates.stream().filter(bloomFilter::mightContain).toList();
+            absent.increment(candidates.size() - known.size());
+            candidates = known;
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        List<AccountHolder> existing = accountHolderRepository.findAllBySsnHashInForUpdate(candidates);
+        countFromDatabase(candidates.size(), existing.size());
+        return existing;
+    }
+
+    private void countFromDatabase(int checked, int found) {
+        if (!loaded) {
+            return;
+        }
+        present.increment(found);
+        falsePositive.increment(checked - found);
+    }
+
+    private void apply(AccountHolderEvent event) {
+        if (event.getType() == AccountHolderEvent.Type.DELETED) {
+            return;
+        }
+        try {
+            JsonNode ssn = objectMapper.readTree(event.getPayload()).get("ssn");
+            if (ssn != null && ssn.isTextual()) {
+                bloomFilter.put(ssnHasher.hash(ssn.asText()));
+            }
+        } catch (JsonProcessingException e) {
+            log.error("Skipping unreadable account holder event {}", event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package me.sathish.accountholdercommand.ssn;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over {@link SsnHasher} hashes. The hashes are already uniformly
+ * distributed, so the probe positions are derived from their first 16 bytes by double hashing
+ * instead of hashing again.
+ */
+class SsnBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int probes;
+
+    SsnBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long optimalBits =
+                (long)
+                        Math.ceil(
+                                -expectedInsertions
+                                        * Math.log(falsePositiveRate)
+                                        / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray((int) Math.max(1, (optimalBits + 63) / 64));
+        this.bits = words.length() * 64L;
+        this.probes =
+                Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+    }
+
+    void put(String ssnHash) {
+        ByteBuffer digest = decode(ssnHash);
+        long h1 = digest.getLong();
+        long h2 = digest.getLong();
+        for (int i = 0; i < probes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /** {@code false} means never put; {@code true} means probably put. */
+    boolean mightContain(String ssnHash) {
+        ByteBuffer digest = decode(ssnHash);
+        long h1 = digest.getLong();
+        long h2 = digest.getLong();
+        for (int i = 0; i < probes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** False positive rate at the current fill: the chance that every probe hits a set bit. */
+    double expectedFalsePositiveRate() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) set / bits, probes);
+    }
+
+    private static ByteBuffer decode(String ssnHash) {
+        return ByteBuffer.wrap(Base64.getUrlDecoder().decode(ssnHash));
+    }
+}
@@ -0,0 +1,32 @@
+package me.sathish.accountholdercommand.ssn;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import me.sathish.accountholdercommand.entities.AccountHolder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/** Keeps {@code ssnHash} in step with {@code ssn} on every insert and update. */
+@Component
+public class SsnHashListener {
+
+    private final SsnHasher ssnHasher;
+    private final ObjectProvider<KnownSsns> knownSsns;
+
+    /** Hibernate builds its listeners with the EntityManagerFactory, before KnownSsns can exist. */
+    public SsnHashListener(SsnHasher ssnHasher, ObjectProvider<KnownSsns> knownSsns) {
+        this.ssnHasher = ssnHasher;
+        this.knownSsns = knownSsns;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void hashSsn(AccountHolder accountHolder) {
+        if (accountHolder.getSsn() == null) {
+            return;
+        }
+        String ssnHash = ssnHasher.hash(accountHolder.getSsn());
+        accountHolder.setSsnHash(ssnHash);
+        knownSsns.ifAvailable(filter -> filter.add(ssnHash));
+    }
+}
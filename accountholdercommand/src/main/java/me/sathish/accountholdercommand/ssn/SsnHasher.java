@@ -0,0 +1,63 @@
+package me.sathish.accountholdercommand.ssn;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import me.sathish.accountholdercommand.config.ApplicationProperties;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keyed, deterministic hash of an ssn stored in {@code account_holders.ssn_hash}: HMAC-SHA256 with
+ * {@code application.ssn.hash-key}, base64url encoded. Equal ssns always hash alike, so the unique
+ * index on the hash answers lookups, while the hash alone cannot be reversed by enumerating the
+ * small ssn space without the key.
+ */
+@Component
+public class SsnHasher {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    /**
+     * Initialised once and cloned per hash: a clone skips the provider lookup and key setup, and
+     * unlike a {@code ThreadLocal} it is not lost with every request's fresh virtual thread.
+     */
+    private final Mac prototype;
+
+    public SsnHasher(ApplicationProperties properties) {
+        String hashKey = properties.getSsn().getHashKey();
+        if (StringUtils.isBlank(hashKey)) {
+            throw new IllegalStateException(
+                    "application.ssn.hash-key must be set, e.g. through SSN_HASH_KEY");
+        }
+        this.key = new SecretKeySpec(hashKey.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.prototype = newMac();
+    }
+
+    public String hash(String ssn) {
+        byte[] digest = mac().doFinal(ssn.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    private Mac mac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return newMac();
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
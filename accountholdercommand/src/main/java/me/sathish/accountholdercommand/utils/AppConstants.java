@@ -7,6 +7,8 @@ public final class AppConstants {
     public static final String PROFILE_NOT_TEST = "!" + PROFILE_TEST;
     public static final String DEFAULT_PAGE_NUMBER = "0";
     public static final String DEFAULT_PAGE_SIZE = "10";
+    /** Largest page read without an offset: a keyset page or a read model search. */
+    public static final int MAX_KEYSET_PAGE_SIZE = 1000;
     public static final String DEFAULT_SORT_BY = "id";
     public static final String DEFAULT_SORT_DIRECTION = "asc";
 }
@@ -1,12 +1,29 @@
 package me.sathish.accountholdercommand.web.controllers;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.exception.InvalidFieldSelectionException;
+import me.sathish.accountholdercommand.model.request.AccountHolderSearch;
+import me.sathish.accountholdercommand.model.response.BulkResult;
+import me.sathish.accountholdercommand.model.response.CursorPagedResult;
 import me.sathish.accountholdercommand.model.response.PagedResult;
+import me.sathish.accountholdercommand.query.AccountHolderView;
+import me.sathish.accountholdercommand.services.AccountHolderBulkService;
+import me.sathish.accountholdercommand.services.AccountHolderExportService;
 import me.sathish.accountholdercommand.services.AccountHolderService;
 import me.sathish.accountholdercommand.utils.AppConstants;
+import org.apache.commons.lang3.EnumUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -19,6 +36,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/accounholder")
@@ -26,14 +44,113 @@ import org.springframework.web.bind.annotation.RestController;
 public class AccountHolderController {
 
     private final AccountHolderService accountHolderService;
+    private final AccountHolderBulkService accountHolderBulkService;
+    private final AccountHolderExportService accountHolderExportService;
 
     @Autowired
-    public AccountHolderController(AccountHolderService accountHolderService) {
+    public AccountHolderController(
+            AccountHolderService accountHolderService,
+            AccountHolderBulkService accountHolderBulkService,
+            AccountHolderExportService accountHolderExportService) {
         this.accountHolderService = accountHolderService;
+        this.accountHolderBulkService = accountHolderBulkService;
+        this.accountHolderExportService = accountHolderExportService;
     }
 
     @GetMapping
-    public PagedResult<AccountHolder> getAllAccountHolders(
+    public PagedResult<AccountHolderView> getAllAccountHolders(
+            @RequestParam(
+                            value = "pageNo",
+                            defaultValue = AppConstants.DEFAULT_PAGE_NUMBER,
+                            required = false)
+                    int pageNo,
+            @RequestParam(
+                            value = "pageSize",
+                            defaultValue = AppConstants.DEFAULT_PAGE_SIZE,
+                            required = false)
+                    int pageSize,
+            @RequestParam(
+                            value = "sortBy",
+                            defaultValue = AppConstants.DEFAULT_SORT_BY,
+                            required = false)
+                    String sortBy,
+            @RequestParam(
+                            value = "sortDir",
+                            defaultValue = AppConstants.DEFAULT_SORT_DIRECTION,
+                            required = false)
+                    String sortDir,
+            @RequestParam(value = "withTotal", defaultValue = "true", required = false)
+                    boolean withTotal,
+            @RequestParam(value = "exactTotal", defaultValue = "true", required = false)
+                    boolean exactTotal) {
+        return accountHolderService.findAllAccountHolders(
+                pageNo, pageSize, sortBy, sortDir, withTotal, exactTotal);
+    }
+
+    @GetMapping(params = {"fields", "!after"})
+    public PagedResult<Map<String, Object>> getAllAccountHolderFields(
+            @RequestParam(value = "fields") String fields,
+            @RequestParam(
+                            value = "pageNo",
+                            defaultValue = AppConstants.DEFAULT_PAGE_NUMBER,
+                            required = false)
+                    int pageNo,
+            @RequestParam(
+                            value = "pageSize",
+                            defaultValue = AppConstants.DEFAULT_PAGE_SIZE,
+                            required = false)
+                    int pageSize,
+            @RequestParam(
+                            value = "sortBy",
+                            defaultValue = AppConstants.DEFAULT_SORT_BY,
+                            required = false)
+                    String sortBy,
+            @RequestParam(
+                            value = "sortDir",
+                            defaultValue = AppConstants.DEFAULT_SORT_DIRECTION,
+                            required = false)
+                    String sortDir,
+            @RequestParam(value = "withTotal", defaultValue = "true", required = false)
+                    boolean withTotal,
+            @RequestParam(value = "exactTotal", defaultValue = "true", required = false)
+                    boolean exactTotal) {
+        return accountHolderService.findAllAccountHolderFields(
+                fields, pageNo, pageSize, sortBy, sortDir, withTotal, exactTotal);
+    }
+
+    @GetMapping(params = "after")
+    public CursorPagedResult<AccountHolder> getAccountHoldersAfter(
+            @RequestParam(value = "after") String after,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(
+                            value = "pageSize",
+                            defaultValue = AppConstants.DEFAULT_PAGE_SIZE,
+                            required = false)
+                    int pageSize,
+            @RequestParam(
+                            value = "sortBy",
+                            defaultValue = AppConstants.DEFAULT_SORT_BY,
+                            required = false)
+                    String sortBy,
+            @RequestParam(
+                            value = "sortDir",
+                            defaultValue = AppConstants.DEFAULT_SORT_DIRECTION,
+                            required = false)
+                    String sortDir) {
+        // keyset pages are full entities; answering a projection with them would hide the mistake
+        if (fields != null) {
+            throw new InvalidFieldSelectionException(
+                    "fields cannot be combined with after; page by pageNo to select fields");
+        }
+        return accountHolderService.findAccountHoldersAfter(after, pageSize, sortBy, sortDir);
+    }
+
+    @GetMapping("/search")
+    public PagedResult<AccountHolderView> searchAccountHolders(
+            @RequestParam(value = "lastName", required = false) String lastName,
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "dobFrom", required = false) String dobFrom,
+            @RequestParam(value = "dobTo", required = false) String dobTo,
             @RequestParam(
                             value = "pageNo",
                             defaultValue = AppConstants.DEFAULT_PAGE_NUMBER,
@@ -54,7 +171,35 @@ public class AccountHolderController {
                             defaultValue = AppConstants.DEFAULT_SORT_DIRECTION,
                             required = false)
                     String sortDir) {
-        return accountHolderService.findAllAccountHolders(pageNo, pageSize, sortBy, sortDir);
+        return accountHolderService.searchAccountHolders(
+                new AccountHolderSearch(lastName, type, dobFrom, dobTo),
+                pageNo,
+                pageSize,
+                sortBy,
+                sortDir);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAccountHolders(
+            @RequestParam(value = "format", defaultValue = "ndjson", required = false)
+                    String format) {
+        AccountHolderExportService.Format exportFormat =
+                EnumUtils.getEnumIgnoreCase(AccountHolderExportService.Format.class, format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        MediaType contentType =
+                exportFormat == AccountHolderExportService.Format.CSV
+                        ? new MediaType("text", "csv")
+                        : MediaType.APPLICATION_NDJSON;
+        StreamingResponseBody body =
+                outputStream -> accountHolderExportService.export(exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=account_holders." + exportFormat.name().toLowerCase())
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -71,9 +216,22 @@ public class AccountHolderController {
         return accountHolderService.saveAccountHolder(accountHolder);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkResult createAccountHolders(@RequestBody List<AccountHolder> accountHolders) {
+        return accountHolderBulkService.importAccountHolders(accountHolders);
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BulkResult createAccountHoldersFromNdjson(InputStream body) throws IOException {
+        try (BufferedReader reader =
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            return accountHolderBulkService.importNdjson(reader);
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<AccountHolder> updateAccountHolder(
-            @PathVariable Long id, @RequestBody AccountHolder accountHolder) {
+            @PathVariable Long id, @RequestBody @Validated AccountHolder accountHolder) {
         return accountHolderService
                 .findAccountHolderById(id)
                 .map(
@@ -0,0 +1,79 @@
+package me.sathish.accountholdercommand.web.controllers;
+
+import java.util.List;
+import java.util.Optional;
+import me.sathish.accountholdercommand.exception.InvalidSearchException;
+import me.sathish.accountholdercommand.model.request.SsnLookup;
+import me.sathish.accountholdercommand.query.AccountHolderReadModel;
+import me.sathish.accountholdercommand.query.AccountHolderView;
+import me.sathish.accountholdercommand.utils.AppConstants;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Read endpoints served from the in-memory projection; 503 until the first snapshot loads. The
+ * projection is reloaded through {@code /actuator/readmodel}.
+ */
+@RestController
+@RequestMapping("/api/accounholder/query")
+public class AccountHolderQueryController {
+
+    private final AccountHolderReadModel accountHolderReadModel;
+
+    @Autowired
+    public AccountHolderQueryController(AccountHolderReadModel accountHolderReadModel) {
+        this.accountHolderReadModel = accountHolderReadModel;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<AccountHolderView>> searchAccountHolders(
+            @RequestParam(value = "lastNamePrefix", required = false) String lastNamePrefix,
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(
+                            value = "limit",
+                            defaultValue = AppConstants.DEFAULT_PAGE_SIZE,
+                            required = false)
+                    int limit) {
+        if (limit < 1 || limit > AppConstants.MAX_KEYSET_PAGE_SIZE) {
+            throw new InvalidSearchException(
+                    "limit must be between 1 and "
+                            + AppConstants.MAX_KEYSET_PAGE_SIZE
+                            + ", got "
+                            + limit);
+        }
+        if (!accountHolderReadModel.isLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(accountHolderReadModel.search(lastNamePrefix, type, limit));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<AccountHolderView> getAccountHolderById(@PathVariable Long id) {
+        return toResponse(accountHolderReadModel.findById(id));
+    }
+
+    @PostMapping("/ssn")
+    public ResponseEntity<AccountHolderView> getAccountHolderBySsn(
+            @RequestBody SsnLookup ssnLookup) {
+        if (StringUtils.isBlank(ssnLookup.ssn())) {
+            throw new InvalidSearchException("ssn cannot be blank");
+        }
+        return toResponse(accountHolderReadModel.findBySsn(ssnLookup.ssn()));
+    }
+
+    private ResponseEntity<AccountHolderView> toResponse(Optional<AccountHolderView> view) {
+        if (!accountHolderReadModel.isLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return view.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,116 @@
+package me.sathish.accountholdercommand.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import me.sathish.accountholdercommand.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ReadYourWritesFilterTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private ApplicationProperties.Replica replica;
+
+    @BeforeEach
+    void setUp() {
+        replica = new ApplicationProperties.Replica();
+        replica.setReadYourWritesKey("test-read-your-writes-key");
+    }
+
+    @Test
+    void answersWritesWithToken() throws Exception {
+        MockHttpServletResponse response =
+                request(filterAt(NOW), "POST", "client-a", null).response;
+
+        assertThat(response.getHeader(ReadYourWritesFilter.TOKEN_HEADER))
+                .startsWith(NOW.plus(replica.getReadYourWritesWindow()).toEpochMilli() + ".");
+    }
+
+    @Test
+    void doesNotAnswerReadsWithToken() throws Exception {
+        MockHttpServletResponse response = request(filterAt(NOW), "GET", "client-a", null).response;
+
+        assertThat(response.getHeader(ReadYourWritesFilter.TOKEN_HEADER)).isNull();
+    }
+
+    @Test
+    void pinsReadWithTokenOnAnotherInstance() throws Exception {
+        String token =
+                request(filterAt(NOW), "PUT", "client-a", null)
+                        .response
+                        .getHeader(ReadYourWritesFilter.TOKEN_HEADER);
+
+        ReadYourWritesFilter otherInstance = filterAt(NOW.plusSeconds(1));
+
+        assertThat(request(otherInstance, "GET", "client-a", token).pinned).isTrue();
+        assertThat(request(otherInstance, "GET", "client-a", null).pinned).isFalse();
+    }
+
+    @Test
+    void doesNotPinReadWithExpiredToken() throws Exception {
+        String token =
+                request(filterAt(NOW), "PUT", "client-a", null)
+                        .response
+                        .getHeader(ReadYourWritesFilter.TOKEN_HEADER);
+
+        ReadYourWritesFilter later =
+                filterAt(NOW.plus(replica.getReadYourWritesWindow()).plusMillis(1));
+
+        assertThat(request(later, "GET", "client-a", token).pinned).isFalse();
+    }
+
+    @Test
+    void doesNotPinReadWithForgedToken() throws Exception {
+        long farFuture = NOW.plus(Duration.ofDays(365)).toEpochMilli();
+        ReadYourWritesFilter filter = filterAt(NOW);
+
+        assertThat(request(filter, "GET", "client-a", farFuture + ".forged").pinned).isFalse();
+        assertThat(request(filter, "GET", "client-a", "garbage").pinned).isFalse();
+    }
+
+    @Test
+    void pinsClientThatWroteOnSameInstanceWithoutToken() throws Exception {
+        ReadYourWritesFilter filter = filterAt(NOW);
+        request(filter, "DELETE", "client-a", null);
+
+        assertThat(request(filter, "GET", "client-a", null).pinned).isTrue();
+        assertThat(request(filter, "GET", "client-b", null).pinned).isFalse();
+    }
+
+    @Test
+    void requiresKey() {
+        replica.setReadYourWritesKey(" ");
+
+        assertThatIllegalStateException().isThrownBy(() -> new ReadYourWritesFilter(replica));
+    }
+
+    private ReadYourWritesFilter filterAt(Instant now) {
+        return new ReadYourWritesFilter(replica, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static Exchange request(
+            ReadYourWritesFilter filter, String method, String client, String token)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/users");
+        request.addHeader("X-Client-Id", client);
+        if (token != null) {
+            request.addHeader(ReadYourWritesFilter.TOKEN_HEADER, token);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<Boolean> pinned = new ArrayList<>();
+        filter.doFilter(request, response, (req, res) -> pinned.add(filter.isPinnedToPrimary()));
+        return new Exchange(response, pinned.get(0));
+    }
+
+    private record Exchange(MockHttpServletResponse response, boolean pinned) {}
+}
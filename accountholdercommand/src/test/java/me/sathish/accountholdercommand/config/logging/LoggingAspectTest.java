@@ -0,0 +1,55 @@
+package me.sathish.accountholdercommand.config.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.sathish.accountholdercommand.exception.DuplicateAccountHolderException;
+import me.sathish.accountholdercommand.exception.ErrorDetailProblemHandlingControllerAdvice;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mock.env.MockEnvironment;
+
+@ExtendWith(OutputCaptureExtension.class)
+class LoggingAspectTest {
+
+    private final JoinPoint joinPoint = mock(JoinPoint.class);
+
+    private LoggingAspect loggingAspect;
+
+    @BeforeEach
+    void setUp() {
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean(ErrorDetailProblemHandlingControllerAdvice.class);
+        applicationContext.refresh();
+        loggingAspect =
+                new LoggingAspect(
+                        new MockEnvironment(), new SimpleMeterRegistry(), applicationContext);
+        Signature signature = mock(Signature.class);
+        given(signature.getDeclaringTypeName()).willReturn("AccountHolderService");
+        given(signature.getName()).willReturn("saveAccountHolder");
+        given(joinPoint.getSignature()).willReturn(signature);
+    }
+
+    @Test
+    void shouldNotLogExceptionsHandledByControllerAdvice(CapturedOutput output) {
+        loggingAspect.logAfterThrowing(
+                joinPoint, new DuplicateAccountHolderException("duplicate ssn"));
+
+        assertThat(output).doesNotContain("Exception in AccountHolderService");
+    }
+
+    @Test
+    void shouldLogUnexpectedExceptions(CapturedOutput output) {
+        loggingAspect.logAfterThrowing(joinPoint, new IllegalStateException("broken"));
+
+        assertThat(output).contains("Exception in AccountHolderService.saveAccountHolder()");
+    }
+}
@@ -0,0 +1,133 @@
+package me.sathish.accountholdercommand.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.times;
+import static org.mockito.BDDMockito.verify;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import me.sathish.accountholdercommand.config.ApplicationProperties;
+import me.sathish.accountholdercommand.entities.AccountHolderEvent;
+import me.sathish.accountholdercommand.entities.AccountHolderEventSequence;
+import me.sathish.accountholdercommand.repositories.AccountHolderEventRepository;
+import me.sathish.accountholdercommand.repositories.AccountHolderEventSequenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class AccountHolderOutboxRelayTest {
+
+    @Mock private AccountHolderEventRepository accountHolderEventRepository;
+    @Mock private AccountHolderEventSequenceRepository accountHolderEventSequenceRepository;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private final InMemoryAccountHolderEventSink sink = new InMemoryAccountHolderEventSink();
+
+    private final AccountHolderEventSequence sequence =
+            new AccountHolderEventSequence(AccountHolderEventSequence.ID, 40L);
+
+    private AccountHolderOutboxRelay accountHolderOutboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getOutbox().setBatchSize(2);
+        accountHolderOutboxRelay =
+                new AccountHolderOutboxRelay(
+                        accountHolderEventRepository,
+                        accountHolderEventSequenceRepository,
+                        sink,
+                        transactionTemplate,
+                        properties);
+        given(transactionTemplate.execute(any()))
+                .willAnswer(
+                        invocation ->
+                                invocation
+                                        .<TransactionCallback<?>>getArgument(0)
+                                        .doInTransaction(null));
+        given(accountHolderEventSequenceRepository.findByIdForUpdate(AccountHolderEventSequence.ID))
+                .willReturn(Optional.of(sequence));
+    }
+
+    @Test
+    void relayPendingPublishesInVersionOrderAndMarksEvents() {
+        // given
+        List<AccountHolderEvent> received = new ArrayList<>();
+        sink.subscribe(received::add);
+        List<AccountHolderEvent> firstBatch =
+                List.of(
+                        event(51L, 10L, 0L, AccountHolderEvent.Type.CREATED),
+                        event(2L, 10L, 1L, AccountHolderEvent.Type.UPDATED));
+        List<AccountHolderEvent> secondBatch =
+                List.of(event(3L, 10L, 2L, AccountHolderEvent.Type.DELETED));
+        given(accountHolderEventRepository.findUnpublished(PageRequest.of(0, 2)))
+                .willReturn(firstBatch, secondBatch);
+        // when
+        int relayed = accountHolderOutboxRelay.relayPending();
+        // then
+        assertThat(relayed).isEqualTo(3);
+        assertThat(received)
+                .extracting(AccountHolderEvent::getAggregateVersion)
+                .containsExactly(0L, 1L, 2L);
+        assertThat(received).allSatisfy(event -> assertThat(event.getPublishedAt()).isNotNull());
+        assertThat(received)
+                .extracting(AccountHolderEvent::getPublishSequence)
+                .containsExactly(41L, 42L, 43L);
+        assertThat(sequence.getLastPublished()).isEqualTo(43L);
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void relayPendingLeavesEventsUnpublishedWhenSinkFails() {
+        // given
+        sink.subscribe(
+                event -> {
+                    throw new IllegalStateException("broker unavailable");
+                });
+        AccountHolderEvent event = event(1L, 10L, 0L, AccountHolderEvent.Type.CREATED);
+        given(accountHolderEventRepository.findUnpublished(PageRequest.of(0, 2)))
+                .willReturn(List.of(event));
+        // when
+        assertThatThrownBy(() -> accountHolderOutboxRelay.relayPending())
+                .isInstanceOf(IllegalStateException.class);
+        // then
+        assertThat(event.getPublishedAt()).isNull();
+        assertThat(event.getPublishSequence()).isNull();
+        assertThat(sequence.getLastPublished()).isEqualTo(40L);
+    }
+
+    @Test
+    void relayPendingWithEmptyOutbox() {
+        // given
+        given(accountHolderEventRepository.findUnpublished(PageRequest.of(0, 2)))
+                .willReturn(List.of());
+        // when
+        int relayed = accountHolderOutboxRelay.relayPending();
+        // then
+        assertThat(relayed).isZero();
+    }
+
+    private AccountHolderEvent event(
+            Long id, Long aggregateId, Long aggregateVersion, AccountHolderEvent.Type type) {
+        return new AccountHolderEvent(
+                id,
+                aggregateId,
+                aggregateVersion,
+                type,
+                "{\"id\":" + aggregateId + "}",
+                Instant.now(),
+                null,
+                null);
+    }
+}
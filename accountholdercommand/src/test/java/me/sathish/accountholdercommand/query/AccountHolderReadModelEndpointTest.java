@@ -0,0 +1,35 @@
+package me.sathish.accountholdercommand.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AccountHolderReadModelEndpointTest {
+
+    @Mock private AccountHolderReadModel accountHolderReadModel;
+
+    @InjectMocks private AccountHolderReadModelEndpoint accountHolderReadModelEndpoint;
+
+    @Test
+    void shouldReportReadModelState() {
+        given(accountHolderReadModel.isLoaded()).willReturn(true);
+        given(accountHolderReadModel.size()).willReturn(3);
+
+        assertThat(accountHolderReadModelEndpoint.readModel())
+                .containsEntry("loaded", true)
+                .containsEntry("size", 3);
+    }
+
+    @Test
+    void shouldRebuildReadModel() {
+        given(accountHolderReadModel.rebuild()).willReturn(3);
+
+        assertThat(accountHolderReadModelEndpoint.rebuild()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,278 @@
+package me.sathish.accountholdercommand.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import me.sathish.accountholdercommand.config.ApplicationProperties;
+import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.entities.AccountHolderEvent;
+import me.sathish.accountholdercommand.entities.AccountHolderEventSequence;
+import me.sathish.accountholdercommand.events.InMemoryAccountHolderEventSink;
+import me.sathish.accountholdercommand.repositories.AccountHolderEventRepository;
+import me.sathish.accountholdercommand.repositories.AccountHolderEventSequenceRepository;
+import me.sathish.accountholdercommand.repositories.AccountHolderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class AccountHolderReadModelTest {
+
+    @Mock private AccountHolderRepository accountHolderRepository;
+    @Mock private AccountHolderEventRepository accountHolderEventRepository;
+    @Mock private AccountHolderEventSequenceRepository accountHolderEventSequenceRepository;
+    @Mock private EntityManager entityManager;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final InMemoryAccountHolderEventSink sink = new InMemoryAccountHolderEventSink();
+
+    private AccountHolderReadModel accountHolderReadModel;
+
+    @BeforeEach
+    void setUp() {
+        accountHolderReadModel =
+                new AccountHolderReadModel(
+                        accountHolderRepository,
+                        accountHolderEventRepository,
+                        accountHolderEventSequenceRepository,
+                        entityManager,
+                        transactionManager,
+                        objectMapper,
+                        new ApplicationProperties(),
+                        new StaticListableBeanFactory(Map.of("sink", sink))
+                                .getBeanProvider(InMemoryAccountHolderEventSink.class));
+    }
+
+    @Test
+    void rebuildLoadsSnapshotIntoIndexes() {
+        // given
+        givenSnapshot(
+                new AccountHolder(1L, "Jane", "Smith", "INDIVIDUAL", "111-11-1111", "1990-01-01"),
+                new AccountHolder(2L, "John", "Smithers", "JOINT", "111-11-1112", "1991-01-01"),
+                new AccountHolder(3L, "Ann", "Doe", "INDIVIDUAL", "111-11-1113", "1992-01-01"));
+        // when
+        int loaded = accountHolderReadModel.rebuild();
+        // then
+        assertThat(loaded).isEqualTo(3);
+        assertThat(accountHolderReadModel.isLoaded()).isTrue();
+        assertThat(accountHolderReadModel.findById(2L))
+                .map(AccountHolderView::firstName)
+                .hasValue("John");
+        assertThat(accountHolderReadModel.findBySsn("111-11-1113"))
+                .map(AccountHolderView::id)
+                .hasValue(3L);
+        assertThat(accountHolderReadModel.search("smi", null, 10))
+                .extracting(AccountHolderView::id)
+                .containsExactly(1L, 2L);
+        assertThat(accountHolderReadModel.search("smi", "JOINT", 10))
+                .extracting(AccountHolderView::id)
+                .containsExactly(2L);
+        assertThat(accountHolderReadModel.search(null, "INDIVIDUAL", 10))
+                .extracting(AccountHolderView::id)
+                .containsExactly(1L, 3L);
+        assertThat(accountHolderReadModel.search(null, null, 2))
+                .extracting(AccountHolderView::id)
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void publishedEventsUpdateIndexes() throws Exception {
+        // given
+        givenSnapshot(holder(1L, "Jane", 5L));
+        accountHolderReadModel.rebuild();
+        AccountHolderView renamed =
+                new AccountHolderView(
+                        1L, "Jane", "Jones", "INDIVIDUAL", "111-11-1111", "1990-01-01");
+        AccountHolderView created =
+                new AccountHolderView(2L, "Sam", "Jonas", "JOINT", "111-11-1112", "1991-01-01");
+        // when
+        sink.publish(
+                List.of(
+                        event(6L, 1L, 6L, AccountHolderEvent.Type.UPDATED, renamed),
+                        event(7L, 2L, 0L, AccountHolderEvent.Type.CREATED, created)));
+        // then
+        assertThat(accountHolderReadModel.search("smith", null, 10)).isEmpty();
+        assertThat(accountHolderReadModel.search("jon", null, 10))
+                .extracting(AccountHolderView::id)
+                .containsExactly(2L, 1L);
+
+        // when
+        sink.publish(List.of(event(8L, 2L, 1L, AccountHolderEvent.Type.DELETED, Map.of("id", 2L))));
+        // then
+        assertThat(accountHolderReadModel.findById(2L)).isEmpty();
+        assertThat(accountHolderReadModel.findBySsn("111-11-1112")).isEmpty();
+        assertThat(accountHolderReadModel.search(null, "JOINT", 10)).isEmpty();
+        assertThat(accountHolderReadModel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void staleAndRedeliveredEventsAreIgnored() throws Exception {
+        // given
+        givenSnapshot(holder(1L, "Jane", 5L));
+        accountHolderReadModel.rebuild();
+        AccountHolderView older =
+                new AccountHolderView(
+                        1L, "Old", "Smith", "INDIVIDUAL", "111-11-1111", "1990-01-01");
+        AccountHolderView newer =
+                new AccountHolderView(
+                        1L, "New", "Smith", "INDIVIDUAL", "111-11-1111", "1990-01-01");
+        // when: ids come from a pooled sequence, so only the versions tell the order
+        accountHolderReadModel.apply(event(90L, 1L, 5L, AccountHolderEvent.Type.UPDATED, older));
+        accountHolderReadModel.apply(event(40L, 1L, 7L, AccountHolderEvent.Type.UPDATED, newer));
+        accountHolderReadModel.apply(event(60L, 1L, 6L, AccountHolderEvent.Type.UPDATED, older));
+        // then
+        assertThat(accountHolderReadModel.findById(1L))
+                .map(AccountHolderView::firstName)
+                .hasValue("New");
+    }
+
+    @Test
+    void deletedHoldersAreNotBroughtBackByLateEvents() throws Exception {
+        // given
+        givenSnapshot(holder(1L, "Jane", 2L));
+        accountHolderReadModel.rebuild();
+        AccountHolderView late =
+                new AccountHolderView(
+                        1L, "Late", "Smith", "INDIVIDUAL", "111-11-1111", "1990-01-01");
+        // when
+        accountHolderReadModel.apply(
+                event(10L, 1L, 3L, AccountHolderEvent.Type.DELETED, Map.of("id", 1L)));
+        accountHolderReadModel.apply(event(9L, 1L, 2L, AccountHolderEvent.Type.UPDATED, late));
+        // then
+        assertThat(accountHolderReadModel.findById(1L)).isEmpty();
+        assertThat(accountHolderReadModel.size()).isZero();
+    }
+
+    @Test
+    void catchUpAppliesEventsOtherInstancesPublished() throws Exception {
+        // given
+        givenSnapshot(holder(1L, "Jane", 5L));
+        accountHolderReadModel.rebuild();
+        AccountHolderView renamed =
+                new AccountHolderView(
+                        1L, "Jane", "Jones", "INDIVIDUAL", "111-11-1111", "1990-01-01");
+        AccountHolderView created =
+                new AccountHolderView(2L, "Sam", "Jonas", "JOINT", "111-11-1112", "1991-01-01");
+        given(accountHolderEventRepository.findPublishedAfter(anyLong(), any(Pageable.class)))
+                .willReturn(
+                        List.of(
+                                event(1L, 1L, 5L, AccountHolderEvent.Type.UPDATED, renamed),
+                                event(2L, 1L, 6L, AccountHolderEvent.Type.UPDATED, renamed),
+                                event(3L, 2L, 0L, AccountHolderEvent.Type.CREATED, created)));
+        // when
+        int read = accountHolderReadModel.catchUp();
+        // then
+        assertThat(read).isEqualTo(3);
+        assertThat(accountHolderReadModel.search("jon", null, 10))
+                .extracting(AccountHolderView::id)
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void catchUpResumesAfterSnapshotPublishSequence() throws Exception {
+        // given
+        given(accountHolderEventSequenceRepository.findById(AccountHolderEventSequence.ID))
+                .willReturn(Optional.of(new AccountHolderEventSequence(1L, 40L)));
+        givenSnapshot(holder(1L, "Jane", 5L));
+        accountHolderReadModel.rebuild();
+        AccountHolderView renamed =
+                new AccountHolderView(
+                        1L, "Jane", "Jones", "INDIVIDUAL", "111-11-1111", "1990-01-01");
+        given(accountHolderEventRepository.findPublishedAfter(eq(40L), any(Pageable.class)))
+                .willReturn(List.of(event(41L, 1L, 6L, AccountHolderEvent.Type.UPDATED, renamed)));
+        // when
+        int read = accountHolderReadModel.catchUp();
+        // then
+        assertThat(read).isEqualTo(1);
+        assertThat(accountHolderReadModel.findById(1L))
+                .map(AccountHolderView::lastName)
+                .hasValue("Jones");
+    }
+
+    @Test
+    void catchUpRebuildsWhenEventsWerePrunedBeforeTheyWereRead() throws Exception {
+        // given
+        givenSnapshot(holder(1L, "Jane", 5L));
+        accountHolderReadModel.rebuild();
+        AccountHolderView renamed =
+                new AccountHolderView(
+                        1L, "Jane", "Jones", "INDIVIDUAL", "111-11-1111", "1990-01-01");
+        given(accountHolderEventRepository.findPublishedAfter(anyLong(), any(Pageable.class)))
+                .willReturn(List.of(event(7L, 1L, 6L, AccountHolderEvent.Type.UPDATED, renamed)));
+        AccountHolder current = holder(1L, "Jane", 6L);
+        current.setLastName("Jones");
+        givenSnapshot(current);
+        // when
+        int read = accountHolderReadModel.catchUp();
+        // then
+        assertThat(read).isZero();
+        assertThat(accountHolderReadModel.findById(1L))
+                .map(AccountHolderView::lastName)
+                .hasValue("Jones");
+    }
+
+    @Test
+    void eventsPublishedWhileRebuildingAreKept() throws Exception {
+        // given
+        AccountHolderView created =
+                new AccountHolderView(2L, "Sam", "Jonas", "JOINT", "111-11-1112", "1991-01-01");
+        AccountHolderEvent published = event(9L, 2L, 0L, AccountHolderEvent.Type.CREATED, created);
+        given(accountHolderRepository.streamAllBy())
+                .willReturn(
+                        Stream.of(holder(1L, "Jane", 5L))
+                                .peek(accountHolder -> sink.publish(List.of(published))));
+        // when
+        accountHolderReadModel.rebuild();
+        // then
+        assertThat(accountHolderReadModel.findById(2L))
+                .map(AccountHolderView::firstName)
+                .hasValue("Sam");
+        assertThat(accountHolderReadModel.size()).isEqualTo(2);
+    }
+
+    private void givenSnapshot(AccountHolder... accountHolders) {
+        given(accountHolderRepository.streamAllBy()).willReturn(Stream.of(accountHolders));
+    }
+
+    private static AccountHolder holder(Long id, String firstName, Long version) {
+        AccountHolder accountHolder =
+                new AccountHolder(
+                        id, firstName, "Smith", "INDIVIDUAL", "111-11-1111", "1990-01-01");
+        accountHolder.setVersion(version);
+        return accountHolder;
+    }
+
+    private AccountHolderEvent event(
+            Long id,
+            Long aggregateId,
+            Long aggregateVersion,
+            AccountHolderEvent.Type type,
+            Object payload)
+            throws Exception {
+        return new AccountHolderEvent(
+                id,
+                aggregateId,
+                aggregateVersion,
+                type,
+                objectMapper.writeValueAsString(payload),
+                Instant.now(),
+                Instant.now(),
+                id);
+    }
+}
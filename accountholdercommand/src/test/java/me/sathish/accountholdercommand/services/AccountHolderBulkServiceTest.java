@@ -0,0 +1,200 @@
+package me.sathish.accountholdercommand.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.times;
+import static org.mockito.BDDMockito.verify;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import me.sathish.accountholdercommand.config.ApplicationProperties;
+import me.sathish.accountholdercommand.config.CacheConfig;
+import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.events.AccountHolderOutbox;
+import me.sathish.accountholdercommand.model.response.BulkItemResult;
+import me.sathish.accountholdercommand.model.response.BulkResult;
+import me.sathish.accountholdercommand.ssn.KnownSsns;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class AccountHolderBulkServiceTest {
+
+    @Mock private KnownSsns knownSsns;
+    @Mock private EntityManager entityManager;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Mock private AccountHolderOutbox accountHolderOutbox;
+    @Mock private CacheManager cacheManager;
+    @Mock private Cache accountHolderCache;
+
+    private AccountHolderBulkService accountHolderBulkService;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getBulk().setChunkSize(2);
+        accountHolderBulkService =
+                new AccountHolderBulkService(
+                        knownSsns,
+                        entityManager,
+                        transactionTemplate,
+                        Validation.buildDefaultValidatorFactory().getValidator(),
+                        new ObjectMapper(),
+                        accountHolderOutbox,
+                        cacheManager,
+                        properties);
+    }
+
+    @Test
+    void importAccountHoldersCreatesUpdatesAndRejectsInChunks() {
+        // given
+        givenTransactionsRun();
+        given(cacheManager.getCache(CacheConfig.ACCOUNT_HOLDERS_CACHE))
+                .willReturn(accountHolderCache);
+        AtomicLong sequence = new AtomicLong(100);
+        willAnswer(
+                        invocation -> {
+                            invocation
+                                    .getArgument(0, AccountHolder.class)
+                                    .setId(sequence.incrementAndGet());
+                            return null;
+                        })
+                .given(entityManager)
+                .persist(any(AccountHolder.class));
+        AccountHolder existing = getAccountHolder(7L, "222-22-2222");
+        existing.setVersion(2L);
+        existing.setFirstName("before");
+        // stands in for Hibernate writing the changed row with the next version
+        willAnswer(
+                        invocation -> {
+                            if (existing.getVersion() == 2L
+                                    && !"before".equals(existing.getFirstName())) {
+                                existing.setVersion(3L);
+                            }
+                            return null;
+                        })
+                .given(entityManager)
+                .flush();
+        given(knownSsns.findExisting(anyCollection())).willReturn(List.of(), List.of(existing));
+
+        // when
+        BulkResult result =
+                accountHolderBulkService.importAccountHolders(
+                        List.of(
+                                getAccountHolder(null, "111-11-1111"),
+                                getAccountHolder(null, "111-11-1111"),
+                                getAccountHolder(null, "333-33-3333"),
+                                getAccountHolder(null, null),
+                                getAccountHolder(null, "222-22-2222")));
+
+        // then
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.items())
+                .extracting(BulkItemResult::status)
+                .containsExactly(
+                        BulkItemResult.Status.CREATED,
+                        BulkItemResult.Status.DUPLICATE,
+                        BulkItemResult.Status.CREATED,
+                        BulkItemResult.Status.INVALID,
+                        BulkItemResult.Status.UPDATED);
+        assertThat(result.items().get(4).id()).isEqualTo(7L);
+        assertThat(existing.getFirstName()).isEqualTo("junitTest");
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(entityManager, times(2)).clear();
+        verify(accountHolderOutbox, times(2)).created(any());
+        verify(accountHolderOutbox, times(1)).updated(any());
+        verify(accountHolderCache, times(1)).evict(7L);
+    }
+
+    @Test
+    void importAccountHoldersMarksAFailedChunkAndGoesOn() {
+        // given
+        givenTransactionsRun();
+        given(knownSsns.findExisting(anyCollection())).willReturn(List.of());
+        willThrow(
+                        new ConstraintViolationException(
+                                "duplicate key",
+                                new SQLException("duplicate key value violates unique constraint"),
+                                "uk_account_holders_dob"))
+                .willDoNothing()
+                .given(entityManager)
+                .flush();
+
+        // when
+        BulkResult result =
+                accountHolderBulkService.importAccountHolders(
+                        List.of(
+                                getAccountHolder(null, "111-11-1111"),
+                                getAccountHolder(null, "222-22-2222"),
+                                getAccountHolder(null, "333-33-3333")));
+
+        // then
+        assertThat(result.created()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.items())
+                .extracting(BulkItemResult::status)
+                .containsExactly(
+                        BulkItemResult.Status.FAILED,
+                        BulkItemResult.Status.FAILED,
+                        BulkItemResult.Status.CREATED);
+        assertThat(result.items().get(0).errors())
+                .containsExactly("duplicate key value violates unique constraint");
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void importNdjsonReportsMalformedLines() {
+        // given
+        givenTransactionsRun();
+        given(knownSsns.findExisting(anyCollection())).willReturn(List.of());
+        String ndjson =
+                """
+                {"firstName":"a","lastName":"b","type":"INDIVIDUAL","ssn":"1","dob":"1990-01-01"}
+                {not json}
+
+                """;
+
+        // when
+        BulkResult result =
+                accountHolderBulkService.importNdjson(new BufferedReader(new StringReader(ndjson)));
+
+        // then
+        assertThat(result.items())
+                .extracting(BulkItemResult::status)
+                .containsExactly(BulkItemResult.Status.CREATED, BulkItemResult.Status.INVALID);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenTransactionsRun() {
+        given(transactionTemplate.execute(any()))
+                .willAnswer(
+                        invocation ->
+                                invocation
+                                        .getArgument(0, TransactionCallback.class)
+                                        .doInTransaction(null));
+    }
+
+    private AccountHolder getAccountHolder(Long id, String ssn) {
+        return new AccountHolder(id, "junitTest", "Doe", "INDIVIDUAL", ssn, "1990-01-01");
+    }
+}
@@ -0,0 +1,93 @@
+package me.sathish.accountholdercommand.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.times;
+import static org.mockito.BDDMockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.repositories.AccountHolderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AccountHolderExportServiceTest {
+
+    @Mock private AccountHolderRepository accountHolderRepository;
+    @Mock private EntityManager entityManager;
+
+    private AccountHolderExportService accountHolderExportService;
+
+    @BeforeEach
+    void setUp() {
+        accountHolderExportService =
+                new AccountHolderExportService(
+                        accountHolderRepository, entityManager, new ObjectMapper());
+        given(accountHolderRepository.streamAllBy())
+                .willReturn(
+                        Stream.of(
+                                new AccountHolder(
+                                        1L, "Jane", "Doe", "INDIVIDUAL", "111", "1990-01-01"),
+                                new AccountHolder(
+                                        2L, "John", "Doe, Jr", "JOINT", "222", "1991-01-01")));
+    }
+
+    @Test
+    void exportWritesOneJsonDocumentPerLine() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long rows =
+                accountHolderExportService.export(
+                        AccountHolderExportService.Format.NDJSON, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(2);
+        assertThat(lines).hasSize(2).allMatch(line -> line.startsWith("{"));
+        assertThat(new ObjectMapper().readTree(lines[1]).get("lastName").asText())
+                .isEqualTo("Doe, Jr");
+        verify(entityManager, times(2)).detach(any(AccountHolder.class));
+    }
+
+    @Test
+    void exportFlushesOnceAtTheEnd() throws Exception {
+        AtomicInteger flushes = new AtomicInteger();
+        ByteArrayOutputStream outputStream =
+                new ByteArrayOutputStream() {
+                    @Override
+                    public void flush() throws IOException {
+                        flushes.incrementAndGet();
+                    }
+                };
+
+        accountHolderExportService.export(AccountHolderExportService.Format.NDJSON, outputStream);
+
+        assertThat(flushes).hasValue(1);
+        assertThat(outputStream.toString(StandardCharsets.UTF_8).split("\n")).hasSize(2);
+    }
+
+    @Test
+    void exportWritesCsvWithHeaderAndQuoting() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        accountHolderExportService.export(AccountHolderExportService.Format.CSV, outputStream);
+
+        assertThat(outputStream.toString(StandardCharsets.UTF_8))
+                .isEqualTo(
+                        """
+                        id,firstName,lastName,type,ssn,dob
+                        1,Jane,Doe,INDIVIDUAL,111,1990-01-01
+                        2,John,"Doe, Jr",JOINT,222,1991-01-01
+                        """);
+    }
+}
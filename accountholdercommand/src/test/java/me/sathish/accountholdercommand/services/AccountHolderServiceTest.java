@@ -1,16 +1,32 @@
 package me.sathish.accountholdercommand.services;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.times;
 import static org.mockito.BDDMockito.verify;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.events.AccountHolderOutbox;
+import me.sathish.accountholdercommand.exception.DuplicateAccountHolderException;
+import me.sathish.accountholdercommand.exception.InvalidCursorException;
+import me.sathish.accountholdercommand.exception.InvalidFieldSelectionException;
+import me.sathish.accountholdercommand.exception.InvalidSearchException;
+import me.sathish.accountholdercommand.model.request.AccountHolderSearch;
+import me.sathish.accountholdercommand.model.request.KeysetCursor;
+import me.sathish.accountholdercommand.model.response.CursorPagedResult;
 import me.sathish.accountholdercommand.model.response.PagedResult;
+import me.sathish.accountholdercommand.query.AccountHolderView;
 import me.sathish.accountholdercommand.repositories.AccountHolderRepository;
+import me.sathish.accountholdercommand.repositories.RowCountEstimator;
+import me.sathish.accountholdercommand.ssn.KnownSsns;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -20,12 +36,18 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectRetrievalFailureException;
 
 @ExtendWith(MockitoExtension.class)
 class AccountHolderServiceTest {
 
     @Mock private AccountHolderRepository accountHolderRepository;
+    @Mock private RowCountEstimator rowCountEstimator;
+    @Mock private AccountHolderOutbox accountHolderOutbox;
+    @Mock private KnownSsns knownSsns;
 
     @InjectMocks private AccountHolderService accountHolderService;
 
@@ -33,11 +55,11 @@ class AccountHolderServiceTest {
     void findAllAccountHolders() {
         // given
         Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
-        Page<AccountHolder> accountHolderPage = new PageImpl<>(List.of(getAccountHolder()));
-        given(accountHolderRepository.findAll(pageable)).willReturn(accountHolderPage);
+        Page<AccountHolderView> accountHolderPage = new PageImpl<>(List.of(getAccountHolderView()));
+        given(accountHolderRepository.findViewPage(pageable)).willReturn(accountHolderPage);
 
         // when
-        PagedResult<AccountHolder> pagedResult =
+        PagedResult<AccountHolderView> pagedResult =
                 accountHolderService.findAllAccountHolders(0, 10, "id", "asc");
 
         // then
@@ -52,6 +74,238 @@ class AccountHolderServiceTest {
         assertThat(pagedResult.totalElements()).isEqualTo(1);
     }
 
+    @Test
+    void findAccountHoldersAfterReturnsNextCursorWhenMoreRowsExist() {
+        // given
+        AccountHolder first = getAccountHolder();
+        AccountHolder second = getAccountHolder();
+        second.setId(2L);
+        second.setLastName("Smith");
+        given(accountHolderRepository.findAllAfter(null, "lastName", Sort.Direction.ASC, 2))
+                .willReturn(List.of(first, second));
+
+        // when
+        CursorPagedResult<AccountHolder> result =
+                accountHolderService.findAccountHoldersAfter("", 1, "lastName", "asc");
+
+        // then
+        assertThat(result.data()).containsExactly(first);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(KeysetCursor.decode(result.next()))
+                .isEqualTo(new KeysetCursor("lastName", Sort.Direction.ASC, "Doe", 1L));
+    }
+
+    @Test
+    void findAccountHoldersAfterSeeksFromCursor() {
+        // given
+        KeysetCursor cursor = new KeysetCursor("id", Sort.Direction.DESC, "5", 5L);
+        given(accountHolderRepository.findAllAfter(cursor, "id", Sort.Direction.DESC, 11))
+                .willReturn(List.of(getAccountHolder()));
+
+        // when
+        CursorPagedResult<AccountHolder> result =
+                accountHolderService.findAccountHoldersAfter(cursor.encode(), 10, "id", "desc");
+
+        // then
+        assertThat(result.data()).hasSize(1);
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.next()).isNull();
+    }
+
+    @Test
+    void findAccountHoldersAfterRejectsCursorForDifferentSort() {
+        String after = new KeysetCursor("id", Sort.Direction.ASC, "5", 5L).encode();
+
+        assertThatThrownBy(
+                        () ->
+                                accountHolderService.findAccountHoldersAfter(
+                                        after, 10, "lastName", "asc"))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void findAccountHoldersAfterRejectsPageSizeOutOfRange() {
+        assertThatThrownBy(() -> accountHolderService.findAccountHoldersAfter("", 0, "id", "asc"))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> accountHolderService.findAccountHoldersAfter("", -1, "id", "asc"))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(
+                        () -> accountHolderService.findAccountHoldersAfter("", 1001, "id", "asc"))
+                .isInstanceOf(InvalidCursorException.class);
+        verifyNoInteractions(accountHolderRepository);
+    }
+
+    @Test
+    void findAllAccountHoldersWithoutTotalSkipsCountQuery() {
+        // given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        Slice<AccountHolderView> accountHolderSlice =
+                new SliceImpl<>(List.of(getAccountHolderView()), pageable, true);
+        given(accountHolderRepository.findViewSlice(pageable)).willReturn(accountHolderSlice);
+
+        // when
+        PagedResult<AccountHolderView> pagedResult =
+                accountHolderService.findAllAccountHolders(0, 10, "id", "asc", false, true);
+
+        // then
+        assertThat(pagedResult.data()).hasSize(1);
+        assertThat(pagedResult.hasNext()).isTrue();
+        assertThat(pagedResult.totalElements()).isNull();
+        assertThat(pagedResult.totalPages()).isNull();
+        verify(accountHolderRepository, never()).findViewPage(pageable);
+        verify(accountHolderRepository, never()).count();
+    }
+
+    @Test
+    void findAllAccountHoldersWithApproximateTotal() {
+        // given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        Slice<AccountHolderView> accountHolderSlice =
+                new SliceImpl<>(List.of(getAccountHolderView()), pageable, true);
+        given(accountHolderRepository.findViewSlice(pageable)).willReturn(accountHolderSlice);
+        given(rowCountEstimator.estimate(any(), any())).willReturn(95L);
+
+        // when
+        PagedResult<AccountHolderView> pagedResult =
+                accountHolderService.findAllAccountHolders(0, 10, "id", "asc", true, false);
+
+        // then
+        assertThat(pagedResult.totalElements()).isEqualTo(95L);
+        assertThat(pagedResult.totalPages()).isEqualTo(10);
+        verify(accountHolderRepository, never()).findViewPage(pageable);
+    }
+
+    @Test
+    void findAllAccountHoldersRaisesAnApproximateTotalBelowTheRowsSeen() {
+        // given
+        Pageable pageable = PageRequest.of(1, 10, Sort.by(Sort.Direction.ASC, "id"));
+        given(accountHolderRepository.findViewSlice(pageable))
+                .willReturn(new SliceImpl<>(List.of(getAccountHolderView()), pageable, true));
+        given(rowCountEstimator.estimate(any(), any())).willReturn(0L);
+
+        // when
+        PagedResult<AccountHolderView> pagedResult =
+                accountHolderService.findAllAccountHolders(1, 10, "id", "asc", true, false);
+
+        // then
+        assertThat(pagedResult.hasNext()).isTrue();
+        assertThat(pagedResult.totalElements()).isEqualTo(12L);
+        assertThat(pagedResult.totalPages()).isEqualTo(2);
+    }
+
+    @Test
+    void findAllAccountHolderFieldsSelectsOnlyRequestedFields() {
+        // given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        Map<String, Object> row = Map.of("id", 1L, "lastName", "Doe");
+        given(accountHolderRepository.findAllProjected(List.of("id", "lastName"), pageable))
+                .willReturn(new SliceImpl<>(List.of(row), pageable, false));
+
+        // when
+        PagedResult<Map<String, Object>> pagedResult =
+                accountHolderService.findAllAccountHolderFields(
+                        " id, lastName,id ", 0, 10, "id", "asc", true, true);
+
+        // then
+        assertThat(pagedResult.data()).containsExactly(row);
+        assertThat(pagedResult.totalElements()).isEqualTo(1);
+        assertThat(pagedResult.totalPages()).isEqualTo(1);
+        verify(accountHolderRepository, never()).count();
+    }
+
+    @Test
+    void findAllAccountHolderFieldsCountsWhenPageIsFull() {
+        // given
+        Pageable pageable = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "lastName"));
+        given(accountHolderRepository.findAllProjected(List.of("firstName"), pageable))
+                .willReturn(new SliceImpl<>(List.of(Map.of("firstName", "Jane")), pageable, true));
+        given(accountHolderRepository.count()).willReturn(42L);
+
+        // when
+        PagedResult<Map<String, Object>> pagedResult =
+                accountHolderService.findAllAccountHolderFields(
+                        "firstName", 0, 1, "lastName", "desc", true, true);
+
+        // then
+        assertThat(pagedResult.totalElements()).isEqualTo(42L);
+        assertThat(pagedResult.hasNext()).isTrue();
+    }
+
+    @Test
+    void findAllAccountHolderFieldsRejectsUnknownField() {
+        assertThatThrownBy(
+                        () ->
+                                accountHolderService.findAllAccountHolderFields(
+                                        "id,password", 0, 10, "id", "asc", true, true))
+                .isInstanceOf(InvalidFieldSelectionException.class)
+                .hasMessageContaining("password");
+        verify(accountHolderRepository, never()).findAllProjected(any(), any());
+    }
+
+    @Test
+    void searchAccountHoldersReadsOnePageWithoutCounting() {
+        // given
+        AccountHolderSearch search =
+                new AccountHolderSearch("Do", "INDIVIDUAL", "1980-01-01", "1999-12-31");
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "dob"));
+        given(accountHolderRepository.search(search, pageable))
+                .willReturn(new SliceImpl<>(List.of(getAccountHolderView()), pageable, true));
+
+        // when
+        PagedResult<AccountHolderView> pagedResult =
+                accountHolderService.searchAccountHolders(search, 0, 10, "dob", "desc");
+
+        // then
+        assertThat(pagedResult.data()).containsExactly(getAccountHolderView());
+        assertThat(pagedResult.hasNext()).isTrue();
+        assertThat(pagedResult.totalElements()).isNull();
+        verify(accountHolderRepository, never()).count();
+    }
+
+    @Test
+    void searchAccountHoldersRequiresACriterion() {
+        assertThatThrownBy(
+                        () ->
+                                accountHolderService.searchAccountHolders(
+                                        new AccountHolderSearch(null, null, null, null),
+                                        0,
+                                        10,
+                                        "id",
+                                        "asc"))
+                .isInstanceOf(InvalidSearchException.class)
+                .hasMessageContaining("at least one");
+        verify(accountHolderRepository, never()).search(any(), any());
+    }
+
+    @Test
+    void searchAccountHoldersRejectsInvertedDobRange() {
+        assertThatThrownBy(
+                        () ->
+                                accountHolderService.searchAccountHolders(
+                                        new AccountHolderSearch(
+                                                null, null, "1990-01-02", "1990-01-01"),
+                                        0,
+                                        10,
+                                        "id",
+                                        "asc"))
+                .isInstanceOf(InvalidSearchException.class)
+                .hasMessage("dobFrom must not be after dobTo");
+    }
+
+    @Test
+    void searchAccountHoldersRejectsUnindexedSort() {
+        assertThatThrownBy(
+                        () ->
+                                accountHolderService.searchAccountHolders(
+                                        new AccountHolderSearch("Do", null, null, null),
+                                        0,
+                                        10,
+                                        "firstName",
+                                        "asc"))
+                .isInstanceOf(InvalidSearchException.class)
+                .hasMessageContaining("firstName");
+    }
+
     @Test
     void findAccountHolderById() {
         // given
@@ -63,36 +317,108 @@ class AccountHolderServiceTest {
         assertThat(optionalAccountHolder).isPresent();
         AccountHolder accountHolder = optionalAccountHolder.get();
         assertThat(accountHolder.getId()).isEqualTo(1L);
-        assertThat(accountHolder.getText()).isEqualTo("junitTest");
+        assertThat(accountHolder.getFirstName()).isEqualTo("junitTest");
     }
 
     @Test
     void saveAccountHolder() {
         // given
-        given(accountHolderRepository.save(getAccountHolder())).willReturn(getAccountHolder());
+        AccountHolder current = getAccountHolder();
+        current.setVersion(3L);
+        AccountHolder updated = getAccountHolder();
+        updated.setVersion(4L);
+        given(accountHolderRepository.findByIdForUpdate(1L)).willReturn(Optional.of(current));
+        given(accountHolderRepository.saveAndFlush(current)).willReturn(updated);
+        AccountHolder incoming = getAccountHolder();
+        incoming.setFirstName("updated");
         // when
-        AccountHolder persistedAccountHolder =
-                accountHolderService.saveAccountHolder(getAccountHolder());
+        AccountHolder persistedAccountHolder = accountHolderService.saveAccountHolder(incoming);
         // then
         assertThat(persistedAccountHolder).isNotNull();
         assertThat(persistedAccountHolder.getId()).isEqualTo(1L);
-        assertThat(persistedAccountHolder.getText()).isEqualTo("junitTest");
+        assertThat(current.getFirstName()).isEqualTo("updated");
+        verify(accountHolderRepository, never()).findById(any());
+        verify(accountHolderOutbox, times(1)).updated(persistedAccountHolder);
+    }
+
+    @Test
+    void saveAccountHolderDeletedMeanwhileFailsWithoutInserting() {
+        // given
+        given(accountHolderRepository.findByIdForUpdate(1L)).willReturn(Optional.empty());
+        // when / then
+        assertThatThrownBy(() -> accountHolderService.saveAccountHolder(getAccountHolder()))
+                .isInstanceOf(ObjectRetrievalFailureException.class);
+        verify(accountHolderRepository, never()).saveAndFlush(any());
+        verify(accountHolderOutbox, never()).updated(any());
+    }
+
+    @Test
+    void saveUnchangedAccountHolderAppendsNoEvent() {
+        // given
+        AccountHolder current = getAccountHolder();
+        current.setVersion(3L);
+        given(accountHolderRepository.findByIdForUpdate(1L)).willReturn(Optional.of(current));
+        given(accountHolderRepository.saveAndFlush(any())).willReturn(current);
+        // when
+        accountHolderService.saveAccountHolder(getAccountHolder());
+        // then
+        verify(accountHolderOutbox, never()).updated(any());
+    }
+
+    @Test
+    void saveNewAccountHolderAppendsCreatedEvent() {
+        // given
+        AccountHolder newAccountHolder = getAccountHolder();
+        newAccountHolder.setId(null);
+        given(accountHolderRepository.save(newAccountHolder)).willReturn(getAccountHolder());
+        // when
+        AccountHolder persistedAccountHolder =
+                accountHolderService.saveAccountHolder(newAccountHolder);
+        // then
+        verify(accountHolderOutbox, times(1)).created(persistedAccountHolder);
+        verify(accountHolderOutbox, never()).updated(any());
+    }
+
+    @Test
+    void saveNewAccountHolderRejectsKnownSsn() {
+        // given
+        AccountHolder newAccountHolder = getAccountHolder();
+        newAccountHolder.setId(null);
+        given(knownSsns.exists("111-11-1111")).willReturn(true);
+
+        // when / then
+        assertThatThrownBy(() -> accountHolderService.saveAccountHolder(newAccountHolder))
+                .isInstanceOf(DuplicateAccountHolderException.class);
+        verify(accountHolderRepository, never()).save(any());
+        verify(accountHolderOutbox, never()).created(any());
     }
 
     @Test
     void deleteAccountHolderById() {
         // given
-        willDoNothing().given(accountHolderRepository).deleteById(1L);
+        AccountHolder accountHolder = getAccountHolder();
+        given(accountHolderRepository.findByIdForUpdate(1L)).willReturn(Optional.of(accountHolder));
+        willDoNothing().given(accountHolderRepository).delete(accountHolder);
         // when
         accountHolderService.deleteAccountHolderById(1L);
         // then
-        verify(accountHolderRepository, times(1)).deleteById(1L);
+        verify(accountHolderRepository, times(1)).delete(accountHolder);
+        verify(accountHolderOutbox, times(1)).deleted(accountHolder);
     }
 
     private AccountHolder getAccountHolder() {
         AccountHolder accountHolder = new AccountHolder();
         accountHolder.setId(1L);
-        accountHolder.setText("junitTest");
+        accountHolder.setFirstName("junitTest");
+        accountHolder.setLastName("Doe");
+        accountHolder.setType("INDIVIDUAL");
+        accountHolder.setSsn("111-11-1111");
+        accountHolder.setDob("1990-01-01");
         return accountHolder;
     }
+
+    private AccountHolderView getAccountHolderView() {
+        return new AccountHolderView(
+                1L, "junitTest", "Doe", "INDIVIDUAL", "111-11-1111", "1990-01-01");
+    }
 }
@@ -0,0 +1,109 @@
+package me.sathish.accountholdercommand.ssn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.verify;
+import static org.mockito.Mockito.never;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.stream.Stream;
+import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.events.InMemoryAccountHolderEventSink;
+import me.sathish.accountholdercommand.repositories.AccountHolderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class KnownSsnsTest {
+
+    @Mock private AccountHolderRepository accountHolderRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private ObjectProvider<InMemoryAccountHolderEventSink> eventSink;
+
+    private final SsnHasher ssnHasher = new SsnHasher(SsnBloomFilterTest.properties());
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private KnownSsns knownSsns;
+
+    @BeforeEach
+    void setUp() {
+        knownSsns =
+                new KnownSsns(
+                        ssnHasher,
+                        accountHolderRepository,
+                        transactionManager,
+                        new ObjectMapper(),
+                        SsnBloomFilterTest.properties(),
+                        meterRegistry,
+                        eventSink);
+    }
+
+    @Test
+    void asksTheDatabaseUntilLoaded() {
+        given(accountHolderRepository.existsBySsnHash(ssnHasher.hash("111-11-1111")))
+                .willReturn(false);
+
+        assertThat(knownSsns.exists("111-11-1111")).isFalse();
+        assertThat(knownSsns.isLoaded()).isFalse();
+    }
+
+    @Test
+    void answersNewSsnsWithoutTheDatabaseOnceLoaded() {
+        given(accountHolderRepository.streamAllSsnHashes())
+                .willReturn(Stream.of(ssnHasher.hash("111-11-1111")));
+        given(accountHolderRepository.existsBySsnHash(ssnHasher.hash("111-11-1111")))
+                .willReturn(true);
+        knownSsns.load();
+
+        assertThat(knownSsns.exists("999-99-9999")).isFalse();
+        assertThat(knownSsns.exists("111-11-1111")).isTrue();
+
+        verify(accountHolderRepository, never()).existsBySsnHash(ssnHasher.hash("999-99-9999"));
+        assertThat(checks("absent")).isEqualTo(1);
+        assertThat(checks("present")).isEqualTo(1);
+        assertThat(checks("false_positive")).isZero();
+    }
+
+    @Test
+    void findsExistingAmongOnlyTheSsnsTheFilterMayKnow() {
+        given(accountHolderRepository.streamAllSsnHashes()).willReturn(Stream.empty());
+        knownSsns.load();
+        knownSsns.add(ssnHasher.hash("222-22-2222"));
+        AccountHolder existing =
+                new AccountHolder(7L, "Jane", "Doe", "INDIVIDUAL", "222-22-2222", "1990-01-01");
+        given(
+                        accountHolderRepository.findAllBySsnHashInForUpdate(
+                                List.of(ssnHasher.hash("222-22-2222"))))
+                .willReturn(List.of(existing));
+
+        assertThat(knownSsns.findExisting(List.of("111-11-1111", "222-22-2222")))
+                .containsExactly(existing);
+        assertThat(knownSsns.findExisting(List.of("333-33-3333"))).isEmpty();
+
+        verify(accountHolderRepository, never()).existsBySsnHash(any());
+        assertThat(checks("absent")).isEqualTo(2);
+        assertThat(checks("present")).isEqualTo(1);
+    }
+
+    @Test
+    void skipsTheQueryWhenNoSsnMayBeKnown() {
+        given(accountHolderRepository.streamAllSsnHashes()).willReturn(Stream.empty());
+        knownSsns.load();
+
+        assertThat(knownSsns.findExisting(List.of("111-11-1111"))).isEmpty();
+        verify(accountHolderRepository, never()).findAllBySsnHashInForUpdate(anyCollection());
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get(KnownSsns.CHECKS_METER).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,45 @@
+package me.sathish.accountholdercommand.ssn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.IntStream;
+import me.sathish.accountholdercommand.config.ApplicationProperties;
+import org.junit.jupiter.api.Test;
+
+class SsnBloomFilterTest {
+
+    private final SsnHasher ssnHasher = new SsnHasher(properties());
+
+    @Test
+    void neverForgetsAnSsnAndStaysNearItsFalsePositiveRate() {
+        SsnBloomFilter bloomFilter = new SsnBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> bloomFilter.put(ssnHasher.hash(ssn(i))));
+
+        assertThat(IntStream.range(0, 10_000))
+                .allMatch(i -> bloomFilter.mightContain(ssnHasher.hash(ssn(i))));
+        long falsePositives =
+                IntStream.range(10_000, 110_000)
+                        .filter(i -> bloomFilter.mightContain(ssnHasher.hash(ssn(i))))
+                        .count();
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(bloomFilter.expectedFalsePositiveRate()).isBetween(0.005, 0.015);
+    }
+
+    @Test
+    void emptyFilterKnowsNothing() {
+        SsnBloomFilter bloomFilter = new SsnBloomFilter(1_000, 0.01);
+
+        assertThat(bloomFilter.mightContain(ssnHasher.hash("111-11-1111"))).isFalse();
+        assertThat(bloomFilter.expectedFalsePositiveRate()).isZero();
+    }
+
+    private static String ssn(int i) {
+        return String.format("%03d-%02d-%04d", i / 1_000_000, i / 10_000 % 100, i % 10_000);
+    }
+
+    static ApplicationProperties properties() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getSsn().setHashKey("test-key");
+        return properties;
+    }
+}
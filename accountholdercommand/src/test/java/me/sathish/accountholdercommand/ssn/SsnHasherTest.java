@@ -0,0 +1,53 @@
+package me.sathish.accountholdercommand.ssn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import me.sathish.accountholdercommand.config.ApplicationProperties;
+import org.junit.jupiter.api.Test;
+
+class SsnHasherTest {
+
+    @Test
+    void refusesToStartWithoutAKey() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getSsn().setHashKey("");
+
+        assertThatThrownBy(() -> new SsnHasher(properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SSN_HASH_KEY");
+    }
+
+    @Test
+    void hashesDependOnTheKey() {
+        ApplicationProperties otherKey = new ApplicationProperties();
+        otherKey.getSsn().setHashKey("other-key");
+        SsnHasher ssnHasher = new SsnHasher(SsnBloomFilterTest.properties());
+
+        assertThat(ssnHasher.hash("111-11-1111"))
+                .isEqualTo(ssnHasher.hash("111-11-1111"))
+                .isNotEqualTo(new SsnHasher(otherKey).hash("111-11-1111"))
+                .hasSize(43);
+    }
+
+    @Test
+    void hashesAlikeAcrossConcurrentVirtualThreads() {
+        SsnHasher ssnHasher = new SsnHasher(SsnBloomFilterTest.properties());
+        String expected = ssnHasher.hash("111-11-1111");
+
+        List<Future<String>> hashes;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            hashes =
+                    IntStream.range(0, 200)
+                            .mapToObj(i -> executor.submit(() -> ssnHasher.hash("111-11-1111")))
+                            .toList();
+        }
+
+        assertThat(hashes).extracting(Future::resultNow).hasSize(200).containsOnly(expected);
+    }
+}
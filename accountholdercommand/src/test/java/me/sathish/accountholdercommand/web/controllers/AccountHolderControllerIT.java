@@ -1,18 +1,25 @@
 package me.sathish.accountholdercommand.web.controllers;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import me.sathish.accountholdercommand.common.AbstractIntegrationTest;
 import me.sathish.accountholdercommand.entities.AccountHolder;
 import me.sathish.accountholdercommand.repositories.AccountHolderRepository;
@@ -20,6 +27,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 
 class AccountHolderControllerIT extends AbstractIntegrationTest {
 
@@ -32,9 +40,30 @@ class AccountHolderControllerIT extends AbstractIntegrationTest {
         accountHolderRepository.deleteAllInBatch();
 
         accountHolderList = new ArrayList<>();
-        accountHolderList.add(new AccountHolder(null, "First AccountHolder"));
-        accountHolderList.add(new AccountHolder(null, "Second AccountHolder"));
-        accountHolderList.add(new AccountHolder(null, "Third AccountHolder"));
+        accountHolderList.add(
+                new AccountHolder(
+                        null,
+                        "First AccountHolder",
+                        "Doe",
+                        "INDIVIDUAL",
+                        "111-11-1111",
+                        "1990-01-02"));
+        accountHolderList.add(
+                new AccountHolder(
+                        null,
+                        "Second AccountHolder",
+                        "Doe",
+                        "INDIVIDUAL",
+                        "111-11-1112",
+                        "1990-01-03"));
+        accountHolderList.add(
+                new AccountHolder(
+                        null,
+                        "Third AccountHolder",
+                        "Doe",
+                        "INDIVIDUAL",
+                        "111-11-1113",
+                        "1990-01-04"));
         accountHolderList = accountHolderRepository.saveAll(accountHolderList);
     }
 
@@ -53,6 +82,80 @@ class AccountHolderControllerIT extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.hasPrevious", is(false)));
     }
 
+    @Test
+    void shouldSeekThroughAccountHoldersWithCursor() throws Exception {
+        String response =
+                this.mockMvc
+                        .perform(get("/api/accounholder").param("after", "").param("pageSize", "2"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data.size()", is(2)))
+                        .andExpect(jsonPath("$.hasNext", is(true)))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        String next = objectMapper.readTree(response).get("next").asText();
+
+        this.mockMvc
+                .perform(get("/api/accounholder").param("after", next).param("pageSize", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.size()", is(1)))
+                .andExpect(
+                        jsonPath("$.data[0].id", is(accountHolderList.get(2).getId()), Long.class))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+    }
+
+    @Test
+    void shouldFetchAccountHoldersWithoutTotals() throws Exception {
+        this.mockMvc
+                .perform(
+                        get("/api/accounholder").param("withTotal", "false").param("pageSize", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.size()", is(2)))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.totalPages").doesNotExist())
+                .andExpect(jsonPath("$.hasNext", is(true)));
+    }
+
+    @Test
+    void shouldSearchAccountHoldersByLastNamePrefixAndDobRange() throws Exception {
+        this.mockMvc
+                .perform(
+                        get("/api/accounholder/search")
+                                .param("lastName", "D")
+                                .param("type", "INDIVIDUAL")
+                                .param("dobFrom", "1990-01-03")
+                                .param("sortBy", "dob")
+                                .param("sortDir", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.size()", is(2)))
+                .andExpect(jsonPath("$.data[0].dob", is("1990-01-04")))
+                .andExpect(jsonPath("$.data[1].dob", is("1990-01-03")))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+
+        this.mockMvc
+                .perform(get("/api/accounholder/search").param("lastName", "D%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.size()", is(0)));
+    }
+
+    @Test
+    void shouldExportAllAccountHoldersAsNdjson() throws Exception {
+        MvcResult mvcResult =
+                this.mockMvc
+                        .perform(get("/api/accounholder/export"))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        String body =
+                this.mockMvc
+                        .perform(asyncDispatch(mvcResult))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        assertThat(body.lines()).hasSize(accountHolderList.size());
+    }
+
     @Test
     void shouldFindAccountHolderById() throws Exception {
         AccountHolder accountHolder = accountHolderList.get(0);
@@ -62,12 +165,19 @@ class AccountHolderControllerIT extends AbstractIntegrationTest {
                 .perform(get("/api/accounholder/{id}", accountHolderId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(accountHolder.getId()), Long.class))
-                .andExpect(jsonPath("$.text", is(accountHolder.getText())));
+                .andExpect(jsonPath("$.firstName", is(accountHolder.getFirstName())));
     }
 
     @Test
     void shouldCreateNewAccountHolder() throws Exception {
-        AccountHolder accountHolder = new AccountHolder(null, "New AccountHolder");
+        AccountHolder accountHolder =
+                new AccountHolder(
+                        null,
+                        "New AccountHolder",
+                        "Doe",
+                        "INDIVIDUAL",
+                        "111-11-1114",
+                        "1990-01-05");
         this.mockMvc
                 .perform(
                         post("/api/accounholder")
@@ -75,12 +185,13 @@ class AccountHolderControllerIT extends AbstractIntegrationTest {
                                 .content(objectMapper.writeValueAsString(accountHolder)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id", notNullValue()))
-                .andExpect(jsonPath("$.text", is(accountHolder.getText())));
+                .andExpect(jsonPath("$.firstName", is(accountHolder.getFirstName())));
     }
 
     @Test
-    void shouldReturn400WhenCreateNewAccountHolderWithoutText() throws Exception {
-        AccountHolder accountHolder = new AccountHolder(null, null);
+    void shouldReturn400WhenCreateNewAccountHolderWithoutFirstName() throws Exception {
+        AccountHolder accountHolder =
+                new AccountHolder(null, null, "Doe", "INDIVIDUAL", "111-11-1115", "1990-01-06");
 
         this.mockMvc
                 .perform(
@@ -95,15 +206,45 @@ class AccountHolderControllerIT extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.detail", is("Invalid request content.")))
                 .andExpect(jsonPath("$.instance", is("/api/accounholder")))
                 .andExpect(jsonPath("$.violations", hasSize(1)))
-                .andExpect(jsonPath("$.violations[0].field", is("text")))
-                .andExpect(jsonPath("$.violations[0].message", is("Text cannot be empty")))
+                .andExpect(jsonPath("$.violations[0].field", is("firstName")))
+                .andExpect(jsonPath("$.violations[0].message", is("First Name cannot be empty")))
                 .andReturn();
     }
 
+    @Test
+    void shouldBulkCreateAndUpdateAccountHolders() throws Exception {
+        AccountHolder existing = accountHolderList.get(0);
+        existing.setFirstName("Bulk Updated");
+        List<AccountHolder> payload =
+                List.of(
+                        existing,
+                        new AccountHolder(
+                                null, "Bulk New", "Doe", "INDIVIDUAL", "999-99-9999", "1991-01-01"),
+                        new AccountHolder(
+                                null,
+                                "Bulk Dup",
+                                "Doe",
+                                "INDIVIDUAL",
+                                "999-99-9999",
+                                "1991-01-02"));
+
+        this.mockMvc
+                .perform(
+                        post("/api/accounholder/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(payload)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.updated", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.items[0].id", is(existing.getId()), Long.class))
+                .andExpect(jsonPath("$.items[2].status", is("DUPLICATE")));
+    }
+
     @Test
     void shouldUpdateAccountHolder() throws Exception {
         AccountHolder accountHolder = accountHolderList.get(0);
-        accountHolder.setText("Updated AccountHolder");
+        accountHolder.setFirstName("Updated AccountHolder");
 
         this.mockMvc
                 .perform(
@@ -112,7 +253,51 @@ class AccountHolderControllerIT extends AbstractIntegrationTest {
                                 .content(objectMapper.writeValueAsString(accountHolder)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(accountHolder.getId()), Long.class))
-                .andExpect(jsonPath("$.text", is(accountHolder.getText())));
+                .andExpect(jsonPath("$.firstName", is(accountHolder.getFirstName())));
+    }
+
+    @Test
+    void shouldApplyConcurrentUpdatesOfOneAccountHolderInTurn() throws Exception {
+        AccountHolder accountHolder = accountHolderList.get(0);
+        int updates = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(updates);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < updates; i++) {
+                AccountHolder update =
+                        new AccountHolder(
+                                accountHolder.getId(),
+                                "Concurrent " + i,
+                                accountHolder.getLastName(),
+                                accountHolder.getType(),
+                                accountHolder.getSsn(),
+                                accountHolder.getDob());
+                String content = objectMapper.writeValueAsString(update);
+                statuses.add(
+                        executor.submit(
+                                () ->
+                                        this.mockMvc
+                                                .perform(
+                                                        put(
+                                                                        "/api/accounholder/{id}",
+                                                                        accountHolder.getId())
+                                                                .contentType(
+                                                                        MediaType.APPLICATION_JSON)
+                                                                .content(content))
+                                                .andReturn()
+                                                .getResponse()
+                                                .getStatus()));
+            }
+            for (Future<Integer> status : statuses) {
+                assertThat(status.get(30, TimeUnit.SECONDS)).isEqualTo(200);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(accountHolderRepository.findById(accountHolder.getId()).orElseThrow())
+                .extracting(AccountHolder::getFirstName)
+                .asString()
+                .startsWith("Concurrent ");
     }
 
     @Test
@@ -123,6 +308,6 @@ class AccountHolderControllerIT extends AbstractIntegrationTest {
                 .perform(delete("/api/accounholder/{id}", accountHolder.getId()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(accountHolder.getId()), Long.class))
-                .andExpect(jsonPath("$.text", is(accountHolder.getText())));
+                .andExpect(jsonPath("$.firstName", is(accountHolder.getFirstName())));
     }
 }
@@ -0,0 +1,173 @@
+package me.sathish.accountholdercommand.web.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import me.sathish.accountholdercommand.AccountHolderCommandApplication;
+import me.sathish.accountholdercommand.config.ApplicationProperties;
+import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.repositories.AccountHolderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load harness comparing the execution modes on the paged list, which queries the database on every
+ * request: concurrent clients page through the holders against a running instance, the throughput
+ * and p99 latency of each mode are logged side by side, and virtual threads must keep up with the
+ * platform pool. Opt-in with {@code mvn -Pload-test verify}; it needs Java 21, where the modes
+ * actually differ. Size it with {@code -Dload.clients} and {@code -Dload.requests-per-client}.
+ */
+@Slf4j
+@EnabledForJreRange(min = JRE.JAVA_21, disabledReason = "both modes use platform threads")
+class AccountHolderControllerLoadIT {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 500);
+    private static final int REQUESTS_PER_CLIENT =
+            Integer.getInteger("load.requests-per-client", 20);
+    private static final int HOLDERS = 1_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int DB_POOL_SIZE = 20;
+
+    @Test
+    void virtualThreadsKeepUpWithThePlatformPoolOnTheDatabaseBoundList() throws Exception {
+        Result platform = measure(ApplicationProperties.Execution.Mode.PLATFORM);
+        Result virtual = measure(ApplicationProperties.Execution.Mode.VIRTUAL);
+
+        assertThat(platform.errors()).isZero();
+        assertThat(virtual.errors()).isZero();
+        // both modes queue on the same connection pool; allow for run-to-run noise
+        assertThat(virtual.throughput()).isGreaterThanOrEqualTo(platform.throughput() * 9 / 10);
+    }
+
+    private Result measure(ApplicationProperties.Execution.Mode mode) throws Exception {
+        try (ConfigurableApplicationContext context =
+                new SpringApplicationBuilder(AccountHolderCommandApplication.class)
+                        .properties(
+                                "server.port=0",
+                                "application.execution.mode=" + mode,
+                                "application.outbox.relay-enabled=false",
+                                "application.ssn.hash-key=load-test-key",
+                                "server.tomcat.max-connections=" + (CLIENTS * 2),
+                                "server.tomcat.accept-count=" + CLIENTS,
+                                "spring.datasource.hikari.maximum-pool-size=" + DB_POOL_SIZE,
+                                "spring.datasource.hikari.connection-timeout=60000",
+                                "spring.jpa.show-sql=false")
+                        .run()) {
+            context.getBean(AccountHolderRepository.class)
+                    .saveAll(
+                            IntStream.range(0, HOLDERS)
+                                    .mapToObj(
+                                            i ->
+                                                    new AccountHolder(
+                                                            null,
+                                                            "Load",
+                                                            "Test" + i,
+                                                            "INDIVIDUAL",
+                                                            String.format("900-00-%04d", i),
+                                                            "1990-01-01"))
+                                    .toList());
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", int.class);
+            List<URI> pages =
+                    IntStream.range(0, HOLDERS / PAGE_SIZE)
+                            .mapToObj(
+                                    page ->
+                                            URI.create(
+                                                    "http://localhost:"
+                                                            + port
+                                                            + "/api/accounholder?pageNo="
+                                                            + page
+                                                            + "&pageSize="
+                                                            + PAGE_SIZE))
+                            .toList();
+
+            Result result = run(pages);
+
+            log.info(
+                    "mode={} clients={} requests={} errors={} throughput={} req/s p99={} ms",
+                    mode,
+                    CLIENTS,
+                    result.requests(),
+                    result.errors(),
+                    result.throughput(),
+                    result.p99Millis());
+            return result;
+        }
+    }
+
+    private Result run(List<URI> pages) throws Exception {
+        HttpClient httpClient =
+                HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                int client = i;
+                futures.add(
+                        clients.submit(
+                                () -> {
+                                    long[] latencies = new long[REQUESTS_PER_CLIENT];
+                                    start.await();
+                                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                                        URI page = pages.get((client + r) % pages.size());
+                                        HttpRequest request =
+                                                HttpRequest.newBuilder(page)
+                                                        .timeout(Duration.ofSeconds(60))
+                                                        .build();
+                                        long begin = System.nanoTime();
+                                        HttpResponse<Void> response =
+                                                httpClient.send(
+                                                        request,
+                                                        HttpResponse.BodyHandlers.discarding());
+                                        latencies[r] =
+                                                response.statusCode() == 200
+                                                        ? System.nanoTime() - begin
+                                                        : -1;
+                                    }
+                                    return latencies;
+                                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            long[] all = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            int offset = 0;
+            for (Future<long[]> future : futures) {
+                long[] latencies = future.get(5, TimeUnit.MINUTES);
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+                offset += latencies.length;
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+            long errors = Arrays.stream(all).filter(latency -> latency < 0).count();
+            long[] ok = Arrays.stream(all).filter(latency -> latency >= 0).sorted().toArray();
+            long p99 = ok.length == 0 ? 0 : ok[(int) Math.ceil(ok.length * 0.99) - 1];
+            return new Result(
+                    all.length, errors, elapsedMillis, TimeUnit.NANOSECONDS.toMillis(p99));
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private record Result(long requests, long errors, long elapsedMillis, long p99Millis) {
+
+        long throughput() {
+            return requests * 1000L / Math.max(1, elapsedMillis);
+        }
+    }
+}
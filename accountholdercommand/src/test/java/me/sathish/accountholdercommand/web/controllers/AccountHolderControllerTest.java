@@ -5,22 +5,41 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.doNothing;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import me.sathish.accountholdercommand.entities.AccountHolder;
+import me.sathish.accountholdercommand.exception.DuplicateAccountHolderException;
+import me.sathish.accountholdercommand.exception.InvalidCursorException;
+import me.sathish.accountholdercommand.exception.InvalidFieldSelectionException;
+import me.sathish.accountholdercommand.exception.InvalidSearchException;
+import me.sathish.accountholdercommand.model.request.AccountHolderSearch;
+import me.sathish.accountholdercommand.model.response.BulkItemResult;
+import me.sathish.accountholdercommand.model.response.BulkResult;
+import me.sathish.accountholdercommand.model.response.CursorPagedResult;
 import me.sathish.accountholdercommand.model.response.PagedResult;
+import me.sathish.accountholdercommand.query.AccountHolderView;
+import me.sathish.accountholdercommand.services.AccountHolderBulkService;
+import me.sathish.accountholdercommand.services.AccountHolderExportService;
 import me.sathish.accountholdercommand.services.AccountHolderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,9 +48,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @WebMvcTest(controllers = AccountHolderController.class)
 @ActiveProfiles(PROFILE_TEST)
@@ -41,6 +64,10 @@ class AccountHolderControllerTest {
 
     @MockBean private AccountHolderService accountHolderService;
 
+    @MockBean private AccountHolderBulkService accountHolderBulkService;
+
+    @MockBean private AccountHolderExportService accountHolderExportService;
+
     @Autowired private ObjectMapper objectMapper;
 
     private List<AccountHolder> accountHolderList;
@@ -48,16 +75,19 @@ class AccountHolderControllerTest {
     @BeforeEach
     void setUp() {
         this.accountHolderList = new ArrayList<>();
-        this.accountHolderList.add(new AccountHolder(1L, "text 1"));
-        this.accountHolderList.add(new AccountHolder(2L, "text 2"));
-        this.accountHolderList.add(new AccountHolder(3L, "text 3"));
+        this.accountHolderList.add(
+                new AccountHolder(1L, "text 1", "Doe", "INDIVIDUAL", "111-11-1111", "1990-01-02"));
+        this.accountHolderList.add(
+                new AccountHolder(2L, "text 2", "Doe", "INDIVIDUAL", "111-11-1112", "1990-01-03"));
+        this.accountHolderList.add(
+                new AccountHolder(3L, "text 3", "Doe", "INDIVIDUAL", "111-11-1113", "1990-01-04"));
     }
 
     @Test
     void shouldFetchAllAccountHolders() throws Exception {
-        Page<AccountHolder> page = new PageImpl<>(accountHolderList);
-        PagedResult<AccountHolder> accountHolderPagedResult = new PagedResult<>(page);
-        given(accountHolderService.findAllAccountHolders(0, 10, "id", "asc"))
+        Page<AccountHolderView> page = new PageImpl<>(toViews(accountHolderList));
+        PagedResult<AccountHolderView> accountHolderPagedResult = new PagedResult<>(page);
+        given(accountHolderService.findAllAccountHolders(0, 10, "id", "asc", true, true))
                 .willReturn(accountHolderPagedResult);
 
         this.mockMvc
@@ -73,17 +103,190 @@ class AccountHolderControllerTest {
                 .andExpect(jsonPath("$.hasPrevious", is(false)));
     }
 
+    @Test
+    void shouldFetchAccountHoldersAfterCursor() throws Exception {
+        CursorPagedResult<AccountHolder> accountHolderCursorPagedResult =
+                new CursorPagedResult<>(accountHolderList, 3, true, "next-cursor");
+        given(accountHolderService.findAccountHoldersAfter("", 3, "id", "asc"))
+                .willReturn(accountHolderCursorPagedResult);
+
+        this.mockMvc
+                .perform(get("/api/accounholder").param("after", "").param("pageSize", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.size()", is(accountHolderList.size())))
+                .andExpect(jsonPath("$.pageSize", is(3)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.next", is("next-cursor")));
+    }
+
+    @Test
+    void shouldReturn400WhenCursorIsInvalid() throws Exception {
+        given(accountHolderService.findAccountHoldersAfter("garbage", 10, "id", "asc"))
+                .willThrow(new InvalidCursorException("Malformed cursor 'garbage'"));
+
+        this.mockMvc
+                .perform(get("/api/accounholder").param("after", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("Content-Type", is("application/problem+json")))
+                .andExpect(jsonPath("$.title", is("Invalid Cursor")))
+                .andExpect(jsonPath("$.detail", is("Malformed cursor 'garbage'")));
+    }
+
+    @Test
+    void shouldReturn400WhenSelectingFieldsOfAKeysetPage() throws Exception {
+        this.mockMvc
+                .perform(get("/api/accounholder").param("after", "").param("fields", "id"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("Content-Type", is("application/problem+json")))
+                .andExpect(jsonPath("$.title", is("Invalid Field Selection")));
+
+        then(accountHolderService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void shouldFetchOnlySelectedFields() throws Exception {
+        Slice<Map<String, Object>> slice =
+                new SliceImpl<>(
+                        List.of(Map.of("id", 1, "lastName", "Doe")), PageRequest.of(0, 10), false);
+        given(
+                        accountHolderService.findAllAccountHolderFields(
+                                "id,lastName", 0, 10, "id", "asc", true, true))
+                .willReturn(new PagedResult<>(slice, 1L));
+
+        this.mockMvc
+                .perform(get("/api/accounholder").param("fields", "id,lastName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.size()", is(1)))
+                .andExpect(jsonPath("$.data[0].id", is(1)))
+                .andExpect(jsonPath("$.data[0].lastName", is("Doe")))
+                .andExpect(jsonPath("$.data[0].ssn").doesNotExist())
+                .andExpect(jsonPath("$.totalElements", is(1)));
+    }
+
+    @Test
+    void shouldReturn400WhenSelectingUnknownField() throws Exception {
+        given(
+                        accountHolderService.findAllAccountHolderFields(
+                                "password", 0, 10, "id", "asc", true, true))
+                .willThrow(new InvalidFieldSelectionException("Unknown field 'password'"));
+
+        this.mockMvc
+                .perform(get("/api/accounholder").param("fields", "password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("Content-Type", is("application/problem+json")))
+                .andExpect(jsonPath("$.title", is("Invalid Field Selection")))
+                .andExpect(jsonPath("$.detail", is("Unknown field 'password'")));
+    }
+
+    @Test
+    void shouldFetchAccountHoldersWithoutTotals() throws Exception {
+        Slice<AccountHolderView> slice =
+                new SliceImpl<>(toViews(accountHolderList), PageRequest.of(0, 10), true);
+        PagedResult<AccountHolderView> accountHolderPagedResult = new PagedResult<>(slice);
+        given(accountHolderService.findAllAccountHolders(0, 10, "id", "asc", false, true))
+                .willReturn(accountHolderPagedResult);
+
+        this.mockMvc
+                .perform(get("/api/accounholder").param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.size()", is(accountHolderList.size())))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.totalPages").doesNotExist())
+                .andExpect(jsonPath("$.pageNumber", is(1)))
+                .andExpect(jsonPath("$.hasNext", is(true)));
+    }
+
+    @Test
+    void shouldSearchAccountHolders() throws Exception {
+        AccountHolderSearch search =
+                new AccountHolderSearch("Do", "INDIVIDUAL", null, "1990-01-03");
+        Slice<AccountHolderView> slice =
+                new SliceImpl<>(
+                        toViews(accountHolderList.subList(0, 2)), PageRequest.of(0, 10), false);
+        given(accountHolderService.searchAccountHolders(search, 0, 10, "id", "asc"))
+                .willReturn(new PagedResult<>(slice));
+
+        this.mockMvc
+                .perform(
+                        get("/api/accounholder/search")
+                                .param("lastName", "Do")
+                                .param("type", "INDIVIDUAL")
+                                .param("dobTo", "1990-01-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.size()", is(2)))
+                .andExpect(jsonPath("$.data[1].dob", is("1990-01-03")))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.hasNext", is(false)));
+    }
+
+    @Test
+    void shouldReturn400WhenSearchHasNoCriteria() throws Exception {
+        given(
+                        accountHolderService.searchAccountHolders(
+                                new AccountHolderSearch(null, null, null, null),
+                                0,
+                                10,
+                                "id",
+                                "asc"))
+                .willThrow(new InvalidSearchException("Search needs at least one criterion"));
+
+        this.mockMvc
+                .perform(get("/api/accounholder/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("Content-Type", is("application/problem+json")))
+                .andExpect(jsonPath("$.title", is("Invalid Search")))
+                .andExpect(jsonPath("$.detail", is("Search needs at least one criterion")));
+    }
+
+    @Test
+    void shouldStreamAccountHoldersAsCsv() throws Exception {
+        given(accountHolderExportService.export(eq(AccountHolderExportService.Format.CSV), any()))
+                .willAnswer(
+                        invocation -> {
+                            invocation
+                                    .getArgument(1, OutputStream.class)
+                                    .write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+                            return 1L;
+                        });
+
+        MvcResult mvcResult =
+                this.mockMvc
+                        .perform(get("/api/accounholder/export").param("format", "csv"))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        this.mockMvc
+                .perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", is("text/csv")))
+                .andExpect(content().string("id\n1\n"));
+    }
+
+    @Test
+    void shouldReturn400ForUnknownExportFormat() throws Exception {
+        this.mockMvc
+                .perform(get("/api/accounholder/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldFindAccountHolderById() throws Exception {
         Long accountHolderId = 1L;
-        AccountHolder accountHolder = new AccountHolder(accountHolderId, "text 1");
+        AccountHolder accountHolder =
+                new AccountHolder(
+                        accountHolderId,
+                        "text 1",
+                        "Doe",
+                        "INDIVIDUAL",
+                        "111-11-1114",
+                        "1990-01-05");
         given(accountHolderService.findAccountHolderById(accountHolderId))
                 .willReturn(Optional.of(accountHolder));
 
         this.mockMvc
                 .perform(get("/api/accounholder/{id}", accountHolderId))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.text", is(accountHolder.getText())));
+                .andExpect(jsonPath("$.firstName", is(accountHolder.getFirstName())));
     }
 
     @Test
@@ -102,7 +305,9 @@ class AccountHolderControllerTest {
         given(accountHolderService.saveAccountHolder(any(AccountHolder.class)))
                 .willAnswer((invocation) -> invocation.getArgument(0));
 
-        AccountHolder accountHolder = new AccountHolder(1L, "some text");
+        AccountHolder accountHolder =
+                new AccountHolder(
+                        1L, "some text", "Doe", "INDIVIDUAL", "111-11-1115", "1990-01-06");
         this.mockMvc
                 .perform(
                         post("/api/accounholder")
@@ -110,12 +315,34 @@ class AccountHolderControllerTest {
                                 .content(objectMapper.writeValueAsString(accountHolder)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id", notNullValue()))
-                .andExpect(jsonPath("$.text", is(accountHolder.getText())));
+                .andExpect(jsonPath("$.firstName", is(accountHolder.getFirstName())));
+    }
+
+    @Test
+    void shouldReturn409WhenCreatingAccountHolderWithKnownSsn() throws Exception {
+        given(accountHolderService.saveAccountHolder(any(AccountHolder.class)))
+                .willThrow(
+                        new DuplicateAccountHolderException(
+                                "An account holder with this ssn already exists"));
+
+        AccountHolder accountHolder =
+                new AccountHolder(
+                        null, "some text", "Doe", "INDIVIDUAL", "111-11-1111", "1990-01-06");
+        this.mockMvc
+                .perform(
+                        post("/api/accounholder")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(accountHolder)))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Content-Type", is("application/problem+json")))
+                .andExpect(jsonPath("$.title", is("Duplicate Account Holder")))
+                .andExpect(jsonPath("$.ssnHash").doesNotExist());
     }
 
     @Test
-    void shouldReturn400WhenCreateNewAccountHolderWithoutText() throws Exception {
-        AccountHolder accountHolder = new AccountHolder(null, null);
+    void shouldReturn400WhenCreateNewAccountHolderWithoutFirstName() throws Exception {
+        AccountHolder accountHolder =
+                new AccountHolder(null, null, "Doe", "INDIVIDUAL", "111-11-1116", "1990-01-07");
 
         this.mockMvc
                 .perform(
@@ -130,15 +357,94 @@ class AccountHolderControllerTest {
                 .andExpect(jsonPath("$.detail", is("Invalid request content.")))
                 .andExpect(jsonPath("$.instance", is("/api/accounholder")))
                 .andExpect(jsonPath("$.violations", hasSize(1)))
-                .andExpect(jsonPath("$.violations[0].field", is("text")))
-                .andExpect(jsonPath("$.violations[0].message", is("Text cannot be empty")))
+                .andExpect(jsonPath("$.violations[0].field", is("firstName")))
+                .andExpect(jsonPath("$.violations[0].message", is("First Name cannot be empty")))
                 .andReturn();
     }
 
+    @Test
+    void shouldReturn400WhenCreateNewAccountHolderWithNonIsoDob() throws Exception {
+        AccountHolder accountHolder =
+                new AccountHolder(null, "First", "Doe", "INDIVIDUAL", "111-11-1119", "01/07/1990");
+
+        this.mockMvc
+                .perform(
+                        post("/api/accounholder")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(accountHolder)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title", is("Constraint Violation")))
+                .andExpect(jsonPath("$.violations", hasSize(1)))
+                .andExpect(jsonPath("$.violations[0].field", is("dob")));
+    }
+
+    @Test
+    void shouldBulkCreateAccountHoldersFromJsonArray() throws Exception {
+        BulkResult bulkResult =
+                new BulkResult(
+                        List.of(
+                                new BulkItemResult(
+                                        0,
+                                        1L,
+                                        "111-11-1111",
+                                        BulkItemResult.Status.CREATED,
+                                        List.of()),
+                                new BulkItemResult(
+                                        1,
+                                        null,
+                                        "111-11-1111",
+                                        BulkItemResult.Status.DUPLICATE,
+                                        List.of("ssn already present earlier in this request"))));
+        given(accountHolderBulkService.importAccountHolders(any())).willReturn(bulkResult);
+
+        this.mockMvc
+                .perform(
+                        post("/api/accounholder/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(accountHolderList)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.items[0].status", is("CREATED")))
+                .andExpect(jsonPath("$.items[0].errors").doesNotExist())
+                .andExpect(jsonPath("$.items[1].status", is("DUPLICATE")));
+    }
+
+    @Test
+    void shouldBulkCreateAccountHoldersFromNdjson() throws Exception {
+        given(accountHolderBulkService.importNdjson(any()))
+                .willReturn(
+                        new BulkResult(
+                                List.of(
+                                        new BulkItemResult(
+                                                0,
+                                                1L,
+                                                "111-11-1111",
+                                                BulkItemResult.Status.CREATED,
+                                                List.of()))));
+
+        this.mockMvc
+                .perform(
+                        post("/api/accounholder/bulk")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content(
+                                        objectMapper.writeValueAsString(accountHolderList.get(0))
+                                                + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)));
+    }
+
     @Test
     void shouldUpdateAccountHolder() throws Exception {
         Long accountHolderId = 1L;
-        AccountHolder accountHolder = new AccountHolder(accountHolderId, "Updated text");
+        AccountHolder accountHolder =
+                new AccountHolder(
+                        accountHolderId,
+                        "Updated text",
+                        "Doe",
+                        "INDIVIDUAL",
+                        "111-11-1117",
+                        "1990-01-08");
         given(accountHolderService.findAccountHolderById(accountHolderId))
                 .willReturn(Optional.of(accountHolder));
         given(accountHolderService.saveAccountHolder(any(AccountHolder.class)))
@@ -150,7 +456,7 @@ class AccountHolderControllerTest {
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(accountHolder)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.text", is(accountHolder.getText())));
+                .andExpect(jsonPath("$.firstName", is(accountHolder.getFirstName())));
     }
 
     @Test
@@ -158,7 +464,14 @@ class AccountHolderControllerTest {
         Long accountHolderId = 1L;
         given(accountHolderService.findAccountHolderById(accountHolderId))
                 .willReturn(Optional.empty());
-        AccountHolder accountHolder = new AccountHolder(accountHolderId, "Updated text");
+        AccountHolder accountHolder =
+                new AccountHolder(
+                        accountHolderId,
+                        "Updated text",
+                        "Doe",
+                        "INDIVIDUAL",
+                        "111-11-1118",
+                        "1990-01-09");
 
         this.mockMvc
                 .perform(
@@ -171,7 +484,14 @@ class AccountHolderControllerTest {
     @Test
     void shouldDeleteAccountHolder() throws Exception {
         Long accountHolderId = 1L;
-        AccountHolder accountHolder = new AccountHolder(accountHolderId, "Some text");
+        AccountHolder accountHolder =
+                new AccountHolder(
+                        accountHolderId,
+                        "Some text",
+                        "Doe",
+                        "INDIVIDUAL",
+                        "111-11-1119",
+                        "1990-01-01");
         given(accountHolderService.findAccountHolderById(accountHolderId))
                 .willReturn(Optional.of(accountHolder));
         doNothing().when(accountHolderService).deleteAccountHolderById(accountHolder.getId());
@@ -179,7 +499,7 @@ class AccountHolderControllerTest {
         this.mockMvc
                 .perform(delete("/api/accounholder/{id}", accountHolder.getId()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.text", is(accountHolder.getText())));
+                .andExpect(jsonPath("$.firstName", is(accountHolder.getFirstName())));
     }
 
     @Test
@@ -192,4 +512,18 @@ class AccountHolderControllerTest {
                 .perform(delete("/api/accounholder/{id}", accountHolderId))
                 .andExpect(status().isNotFound());
     }
+
+    private static List<AccountHolderView> toViews(List<AccountHolder> accountHolders) {
+        return accountHolders.stream()
+                .map(
+                        a ->
+                                new AccountHolderView(
+                                        a.getId(),
+                                        a.getFirstName(),
+                                        a.getLastName(),
+                                        a.getType(),
+                                        a.getSsn(),
+                                        a.getDob()))
+                .toList();
+    }
 }
@@ -0,0 +1,107 @@
+package me.sathish.accountholdercommand.web.controllers;
+
+import static me.sathish.accountholdercommand.utils.AppConstants.PROFILE_TEST;
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Optional;
+import me.sathish.accountholdercommand.query.AccountHolderReadModel;
+import me.sathish.accountholdercommand.query.AccountHolderView;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(controllers = AccountHolderQueryController.class)
+@ActiveProfiles(PROFILE_TEST)
+class AccountHolderQueryControllerTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @MockBean private AccountHolderReadModel accountHolderReadModel;
+
+    private final AccountHolderView accountHolderView =
+            new AccountHolderView(1L, "Jane", "Smith", "INDIVIDUAL", "111-11-1111", "1990-01-01");
+
+    @Test
+    void shouldSearchAccountHolders() throws Exception {
+        given(accountHolderReadModel.isLoaded()).willReturn(true);
+        given(accountHolderReadModel.search("smi", "INDIVIDUAL", 10))
+                .willReturn(List.of(accountHolderView));
+
+        this.mockMvc
+                .perform(
+                        get("/api/accounholder/query")
+                                .param("lastNamePrefix", "smi")
+                                .param("type", "INDIVIDUAL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].lastName", is("Smith")));
+    }
+
+    @Test
+    void shouldFindAccountHolderById() throws Exception {
+        given(accountHolderReadModel.isLoaded()).willReturn(true);
+        given(accountHolderReadModel.findById(1L)).willReturn(Optional.of(accountHolderView));
+
+        this.mockMvc
+                .perform(get("/api/accounholder/query/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("Jane")));
+    }
+
+    @Test
+    void shouldFindAccountHolderBySsn() throws Exception {
+        given(accountHolderReadModel.isLoaded()).willReturn(true);
+        given(accountHolderReadModel.findBySsn("111-11-1111"))
+                .willReturn(Optional.of(accountHolderView));
+
+        this.mockMvc
+                .perform(
+                        post("/api/accounholder/query/ssn")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"ssn\": \"111-11-1111\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
+    @Test
+    void shouldRejectSearchLimitOutOfRange() throws Exception {
+        this.mockMvc
+                .perform(get("/api/accounholder/query").param("limit", "1001"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title", is("Invalid Search")));
+        this.mockMvc
+                .perform(get("/api/accounholder/query").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(accountHolderReadModel);
+    }
+
+    @Test
+    void shouldReturn404WhenAccountHolderIsNotInReadModel() throws Exception {
+        given(accountHolderReadModel.isLoaded()).willReturn(true);
+        given(accountHolderReadModel.findById(2L)).willReturn(Optional.empty());
+
+        this.mockMvc
+                .perform(get("/api/accounholder/query/{id}", 2L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReturn503BeforeSnapshotIsLoaded() throws Exception {
+        given(accountHolderReadModel.isLoaded()).willReturn(false);
+
+        this.mockMvc
+                .perform(get("/api/accounholder/query/{id}", 1L))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
@@ -1,5 +1,6 @@
 package me.sathish.config;
 
+import java.time.Duration;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
@@ -10,6 +11,18 @@ public class ApplicationProperties {
 
     @NestedConfigurationProperty private Cors cors = new Cors();
 
+    @NestedConfigurationProperty private Pagination pagination = new Pagination();
+
+    @NestedConfigurationProperty private Cache cache = new Cache();
+
+    @NestedConfigurationProperty private Execution execution = new Execution();
+
+    @NestedConfigurationProperty private Replica replica = new Replica();
+
+    @NestedConfigurationProperty private WarmUp warmUp = new WarmUp();
+
+    @NestedConfigurationProperty private LoadReport loadReport = new LoadReport();
+
     @Data
     public static class Cors {
         private String pathPattern = "/api/**";
@@ -18,4 +31,80 @@ public class ApplicationProperties {
         private String allowedOriginPatterns = "*";
         private boolean allowCredentials = true;
     }
+
+    @Data
+    public static class Pagination {
+        /** How long an approximate row count is reused before it is read again. */
+        private Duration approximateCountTtl = Duration.ofMinutes(1);
+
+        /** Estimates below this are replaced by an exact count, which is cheap at that size. */
+        private long exactCountThreshold = 10_000;
+    }
+
+    @Data
+    public static class Replica {
+        /** JDBC url of a read replica; without it every query goes to spring.datasource. */
+        private String url;
+
+        /** Default to spring.datasource.username and password. */
+        private String username;
+
+        private String password;
+        private int maximumPoolSize = 10;
+
+        /** How long a client's reads stay on the primary after it wrote; cover the replica lag. */
+        private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+        /** Signs the read-your-writes tokens; the same on every instance. Required with a url. */
+        private String readYourWritesKey;
+
+        /** Request header naming the client; falls back to X-Forwarded-For, then the peer. */
+        private String clientHeader = "X-Client-Id";
+
+        private long maxTrackedClients = 100_000;
+    }
+
+    @Data
+    public static class Cache {
+        /** Caffeine spec for the by-id lookup caches; statistics are always recorded. */
+        private String spec = "maximumSize=10000,expireAfterWrite=10m";
+    }
+
+    @Data
+    public static class WarmUp {
+        /** Without warm-up the instance is marked UP in Eureka as soon as the runners start. */
+        private boolean enabled = true;
+
+        /** Rounds of the list queries and their serialization; the JIT's first tier needs 200. */
+        private int iterations = 200;
+
+        /** Most recently created entities read into the by-id cache. */
+        private int preloadEntities = 100;
+    }
+
+    @Data
+    public static class LoadReport {
+        /** Publishes the instance's load into its Eureka metadata for reported_load balancing. */
+        private boolean enabled = true;
+
+        /** How often the load is read; only changed values are published. */
+        private Duration interval = Duration.ofSeconds(10);
+
+        /** Roughly the span of requests the published p95 covers. */
+        private Duration latencyWindow = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Execution {
+        /**
+         * Threads that run requests and {@code @Async} work. VIRTUAL needs a Java 21 runtime and
+         * falls back to PLATFORM on older JVMs.
+         */
+        private Mode mode = Mode.PLATFORM;
+
+        public enum Mode {
+            PLATFORM,
+            VIRTUAL
+        }
+    }
 }
@@ -0,0 +1,82 @@
+package me.sathish.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.Objects;
+import javax.sql.DataSource;
+import me.sathish.config.datasource.ReadYourWritesFilter;
+import me.sathish.config.datasource.ReplicaRoutingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Adds a replica pool next to {@code spring.datasource} when {@code application.replica.url} is set
+ * and routes {@code readOnly} transactions to it. Without a replica url the single data source
+ * Spring Boot configures is left alone.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "application.replica.url")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource =
+                dataSourceProperties
+                        .initializeDataSourceBuilder()
+                        .type(HikariDataSource.class)
+                        .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    HikariDataSource replicaDataSource(
+            DataSourceProperties dataSourceProperties,
+            HikariDataSource primaryDataSource,
+            ApplicationProperties properties) {
+        ApplicationProperties.Replica replica = properties.getReplica();
+        HikariDataSource dataSource =
+                DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .driverClassName(dataSourceProperties.determineDriverClassName())
+                        .url(replica.getUrl())
+                        .username(
+                                Objects.requireNonNullElse(
+                                        replica.getUsername(),
+                                        dataSourceProperties.determineUsername()))
+                        .password(
+                                Objects.requireNonNullElse(
+                                        replica.getPassword(),
+                                        dataSourceProperties.determinePassword()))
+                        .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        dataSource.setAutoCommit(primaryDataSource.isAutoCommit());
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+        return dataSource;
+    }
+
+    @Bean
+    ReadYourWritesFilter readYourWritesFilter(ApplicationProperties properties) {
+        return new ReadYourWritesFilter(properties.getReplica());
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(
+            HikariDataSource primaryDataSource,
+            HikariDataSource replicaDataSource,
+            ReadYourWritesFilter readYourWritesFilter) {
+        // the connection is fetched on first use, once the transaction's read-only flag is set
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(
+                        primaryDataSource, replicaDataSource, readYourWritesFilter));
+    }
+}
@@ -0,0 +1,67 @@
+package me.sathish.config;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Switches Tomcat request handling and {@code @Async} work to one virtual thread per task when
+ * {@code application.execution.mode=virtual}. The executor is looked up reflectively so the
+ * services still build and run on Java 17, where the platform pools stay in place.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "application.execution.mode", havingValue = "virtual")
+@EnableAsync
+@Slf4j
+public class ExecutionConfig {
+
+    /** Resolved once: an older JVM is reported once, and Tomcat and @Async share the executor. */
+    private final Optional<ExecutorService> virtualThreads = virtualThreadPerTaskExecutor();
+
+    @Bean
+    TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler ->
+                virtualThreads.ifPresent(
+                        executor -> {
+                            log.info("Serving HTTP requests on virtual threads");
+                            protocolHandler.setExecutor(executor);
+                        });
+    }
+
+    @Bean(
+            name = {
+                TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+                AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME
+            })
+    AsyncTaskExecutor applicationTaskExecutor(TaskExecutorBuilder taskExecutorBuilder) {
+        return virtualThreads
+                .<AsyncTaskExecutor>map(TaskExecutorAdapter::new)
+                .orElseGet(taskExecutorBuilder::build);
+    }
+
+    private static Optional<ExecutorService> virtualThreadPerTaskExecutor() {
+        try {
+            return Optional.of(
+                    (ExecutorService)
+                            Executors.class
+                                    .getMethod("newVirtualThreadPerTaskExecutor")
+                                    .invoke(null));
+        } catch (ReflectiveOperationException e) {
+            log.warn(
+                    "Virtual threads need Java 21, running on {}; keeping platform threads",
+                    Runtime.version());
+            return Optional.empty();
+        }
+    }
+}
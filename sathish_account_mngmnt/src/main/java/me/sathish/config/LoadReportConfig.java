@@ -0,0 +1,39 @@
+package me.sathish.config;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.sathish.config.load.LoadMetadataPublisher;
+import me.sathish.config.load.RequestLoadFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reports the instance's load to the gateways through its Eureka metadata, see {@link
+ * LoadMetadataPublisher}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "application.load-report.enabled", matchIfMissing = true)
+public class LoadReportConfig {
+
+    @Bean
+    RequestLoadFilter requestLoadFilter(
+            MeterRegistry meterRegistry, ApplicationProperties properties) {
+        return new RequestLoadFilter(meterRegistry, properties.getLoadReport().getLatencyWindow());
+    }
+
+    @Bean
+    LoadMetadataPublisher loadMetadataPublisher(
+            RequestLoadFilter requestLoadFilter,
+            ObjectProvider<HikariDataSource> dataSources,
+            ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+            ApplicationProperties properties) {
+        return new LoadMetadataPublisher(
+                requestLoadFilter,
+                dataSources,
+                applicationInfoManager,
+                properties.getLoadReport().getInterval());
+    }
+}
@@ -0,0 +1,103 @@
+package me.sathish.config.load;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Publishes the instance's load into its Eureka metadata, for the gateways' {@code reported_load}
+ * balancing: requests in flight, active and awaited connections of the Hikari pools, and the recent
+ * p95 of {@link RequestLoadFilter}.
+ *
+ * <p>The values are read every {@code application.load-report.interval} and only handed to Eureka
+ * when they changed. Eureka sends changed metadata with the next re-registration, at most every
+ * {@code eureka.client.instance-info-replication-interval-seconds}, so an idle or steady instance
+ * costs the discovery servers nothing.
+ */
+@Slf4j
+public class LoadMetadataPublisher {
+
+    public static final String IN_FLIGHT = "load.in-flight";
+    public static final String DB_ACTIVE = "load.db-active";
+    public static final String DB_PENDING = "load.db-pending";
+    public static final String P95_MILLIS = "load.p95-ms";
+
+    private final RequestLoadFilter requestLoad;
+    private final ObjectProvider<HikariDataSource> dataSources;
+    private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+    private final Duration interval;
+    private final ScheduledExecutorService publisher =
+            Executors.newSingleThreadScheduledExecutor(
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "load-report");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+    // only touched from the publisher thread
+    private Map<String, String> published = Map.of();
+
+    public LoadMetadataPublisher(
+            RequestLoadFilter requestLoad,
+            ObjectProvider<HikariDataSource> dataSources,
+            ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+            Duration interval) {
+        this.requestLoad = requestLoad;
+        this.dataSources = dataSources;
+        this.applicationInfoManager = applicationInfoManager;
+        this.interval = interval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long intervalMillis = interval.toMillis();
+        publisher.scheduleWithFixedDelay(
+                this::publish, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void publish() {
+        ApplicationInfoManager manager = applicationInfoManager.getIfAvailable();
+        if (manager == null) {
+            return;
+        }
+        int active = 0;
+        int pending = 0;
+        for (HikariDataSource dataSource : dataSources) {
+            // null until the pool started
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            if (pool != null) {
+                active += pool.getActiveConnections();
+                pending += pool.getThreadsAwaitingConnection();
+            }
+        }
+        Map<String, String> load =
+                Map.of(
+                        IN_FLIGHT, Integer.toString(requestLoad.inFlight()),
+                        DB_ACTIVE, Integer.toString(active),
+                        DB_PENDING, Integer.toString(pending),
+                        P95_MILLIS, Long.toString(Math.round(requestLoad.p95Millis())));
+        if (load.equals(published)) {
+            return;
+        }
+        try {
+            manager.registerAppMetadata(load);
+            published = load;
+        } catch (RuntimeException e) {
+            log.warn("Cannot publish the load metadata {}", load, e);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        publisher.shutdownNow();
+    }
+}
@@ -0,0 +1,64 @@
+package me.sathish.config.load;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Counts the requests in flight and times them into a {@code application.load.requests} timer whose
+ * p95 covers roughly the last {@code latency-window}, for {@link LoadMetadataPublisher}.
+ */
+public class RequestLoadFilter extends OncePerRequestFilter {
+
+    private static final double P95 = 0.95;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer requests;
+
+    public RequestLoadFilter(MeterRegistry meterRegistry, Duration latencyWindow) {
+        this.requests =
+                Timer.builder("application.load.requests")
+                        .description("Requests as reported to the gateways through Eureka")
+                        .publishPercentiles(P95)
+                        .distributionStatisticExpiry(latencyWindow)
+                        .distributionStatisticBufferLength(3)
+                        .register(meterRegistry);
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /** p95 of the requests completed in the latency window, 0 without any. */
+    public double p95Millis() {
+        for (ValueAtPercentile percentile : requests.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == P95) {
+                return percentile.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            requests.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            inFlight.decrementAndGet();
+        }
+    }
+}
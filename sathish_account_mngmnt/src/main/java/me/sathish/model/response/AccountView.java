@@ -0,0 +1,8 @@
+package me.sathish.model.response;
+
+import java.time.Instant;
+
+/**
+ * Read-only copy of an account selected straight into the record by JPQL, never a managed entity.
+ */
+public record AccountView(Long id, String text, Instant createdAt) {}
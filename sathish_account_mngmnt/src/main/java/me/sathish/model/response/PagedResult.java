@@ -1,14 +1,16 @@
 package me.sathish.model.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 public record PagedResult<T>(
         List<T> data,
-        long totalElements,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Long totalElements,
         int pageNumber,
-        int totalPages,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Integer totalPages,
         @JsonProperty("isFirst") boolean isFirst,
         @JsonProperty("isLast") boolean isLast,
         @JsonProperty("hasNext") boolean hasNext,
@@ -24,4 +26,44 @@ public record PagedResult<T>(
                 page.hasNext(),
                 page.hasPrevious());
     }
+
+    /** Page without totals, used when the caller opted out of the count query. */
+    public PagedResult(Slice<T> slice) {
+        this(
+                slice.getContent(),
+                null,
+                slice.getNumber() + 1,
+                null,
+                slice.isFirst(),
+                slice.isLast(),
+                slice.hasNext(),
+                slice.hasPrevious());
+    }
+
+    /**
+     * Page whose totals come from an estimate instead of an exact count query. The estimate is
+     * raised to the rows this page shows exist, and replaced by them on the last page.
+     */
+    public PagedResult(Slice<T> slice, long estimatedTotalElements) {
+        this(
+                slice.getContent(),
+                totalElements(slice, estimatedTotalElements),
+                slice.getNumber() + 1,
+                (int)
+                        Math.ceil(
+                                (double) totalElements(slice, estimatedTotalElements)
+                                        / slice.getSize()),
+                slice.isFirst(),
+                slice.isLast(),
+                slice.hasNext(),
+                slice.hasPrevious());
+    }
+
+    private static long totalElements(Slice<?> slice, long estimatedTotalElements) {
+        long seen = (long) slice.getNumber() * slice.getSize() + slice.getNumberOfElements();
+        if (!slice.hasNext() && slice.getNumberOfElements() > 0) {
+            return seen;
+        }
+        return Math.max(estimatedTotalElements, slice.hasNext() ? seen + 1 : seen);
+    }
 }
@@ -1,6 +1,22 @@
 package me.sathish.repositories;
 
 import me.sathish.entities.Account;
+import me.sathish.model.response.AccountView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
-public interface AccountRepository extends JpaRepository<Account, Long> {}
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountRepositoryCustom {
+
+    String VIEW_QUERY =
+            "select new me.sathish.model.response.AccountView(a.id, a.text, a.createdAt) from Account a";
+
+    @Query(value = VIEW_QUERY, countQuery = "select count(a) from Account a")
+    Page<AccountView> findViewPage(Pageable pageable);
+
+    /** Reads one row more than the page size instead of counting. */
+    @Query(VIEW_QUERY)
+    Slice<AccountView> findViewSlice(Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package me.sathish.repositories;
+
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface AccountRepositoryCustom {
+
+    /**
+     * Selects only the named attributes of one page, one map per row keyed by attribute in the
+     * given order, so unused columns are neither read nor serialized. Like {@code findViewSlice}
+     * the page is read with a limit+1 query and no count query is run.
+     */
+    Slice<Map<String, Object>> findAllProjected(List<String> fields, Pageable pageable);
+}
@@ -0,0 +1,56 @@
+package me.sathish.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import me.sathish.entities.Account;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Override
+    public Slice<Map<String, Object>> findAllProjected(List<String> fields, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<Account> root = criteriaQuery.from(Account.class);
+        List<Selection<?>> selections =
+                fields.stream().<Selection<?>>map(field -> root.get(field).alias(field)).toList();
+        criteriaQuery
+                .multiselect(selections)
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        List<Tuple> tuples =
+                entityManager
+                        .createQuery(criteriaQuery)
+                        .setFirstResult((int) pageable.getOffset())
+                        .setMaxResults(pageable.getPageSize() + 1)
+                        .getResultList();
+        boolean hasNext = tuples.size() > pageable.getPageSize();
+        List<Map<String, Object>> rows =
+                tuples.stream()
+                        .limit(pageable.getPageSize())
+                        .map(tuple -> toRow(tuple, fields))
+                        .toList();
+        return new SliceImpl<>(rows, pageable, hasNext);
+    }
+
+    private static Map<String, Object> toRow(Tuple tuple, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String field : fields) {
+            row.put(field, tuple.get(field));
+        }
+        return row;
+    }
+}
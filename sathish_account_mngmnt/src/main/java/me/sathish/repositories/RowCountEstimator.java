@@ -0,0 +1,64 @@
+package me.sathish.repositories;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import me.sathish.config.ApplicationProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Cheap, possibly stale row counts for list endpoints that want a total but not an exact one. On
+ * PostgreSQL the planner statistics in {@code pg_class.reltuples} are used; elsewhere, or when the
+ * table has not been analyzed yet, the exact count is taken once and cached for the configured TTL.
+ * Small tables, whose statistics lag most after a burst of writes, are always counted exactly.
+ */
+@Repository
+@Slf4j
+public class RowCountEstimator {
+
+    private static final String RELTUPLES_QUERY =
+            "select c.reltuples::bigint from pg_class c where c.oid = to_regclass(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationProperties properties;
+    private final Map<String, CachedCount> cache = new ConcurrentHashMap<>();
+
+    public RowCountEstimator(JdbcTemplate jdbcTemplate, ApplicationProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    public long estimate(String table, LongSupplier exactCount) {
+        long now = System.nanoTime();
+        CachedCount cached = cache.get(table);
+        if (cached != null && now - cached.readAt() < ttlNanos()) {
+            return cached.count();
+        }
+        long count = readReltuples(table);
+        if (count < properties.getPagination().getExactCountThreshold()) {
+            count = exactCount.getAsLong();
+        }
+        cache.put(table, new CachedCount(count, now));
+        return count;
+    }
+
+    private long readReltuples(String table) {
+        try {
+            Long reltuples = jdbcTemplate.queryForObject(RELTUPLES_QUERY, Long.class, table);
+            // -1 means the table was never vacuumed/analyzed, so there is no estimate yet
+            return reltuples == null || reltuples < 0 ? -1 : reltuples;
+        } catch (DataAccessException e) {
+            log.debug("No planner estimate available for {}: {}", table, e.getMessage());
+            return -1;
+        }
+    }
+
+    private long ttlNanos() {
+        return properties.getPagination().getApproximateCountTtl().toNanos();
+    }
+
+    private record CachedCount(long count, long readAt) {}
+}
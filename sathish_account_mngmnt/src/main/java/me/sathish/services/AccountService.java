@@ -1,30 +1,65 @@
 package me.sathish.services;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import me.sathish.config.CacheConfig;
+import me.sathish.config.logging.Loggable;
 import me.sathish.entities.Account;
+import me.sathish.exception.InvalidFieldSelectionException;
+import me.sathish.model.response.AccountView;
 import me.sathish.model.response.PagedResult;
 import me.sathish.repositories.AccountRepository;
+import me.sathish.repositories.RowCountEstimator;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Loggable
 @Transactional
 public class AccountService {
 
+    private static final Set<String> SELECTABLE_FIELDS = Set.of("id", "text", "createdAt");
+
+    private static final String TABLE_NAME = "sathish_microservices_schema.accounts";
+
     private final AccountRepository accountRepository;
+    private final RowCountEstimator rowCountEstimator;
 
     @Autowired
-    public AccountService(AccountRepository accountRepository) {
+    public AccountService(
+            AccountRepository accountRepository, RowCountEstimator rowCountEstimator) {
         this.accountRepository = accountRepository;
+        this.rowCountEstimator = rowCountEstimator;
     }
 
-    public PagedResult<Account> findAllAccounts(
+    @Transactional(readOnly = true)
+    public PagedResult<AccountView> findAllAccounts(
             int pageNo, int pageSize, String sortBy, String sortDir) {
+        return findAllAccounts(pageNo, pageSize, sortBy, sortDir, true, true);
+    }
+
+    @Transactional(readOnly = true)
+    public PagedResult<AccountView> findAllAccounts(
+            int pageNo,
+            int pageSize,
+            String sortBy,
+            String sortDir,
+            boolean withTotal,
+            boolean exactTotal) {
         Sort sort =
                 sortDir.equalsIgnoreCase(Sort.Direction.ASC.name())
                         ? Sort.by(sortBy).ascending()
@@ -32,20 +67,87 @@ public class AccountService {
 
         // create Pageable instance
         Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
-        Page<Account> accountsPage = accountRepository.findAll(pageable);
+        if (withTotal && exactTotal) {
+            Page<AccountView> accountsPage = accountRepository.findViewPage(pageable);
+            return new PagedResult<>(accountsPage);
+        }
 
-        return new PagedResult<>(accountsPage);
+        // a Slice is read with a limit+1 query and never issues select count(*)
+        Slice<AccountView> accountsSlice = accountRepository.findViewSlice(pageable);
+        if (!withTotal) {
+            return new PagedResult<>(accountsSlice);
+        }
+        return new PagedResult<>(
+                accountsSlice, rowCountEstimator.estimate(TABLE_NAME, accountRepository::count));
     }
 
+    /**
+     * Same page as {@link #findAllAccounts(int, int, String, String, boolean, boolean)} but with
+     * only the comma separated {@code fields} selected from the table.
+     */
+    @Transactional(readOnly = true)
+    public PagedResult<Map<String, Object>> findAllAccountFields(
+            String fields,
+            int pageNo,
+            int pageSize,
+            String sortBy,
+            String sortDir,
+            boolean withTotal,
+            boolean exactTotal) {
+        List<String> selectedFields = selectedFields(fields);
+        Sort sort =
+                sortDir.equalsIgnoreCase(Sort.Direction.ASC.name())
+                        ? Sort.by(sortBy).ascending()
+                        : Sort.by(sortBy).descending();
+        Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
+        Slice<Map<String, Object>> accountsSlice =
+                accountRepository.findAllProjected(selectedFields, pageable);
+        if (!withTotal) {
+            return new PagedResult<>(accountsSlice);
+        }
+        if (exactTotal) {
+            // the count is skipped when the page itself shows where the table ends
+            return new PagedResult<>(
+                    PageableExecutionUtils.getPage(
+                            accountsSlice.getContent(), pageable, accountRepository::count));
+        }
+        return new PagedResult<>(
+                accountsSlice, rowCountEstimator.estimate(TABLE_NAME, accountRepository::count));
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.ACCOUNTS_CACHE, key = "#id", unless = "#result == null")
     public Optional<Account> findAccountById(Long id) {
         return accountRepository.findById(id);
     }
 
+    @CachePut(cacheNames = CacheConfig.ACCOUNTS_CACHE, key = "#result.id")
     public Account saveAccount(Account account) {
         return accountRepository.save(account);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS_CACHE, key = "#id")
     public void deleteAccountById(Long id) {
         accountRepository.deleteById(id);
     }
+
+    private static List<String> selectedFields(String fields) {
+        List<String> selectedFields =
+                Arrays.stream(StringUtils.split(fields, ','))
+                        .map(String::trim)
+                        .filter(StringUtils::isNotEmpty)
+                        .distinct()
+                        .toList();
+        String expected = ", expected any of " + SELECTABLE_FIELDS.stream().sorted().toList();
+        if (selectedFields.isEmpty()) {
+            throw new InvalidFieldSelectionException("No fields selected" + expected);
+        }
+        for (String field : selectedFields) {
+            if (!SELECTABLE_FIELDS.contains(field)) {
+                throw new InvalidFieldSelectionException(
+                        "Unknown field '" + field + "'" + expected);
+            }
+        }
+        return selectedFields;
+    }
 }
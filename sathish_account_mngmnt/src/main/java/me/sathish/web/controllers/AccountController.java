@@ -1,7 +1,9 @@
 package me.sathish.web.controllers;
 
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import me.sathish.entities.Account;
+import me.sathish.model.response.AccountView;
 import me.sathish.model.response.PagedResult;
 import me.sathish.services.AccountService;
 import me.sathish.utils.AppConstants;
@@ -33,7 +35,7 @@ public class AccountController {
     }
 
     @GetMapping
-    public PagedResult<Account> getAllAccounts(
+    public PagedResult<AccountView> getAllAccounts(
             @RequestParam(
                             value = "pageNo",
                             defaultValue = AppConstants.DEFAULT_PAGE_NUMBER,
@@ -53,8 +55,44 @@ public class AccountController {
                             value = "sortDir",
                             defaultValue = AppConstants.DEFAULT_SORT_DIRECTION,
                             required = false)
-                    String sortDir) {
-        return accountService.findAllAccounts(pageNo, pageSize, sortBy, sortDir);
+                    String sortDir,
+            @RequestParam(value = "withTotal", defaultValue = "true", required = false)
+                    boolean withTotal,
+            @RequestParam(value = "exactTotal", defaultValue = "true", required = false)
+                    boolean exactTotal) {
+        return accountService.findAllAccounts(
+                pageNo, pageSize, sortBy, sortDir, withTotal, exactTotal);
+    }
+
+    @GetMapping(params = "fields")
+    public PagedResult<Map<String, Object>> getAllAccountFields(
+            @RequestParam(value = "fields") String fields,
+            @RequestParam(
+                            value = "pageNo",
+                            defaultValue = AppConstants.DEFAULT_PAGE_NUMBER,
+                            required = false)
+                    int pageNo,
+            @RequestParam(
+                            value = "pageSize",
+                            defaultValue = AppConstants.DEFAULT_PAGE_SIZE,
+                            required = false)
+                    int pageSize,
+            @RequestParam(
+                            value = "sortBy",
+                            defaultValue = AppConstants.DEFAULT_SORT_BY,
+                            required = false)
+                    String sortBy,
+            @RequestParam(
+                            value = "sortDir",
+                            defaultValue = AppConstants.DEFAULT_SORT_DIRECTION,
+                            required = false)
+                    String sortDir,
+            @RequestParam(value = "withTotal", defaultValue = "true", required = false)
+                    boolean withTotal,
+            @RequestParam(value = "exactTotal", defaultValue = "true", required = false)
+                    boolean exactTotal) {
+        return accountService.findAllAccountFields(
+                fields, pageNo, pageSize, sortBy, sortDir, withTotal, exactTotal);
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,122 @@
+package me.sathish.config;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import me.sathish.entities.Account;
+import me.sathish.model.response.AccountView;
+import me.sathish.model.response.PagedResult;
+import me.sathish.services.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+class InitializerTest {
+
+    private final ApplicationProperties properties = new ApplicationProperties();
+    private final HikariDataSource dataSource = mock(HikariDataSource.class);
+    private final AccountService accountService = mock(AccountService.class);
+    private final ApplicationInfoManager applicationInfoManager =
+            mock(ApplicationInfoManager.class);
+    private Initializer initializer;
+
+    @BeforeEach
+    void setUp() {
+        properties.getWarmUp().setIterations(2);
+        properties.getWarmUp().setPreloadEntities(1);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("dataSource", dataSource);
+        beanFactory.addBean("applicationInfoManager", applicationInfoManager);
+        initializer =
+                new Initializer(
+                        properties,
+                        beanFactory.getBeanProvider(HikariDataSource.class),
+                        accountService,
+                        new ObjectMapper().findAndRegisterModules(),
+                        beanFactory.getBeanProvider(ApplicationInfoManager.class));
+    }
+
+    @Test
+    void marksInstanceUpOnlyAfterWarmUp() throws Exception {
+        Connection connection = mock(Connection.class);
+        given(dataSource.getMinimumIdle()).willReturn(3);
+        given(dataSource.getConnection()).willReturn(connection);
+        AccountView recent = new AccountView(42L, "recent", Instant.now());
+        given(accountService.findAllAccounts(anyInt(), anyInt(), anyString(), anyString()))
+                .willReturn(page(recent));
+        given(
+                        accountService.findAllAccounts(
+                                anyInt(),
+                                anyInt(),
+                                anyString(),
+                                anyString(),
+                                anyBoolean(),
+                                anyBoolean()))
+                .willReturn(page(recent));
+        given(accountService.findAccountById(42L)).willReturn(Optional.of(new Account()));
+
+        initializer.run();
+
+        InOrder inOrder = inOrder(dataSource, connection, accountService, applicationInfoManager);
+        inOrder.verify(dataSource, times(3)).getConnection();
+        inOrder.verify(connection, times(3)).close();
+        inOrder.verify(accountService).findAccountById(42L);
+        inOrder.verify(applicationInfoManager).setInstanceStatus(InstanceStatus.UP);
+    }
+
+    @Test
+    void marksInstanceUpWhenWarmUpFails() throws Exception {
+        given(dataSource.getMinimumIdle()).willReturn(1);
+        willThrow(new SQLException("connection refused")).given(dataSource).getConnection();
+
+        initializer.run();
+
+        verifyNoInteractions(accountService);
+        verify(applicationInfoManager).setInstanceStatus(InstanceStatus.UP);
+    }
+
+    @Test
+    void marksInstanceUpWhenAWarmUpQueryThrowsUnchecked() throws Exception {
+        given(dataSource.getMinimumIdle()).willReturn(0);
+        given(accountService.findAllAccounts(anyInt(), anyInt(), anyString(), anyString()))
+                .willThrow(new IllegalStateException("pool is suspended"));
+
+        initializer.run();
+
+        verify(applicationInfoManager).setInstanceStatus(InstanceStatus.UP);
+    }
+
+    @Test
+    void skipsWarmUpWhenDisabled() throws Exception {
+        properties.getWarmUp().setEnabled(false);
+
+        initializer.run();
+
+        verify(dataSource, never()).getConnection();
+        verifyNoInteractions(accountService);
+        verify(applicationInfoManager).setInstanceStatus(InstanceStatus.UP);
+    }
+
+    private static PagedResult<AccountView> page(AccountView view) {
+        return new PagedResult<>(List.of(view), null, 1, null, true, true, false, false);
+    }
+}
@@ -0,0 +1,90 @@
+package me.sathish.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import me.sathish.config.ApplicationProperties;
+import me.sathish.config.datasource.ReplicaRoutingDataSource.Target;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReadYourWritesFilter readYourWritesFilter;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties.Replica replica = new ApplicationProperties.Replica();
+        replica.setReadYourWritesKey("test-read-your-writes-key");
+        readYourWritesFilter = new ReadYourWritesFilter(replica);
+        routingDataSource =
+                new ReplicaRoutingDataSource(
+                        mock(DataSource.class), mock(DataSource.class), readYourWritesFilter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToReplica() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(Target.REPLICA);
+    }
+
+    @Test
+    void routesWritesAndReadsOutsideTransactionsToPrimary() {
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(Target.PRIMARY);
+    }
+
+    @Test
+    void keepsClientOnPrimaryAfterItWrote() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routeRequest("GET", "client-a")).isEqualTo(Target.REPLICA);
+        routeRequest("POST", "client-a");
+
+        assertThat(routeRequest("GET", "client-a")).isEqualTo(Target.PRIMARY);
+        assertThat(routeRequest("GET", "client-b")).isEqualTo(Target.REPLICA);
+    }
+
+    @Test
+    void namesClientByForwardedAddressWithoutClientHeader() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        MockHttpServletRequest write = new MockHttpServletRequest("PUT", "/api/account/1");
+        write.addHeader("X-Forwarded-For", "10.0.0.7, 10.0.0.1");
+        readYourWritesFilter.doFilter(write, new MockHttpServletResponse(), new MockFilterChain());
+
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/account");
+        read.addHeader("X-Forwarded-For", "10.0.0.7");
+        List<Target> targets = new ArrayList<>();
+        readYourWritesFilter.doFilter(
+                read,
+                new MockHttpServletResponse(),
+                (request, response) -> targets.add(routingDataSource.determineCurrentLookupKey()));
+
+        assertThat(targets).containsExactly(Target.PRIMARY);
+    }
+
+    private Target routeRequest(String method, String client) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/account");
+        request.addHeader("X-Client-Id", client);
+        List<Target> targets = new ArrayList<>();
+        readYourWritesFilter.doFilter(
+                request,
+                new MockHttpServletResponse(),
+                (req, res) -> targets.add(routingDataSource.determineCurrentLookupKey()));
+        return targets.get(0);
+    }
+}
@@ -0,0 +1,106 @@
+package me.sathish.config.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class LoadMetadataPublisherTest {
+
+    private final RequestLoadFilter requestLoad =
+            new RequestLoadFilter(new SimpleMeterRegistry(), Duration.ofSeconds(30));
+    private final HikariPoolMXBean primary = mock(HikariPoolMXBean.class);
+    private final HikariPoolMXBean replica = mock(HikariPoolMXBean.class);
+    private final ApplicationInfoManager applicationInfoManager =
+            mock(ApplicationInfoManager.class);
+    private LoadMetadataPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("primaryDataSource", dataSource(primary));
+        beanFactory.addBean("replicaDataSource", dataSource(replica));
+        beanFactory.addBean("notStartedDataSource", dataSource(null));
+        beanFactory.addBean("applicationInfoManager", applicationInfoManager);
+        publisher =
+                new LoadMetadataPublisher(
+                        requestLoad,
+                        beanFactory.getBeanProvider(HikariDataSource.class),
+                        beanFactory.getBeanProvider(ApplicationInfoManager.class),
+                        Duration.ofSeconds(10));
+    }
+
+    @Test
+    void shouldPublishTheLoadOfAllPools() {
+        given(primary.getActiveConnections()).willReturn(4);
+        given(primary.getThreadsAwaitingConnection()).willReturn(2);
+        given(replica.getActiveConnections()).willReturn(1);
+
+        publisher.publish();
+
+        verify(applicationInfoManager)
+                .registerAppMetadata(
+                        Map.of(
+                                LoadMetadataPublisher.IN_FLIGHT, "0",
+                                LoadMetadataPublisher.DB_ACTIVE, "5",
+                                LoadMetadataPublisher.DB_PENDING, "2",
+                                LoadMetadataPublisher.P95_MILLIS, "0"));
+    }
+
+    @Test
+    void shouldPublishOnlyChangedLoad() {
+        publisher.publish();
+        publisher.publish();
+        verify(applicationInfoManager, times(1)).registerAppMetadata(anyMap());
+
+        given(primary.getThreadsAwaitingConnection()).willReturn(1);
+        publisher.publish();
+        verify(applicationInfoManager, times(2)).registerAppMetadata(anyMap());
+    }
+
+    @Test
+    void shouldCountRequestsInFlightAndTimeThem() throws Exception {
+        AtomicReference<Integer> inFlight = new AtomicReference<>();
+
+        requestLoad.doFilter(
+                new MockHttpServletRequest("GET", "/api/account"),
+                new MockHttpServletResponse(),
+                (request, response) -> {
+                    inFlight.set(requestLoad.inFlight());
+                    sleep(20);
+                });
+
+        assertThat(inFlight.get()).isEqualTo(1);
+        assertThat(requestLoad.inFlight()).isZero();
+        assertThat(requestLoad.p95Millis()).isGreaterThanOrEqualTo(15);
+    }
+
+    private static HikariDataSource dataSource(HikariPoolMXBean pool) {
+        HikariDataSource dataSource = mock(HikariDataSource.class);
+        given(dataSource.getHikariPoolMXBean()).willReturn(pool);
+        return dataSource;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package me.sathish.services;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.times;
 import static org.mockito.BDDMockito.verify;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.never;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import me.sathish.entities.Account;
+import me.sathish.exception.InvalidFieldSelectionException;
+import me.sathish.model.response.AccountView;
 import me.sathish.model.response.PagedResult;
 import me.sathish.repositories.AccountRepository;
+import me.sathish.repositories.RowCountEstimator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -20,12 +27,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 @ExtendWith(MockitoExtension.class)
 class AccountServiceTest {
 
     @Mock private AccountRepository accountRepository;
+    @Mock private RowCountEstimator rowCountEstimator;
 
     @InjectMocks private AccountService accountService;
 
@@ -33,11 +43,11 @@ class AccountServiceTest {
     void findAllAccounts() {
         // given
         Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
-        Page<Account> accountPage = new PageImpl<>(List.of(getAccount()));
-        given(accountRepository.findAll(pageable)).willReturn(accountPage);
+        Page<AccountView> accountPage = new PageImpl<>(List.of(getAccountView()));
+        given(accountRepository.findViewPage(pageable)).willReturn(accountPage);
 
         // when
-        PagedResult<Account> pagedResult = accountService.findAllAccounts(0, 10, "id", "asc");
+        PagedResult<AccountView> pagedResult = accountService.findAllAccounts(0, 10, "id", "asc");
 
         // then
         assertThat(pagedResult).isNotNull();
@@ -51,6 +61,76 @@ class AccountServiceTest {
         assertThat(pagedResult.totalElements()).isEqualTo(1);
     }
 
+    @Test
+    void findAllAccountsWithoutTotalSkipsCountQuery() {
+        // given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        Slice<AccountView> accountSlice =
+                new SliceImpl<>(List.of(getAccountView()), pageable, true);
+        given(accountRepository.findViewSlice(pageable)).willReturn(accountSlice);
+
+        // when
+        PagedResult<AccountView> pagedResult =
+                accountService.findAllAccounts(0, 10, "id", "asc", false, true);
+
+        // then
+        assertThat(pagedResult.data()).hasSize(1);
+        assertThat(pagedResult.hasNext()).isTrue();
+        assertThat(pagedResult.totalElements()).isNull();
+        assertThat(pagedResult.totalPages()).isNull();
+        verify(accountRepository, never()).findViewPage(pageable);
+        verify(accountRepository, never()).count();
+    }
+
+    @Test
+    void findAllAccountsWithApproximateTotal() {
+        // given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        Slice<AccountView> accountSlice =
+                new SliceImpl<>(List.of(getAccountView()), pageable, true);
+        given(accountRepository.findViewSlice(pageable)).willReturn(accountSlice);
+        given(rowCountEstimator.estimate(any(), any())).willReturn(95L);
+
+        // when
+        PagedResult<AccountView> pagedResult =
+                accountService.findAllAccounts(0, 10, "id", "asc", true, false);
+
+        // then
+        assertThat(pagedResult.totalElements()).isEqualTo(95L);
+        assertThat(pagedResult.totalPages()).isEqualTo(10);
+        verify(accountRepository, never()).findViewPage(pageable);
+    }
+
+    @Test
+    void findAllAccountFieldsSelectsOnlyRequestedFields() {
+        // given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        Map<String, Object> row = Map.of("id", 1L, "text", "junitTest");
+        given(accountRepository.findAllProjected(List.of("id", "text"), pageable))
+                .willReturn(new SliceImpl<>(List.of(row), pageable, false));
+
+        // when
+        PagedResult<Map<String, Object>> pagedResult =
+                accountService.findAllAccountFields(
+                        " id, text,id ", 0, 10, "id", "asc", true, true);
+
+        // then
+        assertThat(pagedResult.data()).containsExactly(row);
+        assertThat(pagedResult.totalElements()).isEqualTo(1);
+        verify(accountRepository, never()).count();
+    }
+
+    @Test
+    void findAllAccountFieldsRejectsUnknownField() {
+        assertThatThrownBy(
+                        () ->
+                                accountService.findAllAccountFields(
+                                        "id,password", 0, 10, "id", "asc", true, true))
+                .isInstanceOf(InvalidFieldSelectionException.class)
+                .hasMessageContaining("password");
+        verify(accountRepository, never()).findAllProjected(any(), any());
+    }
+
     @Test
     void findAccountById() {
         // given
@@ -92,4 +172,8 @@ class AccountServiceTest {
         account.setText("junitTest");
         return account;
     }
+
+    private AccountView getAccountView() {
+        return new AccountView(1L, "junitTest", null);
+    }
 }
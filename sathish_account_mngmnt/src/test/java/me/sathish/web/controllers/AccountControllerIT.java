@@ -11,6 +11,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import me.sathish.common.AbstractIntegrationTest;
@@ -32,9 +33,9 @@ class AccountControllerIT extends AbstractIntegrationTest {
         accountRepository.deleteAllInBatch();
 
         accountList = new ArrayList<>();
-        accountList.add(new Account(null, "First Account"));
-        accountList.add(new Account(null, "Second Account"));
-        accountList.add(new Account(null, "Third Account"));
+        accountList.add(new Account(null, "First Account", Instant.now()));
+        accountList.add(new Account(null, "Second Account", Instant.now()));
+        accountList.add(new Account(null, "Third Account", Instant.now()));
         accountList = accountRepository.saveAll(accountList);
     }
 
@@ -53,6 +54,17 @@ class AccountControllerIT extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.hasPrevious", is(false)));
     }
 
+    @Test
+    void shouldFetchAccountsWithoutTotals() throws Exception {
+        this.mockMvc
+                .perform(get("/api/account").param("withTotal", "false").param("pageSize", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.size()", is(2)))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.totalPages").doesNotExist())
+                .andExpect(jsonPath("$.hasNext", is(true)));
+    }
+
     @Test
     void shouldFindAccountById() throws Exception {
         Account account = accountList.get(0);
@@ -67,7 +79,7 @@ class AccountControllerIT extends AbstractIntegrationTest {
 
     @Test
     void shouldCreateNewAccount() throws Exception {
-        Account account = new Account(null, "New Account");
+        Account account = new Account(null, "New Account", Instant.now());
         this.mockMvc
                 .perform(
                         post("/api/account")
@@ -80,7 +92,7 @@ class AccountControllerIT extends AbstractIntegrationTest {
 
     @Test
     void shouldReturn400WhenCreateNewAccountWithoutText() throws Exception {
-        Account account = new Account(null, null);
+        Account account = new Account(null, null, Instant.now());
 
         this.mockMvc
                 .perform(
@@ -16,10 +16,14 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import me.sathish.entities.Account;
+import me.sathish.exception.InvalidFieldSelectionException;
+import me.sathish.model.response.AccountView;
 import me.sathish.model.response.PagedResult;
 import me.sathish.services.AccountService;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,6 +33,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -48,16 +55,17 @@ class AccountControllerTest {
     @BeforeEach
     void setUp() {
         this.accountList = new ArrayList<>();
-        this.accountList.add(new Account(1L, "text 1"));
-        this.accountList.add(new Account(2L, "text 2"));
-        this.accountList.add(new Account(3L, "text 3"));
+        this.accountList.add(new Account(1L, "text 1", Instant.now()));
+        this.accountList.add(new Account(2L, "text 2", Instant.now()));
+        this.accountList.add(new Account(3L, "text 3", Instant.now()));
     }
 
     @Test
     void shouldFetchAllAccounts() throws Exception {
-        Page<Account> page = new PageImpl<>(accountList);
-        PagedResult<Account> accountPagedResult = new PagedResult<>(page);
-        given(accountService.findAllAccounts(0, 10, "id", "asc")).willReturn(accountPagedResult);
+        Page<AccountView> page = new PageImpl<>(toViews(accountList));
+        PagedResult<AccountView> accountPagedResult = new PagedResult<>(page);
+        given(accountService.findAllAccounts(0, 10, "id", "asc", true, true))
+                .willReturn(accountPagedResult);
 
         this.mockMvc
                 .perform(get("/api/account"))
@@ -72,10 +80,57 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$.hasPrevious", is(false)));
     }
 
+    @Test
+    void shouldFetchAccountsWithoutTotals() throws Exception {
+        Slice<AccountView> slice =
+                new SliceImpl<>(toViews(accountList), PageRequest.of(0, 10), true);
+        PagedResult<AccountView> accountPagedResult = new PagedResult<>(slice);
+        given(accountService.findAllAccounts(0, 10, "id", "asc", false, true))
+                .willReturn(accountPagedResult);
+
+        this.mockMvc
+                .perform(get("/api/account").param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.size()", is(accountList.size())))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.totalPages").doesNotExist())
+                .andExpect(jsonPath("$.pageNumber", is(1)))
+                .andExpect(jsonPath("$.hasNext", is(true)));
+    }
+
+    @Test
+    void shouldFetchOnlySelectedFields() throws Exception {
+        Slice<Map<String, Object>> slice =
+                new SliceImpl<>(
+                        List.of(Map.of("id", 1, "text", "text 1")), PageRequest.of(0, 10), false);
+        given(accountService.findAllAccountFields("id,text", 0, 10, "id", "asc", true, true))
+                .willReturn(new PagedResult<>(slice, 1L));
+
+        this.mockMvc
+                .perform(get("/api/account").param("fields", "id,text"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.size()", is(1)))
+                .andExpect(jsonPath("$.data[0].id", is(1)))
+                .andExpect(jsonPath("$.data[0].text", is("text 1")))
+                .andExpect(jsonPath("$.data[0].createdAt").doesNotExist());
+    }
+
+    @Test
+    void shouldReturn400WhenSelectingUnknownField() throws Exception {
+        given(accountService.findAllAccountFields("password", 0, 10, "id", "asc", true, true))
+                .willThrow(new InvalidFieldSelectionException("Unknown field 'password'"));
+
+        this.mockMvc
+                .perform(get("/api/account").param("fields", "password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("Content-Type", is("application/problem+json")))
+                .andExpect(jsonPath("$.title", is("Invalid Field Selection")));
+    }
+
     @Test
     void shouldFindAccountById() throws Exception {
         Long accountId = 1L;
-        Account account = new Account(accountId, "text 1");
+        Account account = new Account(accountId, "text 1", Instant.now());
         given(accountService.findAccountById(accountId)).willReturn(Optional.of(account));
 
         this.mockMvc
@@ -97,7 +152,7 @@ class AccountControllerTest {
         given(accountService.saveAccount(any(Account.class)))
                 .willAnswer((invocation) -> invocation.getArgument(0));
 
-        Account account = new Account(1L, "some text");
+        Account account = new Account(1L, "some text", Instant.now());
         this.mockMvc
                 .perform(
                         post("/api/account")
@@ -110,7 +165,7 @@ class AccountControllerTest {
 
     @Test
     void shouldReturn400WhenCreateNewAccountWithoutText() throws Exception {
-        Account account = new Account(null, null);
+        Account account = new Account(null, null, Instant.now());
 
         this.mockMvc
                 .perform(
@@ -133,7 +188,7 @@ class AccountControllerTest {
     @Test
     void shouldUpdateAccount() throws Exception {
         Long accountId = 1L;
-        Account account = new Account(accountId, "Updated text");
+        Account account = new Account(accountId, "Updated text", Instant.now());
         given(accountService.findAccountById(accountId)).willReturn(Optional.of(account));
         given(accountService.saveAccount(any(Account.class)))
                 .willAnswer((invocation) -> invocation.getArgument(0));
@@ -151,7 +206,7 @@ class AccountControllerTest {
     void shouldReturn404WhenUpdatingNonExistingAccount() throws Exception {
         Long accountId = 1L;
         given(accountService.findAccountById(accountId)).willReturn(Optional.empty());
-        Account account = new Account(accountId, "Updated text");
+        Account account = new Account(accountId, "Updated text", Instant.now());
 
         this.mockMvc
                 .perform(
@@ -164,7 +219,7 @@ class AccountControllerTest {
     @Test
     void shouldDeleteAccount() throws Exception {
         Long accountId = 1L;
-        Account account = new Account(accountId, "Some text");
+        Account account = new Account(accountId, "Some text", Instant.now());
         given(accountService.findAccountById(accountId)).willReturn(Optional.of(account));
         doNothing().when(accountService).deleteAccountById(account.getId());
 
@@ -183,4 +238,13 @@ class AccountControllerTest {
                 .perform(delete("/api/account/{id}", accountId))
                 .andExpect(status().isNotFound());
     }
+
+    private static List<AccountView> toViews(List<Account> accounts) {
+        return accounts.stream()
+                .map(
+                        account ->
+                                new AccountView(
+                                        account.getId(), account.getText(), account.getCreatedAt()))
+                .toList();
+    }
 }
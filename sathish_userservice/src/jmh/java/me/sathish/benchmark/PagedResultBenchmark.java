@@ -0,0 +1,66 @@
+package me.sathish.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import me.sathish.entities.User;
+import me.sathish.model.response.PagedResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/** Cost of turning a page of users into the JSON body the list endpoint returns. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PagedResultBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<User> page;
+    private PagedResult<User> pagedResult;
+
+    @Setup
+    public void setUp() {
+        // the builder applies the same defaults Spring Boot uses for the MVC ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Instant createdAt = Instant.parse("2023-01-01T00:00:00Z");
+        List<User> content =
+                LongStream.rangeClosed(1, pageSize)
+                        .mapToObj(id -> new User(id, "User " + id, createdAt))
+                        .toList();
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize, Sort.by("id")), 100_000);
+        pagedResult = new PagedResult<>(page);
+    }
+
+    @Benchmark
+    public PagedResult<User> mapPage() {
+        return new PagedResult<>(page);
+    }
+
+    @Benchmark
+    public byte[] serializePagedResult() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagedResult);
+    }
+}
@@ -0,0 +1,94 @@
+package me.sathish.benchmark;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import me.sathish.Application;
+import me.sathish.entities.User;
+import me.sathish.repositories.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Repository reads against an embedded H2 database created from the db/migration/h2 scripts, so
+ * the schema Hibernate validates is the one the migrations produce.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserRepositoryBenchmark {
+
+    private static final int ROWS = 1_000;
+    private static final int PAGE_SIZE = 20;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private long[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context =
+                new SpringApplicationBuilder(Application.class)
+                        .web(WebApplicationType.NONE)
+                        .properties(
+                                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;"
+                                        + "INIT=CREATE SCHEMA IF NOT EXISTS"
+                                        + " sathish_microservices_schema\\;"
+                                        + "SET SCHEMA sathish_microservices_schema",
+                                "spring.sql.init.mode=always",
+                                "spring.sql.init.schema-locations="
+                                        + "classpath:db/migration/h2/V1__create_users_table.sql",
+                                "spring.sql.init.data-locations="
+                                        + "classpath:db/migration/h2/V2__insert_sample_data.sql",
+                                "spring.jpa.show-sql=false",
+                                "eureka.client.enabled=false",
+                                "logging.level.root=WARN")
+                        .run();
+        userRepository = context.getBean(UserRepository.class);
+        Instant createdAt = Instant.now();
+        List<User> saved =
+                userRepository.saveAll(
+                        IntStream.range(0, ROWS)
+                                .mapToObj(i -> new User(null, "User " + i, createdAt))
+                                .toList());
+        ids = saved.stream().mapToLong(User::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<User> findById() {
+        return userRepository.findById(ids[next++ % ids.length]);
+    }
+
+    @Benchmark
+    public Page<User> findAllPageable() {
+        int pageNo = next++ % (ROWS / PAGE_SIZE);
+        return userRepository.findAll(PageRequest.of(pageNo, PAGE_SIZE, Sort.by("id")));
+    }
+}
@@ -1,19 +1,103 @@
 package me.sathish.config;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import me.sathish.model.response.UserView;
+import me.sathish.services.UserService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+/**
+ * Warms the instance up before it takes traffic: the connection pools are filled, the list queries
+ * are run and serialized until the JIT's first tier has compiled them, and the most recently
+ * created users are read into the by-id cache. The instance registers with Eureka as {@code
+ * STARTING} ({@code eureka.instance.initial-status}) and is only marked {@code UP} afterwards, so
+ * the gateway does not route to it earlier. A failed warm-up is logged and the instance goes {@code
+ * UP} all the same.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class Initializer implements CommandLineRunner {
 
     private final ApplicationProperties properties;
+    private final ObjectProvider<HikariDataSource> dataSources;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
 
     @Override
     public void run(String... args) {
         log.info("Running Initializer.....");
+        ApplicationProperties.WarmUp warmUp = properties.getWarmUp();
+        if (warmUp.isEnabled()) {
+            long start = System.nanoTime();
+            try {
+                for (HikariDataSource dataSource : dataSources) {
+                    fillPool(dataSource);
+                }
+                runQueries(warmUp.getIterations());
+                preload(warmUp.getPreloadEntities());
+                log.info("Warmed up in {} ms", (System.nanoTime() - start) / 1_000_000);
+            } catch (SQLException | JsonProcessingException | RuntimeException e) {
+                // whatever goes wrong, e.g. a pool timeout, must not leave the instance STARTING
+                log.warn("Warm-up failed, taking traffic cold", e);
+            }
+        }
+        applicationInfoManager.ifAvailable(manager -> manager.setInstanceStatus(InstanceStatus.UP));
+    }
+
+    /** Holding minimum-idle connections at once makes Hikari open them now, not on first use. */
+    private void fillPool(HikariDataSource dataSource) throws SQLException {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < dataSource.getMinimumIdle(); i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } finally {
+            connections.forEach(Initializer::closeQuietly);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Could not return a warm-up connection", e);
+        }
+    }
+
+    private void runQueries(int iterations) throws JsonProcessingException {
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.writeValueAsBytes(userService.findAllUsers(0, 10, "id", "asc"));
+            objectMapper.writeValueAsBytes(
+                    userService.findAllUsers(0, 10, "createdAt", "desc", false, false));
+            objectMapper.writeValueAsBytes(
+                    userService.findAllUsers(0, 10, "id", "asc", true, false));
+            objectMapper.writeValueAsBytes(
+                    userService.findAllUserFields("id,text", 0, 10, "id", "asc", false, false));
+        }
+    }
+
+    private void preload(int entities) throws JsonProcessingException {
+        if (entities <= 0) {
+            return;
+        }
+        List<UserView> recent =
+                userService.findAllUsers(0, entities, "createdAt", "desc", false, false).data();
+        for (UserView user : recent) {
+            objectMapper.writeValueAsBytes(userService.findUserById(user.id()).orElse(null));
+        }
+        log.info("Preloaded {} users into the cache", recent.size());
     }
 }
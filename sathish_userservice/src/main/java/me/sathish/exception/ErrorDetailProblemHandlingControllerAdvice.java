@@ -40,5 +40,15 @@ public class ErrorDetailProblemHandlingControllerAdvice {
         return problemDetail;
     }
 
+    @ExceptionHandler(InvalidFieldSelectionException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    ProblemDetail onException(InvalidFieldSelectionException invalidFieldSelectionException) {
+        ProblemDetail problemDetail =
+                ProblemDetail.forStatusAndDetail(
+                        HttpStatusCode.valueOf(400), invalidFieldSelectionException.getMessage());
+        problemDetail.setTitle("Invalid Field Selection");
+        return problemDetail;
+    }
+
     record ApiValidationError(String object, String field, Object rejectedValue, String message) {}
 }
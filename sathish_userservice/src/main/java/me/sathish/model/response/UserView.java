@@ -0,0 +1,6 @@
+package me.sathish.model.response;
+
+import java.time.Instant;
+
+/** Read-only copy of a user selected straight into the record by JPQL, never a managed entity. */
+public record UserView(Long id, String text, Instant createdAt) {}
@@ -1,6 +1,22 @@
 package me.sathish.repositories;
 
 import me.sathish.entities.User;
+import me.sathish.model.response.UserView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
-public interface UserRepository extends JpaRepository<User, Long> {}
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    String VIEW_QUERY =
+            "select new me.sathish.model.response.UserView(u.id, u.text, u.createdAt) from User u";
+
+    @Query(value = VIEW_QUERY, countQuery = "select count(u) from User u")
+    Page<UserView> findViewPage(Pageable pageable);
+
+    /** Reads one row more than the page size instead of counting. */
+    @Query(VIEW_QUERY)
+    Slice<UserView> findViewSlice(Pageable pageable);
+}
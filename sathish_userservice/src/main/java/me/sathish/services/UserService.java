@@ -1,29 +1,64 @@
 package me.sathish.services;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import me.sathish.config.CacheConfig;
+import me.sathish.config.logging.Loggable;
 import me.sathish.entities.User;
+import me.sathish.exception.InvalidFieldSelectionException;
 import me.sathish.model.response.PagedResult;
+import me.sathish.model.response.UserView;
+import me.sathish.repositories.RowCountEstimator;
 import me.sathish.repositories.UserRepository;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Loggable
 @Transactional
 public class UserService {
 
+    private static final Set<String> SELECTABLE_FIELDS = Set.of("id", "text", "createdAt");
+
+    private static final String TABLE_NAME = "sathish_microservices_schema.users";
+
     private final UserRepository userRepository;
+    private final RowCountEstimator rowCountEstimator;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, RowCountEstimator rowCountEstimator) {
         this.userRepository = userRepository;
+        this.rowCountEstimator = rowCountEstimator;
+    }
+
+    @Transactional(readOnly = true)
+    public PagedResult<UserView> findAllUsers(
+            int pageNo, int pageSize, String sortBy, String sortDir) {
+        return findAllUsers(pageNo, pageSize, sortBy, sortDir, true, true);
     }
 
-    public PagedResult<User> findAllUsers(int pageNo, int pageSize, String sortBy, String sortDir) {
+    @Transactional(readOnly = true)
+    public PagedResult<UserView> findAllUsers(
+            int pageNo,
+            int pageSize,
+            String sortBy,
+            String sortDir,
+            boolean withTotal,
+            boolean exactTotal) {
         Sort sort =
                 sortDir.equalsIgnoreCase(Sort.Direction.ASC.name())
                         ? Sort.by(sortBy).ascending()
@@ -31,20 +66,87 @@ public class UserService {
 
         // create Pageable instance
         Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
-        Page<User> usersPage = userRepository.findAll(pageable);
+        if (withTotal && exactTotal) {
+            Page<UserView> usersPage = userRepository.findViewPage(pageable);
+            return new PagedResult<>(usersPage);
+        }
 
-        return new PagedResult<>(usersPage);
+        // a Slice is read with a limit+1 query and never issues select count(*)
+        Slice<UserView> usersSlice = userRepository.findViewSlice(pageable);
+        if (!withTotal) {
+            return new PagedResult<>(usersSlice);
+        }
+        return new PagedResult<>(
+                usersSlice, rowCountEstimator.estimate(TABLE_NAME, userRepository::count));
     }
 
+    /**
+     * Same page as {@link #findAllUsers(int, int, String, String, boolean, boolean)} but with only
+     * the comma separated {@code fields} selected from the table.
+     */
+    @Transactional(readOnly = true)
+    public PagedResult<Map<String, Object>> findAllUserFields(
+            String fields,
+            int pageNo,
+            int pageSize,
+            String sortBy,
+            String sortDir,
+            boolean withTotal,
+            boolean exactTotal) {
+        List<String> selectedFields = selectedFields(fields);
+        Sort sort =
+                sortDir.equalsIgnoreCase(Sort.Direction.ASC.name())
+                        ? Sort.by(sortBy).ascending()
+                        : Sort.by(sortBy).descending();
+        Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
+        Slice<Map<String, Object>> usersSlice =
+                userRepository.findAllProjected(selectedFields, pageable);
+        if (!withTotal) {
+            return new PagedResult<>(usersSlice);
+        }
+        if (exactTotal) {
+            // the count is skipped when the page itself shows where the table ends
+            return new PagedResult<>(
+                    PageableExecutionUtils.getPage(
+                            usersSlice.getContent(), pageable, userRepository::count));
+        }
+        return new PagedResult<>(
+                usersSlice, rowCountEstimator.estimate(TABLE_NAME, userRepository::count));
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE, key = "#id", unless = "#result == null")
     public Optional<User> findUserById(Long id) {
         return userRepository.findById(id);
     }
 
+    @CachePut(cacheNames = CacheConfig.USERS_CACHE, key = "#result.id")
     public User saveUser(User user) {
         return userRepository.save(user);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
     public void deleteUserById(Long id) {
         userRepository.deleteById(id);
     }
+
+    private static List<String> selectedFields(String fields) {
+        List<String> selectedFields =
+                Arrays.stream(StringUtils.split(fields, ','))
+                        .map(String::trim)
+                        .filter(StringUtils::isNotEmpty)
+                        .distinct()
+                        .toList();
+        String expected = ", expected any of " + SELECTABLE_FIELDS.stream().sorted().toList();
+        if (selectedFields.isEmpty()) {
+            throw new InvalidFieldSelectionException("No fields selected" + expected);
+        }
+        for (String field : selectedFields) {
+            if (!SELECTABLE_FIELDS.contains(field)) {
+                throw new InvalidFieldSelectionException(
+                        "Unknown field '" + field + "'" + expected);
+            }
+        }
+        return selectedFields;
+    }
 }
@@ -1,8 +1,10 @@
 package me.sathish.web.controllers;
 
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import me.sathish.entities.User;
 import me.sathish.model.response.PagedResult;
+import me.sathish.model.response.UserView;
 import me.sathish.services.UserService;
 import me.sathish.utils.AppConstants;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,7 +35,7 @@ public class UserController {
     }
 
     @GetMapping
-    public PagedResult<User> getAllUsers(
+    public PagedResult<UserView> getAllUsers(
             @RequestParam(
                             value = "pageNo",
                             defaultValue = AppConstants.DEFAULT_PAGE_NUMBER,
@@ -53,8 +55,43 @@ public class UserController {
                             value = "sortDir",
                             defaultValue = AppConstants.DEFAULT_SORT_DIRECTION,
                             required = false)
-                    String sortDir) {
-        return userService.findAllUsers(pageNo, pageSize, sortBy, sortDir);
+                    String sortDir,
+            @RequestParam(value = "withTotal", defaultValue = "true", required = false)
+                    boolean withTotal,
+            @RequestParam(value = "exactTotal", defaultValue = "true", required = false)
+                    boolean exactTotal) {
+        return userService.findAllUsers(pageNo, pageSize, sortBy, sortDir, withTotal, exactTotal);
+    }
+
+    @GetMapping(params = "fields")
+    public PagedResult<Map<String, Object>> getAllUserFields(
+            @RequestParam(value = "fields") String fields,
+            @RequestParam(
+                            value = "pageNo",
+                            defaultValue = AppConstants.DEFAULT_PAGE_NUMBER,
+                            required = false)
+                    int pageNo,
+            @RequestParam(
+                            value = "pageSize",
+                            defaultValue = AppConstants.DEFAULT_PAGE_SIZE,
+                            required = false)
+                    int pageSize,
+            @RequestParam(
+                            value = "sortBy",
+                            defaultValue = AppConstants.DEFAULT_SORT_BY,
+                            required = false)
+                    String sortBy,
+            @RequestParam(
+                            value = "sortDir",
+                            defaultValue = AppConstants.DEFAULT_SORT_DIRECTION,
+                            required = false)
+                    String sortDir,
+            @RequestParam(value = "withTotal", defaultValue = "true", required = false)
+                    boolean withTotal,
+            @RequestParam(value = "exactTotal", defaultValue = "true", required = false)
+                    boolean exactTotal) {
+        return userService.findAllUserFields(
+                fields, pageNo, pageSize, sortBy, sortDir, withTotal, exactTotal);
     }
 
     @GetMapping("/{id}")
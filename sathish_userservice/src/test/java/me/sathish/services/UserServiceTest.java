@@ -1,16 +1,23 @@
 package me.sathish.services;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.times;
 import static org.mockito.BDDMockito.verify;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.never;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import me.sathish.entities.User;
+import me.sathish.exception.InvalidFieldSelectionException;
 import me.sathish.model.response.PagedResult;
+import me.sathish.model.response.UserView;
+import me.sathish.repositories.RowCountEstimator;
 import me.sathish.repositories.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,12 +28,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
 
     @Mock private UserRepository userRepository;
+    @Mock private RowCountEstimator rowCountEstimator;
 
     @InjectMocks private UserService userService;
 
@@ -34,11 +44,11 @@ class UserServiceTest {
     void findAllUsers() {
         // given
         Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
-        Page<User> userPage = new PageImpl<>(List.of(getUser()));
-        given(userRepository.findAll(pageable)).willReturn(userPage);
+        Page<UserView> userPage = new PageImpl<>(List.of(getUserView()));
+        given(userRepository.findViewPage(pageable)).willReturn(userPage);
 
         // when
-        PagedResult<User> pagedResult = userService.findAllUsers(0, 10, "id", "asc");
+        PagedResult<UserView> pagedResult = userService.findAllUsers(0, 10, "id", "asc");
 
         // then
         assertThat(pagedResult).isNotNull();
@@ -52,6 +62,73 @@ class UserServiceTest {
         assertThat(pagedResult.totalElements()).isEqualTo(1);
     }
 
+    @Test
+    void findAllUsersWithoutTotalSkipsCountQuery() {
+        // given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        Slice<UserView> userSlice = new SliceImpl<>(List.of(getUserView()), pageable, true);
+        given(userRepository.findViewSlice(pageable)).willReturn(userSlice);
+
+        // when
+        PagedResult<UserView> pagedResult =
+                userService.findAllUsers(0, 10, "id", "asc", false, true);
+
+        // then
+        assertThat(pagedResult.data()).hasSize(1);
+        assertThat(pagedResult.hasNext()).isTrue();
+        assertThat(pagedResult.totalElements()).isNull();
+        assertThat(pagedResult.totalPages()).isNull();
+        verify(userRepository, never()).findViewPage(pageable);
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    void findAllUsersWithApproximateTotal() {
+        // given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        Slice<UserView> userSlice = new SliceImpl<>(List.of(getUserView()), pageable, true);
+        given(userRepository.findViewSlice(pageable)).willReturn(userSlice);
+        given(rowCountEstimator.estimate(any(), any())).willReturn(95L);
+
+        // when
+        PagedResult<UserView> pagedResult =
+                userService.findAllUsers(0, 10, "id", "asc", true, false);
+
+        // then
+        assertThat(pagedResult.totalElements()).isEqualTo(95L);
+        assertThat(pagedResult.totalPages()).isEqualTo(10);
+        verify(userRepository, never()).findViewPage(pageable);
+    }
+
+    @Test
+    void findAllUserFieldsSelectsOnlyRequestedFields() {
+        // given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        Map<String, Object> row = Map.of("id", 1L, "text", "junitTest");
+        given(userRepository.findAllProjected(List.of("id", "text"), pageable))
+                .willReturn(new SliceImpl<>(List.of(row), pageable, false));
+
+        // when
+        PagedResult<Map<String, Object>> pagedResult =
+                userService.findAllUserFields(" id, text,id ", 0, 10, "id", "asc", true, true);
+
+        // then
+        assertThat(pagedResult.data()).containsExactly(row);
+        assertThat(pagedResult.totalElements()).isEqualTo(1);
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    void findAllUserFieldsRejectsUnknownField() {
+        assertThatThrownBy(
+                        () ->
+                                userService.findAllUserFields(
+                                        "id,password", 0, 10, "id", "asc", true, true))
+                .isInstanceOf(InvalidFieldSelectionException.class)
+                .hasMessageContaining("password");
+        verify(userRepository, never()).findAllProjected(any(), any());
+    }
+
     @Test
     void findUserById() {
         // given
@@ -94,4 +171,8 @@ class UserServiceTest {
         user.setCreatedAt(Instant.now());
         return user;
     }
+
+    private UserView getUserView() {
+        return new UserView(1L, "junitTest", Instant.now());
+    }
 }
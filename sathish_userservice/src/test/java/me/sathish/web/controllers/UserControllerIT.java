@@ -34,8 +34,8 @@ class UserControllerIT extends AbstractIntegrationTest {
 
         userList = new ArrayList<>();
         userList.add(new User(null, "First User", Instant.now()));
-        userList.add(new User(null, "Second User",Instant.now()));
-        userList.add(new User(null, "Third User",Instant.now()));
+        userList.add(new User(null, "Second User", Instant.now()));
+        userList.add(new User(null, "Third User", Instant.now()));
         userList = userRepository.saveAll(userList);
     }
 
@@ -54,6 +54,17 @@ class UserControllerIT extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.hasPrevious", is(false)));
     }
 
+    @Test
+    void shouldFetchUsersWithoutTotals() throws Exception {
+        this.mockMvc
+                .perform(get("/api/users").param("withTotal", "false").param("pageSize", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.size()", is(2)))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.totalPages").doesNotExist())
+                .andExpect(jsonPath("$.hasNext", is(true)));
+    }
+
     @Test
     void shouldFindUserById() throws Exception {
         User user = userList.get(0);
@@ -68,7 +79,7 @@ class UserControllerIT extends AbstractIntegrationTest {
 
     @Test
     void shouldCreateNewUser() throws Exception {
-        User user = new User(null, "New User",Instant.now());
+        User user = new User(null, "New User", Instant.now());
         this.mockMvc
                 .perform(
                         post("/api/users")
@@ -81,7 +92,7 @@ class UserControllerIT extends AbstractIntegrationTest {
 
     @Test
     void shouldReturn400WhenCreateNewUserWithoutText() throws Exception {
-        User user = new User(null, null,Instant.now());
+        User user = new User(null, null, Instant.now());
 
         this.mockMvc
                 .perform(
@@ -16,13 +16,15 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import me.sathish.entities.User;
+import me.sathish.exception.InvalidFieldSelectionException;
 import me.sathish.model.response.PagedResult;
+import me.sathish.model.response.UserView;
 import me.sathish.services.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,6 +33,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -50,16 +55,16 @@ class UserControllerTest {
     @BeforeEach
     void setUp() {
         this.userList = new ArrayList<>();
-        this.userList.add(new User(1L, "text 1",Instant.now()));
-        this.userList.add(new User(2L, "text 2",Instant.now()));
-        this.userList.add(new User(3L, "text 3",Instant.now()));
+        this.userList.add(new User(1L, "text 1", Instant.now()));
+        this.userList.add(new User(2L, "text 2", Instant.now()));
+        this.userList.add(new User(3L, "text 3", Instant.now()));
     }
 
     @Test
     void shouldFetchAllUsers() throws Exception {
-        Page<User> page = new PageImpl<>(userList);
-        PagedResult<User> userPagedResult = new PagedResult<>(page);
-        given(userService.findAllUsers(0, 10, "id", "asc")).willReturn(userPagedResult);
+        Page<UserView> page = new PageImpl<>(toViews(userList));
+        PagedResult<UserView> userPagedResult = new PagedResult<>(page);
+        given(userService.findAllUsers(0, 10, "id", "asc", true, true)).willReturn(userPagedResult);
 
         this.mockMvc
                 .perform(get("/api/users"))
@@ -74,10 +79,56 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.hasPrevious", is(false)));
     }
 
+    @Test
+    void shouldFetchUsersWithoutTotals() throws Exception {
+        Slice<UserView> slice = new SliceImpl<>(toViews(userList), PageRequest.of(0, 10), true);
+        PagedResult<UserView> userPagedResult = new PagedResult<>(slice);
+        given(userService.findAllUsers(0, 10, "id", "asc", false, true))
+                .willReturn(userPagedResult);
+
+        this.mockMvc
+                .perform(get("/api/users").param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.size()", is(userList.size())))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.totalPages").doesNotExist())
+                .andExpect(jsonPath("$.pageNumber", is(1)))
+                .andExpect(jsonPath("$.hasNext", is(true)));
+    }
+
+    @Test
+    void shouldFetchOnlySelectedFields() throws Exception {
+        Slice<Map<String, Object>> slice =
+                new SliceImpl<>(
+                        List.of(Map.of("id", 1, "text", "text 1")), PageRequest.of(0, 10), false);
+        given(userService.findAllUserFields("id,text", 0, 10, "id", "asc", true, true))
+                .willReturn(new PagedResult<>(slice, 1L));
+
+        this.mockMvc
+                .perform(get("/api/users").param("fields", "id,text"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.size()", is(1)))
+                .andExpect(jsonPath("$.data[0].id", is(1)))
+                .andExpect(jsonPath("$.data[0].text", is("text 1")))
+                .andExpect(jsonPath("$.data[0].createdAt").doesNotExist());
+    }
+
+    @Test
+    void shouldReturn400WhenSelectingUnknownField() throws Exception {
+        given(userService.findAllUserFields("password", 0, 10, "id", "asc", true, true))
+                .willThrow(new InvalidFieldSelectionException("Unknown field 'password'"));
+
+        this.mockMvc
+                .perform(get("/api/users").param("fields", "password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("Content-Type", is("application/problem+json")))
+                .andExpect(jsonPath("$.title", is("Invalid Field Selection")));
+    }
+
     @Test
     void shouldFindUserById() throws Exception {
         Long userId = 1L;
-        User user = new User(userId, "text 1",Instant.now());
+        User user = new User(userId, "text 1", Instant.now());
         given(userService.findUserById(userId)).willReturn(Optional.of(user));
 
         this.mockMvc
@@ -99,7 +150,7 @@ class UserControllerTest {
         given(userService.saveUser(any(User.class)))
                 .willAnswer((invocation) -> invocation.getArgument(0));
 
-        User user = new User(1L, "some text",Instant.now());
+        User user = new User(1L, "some text", Instant.now());
         this.mockMvc
                 .perform(
                         post("/api/users")
@@ -112,7 +163,7 @@ class UserControllerTest {
 
     @Test
     void shouldReturn400WhenCreateNewUserWithoutText() throws Exception {
-        User user = new User(null, null,null);
+        User user = new User(null, null, null);
 
         this.mockMvc
                 .perform(
@@ -135,7 +186,7 @@ class UserControllerTest {
     @Test
     void shouldUpdateUser() throws Exception {
         Long userId = 1L;
-        User user = new User(userId, "Updated text",Instant.now());
+        User user = new User(userId, "Updated text", Instant.now());
         given(userService.findUserById(userId)).willReturn(Optional.of(user));
         given(userService.saveUser(any(User.class)))
                 .willAnswer((invocation) -> invocation.getArgument(0));
@@ -153,7 +204,7 @@ class UserControllerTest {
     void shouldReturn404WhenUpdatingNonExistingUser() throws Exception {
         Long userId = 1L;
         given(userService.findUserById(userId)).willReturn(Optional.empty());
-        User user = new User(userId, "Updated text",Instant.now());
+        User user = new User(userId, "Updated text", Instant.now());
 
         this.mockMvc
                 .perform(
@@ -166,7 +217,7 @@ class UserControllerTest {
     @Test
     void shouldDeleteUser() throws Exception {
         Long userId = 1L;
-        User user = new User(userId, "Some text",Instant.now());
+        User user = new User(userId, "Some text", Instant.now());
         given(userService.findUserById(userId)).willReturn(Optional.of(user));
         doNothing().when(userService).deleteUserById(user.getId());
 
@@ -183,4 +234,10 @@ class UserControllerTest {
 
         this.mockMvc.perform(delete("/api/users/{id}", userId)).andExpect(status().isNotFound());
     }
+
+    private static List<UserView> toViews(List<User> users) {
+        return users.stream()
+                .map(user -> new UserView(user.getId(), user.getText(), user.getCreatedAt()))
+                .toList();
+    }
 }
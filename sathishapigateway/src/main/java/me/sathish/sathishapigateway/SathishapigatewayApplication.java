@@ -1,11 +1,14 @@
 package me.sathish.sathishapigateway;
 
+import me.sathish.sathishapigateway.config.ApplicationProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableConfigurationProperties({ApplicationProperties.class})
 public class SathishapigatewayApplication {
     public static void main(String[] args) {
         SpringApplication.run(SathishapigatewayApplication.class, args);
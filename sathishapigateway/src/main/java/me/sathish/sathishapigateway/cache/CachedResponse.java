@@ -0,0 +1,17 @@
+package me.sathish.sathishapigateway.cache;
+
+import java.time.Duration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * A buffered upstream response. {@code ttl} is how long it may be served from the cache; a zero
+ * ttl still lets concurrent identical requests share it, but it is never stored.
+ */
+public record CachedResponse(
+        HttpStatusCode status, HttpHeaders headers, byte[] body, long storedAtNanos, Duration ttl) {
+
+    public Duration age() {
+        return Duration.ofNanos(System.nanoTime() - storedAtNanos);
+    }
+}
@@ -0,0 +1,141 @@
+package me.sathish.sathishapigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Bounded store of upstream GET responses plus the table of requests currently being fetched, so
+ * that concurrent identical requests wait for one upstream call instead of each making their own.
+ */
+@Component
+public class ResponseCache {
+
+    public static final String CACHE_NAME = "gateway.responses";
+
+    private final Cache<String, CachedResponse> entries;
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public ResponseCache(ApplicationProperties properties, MeterRegistry meterRegistry) {
+        this.entries =
+                Caffeine.newBuilder()
+                        .maximumWeight(properties.getResponseCache().getMaxSize().toBytes())
+                        .weigher(
+                                (String key, CachedResponse response) ->
+                                        key.length() + response.body().length)
+                        .expireAfter(new TtlExpiry())
+                        .recordStats()
+                        .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, CACHE_NAME);
+        Gauge.builder("gateway.response.cache.hit.ratio", entries, c -> c.stats().hitRate())
+                .description("Share of cache lookups answered without going upstream")
+                .register(meterRegistry);
+        Gauge.builder("gateway.response.cache.in.flight", inFlight, Map::size)
+                .description("Distinct upstream fetches other requests can currently join")
+                .register(meterRegistry);
+        this.coalesced =
+                Counter.builder("gateway.response.cache.coalesced")
+                        .description("Requests that waited for an identical in-flight request")
+                        .register(meterRegistry);
+    }
+
+    public CachedResponse get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    /**
+     * Joins the in-flight fetch for {@code key}, or starts one when there is none. The caller that
+     * starts it is the leader and must {@link Flight#complete complete} it exactly once.
+     */
+    public Flight begin(String key) {
+        Flight flight = new Flight(key);
+        Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            return flight;
+        }
+        coalesced.increment();
+        return existing.follower();
+    }
+
+    public final class Flight {
+
+        private final String key;
+        private final Sinks.One<CachedResponse> result;
+        private final boolean leader;
+
+        private Flight(String key) {
+            this(key, Sinks.one(), true);
+        }
+
+        private Flight(String key, Sinks.One<CachedResponse> result, boolean leader) {
+            this.key = key;
+            this.result = result;
+            this.leader = leader;
+        }
+
+        private Flight follower() {
+            return new Flight(key, result, false);
+        }
+
+        public boolean isLeader() {
+            return leader;
+        }
+
+        /**
+         * The leader's response, or empty when it could not be shared and the follower has to go
+         * upstream itself.
+         */
+        public Mono<CachedResponse> result() {
+            return result.asMono();
+        }
+
+        /**
+         * Stores {@code response} when it has a ttl and hands it to every follower; {@code null}
+         * releases them empty-handed. Only the first call of the leader has an effect.
+         */
+        public void complete(CachedResponse response) {
+            if (!leader || !inFlight.remove(key, this)) {
+                return;
+            }
+            if (response == null) {
+                result.tryEmitEmpty();
+                return;
+            }
+            if (!response.ttl().isZero()) {
+                entries.put(key, response);
+            }
+            result.tryEmitValue(response);
+        }
+    }
+
+    private static final class TtlExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+            return response.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(
+                String key, CachedResponse response, long currentTime, long currentDuration) {
+            return response.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(
+                String key, CachedResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
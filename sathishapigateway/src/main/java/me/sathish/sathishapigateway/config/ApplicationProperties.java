@@ -0,0 +1,178 @@
+package me.sathish.sathishapigateway.config;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties("application")
+public class ApplicationProperties {
+
+    @NestedConfigurationProperty private ResponseCache responseCache = new ResponseCache();
+
+    @NestedConfigurationProperty private LoadBalancer loadBalancer = new LoadBalancer();
+
+    @NestedConfigurationProperty private RateLimiter rateLimiter = new RateLimiter();
+
+    @NestedConfigurationProperty private HttpClient httpClient = new HttpClient();
+
+    @NestedConfigurationProperty private RegistryChanges registryChanges = new RegistryChanges();
+
+    @NestedConfigurationProperty private RegistryFile registryFile = new RegistryFile();
+
+    @Data
+    public static class ResponseCache {
+        /** Total size of cached response bodies; least recently used entries go first. */
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Larger responses stream through without being cached: at once when they announce it in
+         * Content-Length, otherwise as soon as their body grows past it.
+         */
+        private DataSize maxEntrySize = DataSize.ofKilobytes(512);
+
+        /** Upper bound for the lifetime of an entry, whatever max-age the upstream asks for. */
+        private Duration maxTtl = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class LoadBalancer {
+        /** Balancing for every lb:// service without an entry in {@code services}. */
+        private Balancing defaults = new Balancing();
+
+        /**
+         * Balancing per service id, as it appears in the route's lb:// uri. An entry replaces the
+         * defaults as a whole.
+         */
+        private Map<String, Balancing> services = new LinkedHashMap<>();
+
+        public Balancing forService(String serviceId) {
+            return services.entrySet().stream()
+                    .filter(entry -> entry.getKey().equalsIgnoreCase(serviceId))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElse(defaults);
+        }
+    }
+
+    @Data
+    public static class Balancing {
+        private Strategy strategy = Strategy.PEAK_EWMA;
+
+        /** How quickly latency samples age out of the peak EWMA. */
+        private Duration decayTime = Duration.ofSeconds(10);
+
+        /** Connect errors or 5xx responses in a row that eject an instance. */
+        private int consecutiveFailures = 5;
+
+        private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+        private int maxEjectionPercent = 50;
+
+        public enum Strategy {
+            ROUND_ROBIN,
+            PEAK_EWMA,
+            /** Peak EWMA plus the load instances publish in their Eureka metadata. */
+            REPORTED_LOAD
+        }
+    }
+
+    @Data
+    public static class RateLimiter {
+        /** Tokens per second for routes whose RequestRateLimiter args do not set one. */
+        private int replenishRate = 50;
+
+        private int burstCapacity = 100;
+
+        /**
+         * Proxies in front of the gateway whose X-Forwarded-For entries are trusted when telling
+         * clients apart; 0 keys clients by the connection's remote address.
+         */
+        private int trustedProxies = 0;
+
+        /** Buckets untouched this long are dropped and start full again. */
+        private Duration idleBucketExpiry = Duration.ofMinutes(10);
+
+        private long maxBuckets = 100_000;
+    }
+
+    @Data
+    public static class HttpClient {
+        /**
+         * Talk h2c with prior knowledge to every upstream instead of HTTP/1.1; each upstream must
+         * accept it.
+         */
+        private boolean h2c = false;
+
+        /**
+         * Requests allowed to wait for a connection once an upstream's pool is exhausted; further
+         * requests fail at once instead of queueing behind them.
+         */
+        private int pendingAcquireMaxCount = 1000;
+
+        /** Idle time before TCP keep-alive probes start on a pooled connection. */
+        private Duration tcpKeepAliveIdle = Duration.ofSeconds(60);
+
+        private Duration tcpKeepAliveInterval = Duration.ofSeconds(10);
+
+        /** Unanswered probes after which the connection is closed. */
+        private int tcpKeepAliveCount = 3;
+
+        /**
+         * Pool settings per upstream {@code host:port} that differ from {@code
+         * spring.cloud.gateway.httpclient.pool}; unset values fall back to it.
+         */
+        private Map<String, Pool> upstreams = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class RegistryChanges {
+        /** Apply registry changes pushed by the discovery servers to lb:// instance lists. */
+        private boolean enabled = true;
+
+        /** Change streams to subscribe to, one per discovery server. */
+        private List<URI> urls = new ArrayList<>();
+
+        /**
+         * How long a pushed change overrides the polled registry. Covers the registry fetch
+         * interval (30s) plus the load balancer's instance cache ttl (35s), after which the polled
+         * view has caught up.
+         */
+        private Duration holdTime = Duration.ofSeconds(90);
+
+        private Duration reconnectDelay = Duration.ofSeconds(1);
+
+        private Duration maxReconnectDelay = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class RegistryFile {
+        /** Keep the fetched registry on disk and fall back to it until the first fetch. */
+        private boolean enabled = true;
+
+        private Path path = Path.of("data/registry.bin");
+    }
+
+    @Data
+    public static class Pool {
+        private Integer maxConnections;
+
+        private Integer pendingAcquireMaxCount;
+
+        private Duration pendingAcquireTimeout;
+
+        private Duration maxIdleTime;
+
+        private Duration maxLifeTime;
+    }
+}
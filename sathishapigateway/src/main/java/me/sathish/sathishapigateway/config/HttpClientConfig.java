@@ -0,0 +1,34 @@
+package me.sathish.sathishapigateway.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import me.sathish.sathishapigateway.httpclient.UpstreamHttpClientFactory;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+public class HttpClientConfig {
+
+    /** Replaces the gateway's own factory, which backs off when one is defined. */
+    @Bean
+    HttpClientFactory gatewayHttpClientFactory(
+            HttpClientProperties httpClientProperties,
+            ServerProperties serverProperties,
+            HttpClientSslConfigurer sslConfigurer,
+            List<HttpClientCustomizer> customizers,
+            ApplicationProperties properties,
+            MeterRegistry meterRegistry) {
+        return new UpstreamHttpClientFactory(
+                httpClientProperties,
+                serverProperties,
+                sslConfigurer,
+                customizers,
+                properties,
+                meterRegistry);
+    }
+}
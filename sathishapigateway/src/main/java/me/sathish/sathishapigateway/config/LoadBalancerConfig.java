@@ -0,0 +1,9 @@
+package me.sathish.sathishapigateway.config;
+
+import me.sathish.sathishapigateway.loadbalancer.BalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@LoadBalancerClients(defaultConfiguration = BalancerConfiguration.class)
+public class LoadBalancerConfig {}
@@ -0,0 +1,29 @@
+package me.sathish.sathishapigateway.config;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+@Configuration(proxyBeanMethods = false)
+public class RateLimiterConfig {
+
+    /**
+     * Default key for RequestRateLimiter: the client's IP address. X-Forwarded-For is only
+     * consulted as far as {@code application.rate-limiter.trusted-proxies} allows, so clients
+     * cannot pick their own bucket by sending the header.
+     */
+    @Bean
+    KeyResolver clientAddressKeyResolver(ApplicationProperties properties) {
+        int trustedProxies = properties.getRateLimiter().getTrustedProxies();
+        RemoteAddressResolver resolver =
+                trustedProxies > 0
+                        ? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxies)
+                        : new RemoteAddressResolver() {};
+        return exchange ->
+                Mono.justOrEmpty(resolver.resolve(exchange))
+                        .map(address -> address.getAddress().getHostAddress());
+    }
+}
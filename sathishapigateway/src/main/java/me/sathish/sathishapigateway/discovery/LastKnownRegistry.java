@@ -0,0 +1,126 @@
+package me.sathish.sathishapigateway.discovery;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.shared.Application;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.netflix.eureka.EurekaServiceInstance;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * The registry as last fetched, kept in a {@link RegistryFile} so that a gateway starting while the
+ * discovery servers are unreachable can still resolve {@code lb://} routes.
+ *
+ * <p>The file at {@code application.registry-file.path} is loaded on startup, and until the first
+ * successful registry fetch its UP instances stand in for a service the fetched registry has none
+ * of. After that the fetched registry is all that counts, and every fetch that changed it is
+ * written back to the file.
+ */
+@Slf4j
+@Component
+public class LastKnownRegistry {
+
+    private final ApplicationProperties.RegistryFile settings;
+    // service ids in lower case; emptied by the first fetch
+    private volatile Map<String, List<ServiceInstance>> loaded = Map.of();
+    private int writtenHash;
+
+    public LastKnownRegistry(ApplicationProperties properties) {
+        this.settings = properties.getRegistryFile();
+        if (settings.isEnabled() && Files.exists(settings.getPath())) {
+            load(settings.getPath());
+        }
+    }
+
+    private void load(Path path) {
+        long start = System.nanoTime();
+        RegistryFile.Contents contents;
+        try {
+            contents = RegistryFile.read(path);
+        } catch (IOException e) {
+            log.warn("Not loading the last known registry from {}", path, e);
+            return;
+        }
+        Map<String, List<ServiceInstance>> instances = new HashMap<>();
+        for (InstanceInfo instance : contents.instances()) {
+            if (instance.getStatus() == InstanceInfo.InstanceStatus.UP) {
+                instances
+                        .computeIfAbsent(key(instance.getAppName()), app -> new ArrayList<>())
+                        .add(new EurekaServiceInstance(instance));
+            }
+        }
+        loaded = instances;
+        log.info(
+                "Loaded {} instances from {}, written {} ago, in {} ms",
+                contents.instances().size(),
+                path,
+                Duration.between(contents.writtenAt(), Instant.now()),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /** {@code fetched}, or the last known instances if there are none and nothing was fetched. */
+    public List<ServiceInstance> orLastKnown(String serviceId, List<ServiceInstance> fetched) {
+        if (!fetched.isEmpty() || serviceId == null) {
+            return fetched;
+        }
+        return loaded.getOrDefault(key(serviceId), fetched);
+    }
+
+    /** Sent by the Eureka client after each successful registry fetch. */
+    @EventListener
+    public synchronized void onFetched(HeartbeatEvent event) {
+        if (!(event.getSource() instanceof EurekaClient eurekaClient)) {
+            return;
+        }
+        if (!loaded.isEmpty()) {
+            log.info("Registry fetched, no longer using the last known registry");
+            loaded = Map.of();
+        }
+        if (!settings.isEnabled()) {
+            return;
+        }
+        List<InstanceInfo> instances = new ArrayList<>();
+        int hash = 0;
+        for (Application application :
+                eurekaClient.getApplications().getRegisteredApplications()) {
+            for (InstanceInfo instance : application.getInstances()) {
+                instances.add(instance);
+                hash +=
+                        Objects.hash(
+                                instance.getInstanceId(),
+                                instance.getStatus(),
+                                instance.getLastDirtyTimestamp());
+            }
+        }
+        // an empty registry, as a restarted discovery server has, does not replace a known one
+        if (hash == writtenHash || instances.isEmpty()) {
+            return;
+        }
+        try {
+            RegistryFile.write(settings.getPath(), instances, Instant.now());
+            writtenHash = hash;
+        } catch (IOException e) {
+            log.warn("Cannot write the last known registry to {}", settings.getPath(), e);
+        }
+    }
+
+    private static String key(String serviceId) {
+        return serviceId.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,140 @@
+package me.sathish.sathishapigateway.discovery;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry changes pushed by the discovery servers, laid over the instance lists the load balancer
+ * gets from the regular Eureka fetch. An instance cancelled, evicted or no longer UP drops out of
+ * its service's list as soon as the change arrives, and a newly UP instance is added before the
+ * next fetch would find it. Each override lapses after {@code
+ * application.registry-changes.hold-time}, by when the fetched list has caught up.
+ *
+ * <p>The latest version seen from each discovery server (the version vector) drops changes that
+ * arrive twice, as a registration replicated between peers does, and tells a reconnecting
+ * subscriber where to resume. A reset, sent when a server cannot replay what was missed, discards
+ * the overrides that server pushed and leaves those instances to the fetched lists; overrides
+ * pushed by the other servers stay.
+ */
+@Slf4j
+@Component
+public class PushedRegistry {
+
+    private final long holdTimeNanos;
+    private final LongSupplier nanoTime;
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private final Map<String, Pushed> pushed = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PushedRegistry(ApplicationProperties properties) {
+        this(properties.getRegistryChanges().getHoldTime(), System::nanoTime);
+    }
+
+    PushedRegistry(Duration holdTime, LongSupplier nanoTime) {
+        this.holdTimeNanos = holdTime.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /** Applies {@code change}, unless a change at least as recent from its server was applied. */
+    public synchronized boolean apply(RegistryChange change) {
+        Long seen = versions.get(change.server());
+        if (seen != null && change.version() <= seen) {
+            return false;
+        }
+        versions.put(change.server(), change.version());
+        long now = nanoTime.getAsLong();
+        pushed.values().removeIf(entry -> entry.hasLapsed(now));
+        pushed.put(
+                change.instanceId(),
+                new Pushed(
+                        change.server(),
+                        change.app(),
+                        change.isUp() ? instance(change) : null,
+                        now + holdTimeNanos));
+        log.debug(
+                "{} {} {} {}", change.type(), change.app(), change.instanceId(), change.status());
+        return true;
+    }
+
+    /** Drops the overrides {@code server} pushed and resumes its stream after {@code version}. */
+    public synchronized void reset(String server, long version) {
+        versions.put(server, version);
+        if (pushed.values().removeIf(entry -> entry.server().equals(server))) {
+            log.info(
+                    "Discovery server {} cannot replay missed changes, using fetched registry",
+                    server);
+        }
+    }
+
+    /** The Last-Event-ID resuming {@code server}'s stream after the last change applied from it. */
+    public Optional<String> lastEventId(String server) {
+        return Optional.ofNullable(server)
+                .map(versions::get)
+                .map(version -> server + ':' + version);
+    }
+
+    /** {@code fetched} with the pushed changes to {@code serviceId}'s instances applied. */
+    public List<ServiceInstance> merge(String serviceId, List<ServiceInstance> fetched) {
+        if (pushed.isEmpty()) {
+            return fetched;
+        }
+        long now = nanoTime.getAsLong();
+        List<ServiceInstance> merged = new ArrayList<>(fetched.size() + 1);
+        Set<String> listed = new HashSet<>();
+        for (ServiceInstance instance : fetched) {
+            Pushed entry = pushed.get(instance.getInstanceId());
+            if (entry == null || entry.hasLapsed(now)) {
+                merged.add(instance);
+                listed.add(instance.getInstanceId());
+            } else if (entry.instance() != null) {
+                // the pushed registration is the more recent one
+                merged.add(entry.instance());
+                listed.add(instance.getInstanceId());
+            }
+        }
+        for (Pushed entry : pushed.values()) {
+            if (entry.instance() != null
+                    && !entry.hasLapsed(now)
+                    && entry.app().equalsIgnoreCase(serviceId)
+                    && listed.add(entry.instance().getInstanceId())) {
+                merged.add(entry.instance());
+            }
+        }
+        return merged;
+    }
+
+    private static ServiceInstance instance(RegistryChange change) {
+        return new DefaultServiceInstance(
+                change.instanceId(),
+                change.app(),
+                change.host(),
+                change.port(),
+                change.secure(),
+                change.metadata() == null ? Map.of() : change.metadata());
+    }
+
+    /**
+     * A pushed change to one instance from {@code server}: its registration while UP, otherwise
+     * no instance.
+     */
+    private record Pushed(
+            String server, String app, ServiceInstance instance, long lapsesAtNanos) {
+
+        boolean hasLapsed(long now) {
+            return now - lapsesAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package me.sathish.sathishapigateway.discovery;
+
+import java.util.Map;
+
+/**
+ * A registry change as pushed by a discovery server's {@code /registry/changes} stream. {@code
+ * version} counts the changes of {@code server}; a reset event only carries those two fields.
+ */
+public record RegistryChange(
+        String server,
+        long version,
+        Type type,
+        String app,
+        String instanceId,
+        String status,
+        String host,
+        int port,
+        boolean secure,
+        Map<String, String> metadata) {
+
+    public enum Type {
+        REGISTERED,
+        CANCELLED
+    }
+
+    boolean isUp() {
+        return type == Type.REGISTERED && "UP".equals(status);
+    }
+}
@@ -0,0 +1,109 @@
+package me.sathish.sathishapigateway.discovery;
+
+import jakarta.annotation.PreDestroy;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+/**
+ * Follows the change stream of each discovery server in {@code application.registry-changes.urls}
+ * and hands its events to {@link PushedRegistry}. A stream that ends or fails is reopened with
+ * Last-Event-ID set to the last change applied from that server, backing off while the server is
+ * unreachable; meanwhile the fetched registry keeps the instance lists current as before.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "application.registry-changes.enabled", matchIfMissing = true)
+public class RegistryChangeSubscriber {
+
+    static final String RESET_EVENT = "reset";
+
+    private static final ParameterizedTypeReference<ServerSentEvent<RegistryChange>> EVENT_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final PushedRegistry pushedRegistry;
+    private final ApplicationProperties.RegistryChanges settings;
+    private final List<Disposable> subscriptions = new CopyOnWriteArrayList<>();
+
+    public RegistryChangeSubscriber(
+            WebClient.Builder webClientBuilder,
+            PushedRegistry pushedRegistry,
+            ApplicationProperties properties) {
+        this.webClient = webClientBuilder.build();
+        this.pushedRegistry = pushedRegistry;
+        this.settings = properties.getRegistryChanges();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        settings.getUrls().forEach(url -> subscriptions.add(changes(url).subscribe()));
+    }
+
+    @PreDestroy
+    void unsubscribe() {
+        subscriptions.forEach(Disposable::dispose);
+    }
+
+    Flux<ServerSentEvent<RegistryChange>> changes(URI url) {
+        // the server last heard from at url, whose stream a reconnect resumes
+        AtomicReference<String> server = new AtomicReference<>();
+        return Flux.defer(
+                        () ->
+                                webClient
+                                        .get()
+                                        .uri(url)
+                                        .accept(MediaType.TEXT_EVENT_STREAM)
+                                        .headers(headers -> resume(headers, server.get()))
+                                        .retrieve()
+                                        .bodyToFlux(EVENT_TYPE))
+                .doOnNext(event -> handle(event, server))
+                .repeatWhen(completed -> completed.delayElements(settings.getReconnectDelay()))
+                .retryWhen(
+                        Retry.backoff(Long.MAX_VALUE, settings.getReconnectDelay())
+                                .maxBackoff(settings.getMaxReconnectDelay())
+                                .transientErrors(true)
+                                .doBeforeRetry(
+                                        signal -> {
+                                            if (signal.totalRetriesInARow() == 0) {
+                                                log.warn(
+                                                        "Registry change stream {} failed: {}",
+                                                        url,
+                                                        signal.failure().toString());
+                                            }
+                                        }));
+    }
+
+    private void resume(HttpHeaders headers, String server) {
+        pushedRegistry.lastEventId(server).ifPresent(id -> headers.set("Last-Event-ID", id));
+    }
+
+    private void handle(ServerSentEvent<RegistryChange> event, AtomicReference<String> server) {
+        RegistryChange change = event.data();
+        if (change == null) {
+            // heartbeat
+            return;
+        }
+        server.set(change.server());
+        if (RESET_EVENT.equals(event.event())) {
+            pushedRegistry.reset(change.server(), change.version());
+        } else {
+            pushedRegistry.apply(change);
+        }
+    }
+}
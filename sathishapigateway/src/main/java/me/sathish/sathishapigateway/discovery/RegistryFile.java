@@ -0,0 +1,204 @@
+package me.sathish.sathishapigateway.discovery;
+
+import com.netflix.appinfo.DataCenterInfo;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.LeaseInfo;
+import com.netflix.appinfo.MyDataCenterInfo;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Registry instances as a compact binary file, in the format the discovery server keeps its
+ * registry in: a header with the time it was written, one record per instance and a CRC32 of it
+ * all.
+ *
+ * <p>A file is written next to its final path and moved over it, so readers see either the
+ * previous file or the new one and never a partial write. It is read through a memory mapping in
+ * one pass; a file that is truncated, corrupt or of another format is rejected as a whole.
+ */
+final class RegistryFile {
+
+    private static final int MAGIC = 0x53524547; // "SREG"
+    private static final byte FORMAT = 1;
+    private static final int NULL = 0xFFFF;
+
+    private RegistryFile() {}
+
+    record Contents(Instant writtenAt, List<InstanceInfo> instances) {}
+
+    static void write(Path path, Collection<InstanceInfo> instances, Instant writtenAt)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * instances.size() + 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeByte(FORMAT);
+        out.writeLong(writtenAt.toEpochMilli());
+        out.writeInt(instances.size());
+        for (InstanceInfo instance : instances) {
+            writeInstance(out, instance);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = parent.resolve(path.getFileName() + ".tmp");
+        try (FileChannel channel =
+                FileChannel.open(
+                        temp,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(
+                temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static Contents read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                return read(buffer);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IOException(path + " is not a readable registry file", e);
+            }
+        }
+    }
+
+    private static Contents read(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < Integer.BYTES * 2 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a registry file");
+        }
+        if (buffer.get() != FORMAT) {
+            throw new IOException("Unknown registry file format");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(0).limit(buffer.limit() - Integer.BYTES));
+        if (buffer.getInt(buffer.limit() - Integer.BYTES) != (int) crc.getValue()) {
+            throw new IOException("Registry file checksum mismatch");
+        }
+        Instant writtenAt = Instant.ofEpochMilli(buffer.getLong());
+        int count = buffer.getInt();
+        List<InstanceInfo> instances = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            instances.add(readInstance(buffer));
+        }
+        return new Contents(writtenAt, instances);
+    }
+
+    private static void writeInstance(DataOutputStream out, InstanceInfo instance)
+            throws IOException {
+        writeString(out, instance.getAppName());
+        writeString(out, instance.getInstanceId());
+        writeString(out, instance.getAppGroupName());
+        writeString(out, instance.getHostName());
+        writeString(out, instance.getIPAddr());
+        writeString(out, instance.getVIPAddress());
+        writeString(out, instance.getSecureVipAddress());
+        writeString(out, instance.getStatus().name());
+        out.writeInt(instance.getPort());
+        out.writeBoolean(instance.isPortEnabled(InstanceInfo.PortType.UNSECURE));
+        out.writeInt(instance.getSecurePort());
+        out.writeBoolean(instance.isPortEnabled(InstanceInfo.PortType.SECURE));
+        writeString(out, instance.getHomePageUrl());
+        writeString(out, instance.getStatusPageUrl());
+        writeString(out, instance.getHealthCheckUrl());
+        writeString(out, instance.getSecureHealthCheckUrl());
+        LeaseInfo leaseInfo = instance.getLeaseInfo();
+        out.writeInt(
+                leaseInfo == null
+                        ? LeaseInfo.DEFAULT_LEASE_RENEWAL_INTERVAL
+                        : leaseInfo.getRenewalIntervalInSecs());
+        out.writeInt(
+                leaseInfo == null
+                        ? LeaseInfo.DEFAULT_LEASE_DURATION
+                        : leaseInfo.getDurationInSecs());
+        out.writeLong(
+                instance.getLastDirtyTimestamp() == null ? 0 : instance.getLastDirtyTimestamp());
+        Map<String, String> metadata = instance.getMetadata();
+        out.writeShort(metadata.size());
+        for (Map.Entry<String, String> entry : metadata.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static InstanceInfo readInstance(ByteBuffer buffer) {
+        InstanceInfo.Builder builder =
+                InstanceInfo.Builder.newBuilder()
+                        .setAppName(readString(buffer))
+                        .setInstanceId(readString(buffer))
+                        .setAppGroupName(readString(buffer))
+                        .setHostName(readString(buffer))
+                        .setIPAddr(readString(buffer))
+                        .setVIPAddressDeser(readString(buffer))
+                        .setSecureVIPAddressDeser(readString(buffer))
+                        .setStatus(InstanceInfo.InstanceStatus.toEnum(readString(buffer)))
+                        .setPort(buffer.getInt())
+                        .enablePort(InstanceInfo.PortType.UNSECURE, buffer.get() != 0)
+                        .setSecurePort(buffer.getInt())
+                        .enablePort(InstanceInfo.PortType.SECURE, buffer.get() != 0)
+                        .setHomePageUrlForDeser(readString(buffer))
+                        .setStatusPageUrlForDeser(readString(buffer))
+                        .setHealthCheckUrlsForDeser(readString(buffer), readString(buffer))
+                        .setLeaseInfo(
+                                LeaseInfo.Builder.newBuilder()
+                                        .setRenewalIntervalInSecs(buffer.getInt())
+                                        .setDurationInSecs(buffer.getInt())
+                                        .build())
+                        .setLastDirtyTimestamp(buffer.getLong())
+                        .setDataCenterInfo(new MyDataCenterInfo(DataCenterInfo.Name.MyOwn));
+        int metadataSize = Short.toUnsignedInt(buffer.getShort());
+        Map<String, String> metadata = new HashMap<>(metadataSize * 2);
+        for (int i = 0; i < metadataSize; i++) {
+            metadata.put(readString(buffer), readString(buffer));
+        }
+        return builder.setMetadata(metadata).build();
+    }
+
+    /** UTF-8 behind an unsigned short length, {@value #NULL} standing for null. */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(NULL);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL) {
+            throw new IOException("Value too long for a registry file: " + bytes.length);
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length == NULL) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,127 @@
+package me.sathish.sathishapigateway.filter;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.retry.Jitter;
+import reactor.retry.Repeat;
+import reactor.retry.Retry;
+
+/**
+ * The gateway's {@code Retry} filter with random jitter on its backoff, so clients that failed
+ * together do not retry in lockstep against a recovering upstream, and with defaults limited to
+ * idempotent methods and to failures that never reached or were refused by the upstream.
+ *
+ * <p>Takes the same args as {@code Retry} plus {@code jitter}, the fraction each delay may move
+ * up or down. Defaults: 2 retries of GET and HEAD on connect errors, connection pool acquire
+ * timeouts, 502, 503 and 504, backing off from 50ms to 500ms. A route's {@code response-timeout}
+ * is not retried, as the upstream may still be working on the first attempt: the gateway reports it
+ * as a 504 {@code ResponseStatusException} caused by a {@code TimeoutException}, and {@code Retry}
+ * matches causes too, so only the connect and pool acquire failures are listed rather than every
+ * {@code IOException} or {@code TimeoutException}. Routes naming POST or PATCH are rejected at
+ * startup.
+ *
+ * <pre>
+ * spring.cloud.gateway.routes[1].filters[2].name=JitteredRetry
+ * spring.cloud.gateway.routes[1].filters[2].args.retries=2
+ * spring.cloud.gateway.routes[1].filters[2].args.jitter=0.5
+ * </pre>
+ */
+@Component
+public class JitteredRetryGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<JitteredRetryGatewayFilterFactory.Config> {
+
+    /**
+     * reactor-pool's acquire timeout, looked up by name: reactor-netty ships reactor-pool shaded
+     * into an internal package that an upgrade may move, so it is not compiled against. It extends
+     * {@code TimeoutException}, which cannot be listed as a whole; if neither name resolves only
+     * connect errors are retried.
+     */
+    private static final Class<? extends Throwable> POOL_ACQUIRE_TIMEOUT =
+            resolveThrowable(
+                    "reactor.pool.PoolAcquireTimeoutException",
+                    "reactor.netty.internal.shaded.reactor.pool.PoolAcquireTimeoutException");
+
+    public JitteredRetryGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("retries", "jitter");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Jitter jitter =
+                config.getJitter() > 0 ? Jitter.random(config.getJitter()) : Jitter.noJitter();
+        return new RetryGatewayFilterFactory() {
+            @Override
+            public GatewayFilter apply(
+                    String routeId,
+                    Repeat<ServerWebExchange> repeat,
+                    Retry<ServerWebExchange> retry) {
+                return super.apply(
+                        routeId,
+                        repeat == null ? null : repeat.jitter(jitter),
+                        retry == null ? null : retry.jitter(jitter));
+            }
+        }.apply(config);
+    }
+
+    @Getter
+    @Setter
+    public static class Config extends RetryGatewayFilterFactory.RetryConfig {
+        /** Fraction of each backoff delay added or taken away at random; 0 disables jitter. */
+        private double jitter = 0.5;
+
+        public Config() {
+            setRetries(2);
+            setSeries();
+            setStatuses(
+                    HttpStatus.BAD_GATEWAY,
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    HttpStatus.GATEWAY_TIMEOUT);
+            setMethods(HttpMethod.GET, HttpMethod.HEAD);
+            // a connect timeout is a ConnectException too
+            if (POOL_ACQUIRE_TIMEOUT == null) {
+                setExceptions(ConnectException.class);
+            } else {
+                setExceptions(ConnectException.class, POOL_ACQUIRE_TIMEOUT);
+            }
+            setBackoff(Duration.ofMillis(50), Duration.ofMillis(500), 2, true);
+        }
+
+        @Override
+        public void validate() {
+            super.validate();
+            Assert.isTrue(jitter >= 0 && jitter <= 1, "jitter must be between 0 and 1");
+            Assert.isTrue(
+                    !getMethods().contains(HttpMethod.POST)
+                            && !getMethods().contains(HttpMethod.PATCH),
+                    "JitteredRetry only retries idempotent methods");
+        }
+    }
+
+    private static Class<? extends Throwable> resolveThrowable(String... classNames) {
+        ClassLoader classLoader = JitteredRetryGatewayFilterFactory.class.getClassLoader();
+        for (String className : classNames) {
+            if (ClassUtils.isPresent(className, classLoader)) {
+                return ClassUtils.resolveClassName(className, classLoader)
+                        .asSubclass(Throwable.class);
+            }
+        }
+        return null;
+    }
+}
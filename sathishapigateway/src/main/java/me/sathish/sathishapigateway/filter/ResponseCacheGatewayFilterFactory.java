@@ -0,0 +1,272 @@
+package me.sathish.sathishapigateway.filter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.Data;
+import me.sathish.sathishapigateway.cache.CachedResponse;
+import me.sathish.sathishapigateway.cache.ResponseCache;
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves repeated GET requests from {@link ResponseCache} and collapses concurrent identical
+ * requests into one upstream call.
+ *
+ * <p>Entries are keyed by path, query and Accept-Encoding and live for the upstream's {@code
+ * s-maxage}/{@code max-age}, or the route's {@code ttl} when it sends none, capped at {@code
+ * application.response-cache.max-ttl}. Requests carrying credentials, {@code no-cache} or a
+ * {@code Read-Your-Writes} token (the client wrote recently and must not see a stale page), and
+ * responses that are not 200, set cookies, vary on other headers or say {@code no-store} or {@code
+ * private} bypass the cache; {@code no-cache} responses are only shared with requests already
+ * waiting on them. Responses without an ETag get a content hash so clients can revalidate with
+ * If-None-Match.
+ *
+ * <pre>
+ * spring.cloud.gateway.routes[0].filters[1]=ResponseCache=30s
+ * </pre>
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    /** Sent back by clients that wrote recently; see the services' ReadYourWritesFilter. */
+    static final String READ_YOUR_WRITES_HEADER = "Read-Your-Writes";
+
+    private static final Pattern MAX_AGE = Pattern.compile("(?:s-maxage|max-age)=(\\d+)");
+
+    private final ResponseCache responseCache;
+    private final ApplicationProperties.ResponseCache properties;
+
+    public ResponseCacheGatewayFilterFactory(
+            ResponseCache responseCache, ApplicationProperties properties) {
+        super(Config.class);
+        this.responseCache = responseCache;
+        this.properties = properties.getResponseCache();
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // must wrap the response before NettyWriteResponseFilter captures it
+        return new OrderedGatewayFilter(
+                (exchange, chain) -> filter(exchange, chain, config),
+                NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!isCacheable(request)) {
+            return chain.filter(exchange);
+        }
+        String key = keyOf(request);
+        CachedResponse cached = responseCache.get(key);
+        if (cached != null) {
+            return write(exchange, cached);
+        }
+        ResponseCache.Flight flight = responseCache.begin(key);
+        if (!flight.isLeader()) {
+            return flight.result()
+                    .flatMap(response -> write(exchange, response).thenReturn(Boolean.TRUE))
+                    .switchIfEmpty(
+                            Mono.defer(() -> chain.filter(exchange).thenReturn(Boolean.TRUE)))
+                    .then();
+        }
+        ServerHttpResponse capturing = new CapturingResponse(exchange, flight, config);
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> flight.complete(null));
+    }
+
+    private static boolean isCacheable(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        String cacheControl = headers.getCacheControl();
+        return HttpMethod.GET.equals(request.getMethod())
+                && !headers.containsKey(HttpHeaders.AUTHORIZATION)
+                && !headers.containsKey(READ_YOUR_WRITES_HEADER)
+                && (cacheControl == null
+                        || !(cacheControl.contains("no-cache")
+                                || cacheControl.contains("no-store")));
+    }
+
+    static String keyOf(ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        String acceptEncoding = request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null) {
+            key.append(" ").append(acceptEncoding);
+        }
+        return key.toString();
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().set(HttpHeaders.AGE, Long.toString(cached.age().toSeconds()));
+        if (notModified(exchange.getRequest(), cached.headers().getETag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static boolean notModified(ServerHttpRequest request, String etag) {
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        return etag != null && (ifNoneMatch.contains(etag) || ifNoneMatch.contains("*"));
+    }
+
+    /** How long {@code headers} allow the response to be reused, or {@code null} if never. */
+    private Duration ttlOf(HttpStatus status, HttpHeaders headers, Config config) {
+        if (status != HttpStatus.OK || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+        for (String vary : headers.getVary()) {
+            if (!HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(vary)) {
+                return null;
+            }
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return min(config.getTtl(), properties.getMaxTtl());
+        }
+        if (cacheControl.contains("no-store") || cacheControl.contains("private")) {
+            return null;
+        }
+        if (cacheControl.contains("no-cache")) {
+            return Duration.ZERO;
+        }
+        Matcher maxAge = MAX_AGE.matcher(cacheControl);
+        Duration ttl =
+                maxAge.find()
+                        ? Duration.ofSeconds(Long.parseLong(maxAge.group(1)))
+                        : config.getTtl();
+        return min(ttl, properties.getMaxTtl());
+    }
+
+    private static byte[] bytesOf(List<DataBuffer> buffers) {
+        byte[] bytes = new byte[buffers.stream().mapToInt(DataBuffer::readableByteCount).sum()];
+        int offset = 0;
+        for (DataBuffer buffer : buffers) {
+            int length = buffer.readableByteCount();
+            buffer.read(bytes, offset, length);
+            offset += length;
+            DataBufferUtils.release(buffer);
+        }
+        return bytes;
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    /**
+     * Buffers the leader's body, publishes it to the cache and followers, then writes it on. A body
+     * that grows past the max entry size is written on as it comes, starting with what was held.
+     */
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final ResponseCache.Flight flight;
+        private final Config config;
+
+        CapturingResponse(ServerWebExchange exchange, ResponseCache.Flight flight, Config config) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.flight = flight;
+            this.config = config;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatus status =
+                    getStatusCode() == null
+                            ? HttpStatus.OK
+                            : HttpStatus.resolve(getStatusCode().value());
+            Duration ttl = ttlOf(status, getHeaders(), config);
+            long maxEntrySize = properties.getMaxEntrySize().toBytes();
+            if (ttl == null || getHeaders().getContentLength() > maxEntrySize) {
+                flight.complete(null);
+                return super.writeWith(body);
+            }
+            // chunked and compressed bodies announce no length; count as they arrive instead.
+            // The first list holds the whole body, or everything up to the buffer that went over
+            AtomicLong size = new AtomicLong();
+            return Flux.<DataBuffer>from(body)
+                    .bufferUntil(
+                            buffer -> size.addAndGet(buffer.readableByteCount()) > maxEntrySize)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .switchOnFirst(
+                            (first, buffers) -> {
+                                if (first.hasValue() && size.get() > maxEntrySize) {
+                                    flight.complete(null);
+                                    return super.writeWith(buffers.flatMapIterable(list -> list));
+                                }
+                                return buffers.next()
+                                        .map(ResponseCacheGatewayFilterFactory::bytesOf)
+                                        .defaultIfEmpty(new byte[0])
+                                        .flatMap(bytes -> publish(status, bytes, ttl));
+                            })
+                    .then();
+        }
+
+        private Mono<Void> publish(HttpStatus status, byte[] bytes, Duration ttl) {
+            HttpHeaders headers = getHeaders();
+            if (headers.getETag() == null) {
+                headers.setETag("\"0" + DigestUtils.md5DigestAsHex(bytes) + "\"");
+            }
+            HttpHeaders stored = new HttpHeaders();
+            stored.putAll(headers);
+            stored.remove(HttpHeaders.TRANSFER_ENCODING);
+            stored.remove(HttpHeaders.CONNECTION);
+            stored.setContentLength(bytes.length);
+            flight.complete(
+                    new CachedResponse(
+                            status,
+                            HttpHeaders.readOnlyHttpHeaders(stored),
+                            bytes,
+                            System.nanoTime(),
+                            ttl));
+            if (notModified(exchange.getRequest(), headers.getETag())) {
+                setStatusCode(HttpStatus.NOT_MODIFIED);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                return setComplete();
+            }
+            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+        }
+    }
+
+    @Data
+    public static class Config {
+
+        /** Lifetime of entries whose upstream response carries no Cache-Control. */
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+}
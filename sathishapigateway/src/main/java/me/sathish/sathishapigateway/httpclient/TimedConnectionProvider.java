@@ -0,0 +1,121 @@
+package me.sathish.sathishapigateway.httpclient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.resolver.AddressResolverGroup;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.TransportConfig;
+
+/**
+ * Records how long requests wait for an upstream connection, whether it comes from the pool or
+ * has to be opened first, as {@code gateway.httpclient.pool.acquire} tagged with the upstream's
+ * {@code remote.address} and the {@code outcome}: success, timeout (pending-acquire-timeout ran
+ * out), error (connect failure or pending queue full) or cancelled. Reactor Netty's own pool
+ * metrics only report gauges.
+ */
+class TimedConnectionProvider implements ConnectionProvider {
+
+    static final String METER_NAME = "gateway.httpclient.pool.acquire";
+
+    private final ConnectionProvider delegate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    TimedConnectionProvider(ConnectionProvider delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<? extends Connection> acquire(
+            TransportConfig config,
+            ConnectionObserver connectionObserver,
+            Supplier<? extends SocketAddress> remoteAddress,
+            AddressResolverGroup<?> resolverGroup) {
+        return Mono.defer(
+                () -> {
+                    long start = System.nanoTime();
+                    String address = format(remoteAddress.get());
+                    return delegate.acquire(
+                                    config, connectionObserver, remoteAddress, resolverGroup)
+                            .doOnSuccess(connection -> record(address, "success", start))
+                            .doOnError(
+                                    error ->
+                                            record(
+                                                    address,
+                                                    error instanceof TimeoutException
+                                                            ? "timeout"
+                                                            : "error",
+                                                    start))
+                            .doOnCancel(() -> record(address, "cancelled", start));
+                });
+    }
+
+    private void record(String address, String outcome, long start) {
+        timers.computeIfAbsent(address + ' ' + outcome, key -> timer(address, outcome))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String address, String outcome) {
+        return Timer.builder(METER_NAME)
+                .description("Time requests waited for an upstream connection")
+                .tag("remote.address", address)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+
+    private static String format(SocketAddress address) {
+        return address instanceof InetSocketAddress inet
+                ? inet.getHostString() + ':' + inet.getPort()
+                : String.valueOf(address);
+    }
+
+    @Override
+    public void disposeWhen(SocketAddress address) {
+        delegate.disposeWhen(address);
+    }
+
+    @Override
+    public Mono<Void> disposeLater() {
+        return delegate.disposeLater();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return delegate.isDisposed();
+    }
+
+    @Override
+    public int maxConnections() {
+        return delegate.maxConnections();
+    }
+
+    @Override
+    public Map<SocketAddress, Integer> maxConnectionsPerHost() {
+        return delegate.maxConnectionsPerHost();
+    }
+
+    @Override
+    public Builder mutate() {
+        return delegate.mutate();
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+}
@@ -0,0 +1,136 @@
+package me.sathish.sathishapigateway.httpclient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * The gateway's Reactor Netty client with a bounded connection pool per upstream.
+ *
+ * <p>For a {@code FIXED} pool, {@code spring.cloud.gateway.httpclient.pool.*} gives the defaults
+ * for each upstream {@code host:port}, {@code application.http-client.upstreams} overrides them
+ * per upstream, and the pending-acquire queue is bounded by {@code
+ * application.http-client.pending-acquire-max-count} where the gateway alone would let it grow
+ * without limit. Other pool types are built as the gateway builds them. Connections get TCP
+ * keep-alive probes, talk h2c when {@code application.http-client.h2c} is set, and acquisition
+ * time is recorded by {@link TimedConnectionProvider}.
+ */
+public class UpstreamHttpClientFactory extends HttpClientFactory {
+
+    private final ApplicationProperties.HttpClient settings;
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamHttpClientFactory(
+            HttpClientProperties properties,
+            ServerProperties serverProperties,
+            HttpClientSslConfigurer sslConfigurer,
+            List<HttpClientCustomizer> customizers,
+            ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry) {
+        super(properties, serverProperties, sslConfigurer, customizers);
+        this.settings = applicationProperties.getHttpClient();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected HttpClient createInstance() {
+        HttpClient httpClient = super.createInstance().option(ChannelOption.SO_KEEPALIVE, true);
+        if (Epoll.isAvailable()) {
+            httpClient =
+                    httpClient
+                            .option(
+                                    EpollChannelOption.TCP_KEEPIDLE,
+                                    (int) settings.getTcpKeepAliveIdle().toSeconds())
+                            .option(
+                                    EpollChannelOption.TCP_KEEPINTVL,
+                                    (int) settings.getTcpKeepAliveInterval().toSeconds())
+                            .option(
+                                    EpollChannelOption.TCP_KEEPCNT,
+                                    settings.getTcpKeepAliveCount());
+        }
+        if (settings.isH2c()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C);
+        }
+        return httpClient;
+    }
+
+    @Override
+    protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+        HttpClientProperties.Pool pool = properties.getPool();
+        if (pool.getType() != HttpClientProperties.Pool.PoolType.FIXED) {
+            return new TimedConnectionProvider(
+                    super.buildConnectionProvider(properties), meterRegistry);
+        }
+        ConnectionProvider.Builder builder =
+                configure(ConnectionProvider.builder(pool.getName()), pool);
+        // a host specific spec starts from Reactor Netty's defaults, not from the builder's
+        settings.getUpstreams()
+                .forEach(
+                        (upstream, overrides) ->
+                                builder.forRemoteHost(
+                                        remoteHost(upstream),
+                                        spec -> override(configure(spec, pool), overrides)));
+        return new TimedConnectionProvider(builder.build(), meterRegistry);
+    }
+
+    private <T extends ConnectionProvider.ConnectionPoolSpec<T>> T configure(
+            T spec, HttpClientProperties.Pool pool) {
+        spec.maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(settings.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(Duration.ofMillis(pool.getAcquireTimeout()))
+                .metrics(pool.isMetrics());
+        if (pool.getMaxIdleTime() != null) {
+            spec.maxIdleTime(pool.getMaxIdleTime());
+        }
+        if (pool.getMaxLifeTime() != null) {
+            spec.maxLifeTime(pool.getMaxLifeTime());
+        }
+        if (pool.getEvictionInterval() != null) {
+            spec.evictInBackground(pool.getEvictionInterval());
+        }
+        return spec;
+    }
+
+    private static void override(
+            ConnectionProvider.HostSpecificSpec spec, ApplicationProperties.Pool overrides) {
+        if (overrides.getMaxConnections() != null) {
+            spec.maxConnections(overrides.getMaxConnections());
+        }
+        if (overrides.getPendingAcquireMaxCount() != null) {
+            spec.pendingAcquireMaxCount(overrides.getPendingAcquireMaxCount());
+        }
+        if (overrides.getPendingAcquireTimeout() != null) {
+            spec.pendingAcquireTimeout(overrides.getPendingAcquireTimeout());
+        }
+        if (overrides.getMaxIdleTime() != null) {
+            spec.maxIdleTime(overrides.getMaxIdleTime());
+        }
+        if (overrides.getMaxLifeTime() != null) {
+            spec.maxLifeTime(overrides.getMaxLifeTime());
+        }
+    }
+
+    /** Reactor Netty keys pools by the unresolved address it was asked to connect to. */
+    private static InetSocketAddress remoteHost(String upstream) {
+        int colon = upstream.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException(
+                    "application.http-client.upstreams keys must be host:port, got " + upstream);
+        }
+        return InetSocketAddress.createUnresolved(
+                upstream.substring(0, colon), Integer.parseInt(upstream.substring(colon + 1)));
+    }
+}
@@ -0,0 +1,62 @@
+package me.sathish.sathishapigateway.loadbalancer;
+
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import me.sathish.sathishapigateway.discovery.LastKnownRegistry;
+import me.sathish.sathishapigateway.discovery.PushedRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-service load balancer, created in each service's child context. Deliberately not a
+ * {@code @Configuration} so component scanning does not register it in the gateway's own context.
+ */
+public class BalancerConfiguration {
+
+    /**
+     * The default discovery client supplier with its cache, falling back to the last known registry
+     * before the first fetch, plus pushed registry changes.
+     */
+    @Bean
+    ServiceInstanceListSupplier discoveryClientServiceInstanceListSupplier(
+            ConfigurableApplicationContext context,
+            LastKnownRegistry lastKnownRegistry,
+            PushedRegistry pushedRegistry) {
+        return ServiceInstanceListSupplier.builder()
+                .withDiscoveryClient()
+                .with(
+                        (ignored, delegate) ->
+                                new LastKnownRegistryServiceInstanceListSupplier(
+                                        delegate, lastKnownRegistry))
+                .withCaching()
+                .with(
+                        (ignored, delegate) ->
+                                new PushedRegistryServiceInstanceListSupplier(
+                                        delegate, pushedRegistry))
+                .build(context);
+    }
+
+    @Bean
+    ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+            Environment environment,
+            LoadBalancerClientFactory loadBalancerClientFactory,
+            ApplicationProperties properties) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        ApplicationProperties.Balancing balancing =
+                properties.getLoadBalancer().forService(serviceId);
+        ObjectProvider<ServiceInstanceListSupplier> supplierProvider =
+                loadBalancerClientFactory.getLazyProvider(
+                        serviceId, ServiceInstanceListSupplier.class);
+        return switch (balancing.getStrategy()) {
+            case ROUND_ROBIN -> new RoundRobinLoadBalancer(supplierProvider, serviceId);
+            case PEAK_EWMA -> new PeakEwmaLoadBalancer(supplierProvider, serviceId, balancing);
+            case REPORTED_LOAD -> new ReportedLoadBalancer(supplierProvider, serviceId, balancing);
+        };
+    }
+}
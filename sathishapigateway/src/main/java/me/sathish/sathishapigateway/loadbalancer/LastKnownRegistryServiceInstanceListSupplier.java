@@ -0,0 +1,31 @@
+package me.sathish.sathishapigateway.loadbalancer;
+
+import java.util.List;
+import me.sathish.sathishapigateway.discovery.LastKnownRegistry;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+/**
+ * Stands in the last known instances for an empty discovery client answer until the registry has
+ * been fetched. It sits below the cache, which keeps them for its ttl once the fetched registry
+ * takes over.
+ */
+class LastKnownRegistryServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+    private final LastKnownRegistry lastKnownRegistry;
+
+    LastKnownRegistryServiceInstanceListSupplier(
+            ServiceInstanceListSupplier delegate, LastKnownRegistry lastKnownRegistry) {
+        super(delegate);
+        this.lastKnownRegistry = lastKnownRegistry;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return getDelegate()
+                .get()
+                .map(instances -> lastKnownRegistry.orLastKnown(getServiceId(), instances));
+    }
+}
@@ -0,0 +1,324 @@
+package me.sathish.sathishapigateway.loadbalancer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * Power-of-two-choices balancer weighing instances by peak EWMA latency times outstanding
+ * requests, so a slow instance (mid-GC, overloaded) quickly stops receiving its round-robin share.
+ *
+ * <p>Latency samples and in-flight counts come from the gateway's {@link LoadBalancerLifecycle}
+ * callbacks; this balancer registers itself as one. A sample above the current average replaces
+ * it outright, lower samples are blended in with a weight that decays over {@code decay-time}, and
+ * an idle average decays towards zero so a recovered instance is tried again. An instance failing
+ * {@code consecutive-failures} times in a row (connect errors or 5xx) is ejected for {@code
+ * base-ejection-time} times the number of ejections so far, up to {@code max-ejection-time};
+ * ejections are ignored while more than {@code max-ejection-percent} of the instances are out.
+ *
+ * <p>Stats are kept for the instances of the latest list only; an instance that drops out of it
+ * is forgotten once its outstanding requests have completed, and starts over if it comes back.
+ * Until then its requests keep counting against the same stats, so one that completes after the
+ * instance was re-listed cannot take a newer count below zero.
+ */
+@Slf4j
+public class PeakEwmaLoadBalancer
+        implements ReactorServiceInstanceLoadBalancer,
+                LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    /** Cost of an instance that has requests outstanding but no latency sample yet. */
+    private static final double UNMEASURED_PENALTY = 1e12;
+
+    private final String serviceId;
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final ApplicationProperties.Balancing settings;
+    private final LongSupplier nanoTime;
+    private final IntUnaryOperator random;
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    public PeakEwmaLoadBalancer(
+            ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+            String serviceId,
+            ApplicationProperties.Balancing settings) {
+        this(
+                serviceInstanceListSupplierProvider,
+                serviceId,
+                settings,
+                System::nanoTime,
+                bound -> ThreadLocalRandom.current().nextInt(bound));
+    }
+
+    PeakEwmaLoadBalancer(
+            ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+            String serviceId,
+            ApplicationProperties.Balancing settings,
+            LongSupplier nanoTime,
+            IntUnaryOperator random) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.settings = settings;
+        this.nanoTime = nanoTime;
+        this.random = random;
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier =
+                serviceInstanceListSupplierProvider.getIfAvailable(
+                        NoopServiceInstanceListSupplier::new);
+        return supplier.get(request)
+                .next()
+                .map(
+                        instances -> {
+                            Response<ServiceInstance> response = choose(instances);
+                            if (supplier instanceof SelectedInstanceCallback callback
+                                    && response.hasServer()) {
+                                callback.selectedServiceInstance(response.getServer());
+                            }
+                            return response;
+                        });
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        List<ServiceInstance> candidates = eligible(instances);
+        forgetRemoved(instances);
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+        long now = nanoTime.getAsLong();
+        int first = random.applyAsInt(candidates.size());
+        int second = random.applyAsInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(cost(a, now) <= cost(b, now) ? a : b);
+    }
+
+    double cost(ServiceInstance instance, long now) {
+        return statsOf(instance).cost(now, 0, 0);
+    }
+
+    private List<ServiceInstance> eligible(List<ServiceInstance> instances) {
+        long now = nanoTime.getAsLong();
+        int maxEjected = instances.size() * settings.getMaxEjectionPercent() / 100;
+        List<ServiceInstance> eligible = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!statsOf(instance).isEjected(now)) {
+                eligible.add(instance);
+            }
+        }
+        return instances.size() - eligible.size() > maxEjected || eligible.isEmpty()
+                ? instances
+                : eligible;
+    }
+
+    /**
+     * Drops the stats of unlisted instances with nothing in flight; eligible() has just added every
+     * listed one. Removal and onStartRequest() both go through the map's per-key locking, so a
+     * request is never counted on stats that are being dropped.
+     */
+    private void forgetRemoved(List<ServiceInstance> instances) {
+        if (stats.size() <= instances.size()) {
+            return;
+        }
+        Set<String> listed =
+                instances.stream().map(PeakEwmaLoadBalancer::keyOf).collect(Collectors.toSet());
+        for (String key : stats.keySet()) {
+            if (!listed.contains(key)) {
+                stats.computeIfPresent(
+                        key,
+                        (unlisted, instanceStats) -> instanceStats.isIdle() ? null : instanceStats);
+            }
+        }
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+        // nothing to do until an instance is chosen
+    }
+
+    @Override
+    public void onStartRequest(
+            Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() != null) {
+            request.getContext().setRequestStartTime(nanoTime.getAsLong());
+        }
+        if (lbResponse.hasServer()) {
+            stats.compute(
+                    keyOf(lbResponse.getServer()),
+                    (key, instanceStats) -> {
+                        InstanceStats started =
+                                instanceStats == null ? new InstanceStats() : instanceStats;
+                        started.inFlight.incrementAndGet();
+                        return started;
+                    });
+        }
+    }
+
+    @Override
+    public void onComplete(
+            CompletionContext<ResponseData, ServiceInstance, RequestDataContext>
+                    completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null
+                || !lbResponse.hasServer()
+                || completionContext.status() == CompletionContext.Status.DISCARD) {
+            return;
+        }
+        InstanceStats instanceStats = stats.get(keyOf(lbResponse.getServer()));
+        if (instanceStats == null) {
+            // started before this balancer was created
+            return;
+        }
+        instanceStats.inFlight.updateAndGet(count -> Math.max(0, count - 1));
+        long now = nanoTime.getAsLong();
+        RequestDataContext context = completionContext.getLoadBalancerRequest().getContext();
+        if (context != null && context.getRequestStartTime() != 0L) {
+            instanceStats.observe(now - context.getRequestStartTime(), now);
+        }
+        ResponseData clientResponse = completionContext.getClientResponse();
+        boolean failed =
+                completionContext.status() == CompletionContext.Status.FAILED
+                        || (clientResponse != null
+                                && clientResponse.getHttpStatus() != null
+                                && clientResponse.getHttpStatus().is5xxServerError());
+        if (failed) {
+            instanceStats.recordFailure(now, lbResponse.getServer());
+        } else {
+            instanceStats.recordSuccess();
+        }
+    }
+
+    InstanceStats statsOf(ServiceInstance instance) {
+        return stats.computeIfAbsent(keyOf(instance), key -> new InstanceStats());
+    }
+
+    int trackedInstances() {
+        return stats.size();
+    }
+
+    private static String keyOf(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    final class InstanceStats {
+
+        final AtomicInteger inFlight = new AtomicInteger();
+        private double ewmaNanos;
+        private long stampNanos;
+        private int consecutiveFailures;
+        private int ejections;
+        private long ejectedUntilNanos;
+
+        /**
+         * Latency times outstanding requests, counting {@code otherOutstanding} besides this
+         * gateway's own and taking {@code fallbackNanos} while there is no latency sample.
+         */
+        synchronized double cost(long now, double fallbackNanos, int otherOutstanding) {
+            int outstanding = Math.max(0, inFlight.get() + otherOutstanding);
+            double latency = decayed(now);
+            if (latency == 0) {
+                latency = fallbackNanos;
+            }
+            if (latency == 0 && outstanding > 0) {
+                return UNMEASURED_PENALTY + outstanding;
+            }
+            return latency * (outstanding + 1);
+        }
+
+        boolean isIdle() {
+            return inFlight.get() == 0;
+        }
+
+        synchronized void observe(long rttNanos, long now) {
+            double weight = weight(now);
+            ewmaNanos =
+                    rttNanos > ewmaNanos
+                            ? rttNanos
+                            : ewmaNanos * weight + rttNanos * (1 - weight);
+            stampNanos = now;
+        }
+
+        synchronized void recordSuccess() {
+            consecutiveFailures = 0;
+        }
+
+        synchronized void recordFailure(long now, ServiceInstance instance) {
+            if (++consecutiveFailures < settings.getConsecutiveFailures() || isEjected(now)) {
+                return;
+            }
+            Duration ejectionTime = settings.getBaseEjectionTime().multipliedBy(++ejections);
+            if (ejectionTime.compareTo(settings.getMaxEjectionTime()) > 0) {
+                ejectionTime = settings.getMaxEjectionTime();
+            }
+            ejectedUntilNanos = now + ejectionTime.toNanos();
+            consecutiveFailures = 0;
+            log.warn(
+                    "Ejecting {} instance {}:{} for {}",
+                    serviceId,
+                    instance.getHost(),
+                    instance.getPort(),
+                    ejectionTime);
+        }
+
+        synchronized boolean isEjected(long now) {
+            if (ejectedUntilNanos == 0) {
+                return false;
+            }
+            if (now - ejectedUntilNanos < 0) {
+                return true;
+            }
+            ejectedUntilNanos = 0;
+            return false;
+        }
+
+        private double decayed(long now) {
+            return ewmaNanos * weight(now);
+        }
+
+        /** Share of the current average still trusted {@code now}; falls off over decay-time. */
+        private double weight(long now) {
+            double elapsed = Math.max(0, now - stampNanos);
+            return Math.exp(-elapsed / settings.getDecayTime().toNanos());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package me.sathish.sathishapigateway.loadbalancer;
+
+import java.util.List;
+import me.sathish.sathishapigateway.discovery.PushedRegistry;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+/**
+ * Applies the registry changes pushed since the last fetch to the cached instance list on every
+ * lookup, so a change takes effect without waiting for the cache to expire.
+ */
+class PushedRegistryServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+    private final PushedRegistry pushedRegistry;
+
+    PushedRegistryServiceInstanceListSupplier(
+            ServiceInstanceListSupplier delegate, PushedRegistry pushedRegistry) {
+        super(delegate);
+        this.pushedRegistry = pushedRegistry;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return getDelegate()
+                .get()
+                .map(instances -> pushedRegistry.merge(getServiceId(), instances));
+    }
+}
@@ -0,0 +1,70 @@
+package me.sathish.sathishapigateway.loadbalancer;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongSupplier;
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+/**
+ * {@link PeakEwmaLoadBalancer} that also weighs the load instances report in their Eureka
+ * metadata, so a gateway that just started, with no latency samples of its own, avoids instances
+ * other gateways already saturate.
+ *
+ * <p>Requests in flight and requests waiting for a database connection, as reported, count as
+ * outstanding besides this gateway's own, and the reported p95 stands in for the latency until
+ * this gateway measured one. Reports are up to a publish interval plus a registry fetch old; an
+ * instance without them is balanced by peak EWMA alone.
+ */
+public class ReportedLoadBalancer extends PeakEwmaLoadBalancer {
+
+    // published by the services' LoadMetadataPublisher
+    static final String IN_FLIGHT = "load.in-flight";
+    static final String DB_PENDING = "load.db-pending";
+    static final String P95_MILLIS = "load.p95-ms";
+
+    public ReportedLoadBalancer(
+            ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+            String serviceId,
+            ApplicationProperties.Balancing settings) {
+        this(
+                serviceInstanceListSupplierProvider,
+                serviceId,
+                settings,
+                System::nanoTime,
+                bound -> ThreadLocalRandom.current().nextInt(bound));
+    }
+
+    ReportedLoadBalancer(
+            ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+            String serviceId,
+            ApplicationProperties.Balancing settings,
+            LongSupplier nanoTime,
+            IntUnaryOperator random) {
+        super(serviceInstanceListSupplierProvider, serviceId, settings, nanoTime, random);
+    }
+
+    @Override
+    double cost(ServiceInstance instance, long now) {
+        Map<String, String> metadata = instance.getMetadata();
+        int reportedOutstanding = reported(metadata, IN_FLIGHT) + reported(metadata, DB_PENDING);
+        double reportedNanos = TimeUnit.MILLISECONDS.toNanos(reported(metadata, P95_MILLIS));
+        return statsOf(instance).cost(now, reportedNanos, reportedOutstanding);
+    }
+
+    private static int reported(Map<String, String> metadata, String key) {
+        String value = metadata == null ? null : metadata.get(key);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package me.sathish.sathishapigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-process token bucket per route and client for the gateway's {@code RequestRateLimiter}
+ * filter, so admission control needs no Redis. Buckets refill continuously at {@code
+ * replenish-rate} tokens per second up to {@code burst-capacity}; a rejected request is answered
+ * with 429 and a Retry-After of the seconds until enough tokens are back.
+ *
+ * <p>Limits are set per route through the filter's {@code local-rate-limiter.*} args and default
+ * to {@code application.rate-limiter.*}. Each gateway replica enforces its own limits.
+ *
+ * <pre>
+ * spring.cloud.gateway.routes[0].filters[2].name=RequestRateLimiter
+ * spring.cloud.gateway.routes[0].filters[2].args.local-rate-limiter.replenish-rate=50
+ * spring.cloud.gateway.routes[0].filters[2].args.local-rate-limiter.burst-capacity=100
+ * </pre>
+ */
+@Component
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final ApplicationProperties.RateLimiter rateLimiter;
+    private final Config defaultConfig;
+    private final Cache<String, TokenBucket> buckets;
+    private final Map<String, Counter> rejectedByRoute = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public LocalRateLimiter(
+            ConfigurationService configurationService,
+            ApplicationProperties properties,
+            MeterRegistry meterRegistry) {
+        this(configurationService, properties, meterRegistry, System::nanoTime);
+    }
+
+    LocalRateLimiter(
+            ConfigurationService configurationService,
+            ApplicationProperties properties,
+            MeterRegistry meterRegistry,
+            LongSupplier nanoTime) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.rateLimiter = properties.getRateLimiter();
+        this.defaultConfig = newConfig();
+        this.buckets =
+                Caffeine.newBuilder()
+                        .maximumSize(rateLimiter.getMaxBuckets())
+                        .expireAfterAccess(rateLimiter.getIdleBucketExpiry())
+                        .build();
+        this.meterRegistry = meterRegistry;
+        this.nanoTime = nanoTime;
+    }
+
+    /** Route args are bound over this, so a route only names the limits it changes. */
+    @Override
+    public Config newConfig() {
+        return new Config()
+                .setReplenishRate(rateLimiter.getReplenishRate())
+                .setBurstCapacity(rateLimiter.getBurstCapacity());
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        long now = nanoTime.getAsLong();
+        TokenBucket bucket = buckets.get(routeId + ':' + id, key -> new TokenBucket(config, now));
+        long remaining = bucket.tryConsume(config, now);
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (config.isIncludeHeaders()) {
+            headers.put(REMAINING_HEADER, Long.toString(Math.max(remaining, 0)));
+            headers.put(REPLENISH_RATE_HEADER, Integer.toString(config.getReplenishRate()));
+            headers.put(BURST_CAPACITY_HEADER, Integer.toString(config.getBurstCapacity()));
+        }
+        if (remaining >= 0) {
+            return Mono.just(new Response(true, headers));
+        }
+        long retryAfterSeconds = (-remaining + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+        headers.put(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        rejected(routeId).increment();
+        return Mono.just(new Response(false, headers));
+    }
+
+    private Counter rejected(String routeId) {
+        return rejectedByRoute.computeIfAbsent(
+                routeId,
+                route ->
+                        Counter.builder("gateway.ratelimiter.rejected")
+                                .description("Requests answered with 429 by the local rate limiter")
+                                .tag("route", route)
+                                .register(meterRegistry));
+    }
+
+    /** Lock-free: every decision is one compare-and-set of an immutable state. */
+    static final class TokenBucket {
+
+        private final AtomicReference<State> state;
+
+        TokenBucket(Config config, long now) {
+            this.state = new AtomicReference<>(new State(config.getBurstCapacity(), now));
+        }
+
+        /**
+         * Takes {@code requested-tokens} if available and returns how many are left, or returns
+         * minus the nanoseconds until they will be and takes nothing.
+         */
+        long tryConsume(Config config, long now) {
+            while (true) {
+                State current = state.get();
+                double tokens = current.refill(config, now);
+                int requested = config.getRequestedTokens();
+                if (tokens < requested) {
+                    double missing = requested - tokens;
+                    double waitNanos = missing * NANOS_PER_SECOND / config.getReplenishRate();
+                    return -(long) Math.ceil(waitNanos);
+                }
+                State next = new State(tokens - requested, Math.max(now, current.refilledAt()));
+                if (state.compareAndSet(current, next)) {
+                    return (long) (tokens - requested);
+                }
+            }
+        }
+
+        private record State(double tokens, long refilledAt) {
+
+            double refill(Config config, long now) {
+                if (now <= refilledAt) {
+                    return tokens;
+                }
+                double elapsedSeconds = (double) (now - refilledAt) / NANOS_PER_SECOND;
+                return Math.min(
+                        tokens + elapsedSeconds * config.getReplenishRate(),
+                        config.getBurstCapacity());
+            }
+        }
+    }
+
+    @Data
+    @Accessors(chain = true)
+    public static class Config {
+        /** Tokens added per second. */
+        private int replenishRate;
+
+        /** Most tokens a bucket holds, i.e. the largest burst let through at once. */
+        private int burstCapacity;
+
+        /** Tokens each request costs. */
+        private int requestedTokens = 1;
+
+        /** Whether allowed responses carry the X-RateLimit-* headers. */
+        private boolean includeHeaders = true;
+    }
+}
@@ -0,0 +1,50 @@
+package me.sathish.sathishapigateway.web.controllers;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import java.util.concurrent.TimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Target of the routes' CircuitBreaker {@code fallbackUri}. Without a fallback the filter answers
+ * every counted 5xx with a bare 500, so the failure is turned back into the status the client
+ * would have seen: 503 while the breaker is open, the upstream's own 5xx, or 504 on a timeout.
+ */
+@RestController
+public class CircuitBreakerFallbackController {
+
+    @RequestMapping("/gateway/fallback")
+    ResponseEntity<ProblemDetail> fallback(ServerWebExchange exchange) {
+        Throwable failure = exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        HttpStatusCode status;
+        String detail;
+        if (failure instanceof CallNotPermittedException) {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+            detail = "Upstream is failing; requests are rejected until it recovers.";
+        } else if (failure instanceof HttpStatusCodeException upstream) {
+            status = upstream.getStatusCode();
+            detail = "Upstream failed with " + status.value() + ".";
+        } else if (failure instanceof ResponseStatusException gateway) {
+            status = gateway.getStatusCode();
+            detail = gateway.getReason();
+        } else if (failure instanceof TimeoutException) {
+            status = HttpStatus.GATEWAY_TIMEOUT;
+            detail = "Upstream did not answer in time.";
+        } else {
+            status = HttpStatus.BAD_GATEWAY;
+            detail = "Upstream could not be reached.";
+        }
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, detail);
+        problemDetail.setTitle("Upstream Unavailable");
+        return ResponseEntity.status(status).body(problemDetail);
+    }
+}
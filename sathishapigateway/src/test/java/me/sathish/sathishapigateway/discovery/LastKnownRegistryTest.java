@@ -0,0 +1,125 @@
+package me.sathish.sathishapigateway.discovery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import com.netflix.appinfo.DataCenterInfo;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.MyDataCenterInfo;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+
+class LastKnownRegistryTest {
+
+    private static final String SERVICE_ID = "SATHISHUSERSERVICE";
+
+    @TempDir Path directory;
+
+    private final ApplicationProperties properties = new ApplicationProperties();
+    private Path path;
+
+    @BeforeEach
+    void setUp() {
+        path = directory.resolve("registry.bin");
+        properties.getRegistryFile().setPath(path);
+    }
+
+    @Test
+    void shouldStandInUpInstancesForAnEmptyAnswerUntilTheFirstFetch() throws IOException {
+        RegistryFile.write(
+                path,
+                List.of(
+                        instance("host-1:sathishuserservice:9001", InstanceInfo.InstanceStatus.UP),
+                        instance(
+                                "host-2:sathishuserservice:9001",
+                                InstanceInfo.InstanceStatus.DOWN)),
+                Instant.now());
+        LastKnownRegistry lastKnownRegistry = new LastKnownRegistry(properties);
+        ServiceInstance fetched =
+                new DefaultServiceInstance(
+                        "host-3:sathishuserservice:9001", SERVICE_ID, "host-3", 9001, false);
+
+        assertThat(lastKnownRegistry.orLastKnown(SERVICE_ID.toLowerCase(), List.of()))
+                .extracting(ServiceInstance::getInstanceId, ServiceInstance::getPort)
+                .containsExactly(tuple("host-1:sathishuserservice:9001", 9001));
+        assertThat(lastKnownRegistry.orLastKnown(SERVICE_ID, List.of(fetched)))
+                .containsExactly(fetched);
+
+        lastKnownRegistry.onFetched(new HeartbeatEvent(eurekaClient(), 1));
+
+        assertThat(lastKnownRegistry.orLastKnown(SERVICE_ID, List.of())).isEmpty();
+    }
+
+    @Test
+    void shouldWriteTheFetchedRegistryWhenItChanged() throws IOException {
+        LastKnownRegistry lastKnownRegistry = new LastKnownRegistry(properties);
+        EurekaClient eurekaClient =
+                eurekaClient(
+                        instance("host-1:sathishuserservice:9001", InstanceInfo.InstanceStatus.UP));
+
+        lastKnownRegistry.onFetched(new HeartbeatEvent(eurekaClient, 1));
+        assertThat(RegistryFile.read(path).instances())
+                .extracting(InstanceInfo::getInstanceId)
+                .containsExactly("host-1:sathishuserservice:9001");
+
+        Files.delete(path);
+        lastKnownRegistry.onFetched(new HeartbeatEvent(eurekaClient, 2));
+        assertThat(path).doesNotExist();
+
+        lastKnownRegistry.onFetched(new HeartbeatEvent(eurekaClient(), 3));
+        assertThat(path).doesNotExist();
+    }
+
+    @Test
+    void shouldIgnoreAnUnreadableFile() throws IOException {
+        Files.write(path, new byte[] {1, 2, 3});
+
+        assertThat(new LastKnownRegistry(properties).orLastKnown(SERVICE_ID, List.of()))
+                .isEmpty();
+    }
+
+    private static EurekaClient eurekaClient(InstanceInfo... instances) {
+        Applications applications = new Applications();
+        if (instances.length > 0) {
+            Application application = new Application(SERVICE_ID);
+            for (InstanceInfo instance : instances) {
+                application.addInstance(instance);
+            }
+            applications.addApplication(application);
+        }
+        EurekaClient eurekaClient = mock(EurekaClient.class);
+        given(eurekaClient.getApplications()).willReturn(applications);
+        return eurekaClient;
+    }
+
+    private static InstanceInfo instance(String instanceId, InstanceInfo.InstanceStatus status) {
+        String host = instanceId.substring(0, instanceId.indexOf(':'));
+        return InstanceInfo.Builder.newBuilder()
+                .setAppName(SERVICE_ID)
+                .setInstanceId(instanceId)
+                .setHostName(host)
+                .setIPAddr(host)
+                .setVIPAddress("sathishuserservice")
+                .setStatus(status)
+                .setPort(9001)
+                .setDataCenterInfo(new MyDataCenterInfo(DataCenterInfo.Name.MyOwn))
+                .setMetadata(Map.of("zone", "zone-1"))
+                .build();
+    }
+}
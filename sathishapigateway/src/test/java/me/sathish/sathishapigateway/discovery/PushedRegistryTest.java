@@ -0,0 +1,132 @@
+package me.sathish.sathishapigateway.discovery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+class PushedRegistryTest {
+
+    private static final String SERVICE_ID = "SATHISHUSERSERVICE";
+    private static final Duration HOLD_TIME = Duration.ofSeconds(90);
+
+    private static final ServiceInstance INSTANCE_1 = instance("host-1:sathishuserservice:9001");
+    private static final ServiceInstance INSTANCE_2 = instance("host-2:sathishuserservice:9001");
+
+    private final AtomicLong clock = new AtomicLong();
+    private final PushedRegistry pushedRegistry = new PushedRegistry(HOLD_TIME, clock::get);
+
+    @Test
+    void shouldDropCancelledInstanceUntilHoldTimeLapses() {
+        pushedRegistry.apply(cancelled(1, INSTANCE_2));
+
+        assertThat(pushedRegistry.merge(SERVICE_ID, List.of(INSTANCE_1, INSTANCE_2)))
+                .containsExactly(INSTANCE_1);
+
+        clock.addAndGet(HOLD_TIME.toNanos());
+        assertThat(pushedRegistry.merge(SERVICE_ID, List.of(INSTANCE_1, INSTANCE_2)))
+                .containsExactly(INSTANCE_1, INSTANCE_2);
+    }
+
+    @Test
+    void shouldDropInstanceNoLongerUp() {
+        pushedRegistry.apply(registered(1, INSTANCE_2, "DOWN"));
+
+        assertThat(pushedRegistry.merge(SERVICE_ID, List.of(INSTANCE_1, INSTANCE_2)))
+                .containsExactly(INSTANCE_1);
+    }
+
+    @Test
+    void shouldAddRegisteredInstanceBeforeItIsFetched() {
+        pushedRegistry.apply(registered(1, INSTANCE_2, "UP"));
+
+        assertThat(pushedRegistry.merge(SERVICE_ID.toLowerCase(), List.of(INSTANCE_1)))
+                .extracting(ServiceInstance::getInstanceId)
+                .containsExactly(INSTANCE_1.getInstanceId(), INSTANCE_2.getInstanceId());
+        assertThat(pushedRegistry.merge("SATHISHACCOUNTMNGMNT", List.of())).isEmpty();
+    }
+
+    @Test
+    void shouldIgnoreChangesAlreadyApplied() {
+        pushedRegistry.apply(registered(2, INSTANCE_2, "UP"));
+
+        assertThat(pushedRegistry.apply(cancelled(1, INSTANCE_2))).isFalse();
+        assertThat(pushedRegistry.apply(cancelled(2, INSTANCE_2))).isFalse();
+        assertThat(pushedRegistry.merge(SERVICE_ID, List.of(INSTANCE_2)))
+                .extracting(ServiceInstance::getInstanceId)
+                .containsExactly(INSTANCE_2.getInstanceId());
+        assertThat(pushedRegistry.lastEventId("server-1")).hasValue("server-1:2");
+        assertThat(pushedRegistry.lastEventId("server-2")).isEmpty();
+    }
+
+    @Test
+    void shouldFallBackToFetchedRegistryOnReset() {
+        pushedRegistry.apply(cancelled(1, INSTANCE_2));
+
+        pushedRegistry.reset("server-1", 40);
+
+        assertThat(pushedRegistry.merge(SERVICE_ID, List.of(INSTANCE_1, INSTANCE_2)))
+                .containsExactly(INSTANCE_1, INSTANCE_2);
+        assertThat(pushedRegistry.lastEventId("server-1")).hasValue("server-1:40");
+    }
+
+    @Test
+    void shouldKeepOtherServersOverridesOnReset() {
+        pushedRegistry.apply(cancelled(1, INSTANCE_1));
+        pushedRegistry.apply(cancelled("server-2", 1, INSTANCE_2));
+
+        pushedRegistry.reset("server-1", 40);
+
+        assertThat(pushedRegistry.merge(SERVICE_ID, List.of(INSTANCE_1, INSTANCE_2)))
+                .containsExactly(INSTANCE_1);
+        assertThat(pushedRegistry.lastEventId("server-2")).hasValue("server-2:1");
+    }
+
+    private static ServiceInstance instance(String instanceId) {
+        return new DefaultServiceInstance(
+                instanceId,
+                SERVICE_ID,
+                instanceId.substring(0, instanceId.indexOf(':')),
+                9001,
+                false);
+    }
+
+    private static RegistryChange registered(
+            long version, ServiceInstance instance, String status) {
+        return new RegistryChange(
+                "server-1",
+                version,
+                RegistryChange.Type.REGISTERED,
+                SERVICE_ID,
+                instance.getInstanceId(),
+                status,
+                instance.getHost(),
+                instance.getPort(),
+                false,
+                Map.of());
+    }
+
+    private static RegistryChange cancelled(long version, ServiceInstance instance) {
+        return cancelled("server-1", version, instance);
+    }
+
+    private static RegistryChange cancelled(
+            String server, long version, ServiceInstance instance) {
+        return new RegistryChange(
+                server,
+                version,
+                RegistryChange.Type.CANCELLED,
+                SERVICE_ID,
+                instance.getInstanceId(),
+                null,
+                null,
+                0,
+                false,
+                null);
+    }
+}
@@ -0,0 +1,105 @@
+package me.sathish.sathishapigateway.discovery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class RegistryChangeSubscriberTest {
+
+    private static final String FIRST_STREAM =
+            """
+            id:server-1:7
+            event:reset
+            data:{"server":"server-1","version":7}
+
+            :
+
+            id:server-1:8
+            event:change
+            data:{"server":"server-1","version":8,"type":"CANCELLED","app":"SATHISHUSERSERVICE",\
+            "instanceId":"host-2:sathishuserservice:9001"}
+
+            """;
+
+    private static final String RESUMED_STREAM =
+            """
+            id:server-1:9
+            event:change
+            data:{"server":"server-1","version":9,"type":"REGISTERED","app":"SATHISHUSERSERVICE",\
+            "instanceId":"host-3:sathishuserservice:9001","status":"UP","host":"host-3",\
+            "port":9001,"secure":false,"metadata":{"zone":"a"}}
+
+            """;
+
+    @Test
+    void shouldApplyChangesAndResumeAfterTheLastOne() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getRegistryChanges().setReconnectDelay(Duration.ofMillis(10));
+        PushedRegistry pushedRegistry = new PushedRegistry(properties);
+        List<String> lastEventIds = new CopyOnWriteArrayList<>();
+        AtomicInteger requests = new AtomicInteger();
+        WebClient.Builder webClient =
+                WebClient.builder()
+                        .exchangeFunction(
+                                request -> {
+                                    lastEventIds.add(
+                                            String.valueOf(
+                                                    request.headers().getFirst("Last-Event-ID")));
+                                    return Mono.just(
+                                            ClientResponse.create(HttpStatus.OK)
+                                                    .header(
+                                                            HttpHeaders.CONTENT_TYPE,
+                                                            MediaType.TEXT_EVENT_STREAM_VALUE)
+                                                    .body(
+                                                            requests.getAndIncrement() == 0
+                                                                    ? FIRST_STREAM
+                                                                    : RESUMED_STREAM)
+                                                    .build());
+                                });
+        RegistryChangeSubscriber subscriber =
+                new RegistryChangeSubscriber(webClient, pushedRegistry, properties);
+
+        StepVerifier.create(
+                        subscriber
+                                .changes(URI.create("http://localhost:8010/registry/changes"))
+                                .filter(event -> event.data() != null)
+                                .take(3))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        assertThat(lastEventIds).startsWith("null", "server-1:8");
+        assertThat(
+                        pushedRegistry.merge(
+                                "SATHISHUSERSERVICE",
+                                List.of(
+                                        instance("host-1:sathishuserservice:9001"),
+                                        instance("host-2:sathishuserservice:9001"))))
+                .extracting(ServiceInstance::getInstanceId)
+                .containsExactly(
+                        "host-1:sathishuserservice:9001", "host-3:sathishuserservice:9001");
+    }
+
+    private static ServiceInstance instance(String instanceId) {
+        return new DefaultServiceInstance(
+                instanceId,
+                "SATHISHUSERSERVICE",
+                instanceId.substring(0, instanceId.indexOf(':')),
+                9001,
+                false);
+    }
+}
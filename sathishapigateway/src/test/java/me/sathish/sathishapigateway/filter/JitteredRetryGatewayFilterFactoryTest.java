@@ -0,0 +1,127 @@
+package me.sathish.sathishapigateway.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+class JitteredRetryGatewayFilterFactoryTest {
+
+    private final JitteredRetryGatewayFilterFactory factory =
+            new JitteredRetryGatewayFilterFactory();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void shouldRetryIdempotentRequestOnUnavailableUpstream() {
+        GatewayFilter filter = factory.apply(new JitteredRetryGatewayFilterFactory.Config());
+        MockServerWebExchange exchange =
+                MockServerWebExchange.from(MockServerHttpRequest.get("/api/users"));
+
+        filter.filter(exchange, respondingWith(HttpStatus.SERVICE_UNAVAILABLE, 2)).block();
+
+        assertThat(upstreamCalls).hasValue(3);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void shouldRetryConnectErrors() {
+        GatewayFilter filter = factory.apply(new JitteredRetryGatewayFilterFactory.Config());
+        MockServerWebExchange exchange =
+                MockServerWebExchange.from(MockServerHttpRequest.get("/api/account/1"));
+        GatewayFilterChain refused =
+                ex ->
+                        Mono.defer(
+                                () -> {
+                                    upstreamCalls.incrementAndGet();
+                                    return Mono.error(new ConnectException("Connection refused"));
+                                });
+
+        Mono<Void> result = filter.filter(exchange, refused);
+
+        assertThat(result.onErrorResume(IOException.class, e -> Mono.empty()).block()).isNull();
+        assertThat(upstreamCalls).hasValue(3);
+    }
+
+    @Test
+    void shouldRetryPoolAcquireTimeoutsWithoutListingEveryTimeout() {
+        JitteredRetryGatewayFilterFactory.Config config =
+                new JitteredRetryGatewayFilterFactory.Config();
+
+        assertThat(config.getExceptions())
+                .extracting(Class::getSimpleName)
+                .containsExactly("ConnectException", "PoolAcquireTimeoutException");
+    }
+
+    @Test
+    void shouldNotRetryResponseTimeouts() {
+        GatewayFilter filter = factory.apply(new JitteredRetryGatewayFilterFactory.Config());
+        MockServerWebExchange exchange =
+                MockServerWebExchange.from(MockServerHttpRequest.get("/api/users"));
+        // how NettyRoutingFilter reports a route's response-timeout
+        GatewayFilterChain timedOut =
+                ex ->
+                        Mono.defer(
+                                () -> {
+                                    upstreamCalls.incrementAndGet();
+                                    return Mono.error(
+                                            new ResponseStatusException(
+                                                    HttpStatus.GATEWAY_TIMEOUT,
+                                                    "Response took longer than timeout: PT3S",
+                                                    new TimeoutException(
+                                                            "Response took longer than timeout")));
+                                });
+
+        Mono<Void> result = filter.filter(exchange, timedOut);
+
+        assertThat(
+                        result.onErrorResume(ResponseStatusException.class, e -> Mono.empty())
+                                .block())
+                .isNull();
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void shouldNotRetryMethodsOutsideTheConfiguredOnes() {
+        GatewayFilter filter = factory.apply(new JitteredRetryGatewayFilterFactory.Config());
+        MockServerWebExchange exchange =
+                MockServerWebExchange.from(MockServerHttpRequest.delete("/api/users/1"));
+
+        filter.filter(exchange, respondingWith(HttpStatus.SERVICE_UNAVAILABLE, 2)).block();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(exchange.getResponse().getStatusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void shouldRejectNonIdempotentMethods() {
+        JitteredRetryGatewayFilterFactory.Config config =
+                new JitteredRetryGatewayFilterFactory.Config();
+        config.setMethods(HttpMethod.GET, HttpMethod.POST);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> factory.apply(config));
+    }
+
+    /** Answers {@code failures} times with {@code status}, then 200; retries resubscribe. */
+    private GatewayFilterChain respondingWith(HttpStatus status, int failures) {
+        return exchange ->
+                Mono.fromRunnable(
+                        () -> {
+                            int call = upstreamCalls.incrementAndGet();
+                            exchange.getResponse()
+                                    .setStatusCode(call <= failures ? status : HttpStatus.OK);
+                        });
+    }
+}
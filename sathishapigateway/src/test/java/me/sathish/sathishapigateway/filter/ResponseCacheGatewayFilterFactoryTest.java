@@ -0,0 +1,173 @@
+package me.sathish.sathishapigateway.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.sathish.sathishapigateway.cache.ResponseCache;
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties properties = new ApplicationProperties();
+        ResponseCache responseCache = new ResponseCache(properties, meterRegistry);
+        filter =
+                new ResponseCacheGatewayFilterFactory(responseCache, properties)
+                        .apply(new ResponseCacheGatewayFilterFactory.Config());
+    }
+
+    @Test
+    void shouldServeRepeatedRequestFromCache() {
+        MockServerWebExchange first = get("/api/users?pageNo=1");
+        filter.filter(first, upstream(Duration.ZERO, null)).block();
+        MockServerWebExchange second = get("/api/users?pageNo=1");
+        filter.filter(second, upstream(Duration.ZERO, null)).block();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("users");
+        assertThat(second.getResponse().getHeaders().getETag()).isNotNull();
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWhenETagMatches() {
+        MockServerWebExchange first = get("/api/users");
+        filter.filter(first, upstream(Duration.ZERO, null)).block();
+        String etag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidate =
+                MockServerWebExchange.from(
+                        MockServerHttpRequest.get("/api/users").ifNoneMatch(etag));
+        filter.filter(revalidate, upstream(Duration.ZERO, null)).block();
+
+        assertThat(revalidate.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void shouldCollapseConcurrentIdenticalRequests() {
+        MockServerWebExchange leader = get("/api/users");
+        MockServerWebExchange follower = get("/api/users");
+
+        Mono.when(
+                        filter.filter(leader, upstream(Duration.ofMillis(200), null)),
+                        filter.filter(follower, upstream(Duration.ofMillis(200), null)))
+                .block();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("users");
+        assertThat(meterRegistry.get("gateway.response.cache.coalesced").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotStoreNoStoreResponses() {
+        filter.filter(get("/api/users"), upstream(Duration.ZERO, "no-store")).block();
+        filter.filter(get("/api/users"), upstream(Duration.ZERO, "no-store")).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldBypassCacheForNoCacheRequests() {
+        filter.filter(get("/api/users"), upstream(Duration.ZERO, null)).block();
+        MockServerWebExchange noCache =
+                MockServerWebExchange.from(
+                        MockServerHttpRequest.get("/api/users")
+                                .header(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        filter.filter(noCache, upstream(Duration.ZERO, null)).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldBypassCacheForClientsPinnedToPrimary() {
+        filter.filter(get("/api/users"), upstream(Duration.ZERO, null)).block();
+        MockServerWebExchange pinned =
+                MockServerWebExchange.from(
+                        MockServerHttpRequest.get("/api/users")
+                                .header(
+                                        ResponseCacheGatewayFilterFactory.READ_YOUR_WRITES_HEADER,
+                                        "1767225600000.signature"));
+        filter.filter(pinned, upstream(Duration.ZERO, null)).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(pinned.getResponse().getBodyAsString().block()).isEqualTo("users");
+    }
+
+    @Test
+    void shouldStreamChunkedBodyOverMaxEntrySizeWithoutCachingIt() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getResponseCache().setMaxEntrySize(DataSize.ofBytes(8));
+        GatewayFilter smallEntries =
+                new ResponseCacheGatewayFilterFactory(
+                                new ResponseCache(properties, meterRegistry), properties)
+                        .apply(new ResponseCacheGatewayFilterFactory.Config());
+        GatewayFilterChain chunked =
+                exchange -> {
+                    upstreamCalls.incrementAndGet();
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.setStatusCode(HttpStatus.OK);
+                    // no Content-Length, like a chunked or compressed upstream response
+                    Flux<DataBuffer> chunks =
+                            Flux.just("users-", "page-", "one")
+                                    .map(chunk -> chunk.getBytes(StandardCharsets.UTF_8))
+                                    .map(response.bufferFactory()::wrap);
+                    return response.writeWith(chunks);
+                };
+
+        MockServerWebExchange first = get("/api/users");
+        smallEntries.filter(first, chunked).block();
+        MockServerWebExchange second = get("/api/users");
+        smallEntries.filter(second, chunked).block();
+
+        assertThat(first.getResponse().getBodyAsString().block()).isEqualTo("users-page-one");
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("users-page-one");
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    private static MockServerWebExchange get(String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+    }
+
+    private GatewayFilterChain upstream(Duration latency, String cacheControl) {
+        return exchange ->
+                Mono.delay(latency).then(Mono.defer(() -> respond(exchange, cacheControl)));
+    }
+
+    private Mono<Void> respond(ServerWebExchange exchange, String cacheControl) {
+        upstreamCalls.incrementAndGet();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        if (cacheControl != null) {
+            response.getHeaders().setCacheControl(cacheControl);
+        }
+        byte[] body = "users".getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
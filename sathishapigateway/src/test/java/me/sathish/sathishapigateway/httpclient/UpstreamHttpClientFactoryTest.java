@@ -0,0 +1,66 @@
+package me.sathish.sathishapigateway.httpclient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetSocketAddress;
+import java.util.List;
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+class UpstreamHttpClientFactoryTest {
+
+    private HttpClientProperties httpClientProperties;
+    private ApplicationProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        httpClientProperties = new HttpClientProperties();
+        httpClientProperties.getPool().setType(HttpClientProperties.Pool.PoolType.FIXED);
+        httpClientProperties.getPool().setMaxConnections(200);
+        properties = new ApplicationProperties();
+    }
+
+    @Test
+    void shouldApplyPerUpstreamOverridesOnTopOfPoolDefaults() {
+        ApplicationProperties.Pool overrides = new ApplicationProperties.Pool();
+        overrides.setMaxConnections(50);
+        properties.getHttpClient().getUpstreams().put("localhost:9080", overrides);
+
+        ConnectionProvider provider = build().configuration().connectionProvider();
+
+        assertThat(provider).isInstanceOf(TimedConnectionProvider.class);
+        assertThat(provider.maxConnections()).isEqualTo(200);
+        assertThat(provider.maxConnectionsPerHost())
+                .containsEntry(InetSocketAddress.createUnresolved("localhost", 9080), 50);
+    }
+
+    @Test
+    void shouldTalkH2cWhenEnabled() {
+        assertThat(build().configuration().protocols()).containsExactly(HttpProtocol.HTTP11);
+
+        properties.getHttpClient().setH2c(true);
+
+        assertThat(build().configuration().protocols()).containsExactly(HttpProtocol.H2C);
+    }
+
+    private HttpClient build() {
+        ServerProperties serverProperties = new ServerProperties();
+        return new UpstreamHttpClientFactory(
+                        httpClientProperties,
+                        serverProperties,
+                        new HttpClientSslConfigurer(
+                                httpClientProperties.getSsl(), serverProperties),
+                        List.of(),
+                        properties,
+                        new SimpleMeterRegistry())
+                .createInstance();
+    }
+}
@@ -0,0 +1,225 @@
+package me.sathish.sathishapigateway.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.LinkedMultiValueMap;
+
+/**
+ * Drives the balancers through a simulated clock: requests arrive at a fixed rate and complete
+ * after their instance's latency, so the comparison is deterministic and runs in milliseconds.
+ */
+class PeakEwmaLoadBalancerTest {
+
+    private static final String SERVICE_ID = "SATHISHUSERSERVICE";
+    private static final int REQUESTS = 5000;
+    private static final long ARRIVAL_INTERVAL_NANOS = Duration.ofMillis(5).toNanos();
+
+    private static final ServiceInstance FAST_1 = instance("fast-1", "10.0.0.1");
+    private static final ServiceInstance FAST_2 = instance("fast-2", "10.0.0.2");
+    private static final ServiceInstance SLOW = instance("slow", "10.0.0.3");
+    private static final Map<String, Duration> LATENCIES =
+            Map.of(
+                    "fast-1", Duration.ofMillis(10),
+                    "fast-2", Duration.ofMillis(12),
+                    "slow", Duration.ofMillis(300));
+
+    private final AtomicLong clock = new AtomicLong();
+    private ApplicationProperties.Balancing settings;
+
+    @BeforeEach
+    void setUp() {
+        clock.set(0);
+        settings = new ApplicationProperties.Balancing();
+    }
+
+    @Test
+    void shouldKeepP99NearHealthyLatencyWhenOneInstanceIsSlow() {
+        Duration roundRobin =
+                p99(
+                        new RoundRobinLoadBalancer(
+                                ServiceInstanceListSuppliers.toProvider(
+                                        SERVICE_ID, FAST_1, FAST_2, SLOW),
+                                SERVICE_ID,
+                                0));
+        Duration peakEwma = p99(peakEwma(FAST_1, FAST_2, SLOW));
+
+        assertThat(roundRobin).isEqualTo(Duration.ofMillis(300));
+        assertThat(peakEwma).isLessThanOrEqualTo(Duration.ofMillis(12));
+    }
+
+    @Test
+    void shouldEjectInstanceAfterConsecutiveFailures() {
+        ServiceInstance failing = instance("failing", "10.0.0.4");
+        PeakEwmaLoadBalancer balancer = peakEwma(FAST_1, failing);
+
+        for (int i = 0; i < settings.getConsecutiveFailures(); i++) {
+            complete(balancer, failing, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(balancer.choose(List.of(FAST_1, failing)).getServer()).isEqualTo(FAST_1);
+        }
+        clock.addAndGet(settings.getBaseEjectionTime().toNanos());
+        assertThat(balancer.statsOf(failing).isEjected(clock.get())).isFalse();
+    }
+
+    @Test
+    void shouldNotEjectMoreThanMaxEjectionPercent() {
+        ServiceInstance failing = instance("failing", "10.0.0.4");
+        PeakEwmaLoadBalancer balancer = peakEwma(FAST_1, failing);
+
+        for (int i = 0; i < settings.getConsecutiveFailures(); i++) {
+            complete(balancer, FAST_1, HttpStatus.BAD_GATEWAY);
+            complete(balancer, failing, HttpStatus.BAD_GATEWAY);
+        }
+
+        assertThat(balancer.choose(List.of(FAST_1, failing)).hasServer()).isTrue();
+        assertThat(balancer.statsOf(FAST_1).isEjected(clock.get())).isTrue();
+        assertThat(balancer.statsOf(failing).isEjected(clock.get())).isTrue();
+    }
+
+    @Test
+    void shouldForgetInstancesThatLeftTheList() {
+        ServiceInstance failing = instance("failing", "10.0.0.4");
+        PeakEwmaLoadBalancer balancer = peakEwma(FAST_1, failing);
+        for (int i = 0; i < settings.getConsecutiveFailures(); i++) {
+            complete(balancer, failing, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+        Response<ServiceInstance> inFlight = new DefaultResponse(failing);
+        balancer.onStartRequest(request, inFlight);
+
+        balancer.choose(List.of(FAST_1, FAST_2));
+        assertThat(balancer.trackedInstances()).isEqualTo(3);
+        balancer.onComplete(
+                new CompletionContext<>(CompletionContext.Status.FAILED, request, inFlight));
+        balancer.choose(List.of(FAST_1, FAST_2));
+
+        assertThat(balancer.trackedInstances()).isEqualTo(2);
+        assertThat(balancer.statsOf(failing).isEjected(clock.get())).isFalse();
+        assertThat(balancer.statsOf(failing).inFlight).hasValue(0);
+    }
+
+    @Test
+    void shouldKeepInFlightCountOfInstanceThatLeftAndCameBack() {
+        PeakEwmaLoadBalancer balancer = peakEwma(FAST_1, FAST_2);
+        clock.set(Duration.ofMillis(1).toNanos());
+        Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+        Response<ServiceInstance> response = new DefaultResponse(FAST_2);
+        balancer.onStartRequest(request, response);
+
+        balancer.choose(List.of(FAST_1, SLOW));
+        balancer.choose(List.of(FAST_1, FAST_2));
+        clock.addAndGet(Duration.ofMillis(10).toNanos());
+        balancer.onComplete(
+                new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+
+        assertThat(balancer.statsOf(FAST_2).inFlight).hasValue(0);
+        assertThat(balancer.cost(FAST_2, clock.get())).isPositive();
+    }
+
+    private PeakEwmaLoadBalancer peakEwma(ServiceInstance... instances) {
+        Random random = new Random(42);
+        return new PeakEwmaLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider(SERVICE_ID, instances),
+                SERVICE_ID,
+                settings,
+                clock::get,
+                random::nextInt);
+    }
+
+    private void complete(
+            PeakEwmaLoadBalancer balancer, ServiceInstance instance, HttpStatus status) {
+        Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        balancer.onStartRequest(request, response);
+        clock.addAndGet(Duration.ofMillis(1).toNanos());
+        balancer.onComplete(
+                new CompletionContext<>(
+                        CompletionContext.Status.SUCCESS,
+                        request,
+                        response,
+                        new ResponseData(
+                                status, new HttpHeaders(), new LinkedMultiValueMap<>(), null)));
+    }
+
+    private Duration p99(ReactorServiceInstanceLoadBalancer balancer) {
+        PriorityQueue<InFlight> pending =
+                new PriorityQueue<>(Comparator.comparingLong(InFlight::completesAt));
+        List<Long> latencies = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            long arrival = i * ARRIVAL_INTERVAL_NANOS;
+            drain(balancer, pending, latencies, arrival);
+            clock.set(arrival);
+            Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+            Response<ServiceInstance> response = balancer.choose(request).block();
+            if (balancer instanceof PeakEwmaLoadBalancer lifecycle) {
+                lifecycle.onStartRequest(request, response);
+            }
+            long latency = LATENCIES.get(response.getServer().getInstanceId()).toNanos();
+            pending.add(new InFlight(request, response, arrival, arrival + latency));
+        }
+        drain(balancer, pending, latencies, Long.MAX_VALUE);
+        latencies.sort(null);
+        return Duration.ofNanos(latencies.get((int) Math.ceil(REQUESTS * 0.99) - 1));
+    }
+
+    private void drain(
+            ReactorServiceInstanceLoadBalancer balancer,
+            PriorityQueue<InFlight> pending,
+            List<Long> latencies,
+            long until) {
+        while (!pending.isEmpty() && pending.peek().completesAt() <= until) {
+            InFlight done = pending.poll();
+            clock.set(done.completesAt());
+            latencies.add(done.completesAt() - done.startedAt());
+            if (balancer instanceof PeakEwmaLoadBalancer lifecycle) {
+                lifecycle.onComplete(
+                        new CompletionContext<>(
+                                CompletionContext.Status.SUCCESS,
+                                done.request(),
+                                done.response(),
+                                new ResponseData(
+                                        HttpStatus.OK,
+                                        new HttpHeaders(),
+                                        new LinkedMultiValueMap<>(),
+                                        null)));
+            }
+        }
+    }
+
+    private static ServiceInstance instance(String instanceId, String host) {
+        return new DefaultServiceInstance(instanceId, SERVICE_ID, host, 8080, false);
+    }
+
+    private record InFlight(
+            Request<RequestDataContext> request,
+            Response<ServiceInstance> response,
+            long startedAt,
+            long completesAt) {}
+}
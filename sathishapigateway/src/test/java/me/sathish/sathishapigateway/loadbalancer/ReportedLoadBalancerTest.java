@@ -0,0 +1,109 @@
+package me.sathish.sathishapigateway.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.LinkedMultiValueMap;
+
+class ReportedLoadBalancerTest {
+
+    private static final String SERVICE_ID = "SATHISHUSERSERVICE";
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ApplicationProperties.Balancing settings = new ApplicationProperties.Balancing();
+
+    @Test
+    void shouldAvoidReportedSaturatedInstancesWithoutSamplesOfItsOwn() {
+        ServiceInstance saturated =
+                instance("saturated", "10.0.0.1", reported("40", "8", "800"));
+        ServiceInstance idle = instance("idle", "10.0.0.2", reported("0", "0", "10"));
+        ReportedLoadBalancer balancer = reportedLoad(saturated, idle);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(balancer.choose(List.of(saturated, idle)).getServer()).isEqualTo(idle);
+        }
+    }
+
+    @Test
+    void shouldPreferItsOwnLatencySamplesToTheReportedP95() {
+        ServiceInstance measured = instance("measured", "10.0.0.1", reported("0", "0", "5"));
+        ServiceInstance unmeasured = instance("unmeasured", "10.0.0.2", reported("0", "0", "50"));
+        ReportedLoadBalancer balancer = reportedLoad(measured, unmeasured);
+
+        // a request start time of 0 reads as none
+        clock.set(Duration.ofSeconds(1).toNanos());
+        complete(balancer, measured, Duration.ofMillis(300));
+
+        assertThat(balancer.choose(List.of(measured, unmeasured)).getServer())
+                .isEqualTo(unmeasured);
+    }
+
+    @Test
+    void shouldIgnoreMissingOrMalformedReports() {
+        ServiceInstance malformed = instance("malformed", "10.0.0.1", reported("many", "-3", ""));
+        ServiceInstance loaded = instance("loaded", "10.0.0.2", reported("5", "0", "20"));
+        ReportedLoadBalancer balancer = reportedLoad(malformed, loaded);
+
+        assertThat(balancer.cost(malformed, clock.get())).isZero();
+        assertThat(balancer.cost(instance("plain", "10.0.0.3", Map.of()), clock.get())).isZero();
+        assertThat(balancer.choose(List.of(malformed, loaded)).getServer()).isEqualTo(malformed);
+    }
+
+    private ReportedLoadBalancer reportedLoad(ServiceInstance... instances) {
+        Random random = new Random(42);
+        return new ReportedLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider(SERVICE_ID, instances),
+                SERVICE_ID,
+                settings,
+                clock::get,
+                random::nextInt);
+    }
+
+    private void complete(
+            ReportedLoadBalancer balancer, ServiceInstance instance, Duration latency) {
+        Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        balancer.onStartRequest(request, response);
+        clock.addAndGet(latency.toNanos());
+        balancer.onComplete(
+                new CompletionContext<>(
+                        CompletionContext.Status.SUCCESS,
+                        request,
+                        response,
+                        new ResponseData(
+                                HttpStatus.OK,
+                                new HttpHeaders(),
+                                new LinkedMultiValueMap<>(),
+                                null)));
+    }
+
+    private static Map<String, String> reported(String inFlight, String dbPending, String p95) {
+        return Map.of(
+                ReportedLoadBalancer.IN_FLIGHT, inFlight,
+                ReportedLoadBalancer.DB_PENDING, dbPending,
+                ReportedLoadBalancer.P95_MILLIS, p95);
+    }
+
+    private static ServiceInstance instance(
+            String instanceId, String host, Map<String, String> metadata) {
+        return new DefaultServiceInstance(instanceId, SERVICE_ID, host, 8080, false, metadata);
+    }
+}
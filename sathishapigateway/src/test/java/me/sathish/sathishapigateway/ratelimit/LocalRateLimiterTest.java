@@ -0,0 +1,125 @@
+package me.sathish.sathishapigateway.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import me.sathish.sathishapigateway.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.http.HttpHeaders;
+
+class LocalRateLimiterTest {
+
+    private static final String ROUTE = "user-getall-users";
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private LocalRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getRateLimiter().setReplenishRate(2);
+        properties.getRateLimiter().setBurstCapacity(4);
+        rateLimiter = new LocalRateLimiter(null, properties, meterRegistry, clock::get);
+    }
+
+    @Test
+    void shouldAllowBurstThenRejectWithRetryAfter() {
+        for (int i = 3; i >= 0; i--) {
+            RateLimiter.Response response = isAllowed("10.0.0.1");
+            assertThat(response.isAllowed()).isTrue();
+            assertThat(response.getHeaders())
+                    .containsEntry(LocalRateLimiter.REMAINING_HEADER, Integer.toString(i));
+        }
+
+        RateLimiter.Response rejected = isAllowed("10.0.0.1");
+
+        assertThat(rejected.isAllowed()).isFalse();
+        assertThat(rejected.getHeaders()).containsEntry(HttpHeaders.RETRY_AFTER, "1");
+        assertThat(
+                        meterRegistry
+                                .get("gateway.ratelimiter.rejected")
+                                .tag("route", ROUTE)
+                                .counter()
+                                .count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldRefillAtReplenishRate() {
+        for (int i = 0; i < 4; i++) {
+            isAllowed("10.0.0.1");
+        }
+        assertThat(isAllowed("10.0.0.1").isAllowed()).isFalse();
+
+        clock.addAndGet(Duration.ofMillis(500).toNanos());
+
+        assertThat(isAllowed("10.0.0.1").isAllowed()).isTrue();
+        assertThat(isAllowed("10.0.0.1").isAllowed()).isFalse();
+    }
+
+    @Test
+    void shouldKeepSeparateBucketsPerClientAndRoute() {
+        for (int i = 0; i < 4; i++) {
+            isAllowed("10.0.0.1");
+        }
+
+        assertThat(isAllowed("10.0.0.1").isAllowed()).isFalse();
+        assertThat(isAllowed("10.0.0.2").isAllowed()).isTrue();
+        assertThat(rateLimiter.isAllowed("account-route", "10.0.0.1").block().isAllowed())
+                .isTrue();
+    }
+
+    @Test
+    void shouldApplyRouteConfig() {
+        rateLimiter.getConfig().put(ROUTE, rateLimiter.newConfig().setBurstCapacity(1));
+
+        assertThat(isAllowed("10.0.0.1").isAllowed()).isTrue();
+        RateLimiter.Response rejected = isAllowed("10.0.0.1");
+
+        assertThat(rejected.isAllowed()).isFalse();
+        assertThat(rejected.getHeaders())
+                .containsEntry(LocalRateLimiter.REPLENISH_RATE_HEADER, "2")
+                .containsEntry(LocalRateLimiter.BURST_CAPACITY_HEADER, "1");
+    }
+
+    @Test
+    void shouldNeverAdmitMoreThanBurstUnderContention() throws InterruptedException {
+        int threads = 16;
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads * 50; i++) {
+            executor.execute(
+                    () -> {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        if (isAllowed("10.0.0.1").isAllowed()) {
+                            allowed.incrementAndGet();
+                        }
+                    });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(allowed).hasValue(4);
+    }
+
+    private RateLimiter.Response isAllowed(String client) {
+        return rateLimiter.isAllowed(ROUTE, client).block();
+    }
+}
@@ -0,0 +1,210 @@
+package me.sathish.discovery.sathishdiscoveryservice.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.sathish.discovery.sathishdiscoveryservice.SathishdiscoveryserviceApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Renew and fetch throughput (thrpt) and latency (sample, read the p0.99 column) of the discovery
+ * server holding {@code instances} synthetic instances spread over {@value #APPS} apps. The server
+ * runs in the benchmark JVM and is driven over HTTP as Eureka clients drive it, so the numbers
+ * include Tomcat, Jersey and the JSON codecs.
+ *
+ * <p>{@code renew}, {@code fullFetch} and {@code deltaFetch} hit Eureka's own endpoints, {@code
+ * snapshot} and {@code snapshotNotModified} the server's {@code /registry/snapshot}. The {@code
+ * renewWhileFetching} group has three threads renewing against one fetching, the steady state of a
+ * fleet renewing every 30s. A quick run: {@code -p instances=1000 -wi 1 -i 2}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(4)
+public class RegistryLoadBenchmark {
+
+    private static final int APPS = 50;
+    private static final String INSTANCE =
+            """
+            {"instance": {
+              "instanceId": "%1$s",
+              "hostName": "10.0.%3$d.%4$d",
+              "app": "%2$s",
+              "vipAddress": "%2$s",
+              "ipAddr": "10.0.%3$d.%4$d",
+              "status": "UP",
+              "port": {"$": 8080, "@enabled": "true"},
+              "securePort": {"$": 443, "@enabled": "false"},
+              "metadata": {"zone": "zone-%5$d", "management.port": "8081"},
+              "dataCenterInfo": {
+                "@class": "com.netflix.appinfo.InstanceInfo$DefaultDataCenterInfo",
+                "name": "MyOwn"}}}
+            """;
+
+    @Param({"1000", "5000"})
+    private int instances;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private String snapshotEtag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void startServer() throws Exception {
+        // arguments, as application.properties would override default properties
+        context =
+                new SpringApplicationBuilder(SathishdiscoveryserviceApplication.class)
+                        .run(
+                                "--server.port=0",
+                                "--eureka.client.register-with-eureka=false",
+                                "--eureka.client.fetch-registry=false",
+                                "--eureka.server.enable-self-preservation=false",
+                                "--logging.level.root=WARN");
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        for (int i = 0; i < instances; i++) {
+            HttpResponse<Void> response =
+                    httpClient.send(
+                            HttpRequest.newBuilder(URI.create(baseUrl + "/eureka/apps/" + app(i)))
+                                    .header("Content-Type", "application/json")
+                                    .POST(
+                                            HttpRequest.BodyPublishers.ofString(
+                                                    INSTANCE.formatted(
+                                                            instanceId(i),
+                                                            app(i),
+                                                            i / 250,
+                                                            i % 250,
+                                                            i % 3)))
+                                    .build(),
+                            HttpResponse.BodyHandlers.discarding());
+            expect(response, 204);
+        }
+        // fetches are served from a response cache that only picks the registrations up on its
+        // next refresh
+        String hashCode = "\"apps__hashcode\":\"UP_" + instances + "_\"";
+        while (!httpClient
+                .send(
+                        HttpRequest.newBuilder(URI.create(baseUrl + "/eureka/apps"))
+                                .header("Accept", "application/json")
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString())
+                .body()
+                .contains(hashCode)) {
+            Thread.sleep(500);
+        }
+        snapshotEtag =
+                fetch("/registry/snapshot", null).headers().firstValue("ETag").orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        context.close();
+    }
+
+    private static String app(int i) {
+        return "SYNTHETIC-" + (i % APPS);
+    }
+
+    private static String instanceId(int i) {
+        return "synthetic-" + i + ":" + app(i).toLowerCase() + ":8080";
+    }
+
+    private HttpResponse<byte[]> fetch(String path, String ifNoneMatch)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request =
+                HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Accept", "application/json")
+                        .header("Accept-Encoding", "gzip");
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static <T> HttpResponse<T> expect(HttpResponse<T> response, int status) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException(
+                    response.request().uri() + " answered " + response.statusCode());
+        }
+        return response;
+    }
+
+    @Benchmark
+    public int renew() throws Exception {
+        int i = Math.floorMod(next.getAndIncrement(), instances);
+        HttpResponse<Void> response =
+                httpClient.send(
+                        HttpRequest.newBuilder(
+                                        URI.create(
+                                                baseUrl
+                                                        + "/eureka/apps/"
+                                                        + app(i)
+                                                        + "/"
+                                                        + instanceId(i)
+                                                        + "?status=UP"))
+                                .PUT(HttpRequest.BodyPublishers.noBody())
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding());
+        return expect(response, 200).statusCode();
+    }
+
+    @Benchmark
+    public byte[] fullFetch() throws Exception {
+        return expect(fetch("/eureka/apps", null), 200).body();
+    }
+
+    @Benchmark
+    public byte[] deltaFetch() throws Exception {
+        return expect(fetch("/eureka/apps/delta", null), 200).body();
+    }
+
+    @Benchmark
+    public byte[] snapshot() throws Exception {
+        return expect(fetch("/registry/snapshot", null), 200).body();
+    }
+
+    @Benchmark
+    public byte[] snapshotNotModified() throws Exception {
+        return expect(fetch("/registry/snapshot", snapshotEtag), 304).body();
+    }
+
+    @Benchmark
+    @Group("renewWhileFetching")
+    @GroupThreads(3)
+    public int renewing() throws Exception {
+        return renew();
+    }
+
+    @Benchmark
+    @Group("renewWhileFetching")
+    @GroupThreads(1)
+    public byte[] fetching() throws Exception {
+        return fullFetch();
+    }
+}
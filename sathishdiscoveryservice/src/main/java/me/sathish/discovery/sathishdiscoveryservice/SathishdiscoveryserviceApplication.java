@@ -1,11 +1,14 @@
 package me.sathish.discovery.sathishdiscoveryservice;
 
+import me.sathish.discovery.sathishdiscoveryservice.config.ApplicationProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.netflix.eureka.server.EnableEurekaServer;
 
 @SpringBootApplication
 @EnableEurekaServer
+@EnableConfigurationProperties({ApplicationProperties.class})
 public class SathishdiscoveryserviceApplication {
 
     public static void main(String[] args) {
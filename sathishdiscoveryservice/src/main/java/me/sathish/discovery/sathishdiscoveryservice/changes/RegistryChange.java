@@ -0,0 +1,38 @@
+package me.sathish.discovery.sathishdiscoveryservice.changes;
+
+import java.util.Map;
+
+/**
+ * One change to this server's registry. {@code server} identifies the process and {@code version}
+ * counts its changes, so a client can keep one version per server (a version vector) and a
+ * restarted server shows up as a new entry rather than as a counter going backwards.
+ *
+ * <p>A cancellation, whether the instance deregistered or its lease was evicted, only carries the
+ * app and instance id.
+ */
+public record RegistryChange(
+        String server,
+        long version,
+        Type type,
+        String app,
+        String instanceId,
+        String status,
+        String host,
+        int port,
+        boolean secure,
+        Map<String, String> metadata) {
+
+    public enum Type {
+        REGISTERED,
+        CANCELLED
+    }
+
+    /** The SSE event id, which clients send back as Last-Event-ID to resume after this change. */
+    public String eventId() {
+        return eventId(server, version);
+    }
+
+    static String eventId(String server, long version) {
+        return server + ':' + version;
+    }
+}
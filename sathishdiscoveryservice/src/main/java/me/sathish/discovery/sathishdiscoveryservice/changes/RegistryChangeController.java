@@ -0,0 +1,60 @@
+package me.sathish.discovery.sathishdiscoveryservice.changes;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent stream of registry changes, described on {@link RegistryChangeStream}, and the
+ * {@link RegistrySnapshot} to start following it from.
+ */
+@RestController
+public class RegistryChangeController {
+
+    /** The change stream position of a snapshot, as the Last-Event-ID to resume from. */
+    static final String POSITION_HEADER = "Registry-Position";
+
+    private final RegistryChangeStream registryChangeStream;
+    private final RegistrySnapshot registrySnapshot;
+
+    public RegistryChangeController(
+            RegistryChangeStream registryChangeStream, RegistrySnapshot registrySnapshot) {
+        this.registryChangeStream = registryChangeStream;
+        this.registrySnapshot = registrySnapshot;
+    }
+
+    @GetMapping(path = "/registry/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter changes(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return registryChangeStream.subscribe(lastEventId);
+    }
+
+    /**
+     * The snapshot with a hash of its content as ETag, so Spring answers a matching If-None-Match
+     * with 304, and its position in the {@value #POSITION_HEADER} header. Clients accepting gzip
+     * get the pre-compressed bytes.
+     */
+    @GetMapping(path = "/registry/snapshot", produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<byte[]> snapshot(
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false)
+                    String acceptEncoding) {
+        RegistrySnapshot.Serialized snapshot = registrySnapshot.current();
+        RegistryChangeStream.Position position = snapshot.position();
+        ResponseEntity.BodyBuilder response =
+                ResponseEntity.ok()
+                        .eTag(snapshot.etag())
+                        .header(
+                                POSITION_HEADER,
+                                RegistryChange.eventId(position.server(), position.version()))
+                        .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                        .contentType(MediaType.APPLICATION_JSON);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzipped());
+        }
+        return response.body(snapshot.json());
+    }
+}
@@ -0,0 +1,88 @@
+package me.sathish.discovery.sathishdiscoveryservice.changes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The most recent registry changes of this server, numbered from 1 in the order they were made and
+ * kept in a ring of fixed capacity. Each change is serialized once, when it is appended, and the
+ * same text is then sent to every subscriber and every replay.
+ */
+class RegistryChangeLog {
+
+    private final String server;
+    private final Function<RegistryChange, String> serializer;
+    private final Entry[] history;
+    private long version;
+
+    RegistryChangeLog(String server, int capacity, Function<RegistryChange, String> serializer) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("application.changes.history must be positive");
+        }
+        this.server = server;
+        this.serializer = serializer;
+        this.history = new Entry[capacity];
+    }
+
+    String server() {
+        return server;
+    }
+
+    synchronized long version() {
+        return version;
+    }
+
+    synchronized RegistryChange latest() {
+        return version == 0 ? null : history[slot(version)].change();
+    }
+
+    synchronized Entry append(
+            RegistryChange.Type type,
+            String app,
+            String instanceId,
+            String status,
+            String host,
+            int port,
+            boolean secure,
+            Map<String, String> metadata) {
+        RegistryChange change =
+                new RegistryChange(
+                        server,
+                        ++version,
+                        type,
+                        app,
+                        instanceId,
+                        status,
+                        host,
+                        port,
+                        secure,
+                        metadata);
+        Entry entry = new Entry(change, serializer.apply(change));
+        history[slot(version)] = entry;
+        return entry;
+    }
+
+    /**
+     * The changes made after {@code after}, oldest first; empty when some of them have already
+     * been overwritten, or {@code after} is not a version this server has reached.
+     */
+    synchronized Optional<List<Entry>> since(long after) {
+        if (after < 0 || after > version || after < version - history.length) {
+            return Optional.empty();
+        }
+        List<Entry> changes = new ArrayList<>((int) (version - after));
+        for (long next = after + 1; next <= version; next++) {
+            changes.add(history[slot(next)]);
+        }
+        return Optional.of(changes);
+    }
+
+    private int slot(long version) {
+        return (int) ((version - 1) % history.length);
+    }
+
+    record Entry(RegistryChange change, String json) {}
+}
@@ -0,0 +1,244 @@
+package me.sathish.discovery.sathishdiscoveryservice.changes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import me.sathish.discovery.sathishdiscoveryservice.config.ApplicationProperties;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes registry changes to subscribed clients as they happen, instead of leaving them to find out
+ * on their next delta fetch.
+ *
+ * <p>Every registration (including the re-registration a client sends when its status changes)
+ * and every cancellation or lease eviction is appended to a {@link RegistryChangeLog} and sent as a
+ * {@value #CHANGE_EVENT} event whose id is {@code server:version}. A client reconnecting with that
+ * id as Last-Event-ID is sent the changes it missed; one that is new, comes from another server or
+ * fell further behind than {@code application.changes.history} is sent a {@value #RESET_EVENT}
+ * event with the current position instead, and must rely on a regular fetch for what it missed.
+ *
+ * <p>Replays, changes and heartbeats are all sent from one thread, so registrations never wait on
+ * a slow subscriber. That thread reads what to send from the log itself, from the last version it
+ * sent onwards, so each stream sees changes in version order even when concurrent registrations
+ * finish appending out of order.
+ */
+@Slf4j
+@Component
+public class RegistryChangeStream {
+
+    static final String CHANGE_EVENT = "change";
+    static final String RESET_EVENT = "reset";
+
+    private final ApplicationProperties.Changes settings;
+    private final RegistryChangeLog changeLog;
+    private final ScheduledExecutorService sender =
+            Executors.newSingleThreadScheduledExecutor(
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "registry-changes");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+    // only touched from the sender thread
+    private final List<SseEmitter> subscribers = new ArrayList<>();
+    private long lastSent;
+
+    public RegistryChangeStream(ApplicationProperties properties, ObjectMapper objectMapper) {
+        this.settings = properties.getChanges();
+        this.changeLog =
+                new RegistryChangeLog(
+                        UUID.randomUUID().toString(),
+                        settings.getHistory(),
+                        change -> serialize(objectMapper, change));
+        long heartbeatMillis = settings.getHeartbeatInterval().toMillis();
+        sender.scheduleWithFixedDelay(
+                this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener
+    public void onRegistered(EurekaInstanceRegisteredEvent event) {
+        RegistryInstance instance = RegistryInstance.of(event.getInstanceInfo());
+        publish(
+                changeLog.append(
+                        RegistryChange.Type.REGISTERED,
+                        instance.app(),
+                        instance.instanceId(),
+                        instance.status(),
+                        instance.host(),
+                        instance.port(),
+                        instance.secure(),
+                        instance.metadata()));
+    }
+
+    @EventListener
+    public void onCanceled(EurekaInstanceCanceledEvent event) {
+        RegistryChange latest = changeLog.latest();
+        // InstanceRegistry announces a cancellation from both cancel() and internalCancel()
+        if (latest != null
+                && latest.type() == RegistryChange.Type.CANCELLED
+                && latest.instanceId().equals(event.getServerId())) {
+            return;
+        }
+        publish(
+                changeLog.append(
+                        RegistryChange.Type.CANCELLED,
+                        event.getAppName(),
+                        event.getServerId(),
+                        null,
+                        null,
+                        0,
+                        false,
+                        Map.of()));
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(settings.getStreamTimeout().toMillis());
+        emitter.onTimeout(emitter::complete);
+        emitter.onCompletion(() -> sender.execute(() -> subscribers.remove(emitter)));
+        sender.execute(
+                () -> {
+                    if (replay(emitter, lastEventId)) {
+                        subscribers.add(emitter);
+                    }
+                });
+        return emitter;
+    }
+
+    private boolean replay(SseEmitter emitter, String lastEventId) {
+        // changes after lastSent reach the new subscriber with everyone else's
+        Optional<List<RegistryChangeLog.Entry>> missed =
+                resumeAfter(lastEventId)
+                        .filter(version -> version <= lastSent)
+                        .flatMap(changeLog::since);
+        if (missed.isEmpty()) {
+            return send(emitter, reset(lastSent));
+        }
+        for (RegistryChangeLog.Entry entry : missed.get()) {
+            if (entry.change().version() > lastSent) {
+                break;
+            }
+            if (!send(emitter, event(entry))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The version a client last saw from this server; empty if it never saw this server. */
+    private Optional<Long> resumeAfter(String lastEventId) {
+        if (lastEventId == null) {
+            return Optional.empty();
+        }
+        int colon = lastEventId.lastIndexOf(':');
+        if (colon < 0 || !changeLog.server().equals(lastEventId.substring(0, colon))) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.parseLong(lastEventId.substring(colon + 1)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The latest change made. Spring Cloud's InstanceRegistry announces a registration or
+     * cancellation before it makes it, so the registry may not show the latest changes yet; {@link
+     * RegistrySnapshot} checks them before it claims a position.
+     */
+    public Position position() {
+        return new Position(changeLog.server(), changeLog.version());
+    }
+
+    /** The changes made after {@code version}, oldest first; empty when some are no longer kept. */
+    Optional<List<RegistryChange>> changesSince(long version) {
+        return changeLog
+                .since(version)
+                .map(entries -> entries.stream().map(RegistryChangeLog.Entry::change).toList());
+    }
+
+    private void publish(RegistryChangeLog.Entry entry) {
+        RegistryChange change = entry.change();
+        log.debug(
+                "Registry change {}: {} {} {}",
+                change.version(),
+                change.type(),
+                change.app(),
+                change.instanceId());
+        sender.execute(this::sendNewChanges);
+    }
+
+    /** Sends every change after the last one sent, in version order. */
+    private void sendNewChanges() {
+        Optional<List<RegistryChangeLog.Entry>> changes = changeLog.since(lastSent);
+        if (changes.isEmpty()) {
+            // more changes were made meanwhile than the log holds
+            lastSent = changeLog.version();
+            subscribers.removeIf(emitter -> !send(emitter, reset(lastSent)));
+            return;
+        }
+        for (RegistryChangeLog.Entry entry : changes.get()) {
+            subscribers.removeIf(emitter -> !send(emitter, event(entry)));
+            lastSent = entry.change().version();
+        }
+    }
+
+    private void heartbeat() {
+        subscribers.removeIf(emitter -> !send(emitter, SseEmitter.event().comment("")));
+    }
+
+    private SseEmitter.SseEventBuilder reset(long version) {
+        return SseEmitter.event()
+                .id(RegistryChange.eventId(changeLog.server(), version))
+                .name(RESET_EVENT)
+                .data(new Position(changeLog.server(), version));
+    }
+
+    private static SseEmitter.SseEventBuilder event(RegistryChangeLog.Entry entry) {
+        return SseEmitter.event()
+                .id(entry.change().eventId())
+                .name(CHANGE_EVENT)
+                .data(entry.json(), MediaType.APPLICATION_JSON);
+    }
+
+    private static String serialize(ObjectMapper objectMapper, RegistryChange change) {
+        try {
+            return objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + change, e);
+        }
+    }
+
+    private static boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // the client went away; completing releases the request
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        sender.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    /** Data of a {@value #RESET_EVENT} event: the latest version of {@code server}. */
+    public record Position(String server, long version) {}
+}
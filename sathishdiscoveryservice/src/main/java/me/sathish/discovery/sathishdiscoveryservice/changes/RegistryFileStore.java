@@ -0,0 +1,129 @@
+package me.sathish.discovery.sathishdiscoveryservice.changes;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import me.sathish.discovery.sathishdiscoveryservice.config.ApplicationProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaRegistryAvailableEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the registry in a {@link RegistryFile} across restarts, so a restarted server answers
+ * fetches with the instances it knew instead of an empty registry while they re-register.
+ *
+ * <p>The registry is written to {@code application.registry-file.path} every {@code write-interval}
+ * when the change stream moved, and once more on shutdown. On startup the instances of a file no
+ * older than {@code max-age} are registered again the way a peer's are on sync, without their
+ * changes being replicated. Live instances renew the restored leases as usual, or re-register when
+ * their own copy is newer; instances that went away meanwhile are evicted when their lease runs
+ * out.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.registry-file.enabled", matchIfMissing = true)
+public class RegistryFileStore {
+
+    private final PeerAwareInstanceRegistry registry;
+    private final RegistryChangeStream registryChangeStream;
+    private final ApplicationProperties.RegistryFile settings;
+    private final ScheduledExecutorService writer =
+            Executors.newSingleThreadScheduledExecutor(
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "registry-file");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+    // only touched from the writer thread, and on shutdown once it stopped
+    private RegistryChangeStream.Position written;
+
+    public RegistryFileStore(
+            PeerAwareInstanceRegistry registry,
+            RegistryChangeStream registryChangeStream,
+            ApplicationProperties properties) {
+        this.registry = registry;
+        this.registryChangeStream = registryChangeStream;
+        this.settings = properties.getRegistryFile();
+    }
+
+    @EventListener(EurekaRegistryAvailableEvent.class)
+    public void start() {
+        restore();
+        long intervalMillis = settings.getWriteInterval().toMillis();
+        writer.scheduleWithFixedDelay(
+                this::write, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void restore() {
+        if (!Files.exists(settings.getPath())) {
+            return;
+        }
+        long start = System.nanoTime();
+        RegistryFile.Contents contents;
+        try {
+            contents = RegistryFile.read(settings.getPath());
+        } catch (IOException e) {
+            log.warn("Not restoring the registry from {}", settings.getPath(), e);
+            return;
+        }
+        Duration age = Duration.between(contents.writtenAt(), Instant.now());
+        if (age.compareTo(settings.getMaxAge()) > 0) {
+            log.info("Not restoring the registry from {}, written {} ago", settings.getPath(), age);
+            return;
+        }
+        int restored = 0;
+        for (InstanceInfo instance : contents.instances()) {
+            // an instance that registered since startup knows better than the file
+            if (registry.getInstanceByAppAndId(
+                            instance.getAppName(), instance.getInstanceId(), false)
+                    == null) {
+                registry.register(instance, true);
+                restored++;
+            }
+        }
+        log.info(
+                "Restored {} of {} instances from {}, written {} ago, in {} ms",
+                restored,
+                contents.instances().size(),
+                settings.getPath(),
+                age,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    void write() {
+        RegistryChangeStream.Position position = registryChangeStream.position();
+        if (position.equals(written)) {
+            return;
+        }
+        List<InstanceInfo> instances = new ArrayList<>();
+        for (Application application : registry.getApplications().getRegisteredApplications()) {
+            instances.addAll(application.getInstances());
+        }
+        try {
+            RegistryFile.write(settings.getPath(), instances, Instant.now());
+            written = position;
+        } catch (IOException e) {
+            log.warn("Cannot write the registry to {}", settings.getPath(), e);
+        }
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        writer.shutdown();
+        if (writer.awaitTermination(5, TimeUnit.SECONDS)) {
+            write();
+        }
+    }
+}
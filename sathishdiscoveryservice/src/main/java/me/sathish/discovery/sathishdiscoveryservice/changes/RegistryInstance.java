@@ -0,0 +1,31 @@
+package me.sathish.discovery.sathishdiscoveryservice.changes;
+
+import com.netflix.appinfo.InstanceInfo;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * What a client needs to route to an instance, read the way Spring Cloud's Eureka client reads it:
+ * the secure port when that is enabled, otherwise the plain one.
+ */
+public record RegistryInstance(
+        String app,
+        String instanceId,
+        String status,
+        String host,
+        int port,
+        boolean secure,
+        Map<String, String> metadata) {
+
+    static RegistryInstance of(InstanceInfo info) {
+        boolean secure = info.isPortEnabled(InstanceInfo.PortType.SECURE);
+        return new RegistryInstance(
+                info.getAppName(),
+                info.getId(),
+                String.valueOf(info.getStatus()),
+                info.getHostName(),
+                secure ? info.getSecurePort() : info.getPort(),
+                secure,
+                info.getMetadata() == null ? Map.of() : new LinkedHashMap<>(info.getMetadata()));
+    }
+}
@@ -0,0 +1,239 @@
+package me.sathish.discovery.sathishdiscoveryservice.changes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPOutputStream;
+import me.sathish.discovery.sathishdiscoveryservice.config.ApplicationProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * The whole registry serialized once per change instead of once per request: JSON and the same
+ * bytes gzipped, with the change stream position they include. Requests between two changes only
+ * copy bytes, and a client can load the snapshot and then follow the change stream from its
+ * position without missing a change; changes at or before it may arrive again and are ignored.
+ *
+ * <p>A change is announced just before the registry makes it, so the snapshot checks the changes
+ * since the previous one against what it read: its position stops before the first change the
+ * registry does not show yet, and the next request builds it again. After {@code
+ * application.snapshot.settle-time} such a change is taken as made.
+ *
+ * <p>Changes the stream does not report, such as status overrides set through the Eureka API, are
+ * picked up by rebuilding at least every {@code application.snapshot.max-age}. Such a rebuild keeps
+ * the position, so the ETag is a hash of the content rather than the position.
+ */
+@Component
+public class RegistrySnapshot {
+
+    private final PeerAwareInstanceRegistry registry;
+    private final RegistryChangeStream registryChangeStream;
+    private final ObjectMapper objectMapper;
+    private final long maxAgeNanos;
+    private final long settleNanos;
+    private final LongSupplier nanoTime;
+    private volatile Serialized current;
+    // the first change the registry did not show yet, and since when; guarded by this
+    private long unsettledVersion;
+    private long unsettledSinceNanos;
+
+    @Autowired
+    public RegistrySnapshot(
+            PeerAwareInstanceRegistry registry,
+            RegistryChangeStream registryChangeStream,
+            ObjectMapper objectMapper,
+            ApplicationProperties properties) {
+        this(registry, registryChangeStream, objectMapper, properties, System::nanoTime);
+    }
+
+    RegistrySnapshot(
+            PeerAwareInstanceRegistry registry,
+            RegistryChangeStream registryChangeStream,
+            ObjectMapper objectMapper,
+            ApplicationProperties properties,
+            LongSupplier nanoTime) {
+        this.registry = registry;
+        this.registryChangeStream = registryChangeStream;
+        this.objectMapper = objectMapper;
+        this.maxAgeNanos = properties.getSnapshot().getMaxAge().toNanos();
+        this.settleNanos = properties.getSnapshot().getSettleTime().toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    public Serialized current() {
+        RegistryChangeStream.Position position = registryChangeStream.position();
+        Serialized snapshot = current;
+        if (snapshot != null && snapshot.isCurrent(position, nanoTime.getAsLong())) {
+            return snapshot;
+        }
+        synchronized (this) {
+            // another request may have rebuilt it while this one waited
+            snapshot = current;
+            long now = nanoTime.getAsLong();
+            if (snapshot == null || !snapshot.isCurrent(position, now)) {
+                snapshot = build(position, now);
+                current = snapshot;
+            }
+            return snapshot;
+        }
+    }
+
+    private Serialized build(RegistryChangeStream.Position latest, long now) {
+        List<RegistryInstance> instances = new ArrayList<>();
+        Set<String> overridden = new HashSet<>();
+        for (Application application : registry.getApplications().getRegisteredApplications()) {
+            for (InstanceInfo info : application.getInstances()) {
+                instances.add(RegistryInstance.of(info));
+                if (info.getOverriddenStatus() != null
+                        && info.getOverriddenStatus() != InstanceInfo.InstanceStatus.UNKNOWN) {
+                    overridden.add(info.getId());
+                }
+            }
+        }
+        RegistryChangeStream.Position position = settled(latest, instances, overridden, now);
+        try {
+            byte[] json =
+                    objectMapper.writeValueAsBytes(
+                            new Document(position.server(), position.version(), instances));
+            return new Serialized(
+                    position,
+                    '"' + DigestUtils.md5DigestAsHex(json) + '"',
+                    json,
+                    gzip(json),
+                    now + maxAgeNanos);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot serialize the registry snapshot", e);
+        }
+    }
+
+    /**
+     * The latest position whose changes all show in {@code instances}. Changes up to the previous
+     * snapshot's position were checked when it was built.
+     */
+    private RegistryChangeStream.Position settled(
+            RegistryChangeStream.Position latest,
+            List<RegistryInstance> instances,
+            Set<String> overridden,
+            long now) {
+        Serialized previous = current;
+        long checkedUpTo =
+                previous != null && previous.position().server().equals(latest.server())
+                        ? previous.position().version()
+                        : 0L;
+        Optional<List<RegistryChange>> changes = registryChangeStream.changesSince(checkedUpTo);
+        if (changes.isEmpty()) {
+            // too many changes since to check them; the next snapshot checks from this one
+            return latest;
+        }
+        Map<String, RegistryInstance> byId = new HashMap<>();
+        instances.forEach(instance -> byId.put(instance.instanceId(), instance));
+        // an instance's latest change decides its state; the first one bounds the position
+        Map<String, RegistryChange> lastChange = new HashMap<>();
+        Map<String, Long> firstVersion = new HashMap<>();
+        for (RegistryChange change : changes.get()) {
+            if (change.version() > latest.version()) {
+                break;
+            }
+            lastChange.put(change.instanceId(), change);
+            firstVersion.putIfAbsent(change.instanceId(), change.version());
+        }
+        long settled = latest.version();
+        for (RegistryChange change : lastChange.values()) {
+            String instanceId = change.instanceId();
+            if (!shows(byId.get(instanceId), overridden.contains(instanceId), change)) {
+                settled = Math.min(settled, firstVersion.get(instanceId) - 1);
+            }
+        }
+        if (settled == latest.version()) {
+            unsettledVersion = 0L;
+            return latest;
+        }
+        if (unsettledVersion != settled + 1) {
+            unsettledVersion = settled + 1;
+            unsettledSinceNanos = now;
+        } else if (now - unsettledSinceNanos >= settleNanos) {
+            unsettledVersion = 0L;
+            return latest;
+        }
+        return new RegistryChangeStream.Position(latest.server(), settled);
+    }
+
+    private static boolean shows(
+            RegistryInstance instance, boolean statusOverridden, RegistryChange change) {
+        if (change.type() == RegistryChange.Type.CANCELLED) {
+            return instance == null;
+        }
+        return instance != null
+                && instance.port() == change.port()
+                && Objects.equals(instance.host(), change.host())
+                // an override replaces the status the instance registered with
+                && (statusOverridden || Objects.equals(instance.status(), change.status()));
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** The snapshot as clients read it. */
+    public record Document(String server, long version, List<RegistryInstance> instances) {}
+
+    public static final class Serialized {
+
+        private final RegistryChangeStream.Position position;
+        private final String etag;
+        private final byte[] json;
+        private final byte[] gzipped;
+        private final long expiresAtNanos;
+
+        private Serialized(
+                RegistryChangeStream.Position position,
+                String etag,
+                byte[] json,
+                byte[] gzipped,
+                long expiresAtNanos) {
+            this.position = position;
+            this.etag = etag;
+            this.json = json;
+            this.gzipped = gzipped;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        public RegistryChangeStream.Position position() {
+            return position;
+        }
+
+        public String etag() {
+            return etag;
+        }
+
+        public byte[] json() {
+            return json;
+        }
+
+        public byte[] gzipped() {
+            return gzipped;
+        }
+
+        boolean isCurrent(RegistryChangeStream.Position latest, long now) {
+            return position.equals(latest) && now - expiresAtNanos < 0;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package me.sathish.discovery.sathishdiscoveryservice.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+
+@Data
+@ConfigurationProperties("application")
+public class ApplicationProperties {
+
+    @NestedConfigurationProperty private Changes changes = new Changes();
+
+    @NestedConfigurationProperty private Snapshot snapshot = new Snapshot();
+
+    @NestedConfigurationProperty private RegistryFile registryFile = new RegistryFile();
+
+    @Data
+    public static class Changes {
+        /**
+         * Registry changes kept for clients resuming their stream with Last-Event-ID; a client
+         * further behind is told to reset instead.
+         */
+        private int history = 4096;
+
+        /** Comment lines sent on idle streams, so proxies and clients notice dead connections. */
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        /** Streams are closed after this long; clients reconnect and resume where they were. */
+        private Duration streamTimeout = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class Snapshot {
+        /**
+         * Rebuild the registry snapshot after this long even without a registry change, to pick up
+         * what the change stream does not see, such as status overrides.
+         */
+        private Duration maxAge = Duration.ofSeconds(30);
+
+        /**
+         * How long a snapshot leaves a change out of its position while the registry does not show
+         * it yet. Registrations are announced just before they are made, so this only needs to
+         * cover that gap; past it the change is taken as made, e.g. when a newer lease won.
+         */
+        private Duration settleTime = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class RegistryFile {
+        /** Keep the registry on disk and restore it on startup. */
+        private boolean enabled = true;
+
+        private Path path = Path.of("data/registry.bin");
+
+        /** How often the registry is written if it changed; it is also written on shutdown. */
+        private Duration writeInterval = Duration.ofSeconds(10);
+
+        /** An older file is not restored, as most of its instances have likely moved on. */
+        private Duration maxAge = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,62 @@
+package me.sathish.discovery.sathishdiscoveryservice.changes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class RegistryChangeLogTest {
+
+    private final RegistryChangeLog changeLog =
+            new RegistryChangeLog("server-1", 3, RegistryChange::eventId);
+
+    @Test
+    void shouldReplayChangesAfterAVersionStillKept() {
+        for (int i = 1; i <= 5; i++) {
+            register("instance-" + i);
+        }
+
+        assertThat(changeLog.since(2))
+                .hasValueSatisfying(
+                        changes ->
+                                assertThat(changes)
+                                        .extracting(entry -> entry.change().version())
+                                        .containsExactly(3L, 4L, 5L));
+        assertThat(changeLog.since(5)).hasValueSatisfying(changes -> assertThat(changes).isEmpty());
+    }
+
+    @Test
+    void shouldNotReplayFromOverwrittenOrUnknownVersions() {
+        for (int i = 1; i <= 5; i++) {
+            register("instance-" + i);
+        }
+
+        assertThat(changeLog.since(1)).isEmpty();
+        assertThat(changeLog.since(6)).isEmpty();
+        assertThat(changeLog.since(-1)).isEmpty();
+    }
+
+    @Test
+    void shouldNumberAndSerializeChangesPerServer() {
+        RegistryChangeLog.Entry entry = register("instance-1");
+        RegistryChange change = entry.change();
+
+        assertThat(entry.json()).isEqualTo("server-1:1");
+        assertThat(change.server()).isEqualTo("server-1");
+        assertThat(change.version()).isEqualTo(1L);
+        assertThat(change.eventId()).isEqualTo("server-1:1");
+        assertThat(changeLog.version()).isEqualTo(1L);
+    }
+
+    private RegistryChangeLog.Entry register(String instanceId) {
+        return changeLog.append(
+                RegistryChange.Type.REGISTERED,
+                "SATHISHUSERSERVICE",
+                instanceId,
+                "UP",
+                "localhost",
+                8080,
+                false,
+                Map.of());
+    }
+}
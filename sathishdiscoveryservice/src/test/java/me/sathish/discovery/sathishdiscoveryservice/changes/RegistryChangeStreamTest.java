@@ -0,0 +1,197 @@
+package me.sathish.discovery.sathishdiscoveryservice.changes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+            "eureka.client.register-with-eureka=false",
+            "eureka.client.fetch-registry=false",
+            "application.registry-file.enabled=false"
+        })
+class RegistryChangeStreamTest {
+
+    private static final String INSTANCE =
+            """
+            {"instance": {
+              "instanceId": "localhost:sathishuserservice:9001",
+              "hostName": "localhost",
+              "app": "SATHISHUSERSERVICE",
+              "ipAddr": "127.0.0.1",
+              "status": "UP",
+              "port": {"$": 9001, "@enabled": "true"},
+              "securePort": {"$": 443, "@enabled": "false"},
+              "dataCenterInfo": {
+                "@class": "com.netflix.appinfo.InstanceInfo$DefaultDataCenterInfo",
+                "name": "MyOwn"}}}
+            """;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort private int port;
+
+    @Test
+    void shouldPushRegistrationAndCancellationToSubscribers() throws Exception {
+        HttpResponse<InputStream> stream = subscribe(null);
+        List<String> lines = new ArrayList<>();
+        CompletableFuture<Void> reading =
+                CompletableFuture.runAsync(() -> readEvents(stream.body(), 3, lines));
+
+        register();
+        cancel();
+        reading.get(10, TimeUnit.SECONDS);
+
+        assertThat(lines)
+                .filteredOn(line -> line.startsWith("event:"))
+                .containsExactly("event:reset", "event:change", "event:change");
+        assertThat(String.join("\n", lines))
+                .contains("event:change")
+                .contains("\"type\":\"REGISTERED\"")
+                .contains("\"instanceId\":\"localhost:sathishuserservice:9001\"")
+                .contains("\"port\":9001")
+                .contains("\"type\":\"CANCELLED\"");
+    }
+
+    @Test
+    void shouldReplayChangesMissedSinceLastEventId() throws Exception {
+        HttpResponse<InputStream> first = subscribe(null);
+        List<String> resetLines = new ArrayList<>();
+        readEvents(first.body(), 1, resetLines);
+        first.body().close();
+        String lastEventId =
+                resetLines.stream()
+                        .filter(line -> line.startsWith("id:"))
+                        .findFirst()
+                        .orElseThrow()
+                        .substring("id:".length());
+
+        register();
+        HttpResponse<InputStream> resumed = subscribe(lastEventId);
+        List<String> lines = new ArrayList<>();
+        CompletableFuture.runAsync(() -> readEvents(resumed.body(), 1, lines))
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(lines).contains("event:change");
+        assertThat(String.join("\n", lines)).contains("\"type\":\"REGISTERED\"");
+    }
+
+    @Test
+    void shouldSendConcurrentRegistrationsInVersionOrder() throws Exception {
+        int registrations = 20;
+        HttpResponse<InputStream> stream = subscribe(null);
+        List<String> lines = new ArrayList<>();
+        CompletableFuture<Void> reading =
+                CompletableFuture.runAsync(
+                        () -> readEvents(stream.body(), registrations + 1, lines));
+
+        CompletableFuture.allOf(
+                        IntStream.range(0, registrations)
+                                .mapToObj(i -> registerAsync(9100 + i))
+                                .toArray(CompletableFuture[]::new))
+                .get(10, TimeUnit.SECONDS);
+        reading.get(10, TimeUnit.SECONDS);
+
+        List<Long> versions =
+                lines.stream()
+                        .filter(line -> line.startsWith("id:"))
+                        .map(line -> Long.parseLong(line.substring(line.lastIndexOf(':') + 1)))
+                        .toList();
+        assertThat(versions).hasSize(registrations + 1).isSorted().doesNotHaveDuplicates();
+    }
+
+    private HttpResponse<InputStream> subscribe(String lastEventId) throws Exception {
+        HttpRequest.Builder request =
+                HttpRequest.newBuilder(url("/registry/changes"))
+                        .header("Accept", "text/event-stream")
+                        .timeout(Duration.ofSeconds(10));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<InputStream> response =
+                httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response;
+    }
+
+    private void register() throws Exception {
+        HttpResponse<Void> response =
+                httpClient.send(
+                        HttpRequest.newBuilder(url("/eureka/apps/SATHISHUSERSERVICE"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(INSTANCE))
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding());
+        assertThat(response.statusCode()).isEqualTo(204);
+    }
+
+    private CompletableFuture<Void> registerAsync(int instancePort) {
+        String instance =
+                INSTANCE.replace("9001", String.valueOf(instancePort))
+                        .replace("SATHISHUSERSERVICE", "SATHISHACCOUNTSERVICE")
+                        .replace("sathishuserservice", "sathishaccountservice");
+        return httpClient
+                .sendAsync(
+                        HttpRequest.newBuilder(url("/eureka/apps/SATHISHACCOUNTSERVICE"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(instance))
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding())
+                .thenAccept(response -> assertThat(response.statusCode()).isEqualTo(204));
+    }
+
+    private void cancel() throws Exception {
+        HttpResponse<Void> response =
+                httpClient.send(
+                        HttpRequest.newBuilder(
+                                        url(
+                                                "/eureka/apps/SATHISHUSERSERVICE/"
+                                                        + "localhost:sathishuserservice:9001"))
+                                .DELETE()
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding());
+        assertThat(response.statusCode()).isEqualTo(200);
+    }
+
+    private URI url(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    /** Reads until {@code events} complete events have been received. */
+    private static void readEvents(InputStream body, int events, List<String> lines) {
+        BufferedReader reader =
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        try {
+            int seen = 0;
+            String line;
+            while (seen < events && (line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    if (lines.stream().filter(l -> l.startsWith("event:")).count() > seen) {
+                        seen++;
+                    }
+                } else {
+                    lines.add(line);
+                }
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
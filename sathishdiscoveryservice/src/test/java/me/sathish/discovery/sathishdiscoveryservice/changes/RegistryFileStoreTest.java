@@ -0,0 +1,96 @@
+package me.sathish.discovery.sathishdiscoveryservice.changes;
+
+import static me.sathish.discovery.sathishdiscoveryservice.changes.RegistryFileTest.instance;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import me.sathish.discovery.sathishdiscoveryservice.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RegistryFileStoreTest {
+
+    @TempDir Path directory;
+
+    private final PeerAwareInstanceRegistry registry = mock(PeerAwareInstanceRegistry.class);
+    private final RegistryChangeStream registryChangeStream = mock(RegistryChangeStream.class);
+    private Path path;
+    private RegistryFileStore store;
+
+    @BeforeEach
+    void setUp() {
+        path = directory.resolve("registry.bin");
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getRegistryFile().setPath(path);
+        store = new RegistryFileStore(registry, registryChangeStream, properties);
+    }
+
+    @Test
+    void shouldRestoreInstancesNotRegisteredSinceStartup() throws IOException {
+        InstanceInfo gone = instance("user-1", 8081);
+        InstanceInfo back = instance("user-2", 8082);
+        RegistryFile.write(path, List.of(gone, back), Instant.now());
+        given(registry.getInstanceByAppAndId("SATHISHUSERSERVICE", "user-2", false))
+                .willReturn(back);
+
+        store.restore();
+
+        verify(registry).register(argThat(instance -> isInstance(instance, "user-1")), eq(true));
+        verify(registry, never())
+                .register(argThat(instance -> isInstance(instance, "user-2")), anyBoolean());
+    }
+
+    @Test
+    void shouldNotRestoreFilesOlderThanMaxAge() throws IOException {
+        RegistryFile.write(
+                path,
+                List.of(instance("user-1", 8081)),
+                Instant.now().minus(Duration.ofMinutes(11)));
+
+        store.restore();
+
+        verify(registry, never()).register(any(InstanceInfo.class), anyBoolean());
+    }
+
+    @Test
+    void shouldWriteOnlyWhenTheRegistryChanged() throws IOException {
+        Applications applications = new Applications();
+        Application application = new Application("SATHISHUSERSERVICE");
+        application.addInstance(instance("user-1", 8081));
+        applications.addApplication(application);
+        given(registry.getApplications()).willReturn(applications);
+        given(registryChangeStream.position())
+                .willReturn(new RegistryChangeStream.Position("server-1", 1));
+
+        store.write();
+        assertThat(RegistryFile.read(path).instances())
+                .extracting(InstanceInfo::getInstanceId)
+                .containsExactly("user-1");
+
+        Files.delete(path);
+        store.write();
+        assertThat(path).doesNotExist();
+    }
+
+    private static boolean isInstance(InstanceInfo instance, String instanceId) {
+        return instance != null && instance.getInstanceId().equals(instanceId);
+    }
+}
@@ -0,0 +1,82 @@
+package me.sathish.discovery.sathishdiscoveryservice.changes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.netflix.appinfo.DataCenterInfo;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.LeaseInfo;
+import com.netflix.appinfo.MyDataCenterInfo;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RegistryFileTest {
+
+    @TempDir Path directory;
+
+    @Test
+    void shouldReadBackWhatWasWritten() throws IOException {
+        Path path = directory.resolve("registry.bin");
+        Instant writtenAt = Instant.parse("2026-01-02T03:04:05Z");
+
+        RegistryFile.write(
+                path, List.of(instance("user-1", 8081), instance("user-2", 8082)), writtenAt);
+        RegistryFile.Contents contents = RegistryFile.read(path);
+
+        assertThat(contents.writtenAt()).isEqualTo(writtenAt);
+        assertThat(contents.instances()).hasSize(2);
+        InstanceInfo read = contents.instances().get(1);
+        assertThat(read.getAppName()).isEqualTo("SATHISHUSERSERVICE");
+        assertThat(read.getInstanceId()).isEqualTo("user-2");
+        assertThat(read.getIPAddr()).isEqualTo("10.0.0.2");
+        assertThat(read.getVIPAddress()).isEqualTo("sathishuserservice");
+        assertThat(read.getSecureVipAddress()).isNull();
+        assertThat(read.getStatus()).isEqualTo(InstanceInfo.InstanceStatus.UP);
+        assertThat(read.getPort()).isEqualTo(8082);
+        assertThat(read.isPortEnabled(InstanceInfo.PortType.SECURE)).isFalse();
+        assertThat(read.getHealthCheckUrl()).isEqualTo("http://10.0.0.2:8082/actuator/health");
+        assertThat(read.getLeaseInfo().getDurationInSecs()).isEqualTo(30);
+        assertThat(read.getLastDirtyTimestamp()).isEqualTo(1234L);
+        assertThat(read.getMetadata()).isEqualTo(Map.of("zone", "zone-1", "ünïcode", "välue"));
+        assertThat(directory.resolve("registry.bin.tmp")).doesNotExist();
+    }
+
+    @Test
+    void shouldRejectCorruptOrTruncatedFiles() throws IOException {
+        Path path = directory.resolve("registry.bin");
+        RegistryFile.write(path, List.of(instance("user-1", 8081)), Instant.now());
+        byte[] bytes = Files.readAllBytes(path);
+
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(path, bytes);
+        assertThatThrownBy(() -> RegistryFile.read(path)).isInstanceOf(IOException.class);
+
+        Files.write(path, new byte[] {0x53, 0x52});
+        assertThatThrownBy(() -> RegistryFile.read(path)).isInstanceOf(IOException.class);
+    }
+
+    static InstanceInfo instance(String instanceId, int port) {
+        String ip = "10.0.0." + (port - 8080);
+        return InstanceInfo.Builder.newBuilder()
+                .setAppName("sathishuserservice")
+                .setInstanceId(instanceId)
+                .setHostName(ip)
+                .setIPAddr(ip)
+                .setVIPAddress("sathishuserservice")
+                .setStatus(InstanceInfo.InstanceStatus.UP)
+                .setPort(port)
+                .enablePort(InstanceInfo.PortType.SECURE, false)
+                .setHealthCheckUrlsForDeser("http://" + ip + ":" + port + "/actuator/health", null)
+                .setLeaseInfo(LeaseInfo.Builder.newBuilder().setDurationInSecs(30).build())
+                .setLastDirtyTimestamp(1234L)
+                .setDataCenterInfo(new MyDataCenterInfo(DataCenterInfo.Name.MyOwn))
+                .setMetadata(Map.of("zone", "zone-1", "ünïcode", "välue"))
+                .build();
+    }
+}
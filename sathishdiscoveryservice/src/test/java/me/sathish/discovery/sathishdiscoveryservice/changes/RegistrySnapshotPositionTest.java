@@ -0,0 +1,111 @@
+package me.sathish.discovery.sathishdiscoveryservice.changes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.DataCenterInfo;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.MyDataCenterInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import me.sathish.discovery.sathishdiscoveryservice.config.ApplicationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+
+/**
+ * Drives the snapshot through the window in which Spring Cloud's InstanceRegistry has announced a
+ * change but not made it yet.
+ */
+class RegistrySnapshotPositionTest {
+
+    private final PeerAwareInstanceRegistry registry = mock(PeerAwareInstanceRegistry.class);
+    private final AtomicLong clock = new AtomicLong();
+    private RegistryChangeStream registryChangeStream;
+    private RegistrySnapshot registrySnapshot;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        ObjectMapper objectMapper = new ObjectMapper();
+        registryChangeStream = new RegistryChangeStream(properties, objectMapper);
+        registrySnapshot =
+                new RegistrySnapshot(
+                        registry, registryChangeStream, objectMapper, properties, clock::get);
+        givenRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        registryChangeStream.close();
+    }
+
+    @Test
+    void shouldLeaveAnnouncedRegistrationOutOfPositionUntilRegistryShowsIt() {
+        InstanceInfo instance = instance(9201);
+        registryChangeStream.onRegistered(registered(instance));
+
+        assertThat(registrySnapshot.current().position().version()).isZero();
+
+        givenRegistry(instance);
+        assertThat(registrySnapshot.current().position().version()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLeaveAnnouncedCancellationOutOfPositionUntilRegistryShowsIt() {
+        InstanceInfo instance = instance(9202);
+        registryChangeStream.onRegistered(registered(instance));
+        givenRegistry(instance);
+        assertThat(registrySnapshot.current().position().version()).isEqualTo(1);
+
+        registryChangeStream.onCanceled(
+                new EurekaInstanceCanceledEvent(
+                        this, "SATHISHUSERSERVICE", instance.getId(), false));
+
+        assertThat(registrySnapshot.current().position().version()).isEqualTo(1);
+        givenRegistry();
+        assertThat(registrySnapshot.current().position().version()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldTakeChangeAsMadeOnceSettleTimeHasPassed() {
+        registryChangeStream.onRegistered(registered(instance(9203)));
+        assertThat(registrySnapshot.current().position().version()).isZero();
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        assertThat(registrySnapshot.current().position().version()).isEqualTo(1);
+    }
+
+    private void givenRegistry(InstanceInfo... instances) {
+        Applications applications = new Applications();
+        if (instances.length > 0) {
+            applications.addApplication(new Application("SATHISHUSERSERVICE", List.of(instances)));
+        }
+        given(registry.getApplications()).willReturn(applications);
+    }
+
+    private EurekaInstanceRegisteredEvent registered(InstanceInfo instance) {
+        return new EurekaInstanceRegisteredEvent(this, instance, 30, false);
+    }
+
+    private static InstanceInfo instance(int port) {
+        return InstanceInfo.Builder.newBuilder()
+                .setInstanceId("localhost:sathishuserservice:" + port)
+                .setAppName("SATHISHUSERSERVICE")
+                .setHostName("localhost")
+                .setIPAddr("127.0.0.1")
+                .setPort(port)
+                .setStatus(InstanceInfo.InstanceStatus.UP)
+                .setDataCenterInfo(new MyDataCenterInfo(DataCenterInfo.Name.MyOwn))
+                .build();
+    }
+}
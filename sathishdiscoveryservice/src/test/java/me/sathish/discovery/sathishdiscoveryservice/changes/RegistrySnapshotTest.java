@@ -0,0 +1,136 @@
+package me.sathish.discovery.sathishdiscoveryservice.changes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+            "eureka.client.register-with-eureka=false",
+            "eureka.client.fetch-registry=false",
+            "application.registry-file.enabled=false",
+            "application.snapshot.max-age=100ms"
+        })
+class RegistrySnapshotTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort private int port;
+
+    @Test
+    void shouldServeGzippedSnapshotWithItsPosition() throws Exception {
+        register(9101);
+
+        HttpResponse<byte[]> response = snapshot("gzip", null);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        String json =
+                new String(
+                        new GZIPInputStream(new ByteArrayInputStream(response.body()))
+                                .readAllBytes(),
+                        StandardCharsets.UTF_8);
+        String position = response.headers().firstValue("Registry-Position").orElseThrow();
+        assertThat(json)
+                .contains("\"server\":\"" + position.substring(0, position.lastIndexOf(':')))
+                .contains("\"version\":" + position.substring(position.lastIndexOf(':') + 1))
+                .contains("\"instanceId\":\"localhost:sathishuserservice:9101\"")
+                .contains("\"port\":9101");
+        assertThat(new String(snapshot(null, null).body(), StandardCharsets.UTF_8))
+                .isEqualTo(json);
+    }
+
+    @Test
+    void shouldAnswerUnchangedSnapshotWithNotModified() throws Exception {
+        register(9102);
+        String etag = snapshot("gzip", null).headers().firstValue("ETag").orElseThrow();
+
+        assertThat(snapshot("gzip", etag).statusCode()).isEqualTo(304);
+
+        register(9103);
+        HttpResponse<byte[]> changed = snapshot("gzip", etag);
+        assertThat(changed.statusCode()).isEqualTo(200);
+        assertThat(changed.headers().firstValue("ETag")).isPresent().get().isNotEqualTo(etag);
+    }
+
+    @Test
+    void shouldChangeETagWhenRebuildPicksUpStatusOverride() throws Exception {
+        register(9104);
+        HttpResponse<byte[]> before = snapshot(null, null);
+        String etag = before.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<Void> override =
+                httpClient.send(
+                        HttpRequest.newBuilder(
+                                        url(
+                                                "/eureka/apps/SATHISHUSERSERVICE/"
+                                                        + "localhost:sathishuserservice:9104"
+                                                        + "/status?value=OUT_OF_SERVICE"))
+                                .PUT(HttpRequest.BodyPublishers.noBody())
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding());
+        assertThat(override.statusCode()).isEqualTo(200);
+        // the override is not a change the stream reports; the snapshot expires meanwhile
+        Thread.sleep(200);
+
+        HttpResponse<byte[]> after = snapshot(null, etag);
+        assertThat(after.statusCode()).isEqualTo(200);
+        assertThat(after.headers().firstValue("ETag")).isPresent().get().isNotEqualTo(etag);
+        assertThat(after.headers().firstValue("Registry-Position"))
+                .isEqualTo(before.headers().firstValue("Registry-Position"));
+        assertThat(new String(after.body(), StandardCharsets.UTF_8)).contains("OUT_OF_SERVICE");
+    }
+
+    private HttpResponse<byte[]> snapshot(String acceptEncoding, String ifNoneMatch)
+            throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(url("/registry/snapshot"));
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private void register(int instancePort) throws Exception {
+        String instance =
+                """
+                {"instance": {
+                  "instanceId": "localhost:sathishuserservice:%d",
+                  "hostName": "localhost",
+                  "app": "SATHISHUSERSERVICE",
+                  "vipAddress": "sathishuserservice",
+                  "ipAddr": "127.0.0.1",
+                  "status": "UP",
+                  "port": {"$": %d, "@enabled": "true"},
+                  "securePort": {"$": 443, "@enabled": "false"},
+                  "dataCenterInfo": {
+                    "@class": "com.netflix.appinfo.InstanceInfo$DefaultDataCenterInfo",
+                    "name": "MyOwn"}}}
+                """
+                        .formatted(instancePort, instancePort);
+        HttpResponse<Void> response =
+                httpClient.send(
+                        HttpRequest.newBuilder(url("/eureka/apps/SATHISHUSERSERVICE"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(instance))
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding());
+        assertThat(response.statusCode()).isEqualTo(204);
+    }
+
+    private URI url(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}